@@ -15,6 +15,7 @@
 package org.apache.geode.connectors.jdbc;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.LongAdder;
 
@@ -22,6 +23,7 @@ import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CopyHelper;
 import org.apache.geode.annotations.Experimental;
+import org.apache.geode.cache.Operation;
 import org.apache.geode.cache.asyncqueue.AsyncEvent;
 import org.apache.geode.cache.asyncqueue.AsyncEventListener;
 import org.apache.geode.connectors.jdbc.internal.AbstractJdbcCallback;
@@ -71,26 +73,73 @@ public class JdbcAsyncWriter extends AbstractJdbcCallback implements AsyncEventL
     Boolean initialPdxReadSerialized = cache.getPdxReadSerializedOverride();
     cache.setPdxReadSerializedOverride(true);
     try {
+      List<AsyncEvent> run = new ArrayList<>();
       for (AsyncEvent event : events) {
         if (eventCanBeIgnored(event.getOperation())) {
           changeIgnoredEvents(1);
           continue;
         }
-        try {
-          getSqlHandler().write(event.getRegion(), event.getOperation(), event.getKey(),
-              getPdxInstance(event));
-          changeSuccessfulEvents(1);
-        } catch (SQLException | RuntimeException ex) {
-          changeFailedEvents(1);
-          logger.error("Exception processing event {}", event, ex);
+        if (!run.isEmpty() && !canBeWrittenTogether(run.get(0), event)) {
+          write(run);
+          run.clear();
         }
+        run.add(event);
       }
+      write(run);
     } finally {
       cache.setPdxReadSerializedOverride(initialPdxReadSerialized);
     }
     return true;
   }
 
+  /**
+   * Writes consecutive events of a region that all create, all update or all destroy as one JDBC
+   * batch. If the batch fails, the events are written one at a time so that only the events that
+   * cannot be written are counted as failed.
+   */
+  private void write(List<AsyncEvent> run) {
+    if (run.size() > 1) {
+      AsyncEvent first = run.get(0);
+      try {
+        List<Object> keys = new ArrayList<>(run.size());
+        List<PdxInstance> values = new ArrayList<>(run.size());
+        for (AsyncEvent event : run) {
+          keys.add(event.getKey());
+          values.add(getPdxInstance(event));
+        }
+        getSqlHandler().writeBatch(first.getRegion(), first.getOperation(), keys, values);
+        changeSuccessfulEvents(run.size());
+        return;
+      } catch (SQLException | RuntimeException ex) {
+        logger.warn("Exception writing a batch of {} events, writing them one at a time",
+            run.size(), ex);
+      }
+    }
+    for (AsyncEvent event : run) {
+      write(event);
+    }
+  }
+
+  private void write(AsyncEvent event) {
+    try {
+      getSqlHandler().write(event.getRegion(), event.getOperation(), event.getKey(),
+          getPdxInstance(event));
+      changeSuccessfulEvents(1);
+    } catch (SQLException | RuntimeException ex) {
+      changeFailedEvents(1);
+      logger.error("Exception processing event {}", event, ex);
+    }
+  }
+
+  private static boolean canBeWrittenTogether(AsyncEvent first, AsyncEvent event) {
+    Operation firstOperation = first.getOperation();
+    Operation operation = event.getOperation();
+    return first.getRegion() == event.getRegion()
+        && firstOperation.isCreate() == operation.isCreate()
+        && firstOperation.isUpdate() == operation.isUpdate()
+        && firstOperation.isDestroy() == operation.isDestroy();
+  }
+
   long getTotalEvents() {
     return totalEvents.longValue();
   }
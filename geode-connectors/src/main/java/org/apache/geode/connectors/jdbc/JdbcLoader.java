@@ -15,22 +15,33 @@
 package org.apache.geode.connectors.jdbc;
 
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.geode.annotations.Experimental;
 import org.apache.geode.cache.CacheLoader;
 import org.apache.geode.cache.CacheLoaderException;
 import org.apache.geode.cache.LoaderHelper;
+import org.apache.geode.cache.Region;
 import org.apache.geode.connectors.jdbc.internal.AbstractJdbcCallback;
 import org.apache.geode.connectors.jdbc.internal.SqlHandler;
+import org.apache.geode.internal.cache.BulkCacheLoader;
 import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.pdx.PdxInstance;
 
 /**
- * This class provides loading from a data source using JDBC.
+ * This class provides loading from a data source using JDBC. The missing keys of a getAll are
+ * read with a few multi-key queries before they are loaded.
  *
  * @since Geode 1.4
  */
 @Experimental
-public class JdbcLoader<K, V> extends AbstractJdbcCallback implements CacheLoader<K, V> {
+public class JdbcLoader<K, V> extends AbstractJdbcCallback
+    implements CacheLoader<K, V>, BulkCacheLoader {
+
+  /** the values read ahead for the getAll the current thread is processing */
+  private final ThreadLocal<Map<Object, PdxInstance>> prefetchedValues = new ThreadLocal<>();
 
   @SuppressWarnings("unused")
   public JdbcLoader() {
@@ -49,6 +60,13 @@ public class JdbcLoader<K, V> extends AbstractJdbcCallback implements CacheLoade
   @Override
   public V load(LoaderHelper<K, V> helper) throws CacheLoaderException {
     checkInitialized(helper.getRegion());
+    Map<Object, PdxInstance> prefetched = prefetchedValues.get();
+    if (prefetched != null) {
+      PdxInstance value = prefetched.remove(helper.getKey());
+      if (value != null) {
+        return (V) value;
+      }
+    }
     try {
       // The following cast to V is to keep the compiler happy
       // but is erased at runtime and no actual cast happens.
@@ -57,4 +75,21 @@ public class JdbcLoader<K, V> extends AbstractJdbcCallback implements CacheLoade
       throw JdbcConnectorException.createException(e);
     }
   }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void prefetch(Region region, Collection<?> keys) {
+    checkInitialized(region);
+    try {
+      prefetchedValues
+          .set(new HashMap<>(getSqlHandler().readAll(region, (Collection<Object>) keys)));
+    } catch (SQLException e) {
+      throw JdbcConnectorException.createException(e);
+    }
+  }
+
+  @Override
+  public void endPrefetch(Region region) {
+    prefetchedValues.remove();
+  }
 }
@@ -14,11 +14,15 @@
  */
 package org.apache.geode.connectors.jdbc.internal;
 
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -39,6 +43,9 @@ import org.apache.geode.pdx.PdxInstance;
 
 @Experimental
 public class SqlHandler {
+  /** the most keys read by one query of {@link #readAll} */
+  static final int MAX_KEYS_PER_READ = 100;
+
   private final InternalCache cache;
   private final RegionMapping regionMapping;
   private final DataSource dataSource;
@@ -130,6 +137,86 @@ public class SqlHandler {
     return result;
   }
 
+  /**
+   * Reads many keys with queries of the form <code>SELECT * FROM table WHERE id IN (...)</code>.
+   * Only tables with a single key column are read this way, and only keys that are strings,
+   * characters or numbers, since the rows are matched to the keys by the value of that column.
+   *
+   * @return the value of each key whose row was read. Keys without a row, and keys whose row could
+   *         not be matched to them, for example because the column type or collation gives back a
+   *         different value, are not in the map and have to be read one at a time.
+   */
+  public <K, V> Map<K, PdxInstance> readAll(Region<K, V> region, Collection<K> keys)
+      throws SQLException {
+    Map<K, PdxInstance> result = new HashMap<>();
+    List<String> keyColumnNames = tableMetaData.getKeyColumnNames();
+    if (keyColumnNames.size() != 1) {
+      return result;
+    }
+    String keyColumnName = keyColumnNames.get(0);
+    List<K> readableKeys = new ArrayList<>(keys.size());
+    for (K key : keys) {
+      if (getMatchableKey(key) != null) {
+        readableKeys.add(key);
+      }
+    }
+    if (readableKeys.isEmpty()) {
+      return result;
+    }
+
+    SqlStatementFactory statementFactory =
+        new SqlStatementFactory(tableMetaData.getIdentifierQuoteString());
+    try (Connection connection = getConnection()) {
+      for (int start = 0; start < readableKeys.size(); start += MAX_KEYS_PER_READ) {
+        List<K> chunk =
+            readableKeys.subList(start, Math.min(start + MAX_KEYS_PER_READ, readableKeys.size()));
+        Map<Object, K> keysByMatchableKey = new HashMap<>();
+        for (K key : chunk) {
+          keysByMatchableKey.put(getMatchableKey(key), key);
+        }
+        String sql = statementFactory.createSelectInQueryString(
+            tableMetaData.getQuotedTablePath(), keyColumnName, chunk.size());
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+          int index = 0;
+          for (K key : chunk) {
+            index++;
+            setValueOnStatement(statement, index, new ColumnData(keyColumnName, key,
+                tableMetaData.getColumnDataType(keyColumnName)));
+          }
+          try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+              K key = keysByMatchableKey.get(getMatchableKey(resultSet.getObject(keyColumnName)));
+              if (key != null) {
+                result.put(key, getSqlToPdxInstance().createFromCurrentRow(resultSet));
+              }
+            }
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns a form of a key that equals the form of the key column value read back for it, or null
+   * if the key cannot be matched that way.
+   */
+  private static Object getMatchableKey(Object key) {
+    if (key instanceof String) {
+      return key;
+    } else if (key instanceof Character) {
+      return key.toString();
+    } else if (key instanceof Number) {
+      try {
+        return new BigDecimal(key.toString()).stripTrailingZeros();
+      } catch (NumberFormatException e) {
+        // NaN and infinity
+        return null;
+      }
+    }
+    return null;
+  }
+
   private SqlToPdxInstance getSqlToPdxInstance() {
     SqlToPdxInstance result = this.sqlToPdxInstance;
     if (result == null) {
@@ -211,33 +298,107 @@ public class SqlHandler {
     }
 
     try (Connection connection = getConnection()) {
-      EntryColumnData entryColumnData =
-          getEntryColumnData(tableMetaData, key, value, operation);
-      int updateCount = 0;
-      try (PreparedStatement statement =
-          getPreparedStatement(connection, tableMetaData, entryColumnData, operation)) {
-        updateCount = executeWriteStatement(statement, entryColumnData, operation);
-      } catch (SQLException e) {
-        if (operation.isDestroy()) {
-          throw e;
-        }
-      }
+      write(connection, operation, key, value);
+    }
+  }
 
-      // Destroy action not guaranteed to modify any database rows
+  private <K> void write(Connection connection, Operation operation, K key, PdxInstance value)
+      throws SQLException {
+    EntryColumnData entryColumnData =
+        getEntryColumnData(tableMetaData, key, value, operation);
+    int updateCount = 0;
+    try (PreparedStatement statement =
+        getPreparedStatement(connection, tableMetaData, entryColumnData, operation)) {
+      updateCount = executeWriteStatement(statement, entryColumnData, operation);
+    } catch (SQLException e) {
       if (operation.isDestroy()) {
-        return;
+        throw e;
       }
+    }
+
+    // Destroy action not guaranteed to modify any database rows
+    if (operation.isDestroy()) {
+      return;
+    }
+
+    if (updateCount <= 0) {
+      Operation upsertOp = getOppositeOperation(operation);
+      try (PreparedStatement upsertStatement =
+          getPreparedStatement(connection, tableMetaData, entryColumnData, upsertOp)) {
+        updateCount = executeWriteStatement(upsertStatement, entryColumnData, operation);
+      }
+    }
+
+    assert updateCount == 1 : "expected 1 but updateCount was: " + updateCount;
+  }
+
+  /**
+   * Writes the entries of consecutive events that all create, all update or all destroy, in order,
+   * using JDBC batches on one connection. Consecutive entries whose statements are the same go into
+   * one batch, and each statement is prepared once for the call. An insert or update that a batch
+   * does not apply is retried on its own, with the upsert fallback of
+   * {@link #write(Region, Operation, Object, PdxInstance)}, before the next batch is executed.
+   */
+  public <K, V> void writeBatch(Region<K, V> region, Operation operation, List<K> keys,
+      List<PdxInstance> values) throws SQLException {
+    if (!operation.isDestroy() && values.contains(null)) {
+      throw new IllegalArgumentException("PdxInstance cannot be null for non-destroy operations");
+    }
 
-      if (updateCount <= 0) {
-        Operation upsertOp = getOppositeOperation(operation);
-        try (PreparedStatement upsertStatement =
-            getPreparedStatement(connection, tableMetaData, entryColumnData, upsertOp)) {
-          updateCount = executeWriteStatement(upsertStatement, entryColumnData, operation);
+    Map<String, PreparedStatement> statements = new HashMap<>();
+    try (Connection connection = getConnection()) {
+      String batchSql = null;
+      List<Integer> batch = new ArrayList<>();
+      for (int i = 0; i < keys.size(); i++) {
+        EntryColumnData entryColumnData =
+            getEntryColumnData(tableMetaData, keys.get(i), values.get(i), operation);
+        String sql = getSqlString(tableMetaData, entryColumnData, operation);
+        if (!sql.equals(batchSql)) {
+          executeBatch(connection, statements.get(batchSql), batch, operation, keys, values);
+          batchSql = sql;
+        }
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+          statement = connection.prepareStatement(sql);
+          statements.put(sql, statement);
         }
+        setValuesInStatement(statement, entryColumnData, operation);
+        statement.addBatch();
+        batch.add(i);
       }
+      executeBatch(connection, statements.get(batchSql), batch, operation, keys, values);
+    } finally {
+      for (PreparedStatement statement : statements.values()) {
+        statement.close();
+      }
+    }
+  }
 
-      assert updateCount == 1 : "expected 1 but updateCount was: " + updateCount;
+  private <K> void executeBatch(Connection connection, PreparedStatement statement,
+      List<Integer> batch, Operation operation, List<K> keys, List<PdxInstance> values)
+      throws SQLException {
+    if (batch.isEmpty()) {
+      return;
+    }
+    int[] updateCounts;
+    try {
+      updateCounts = statement.executeBatch();
+    } catch (BatchUpdateException e) {
+      if (operation.isDestroy()) {
+        throw e;
+      }
+      // drivers differ in which rows they apply after a failure, so write each row again
+      updateCounts = new int[batch.size()];
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      boolean applied = i < updateCounts.length
+          && (updateCounts[i] > 0 || updateCounts[i] == Statement.SUCCESS_NO_INFO);
+      if (!applied && !operation.isDestroy()) {
+        int index = batch.get(i);
+        write(connection, operation, keys.get(index), values.get(index));
+      }
     }
+    batch.clear();
   }
 
   private Operation getOppositeOperation(Operation operation) {
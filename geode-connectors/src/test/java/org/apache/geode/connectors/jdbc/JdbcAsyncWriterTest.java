@@ -17,12 +17,15 @@ package org.apache.geode.connectors.jdbc;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -98,11 +101,44 @@ public class JdbcAsyncWriterTest {
 
     writer.processEvents(events);
 
-    verify(sqlHandler, times(3)).write(any(), any(), any(), any());
+    verify(sqlHandler, times(1)).writeBatch(any(), any(), any(), any());
+    verify(sqlHandler, times(0)).write(any(), any(), any(), any());
     assertThat(writer.getSuccessfulEvents()).isEqualTo(3);
     assertThat(writer.getTotalEvents()).isEqualTo(3);
   }
 
+  @Test
+  public void writesEachRunOfOperationAsBatch() throws Exception {
+    List<AsyncEvent> events = new ArrayList<>();
+    events.add(createMockEvent(Operation.CREATE));
+    events.add(createMockEvent(Operation.PUTALL_CREATE));
+    events.add(createMockEvent(Operation.UPDATE));
+    events.add(createMockEvent(Operation.DESTROY));
+    events.add(createMockEvent(Operation.DESTROY));
+
+    writer.processEvents(events);
+
+    verify(sqlHandler, times(1)).writeBatch(any(), eq(Operation.CREATE), any(), any());
+    verify(sqlHandler, times(1)).write(any(), eq(Operation.UPDATE), any(), any());
+    verify(sqlHandler, times(1)).writeBatch(any(), eq(Operation.DESTROY), any(), any());
+    assertThat(writer.getSuccessfulEvents()).isEqualTo(5);
+  }
+
+  @Test
+  public void writesEventsOneAtATimeIfBatchFails() throws Exception {
+    List<AsyncEvent> events = new ArrayList<>();
+    events.add(createMockEvent());
+    events.add(createMockEvent());
+    doThrow(new SQLException("batch failed")).when(sqlHandler).writeBatch(any(), any(), any(),
+        any());
+
+    writer.processEvents(events);
+
+    verify(sqlHandler, times(2)).write(any(), any(), any(), any());
+    assertThat(writer.getSuccessfulEvents()).isEqualTo(2);
+    assertThat(writer.getFailedEvents()).isZero();
+  }
+
   private AsyncEvent createMockEvent(Operation op) {
     AsyncEvent event = mock(AsyncEvent.class);
     when(event.getOperation()).thenReturn(op);
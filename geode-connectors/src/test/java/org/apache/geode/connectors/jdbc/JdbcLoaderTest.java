@@ -14,12 +14,16 @@
  */
 package org.apache.geode.connectors.jdbc;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -27,12 +31,14 @@ import org.apache.geode.cache.LoaderHelper;
 import org.apache.geode.connectors.jdbc.internal.SqlHandler;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.InternalRegion;
+import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.test.fake.Fakes;
 
 public class JdbcLoaderTest {
 
   private SqlHandler sqlHandler;
   private LoaderHelper loaderHelper;
+  private InternalRegion region;
 
   private JdbcLoader<Object, Object> loader;
 
@@ -44,7 +50,8 @@ public class JdbcLoaderTest {
     sqlHandler = mock(SqlHandler.class);
     loaderHelper = mock(LoaderHelper.class);
 
-    when(loaderHelper.getRegion()).thenReturn(mock(InternalRegion.class));
+    region = mock(InternalRegion.class);
+    when(loaderHelper.getRegion()).thenReturn(region);
 
     loader = new JdbcLoader<>(sqlHandler, cache);
   }
@@ -55,4 +62,40 @@ public class JdbcLoaderTest {
 
     verify(sqlHandler, times(1)).read(any(), any());
   }
+
+  @Test
+  public void loadReturnsPrefetchedValueWithoutReading() throws Exception {
+    PdxInstance value = mock(PdxInstance.class);
+    when(sqlHandler.readAll(any(), any())).thenReturn(Collections.singletonMap("key", value));
+    when(loaderHelper.getKey()).thenReturn("key");
+
+    loader.prefetch(region, Arrays.asList("key", "other"));
+
+    assertThat(loader.load(loaderHelper)).isSameAs(value);
+    verify(sqlHandler, times(0)).read(any(), any());
+  }
+
+  @Test
+  public void loadReadsKeysThatWereNotPrefetched() throws Exception {
+    when(sqlHandler.readAll(any(), any())).thenReturn(Collections.emptyMap());
+    when(loaderHelper.getKey()).thenReturn("key");
+
+    loader.prefetch(region, Arrays.asList("key", "other"));
+    loader.load(loaderHelper);
+
+    verify(sqlHandler, times(1)).read(any(), any());
+  }
+
+  @Test
+  public void loadReadsAfterPrefetchEnds() throws Exception {
+    PdxInstance value = mock(PdxInstance.class);
+    when(sqlHandler.readAll(any(), any())).thenReturn(Collections.singletonMap("key", value));
+    when(loaderHelper.getKey()).thenReturn("key");
+
+    loader.prefetch(region, Arrays.asList("key", "other"));
+    loader.endPrefetch(region);
+    loader.load(loaderHelper);
+
+    verify(sqlHandler, times(1)).read(any(), any());
+  }
 }
@@ -20,20 +20,28 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.JDBCType;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.sql.DataSource;
 
@@ -56,6 +64,7 @@ import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.pdx.FieldType;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.PdxInstanceFactory;
+import org.apache.geode.pdx.WritablePdxInstance;
 import org.apache.geode.pdx.internal.PdxInstanceImpl;
 import org.apache.geode.pdx.internal.PdxType;
 
@@ -198,6 +207,69 @@ public class SqlHandlerTest {
     verify(statement).close();
   }
 
+  @Test
+  public void readAllReadsKeysWithOneQuery() throws Exception {
+    setupEmptyResultSet();
+    when(tableMetaDataView.getIdentifierQuoteString()).thenReturn("");
+
+    Map<Object, PdxInstance> result = handler.readAll(region, Arrays.asList("key1", 2));
+
+    verify(connection).prepareStatement("SELECT * FROM testTable WHERE keyColumn IN (?,?)");
+    verify(statement).setObject(1, "key1");
+    verify(statement).setObject(2, 2);
+    verify(statement).close();
+    assertThat(result).isEmpty();
+  }
+
+  @Test
+  public void readAllOnlyReturnsKeysWhoseRowsMatched() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, true, false);
+    when(resultSet.getObject(KEY_COLUMN)).thenReturn(new BigDecimal("2.0"), "unrequested");
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(metaData.getColumnCount()).thenReturn(1);
+    when(metaData.getColumnName(1)).thenReturn(fieldName);
+    when(resultSet.getMetaData()).thenReturn(metaData);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    WritablePdxInstance row = mock(WritablePdxInstance.class);
+    PdxInstance template = cache.createPdxInstanceFactory("").create();
+    when(template.createWriter()).thenReturn(row);
+
+    Map<Object, PdxInstance> result = handler.readAll(region, Arrays.asList("key1", 2));
+
+    assertThat(result).containsOnlyKeys(2).containsValues(row);
+  }
+
+  @Test
+  public void readAllSplitsKeysIntoQueries() throws Exception {
+    setupEmptyResultSet();
+    List<Object> keys = IntStream.range(0, SqlHandler.MAX_KEYS_PER_READ + 1).boxed()
+        .collect(Collectors.toList());
+
+    Map<Object, PdxInstance> result = handler.readAll(region, keys);
+
+    verify(connection, times(2)).prepareStatement(any());
+    assertThat(result).isEmpty();
+  }
+
+  @Test
+  public void readAllSkipsKeysThatCannotBeMatched() throws Exception {
+    Map<Object, PdxInstance> result = handler.readAll(region, Arrays.asList(new Object()));
+
+    verify(connection, times(0)).prepareStatement(any());
+    assertThat(result).isEmpty();
+  }
+
+  @Test
+  public void readAllSkipsCompositeKeys() throws Exception {
+    when(tableMetaDataView.getKeyColumnNames()).thenReturn(Arrays.asList("key1", "key2"));
+
+    Map<Object, PdxInstance> result = handler.readAll(region, Arrays.asList("key1", "key2"));
+
+    verify(connection, times(0)).prepareStatement(any());
+    assertThat(result).isEmpty();
+  }
+
   @Test
   public void throwsExceptionIfQueryFails() throws Exception {
     when(statement.executeQuery()).thenThrow(SQLException.class);
@@ -553,6 +625,57 @@ public class SqlHandlerTest {
     verify(statement).close();
   }
 
+  @Test
+  public void writeBatchThrowsExceptionIfValueIsNullAndNotDoingDestroy() throws Exception {
+    thrown.expect(IllegalArgumentException.class);
+    handler.writeBatch(region, Operation.UPDATE, Arrays.asList("key1", "key2"),
+        Arrays.asList(value, null));
+  }
+
+  @Test
+  public void writeBatchPreparesStatementOnceAndExecutesBatch() throws Exception {
+    when(statement.executeBatch()).thenReturn(new int[] {1, 1});
+    when(value.getFieldNames()).thenReturn(Collections.emptyList());
+
+    handler.writeBatch(region, Operation.CREATE, Arrays.asList("key1", "key2"),
+        Arrays.asList(value, value));
+
+    verify(connection, times(1)).prepareStatement(any());
+    verify(statement).setObject(1, "key1");
+    verify(statement).setObject(1, "key2");
+    verify(statement, times(2)).addBatch();
+    verify(statement).executeBatch();
+    verify(statement, never()).executeUpdate();
+    verify(statement).close();
+  }
+
+  @Test
+  public void writeBatchWritesRowNotAppliedOnItsOwn() throws Exception {
+    when(statement.executeBatch()).thenReturn(new int[] {1, 0});
+    PreparedStatement updateStatement = mock(PreparedStatement.class);
+    when(updateStatement.executeUpdate()).thenReturn(1);
+    when(connection.prepareStatement(any())).thenReturn(statement).thenReturn(updateStatement);
+    when(value.getFieldNames()).thenReturn(Collections.emptyList());
+
+    handler.writeBatch(region, Operation.UPDATE, Arrays.asList("key1", "key2"),
+        Arrays.asList(value, value));
+
+    verify(statement).executeBatch();
+    verify(updateStatement).setObject(1, "key2");
+    verify(updateStatement).executeUpdate();
+    verify(updateStatement).close();
+  }
+
+  @Test
+  public void writeBatchOfDestroysThrowsWhenBatchFails() throws Exception {
+    when(statement.executeBatch()).thenThrow(new BatchUpdateException());
+
+    assertThatThrownBy(() -> handler.writeBatch(region, Operation.DESTROY,
+        Arrays.asList("key1", "key2"), Arrays.asList(null, null)))
+            .isInstanceOf(BatchUpdateException.class);
+    verify(statement).close();
+  }
+
   @Test
   public void whenInsertFailsUpdateSucceeds() throws Exception {
     when(statement.executeUpdate()).thenReturn(0);
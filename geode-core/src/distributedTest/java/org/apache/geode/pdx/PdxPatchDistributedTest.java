@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx;
+
+import static org.apache.geode.cache.RegionShortcut.PARTITION_PROXY_REDUNDANT;
+import static org.apache.geode.cache.RegionShortcut.PARTITION_REDUNDANT;
+import static org.apache.geode.cache.RegionShortcut.REPLICATE;
+import static org.apache.geode.cache.RegionShortcut.REPLICATE_PROXY;
+import static org.apache.geode.test.dunit.VM.getVM;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.Scope;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.test.dunit.AsyncInvocation;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.rules.CacheRule;
+import org.apache.geode.test.dunit.rules.DistributedRule;
+
+@SuppressWarnings("serial")
+public class PdxPatchDistributedTest implements Serializable {
+
+  private static final String REGION_NAME = "region";
+  private static final String KEY = "order";
+  private static final String ORDER = "{\"status\": \"NEW\", \"version\": 1}";
+  private static final int INCREMENTS = 200;
+
+  private VM patchingVM;
+  private VM vm1;
+  private VM vm2;
+
+  @Rule
+  public DistributedRule distributedRule = new DistributedRule();
+
+  @Rule
+  public CacheRule cacheRule = new CacheRule();
+
+  @Before
+  public void setUp() {
+    patchingVM = getVM(0);
+    vm1 = getVM(1);
+    vm2 = getVM(2);
+  }
+
+  @Test
+  public void patchFromAccessorIsAppliedToPrimaryAndRedundantCopy() {
+    patchingVM.invoke(() -> createRegion(PARTITION_PROXY_REDUNDANT));
+    vm1.invoke(() -> createRegion(PARTITION_REDUNDANT));
+    vm2.invoke(() -> createRegion(PARTITION_REDUNDANT));
+
+    vm1.invoke(() -> getRegion().put(KEY, JSONFormatter.fromJSON(ORDER)));
+
+    patchingVM.invoke(() -> assertThat(applyPatch()).isTrue());
+
+    vm1.invoke(() -> assertPatched(PartitionRegionHelper.getLocalData(getRegion()).get(KEY)));
+    vm2.invoke(() -> assertPatched(PartitionRegionHelper.getLocalData(getRegion()).get(KEY)));
+  }
+
+  @Test
+  public void patchFromEmptyMemberIsSentInFullToMemberThatCannotApplyIt() {
+    patchingVM.invoke(() -> createRegion(REPLICATE_PROXY));
+    vm1.invoke(() -> createRegion(REPLICATE));
+    vm2.invoke(() -> cacheRule.getOrCreateCache().createRegionFactory()
+        .setScope(Scope.DISTRIBUTED_ACK).setDataPolicy(DataPolicy.NORMAL).create(REGION_NAME));
+
+    vm1.invoke(() -> getRegion().put(KEY, JSONFormatter.fromJSON(ORDER)));
+    vm2.invoke(() -> {
+      Region<String, PdxInstance> region = getRegion();
+      region.get(KEY);
+      // Leave vm2 without an old value to apply the patch to
+      region.localInvalidate(KEY);
+    });
+
+    patchingVM.invoke(() -> assertThat(applyPatch()).isTrue());
+
+    vm1.invoke(() -> assertPatched(getRegion().get(KEY)));
+    vm2.invoke(() -> assertPatched(getRegion().get(KEY)));
+  }
+
+  @Test
+  public void concurrentIncrementsFromEveryMemberOfPartitionedRegionAreNotLost() throws Exception {
+    patchingVM.invoke(() -> createRegion(PARTITION_PROXY_REDUNDANT));
+    vm1.invoke(() -> createRegion(PARTITION_REDUNDANT));
+    vm2.invoke(() -> createRegion(PARTITION_REDUNDANT));
+    vm1.invoke(() -> getRegion().put(KEY, JSONFormatter.fromJSON(ORDER)));
+
+    AsyncInvocation<Void> fromAccessor = patchingVM.invokeAsync(() -> increment(INCREMENTS));
+    AsyncInvocation<Void> fromVM1 = vm1.invokeAsync(() -> increment(INCREMENTS));
+    AsyncInvocation<Void> fromVM2 = vm2.invokeAsync(() -> increment(INCREMENTS));
+    fromAccessor.await();
+    fromVM1.await();
+    fromVM2.await();
+
+    int expected = 1 + 3 * INCREMENTS;
+    vm1.invoke(() -> assertVersion(PartitionRegionHelper.getLocalData(getRegion()).get(KEY),
+        expected));
+    vm2.invoke(() -> assertVersion(PartitionRegionHelper.getLocalData(getRegion()).get(KEY),
+        expected));
+  }
+
+  @Test
+  public void concurrentIncrementsOnReplicateOriginatorAreNotLost() {
+    vm1.invoke(() -> createRegion(REPLICATE));
+    vm2.invoke(() -> createRegion(REPLICATE));
+    vm1.invoke(() -> getRegion().put(KEY, JSONFormatter.fromJSON(ORDER)));
+
+    vm1.invoke(() -> {
+      CompletableFuture<Void> first = CompletableFuture.runAsync(() -> increment(INCREMENTS));
+      CompletableFuture<Void> second = CompletableFuture.runAsync(() -> increment(INCREMENTS));
+      first.join();
+      second.join();
+    });
+
+    int expected = 1 + 2 * INCREMENTS;
+    vm1.invoke(() -> assertVersion(getRegion().get(KEY), expected));
+    vm2.invoke(() -> assertVersion(getRegion().get(KEY), expected));
+  }
+
+  @Test
+  public void patchOfMissingEntryIsNotApplied() {
+    patchingVM.invoke(() -> createRegion(PARTITION_PROXY_REDUNDANT));
+    vm1.invoke(() -> createRegion(PARTITION_REDUNDANT));
+
+    patchingVM.invoke(() -> assertThat(applyPatch()).isFalse());
+
+    vm1.invoke(() -> assertThat(getRegion().containsKey(KEY)).isFalse());
+  }
+
+  private void createRegion(RegionShortcut shortcut) {
+    cacheRule.getOrCreateCache().createRegionFactory(shortcut).create(REGION_NAME);
+  }
+
+  private Region<String, PdxInstance> getRegion() {
+    return cacheRule.getCache().getRegion(REGION_NAME);
+  }
+
+  private boolean applyPatch() {
+    return new PdxPatch().set("status", "SHIPPED").increment("version", 1).applyTo(getRegion(),
+        KEY);
+  }
+
+  private void increment(int times) {
+    for (int i = 0; i < times; i++) {
+      assertThat(new PdxPatch().increment("version", 1).applyTo(getRegion(), KEY)).isTrue();
+    }
+  }
+
+  private static void assertVersion(Object value, int expected) {
+    assertThat(value).isInstanceOf(PdxInstance.class);
+    assertThat(((Number) ((PdxInstance) value).getField("version")).intValue())
+        .isEqualTo(expected);
+  }
+
+  private static void assertPatched(Object value) {
+    assertThat(value).isInstanceOf(PdxInstance.class);
+    PdxInstance order = (PdxInstance) value;
+    assertThat(order.getField("status")).isEqualTo("SHIPPED");
+    assertThat(((Number) order.getField("version")).intValue()).isEqualTo(2);
+  }
+}
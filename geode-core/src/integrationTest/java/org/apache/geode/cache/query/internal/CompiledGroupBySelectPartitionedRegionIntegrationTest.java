@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.internal.cache.PRQueryProcessor;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category(OQLQueryTest.class)
+public class CompiledGroupBySelectPartitionedRegionIntegrationTest {
+  private static final String QUERY =
+      "SELECT s.kind, SUM(s.amount), AVG(s.amount), COUNT(s.amount), COUNT(DISTINCT s.code) "
+          + "FROM /sales s GROUP BY s.kind";
+  private static final int ENTRIES = 3000;
+  private static final int KINDS = 3;
+  private static final int CODES = 300;
+
+  private PartitionedRegion region;
+
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule()
+      .withRegion(RegionShortcut.PARTITION, "sales")
+      .withAutoStart();
+
+  @Before
+  public void setUp() {
+    region = (PartitionedRegion) serverStarterRule.getCache().getRegion("sales");
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Sale("kind" + i % KINDS, i, i % CODES));
+    }
+  }
+
+  @After
+  public void tearDown() {
+    CompiledAggregateFunction.APPROXIMATE_COUNT_DISTINCT = false;
+  }
+
+  @Test
+  public void prQueryProcessorShouldCombineBucketResultsIntoOneRowPerGroup() throws Exception {
+    List<Struct> rows = executeOnLocalBuckets();
+
+    assertThat(rows).hasSize(KINDS);
+    for (int kind = 0; kind < KINDS; kind++) {
+      Object[] fields = rows.get(kind).getFieldValues();
+      assertThat(fields[0]).isEqualTo("kind" + kind);
+      assertThat(((Number) fields[1]).longValue()).isEqualTo(expectedSum(kind));
+      Object[] avg = (Object[]) fields[2];
+      assertThat(avg[0]).isEqualTo(ENTRIES / KINDS);
+      assertThat(((Number) avg[1]).longValue()).isEqualTo(expectedSum(kind));
+      assertThat(fields[3]).isEqualTo(ENTRIES / KINDS);
+      assertThat((Set<?>) fields[4]).hasSize(CODES / KINDS);
+    }
+  }
+
+  @Test
+  public void queryShouldAggregateCombinedResultsOfAllBuckets() throws Exception {
+    Map<Object, Object[]> rows = executeQuery();
+
+    assertThat(rows).hasSize(KINDS);
+    for (int kind = 0; kind < KINDS; kind++) {
+      Object[] fields = rows.get("kind" + kind);
+      assertThat(((Number) fields[1]).longValue()).isEqualTo(expectedSum(kind));
+      assertThat(((Number) fields[2]).doubleValue())
+          .isCloseTo((double) expectedSum(kind) / (ENTRIES / KINDS), within(0.001));
+      assertThat(fields[3]).isEqualTo(ENTRIES / KINDS);
+      assertThat(fields[4]).isEqualTo(CODES / KINDS);
+    }
+  }
+
+  @Test
+  public void prQueryProcessorShouldMergeSketchesOfBucketsWhenCountDistinctIsApproximate()
+      throws Exception {
+    CompiledAggregateFunction.APPROXIMATE_COUNT_DISTINCT = true;
+
+    List<Struct> rows = executeOnLocalBuckets();
+
+    assertThat(rows).hasSize(KINDS);
+    for (Struct row : rows) {
+      assertThat(row.getFieldValues()[4]).isInstanceOf(byte[].class);
+    }
+  }
+
+  @Test
+  public void queryShouldEstimateCountDistinctFromMergedSketches() throws Exception {
+    CompiledAggregateFunction.APPROXIMATE_COUNT_DISTINCT = true;
+
+    Map<Object, Object[]> rows = executeQuery();
+
+    assertThat(rows).hasSize(KINDS);
+    for (Object[] fields : rows.values()) {
+      assertThat(fields[3]).isEqualTo(ENTRIES / KINDS);
+      assertThat((Integer) fields[4]).isBetween(CODES / KINDS - 5, CODES / KINDS + 5);
+    }
+  }
+
+  private long expectedSum(int kind) {
+    long sum = 0;
+    for (int i = kind; i < ENTRIES; i += KINDS) {
+      sum += i;
+    }
+    return sum;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Struct> executeOnLocalBuckets() throws Exception {
+    List<Integer> buckets = new ArrayList<>(region.getDataStore().getAllLocalBucketIds());
+    assertThat(buckets).hasSizeGreaterThan(1);
+    DefaultQuery query = new DefaultQuery(QUERY, serverStarterRule.getCache(), false);
+    PRQueryProcessor processor = new PRQueryProcessor(region, query, null, buckets);
+    List<Collection> results = new ArrayList<>();
+
+    processor.executeQuery(results);
+
+    assertThat(results).hasSize(1);
+    return new ArrayList<>((Collection<Struct>) results.get(0));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<Object, Object[]> executeQuery() throws Exception {
+    SelectResults<Struct> results = (SelectResults<Struct>) serverStarterRule.getCache()
+        .getQueryService().newQuery(QUERY).execute();
+    Map<Object, Object[]> rows = new HashMap<>();
+    for (Struct row : results) {
+      rows.put(row.getFieldValues()[0], row.getFieldValues());
+    }
+    return rows;
+  }
+
+  public static class Sale implements Serializable {
+    private final String kind;
+    private final int amount;
+    private final int code;
+
+    public Sale(String kind, int amount, int code) {
+      this.kind = kind;
+      this.amount = amount;
+      this.code = code;
+    }
+
+    public String getKind() {
+      return kind;
+    }
+
+    public int getAmount() {
+      return amount;
+    }
+
+    public int getCode() {
+      return code;
+    }
+  }
+}
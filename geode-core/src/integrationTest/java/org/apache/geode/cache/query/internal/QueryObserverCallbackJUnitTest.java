@@ -280,6 +280,12 @@ public class QueryObserverCallbackJUnitTest {
       // nothing
     }
 
+    @Override
+    public void afterIndexSelection(Index chosen, int chosenSize, Index rejected,
+        int rejectedSize, boolean costBased) {
+      // nothing
+    }
+
     @Override
     public void afterQueryEvaluation(Object result) {
       // nothing
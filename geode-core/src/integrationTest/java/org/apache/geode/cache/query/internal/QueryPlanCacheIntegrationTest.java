@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLQueryTest.class})
+public class QueryPlanCacheIntegrationTest {
+
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private Cache cache;
+  private QueryService queryService;
+
+  @Before
+  public void setUp() {
+    cache = serverStarterRule.getCache();
+    queryService = cache.getQueryService();
+    createRegion("plain");
+    createRegion("indexed");
+  }
+
+  @Test
+  public void indexIsUsedForBoundRegionAfterExecutionAgainstRegionWithoutIndex()
+      throws Exception {
+    Index index = queryService.createIndex("idIndex", "p.ID", "/indexed p");
+    String queryString = "select * from $1 p where p.ID = 2";
+
+    SelectResults plainResults = (SelectResults) queryService.newQuery(queryString)
+        .execute(new Object[] {cache.getRegion("plain")});
+    SelectResults indexedResults = (SelectResults) queryService.newQuery(queryString)
+        .execute(new Object[] {cache.getRegion("indexed")});
+
+    assertThat(plainResults).hasSize(1);
+    assertThat(indexedResults).hasSize(1);
+    assertThat(index.getStatistics().getTotalUses()).isEqualTo(1);
+  }
+
+  @Test
+  public void indexCreatedAfterIndexlessExecutionIsUsed() throws Exception {
+    String queryString = "select * from /indexed p where p.ID = 2";
+    queryService.newQuery(queryString).execute();
+
+    Index index = queryService.createIndex("idIndex", "p.ID", "/indexed p");
+    SelectResults results = (SelectResults) queryService.newQuery(queryString).execute();
+
+    assertThat(results).hasSize(1);
+    assertThat(index.getStatistics().getTotalUses()).isEqualTo(1);
+  }
+
+  private void createRegion(String name) {
+    Region<Integer, Portfolio> region =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.REPLICATE).create(name);
+    for (int i = 1; i <= 3; i++) {
+      region.put(i, new Portfolio(i));
+    }
+  }
+}
@@ -69,7 +69,7 @@ public class CompactRangeIndexJUnitTest {
     putValues(9);
     isUsingIndexElemArray("type1");
     putValues(10);
-    isUsingConcurrentHashSet("type1");
+    isUsingIndexEntrySet("type1");
     utils.removeIndex("type", "/exampleRegion");
     executeQueryWithAndWithoutIndex(4);
     putOffsetValues(2);
@@ -467,12 +467,12 @@ public class CompactRangeIndexJUnitTest {
     }
   }
 
-  private void isUsingConcurrentHashSet(String key) {
+  private void isUsingIndexEntrySet(String key) {
     if (index instanceof CompactRangeIndex) {
       assertEquals(
-          "Expected concurrent hash set but instanceForKey is "
+          "Expected index entry set but instanceForKey is "
               + getValuesFromMap(key).getClass().getName(),
-          getValuesFromMap(key) instanceof IndexConcurrentHashSet, true);
+          getValuesFromMap(key) instanceof IndexEntrySet, true);
     } else {
       fail("Should have used CompactRangeIndex");
     }
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.IndexInvalidException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLIndexTest.class})
+public class CompositeIndexQueryIntegrationTest {
+
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  @Test
+  public void equalityAndRangeConditionsUseCompositeIndex() throws Exception {
+    QueryService qs = createPortfolios(RegionShortcut.REPLICATE);
+    Index index = qs.createIndex("statusIdIndex", "p.status, p.ID", "/portfolios p");
+
+    SelectResults<Portfolio> results = (SelectResults<Portfolio>) qs
+        .newQuery(
+            "select * from /portfolios p where p.status = 'active' and p.ID >= 10 and p.ID < 20")
+        .execute();
+
+    assertThat(ids(results)).containsExactlyInAnyOrder(10, 12, 14, 16, 18);
+    assertThat(index.getStatistics().getTotalUses()).isGreaterThan(0);
+  }
+
+  @Test
+  public void orderByRangeComponentIsReadFromCompositeIndex() throws Exception {
+    QueryService qs = createPortfolios(RegionShortcut.REPLICATE);
+    Index index = qs.createIndex("statusIdIndex", "p.status, p.ID", "/portfolios p");
+
+    SelectResults<Portfolio> results = (SelectResults<Portfolio>) qs.newQuery(
+        "select distinct * from /portfolios p where p.status = 'inactive' and p.ID > 10 order by p.ID desc limit 3")
+        .execute();
+
+    assertThat(ids(results)).containsExactly(99, 97, 95);
+    assertThat(index.getStatistics().getTotalUses()).isGreaterThan(0);
+  }
+
+  @Test
+  public void equalityOnAllComponentsUsesCompositeIndex() throws Exception {
+    QueryService qs = createPortfolios(RegionShortcut.REPLICATE);
+    Index index = qs.createIndex("statusIdIndex", "p.status, p.ID", "/portfolios p");
+
+    SelectResults<Portfolio> results = (SelectResults<Portfolio>) qs
+        .newQuery("select * from /portfolios p where p.ID = $1 and p.status = $2")
+        .execute(42, "active");
+
+    assertThat(ids(results)).containsExactly(42);
+    assertThat(index.getStatistics().getTotalUses()).isGreaterThan(0);
+  }
+
+  @Test
+  public void upperBoundOnlyOnPartitionedRegionReturnsCorrectResults() throws Exception {
+    QueryService qs = createPortfolios(RegionShortcut.PARTITION);
+    qs.createIndex("statusIdIndex", "p.status, p.ID", "/portfolios p");
+
+    SelectResults<Portfolio> results = (SelectResults<Portfolio>) qs
+        .newQuery("select * from /portfolios p where p.status = 'inactive' and p.ID <= 7")
+        .execute();
+
+    assertThat(ids(results)).containsExactlyInAnyOrder(1, 3, 5, 7);
+  }
+
+  @Test
+  public void conditionOnFirstComponentOnlyUsesCompositeIndex() throws Exception {
+    QueryService qs = createPortfolios(RegionShortcut.REPLICATE);
+    Index index = qs.createIndex("statusIdIndex", "p.status, p.ID", "/portfolios p");
+
+    SelectResults<Portfolio> results = (SelectResults<Portfolio>) qs
+        .newQuery("select * from /portfolios p where p.status = 'active' and p.pkid <> '0'")
+        .execute();
+
+    assertThat(results).hasSize(49);
+    assertThat(index.getStatistics().getTotalUses()).isGreaterThan(0);
+  }
+
+  @Test
+  public void hashIndexOnMultipleExpressionsIsNotSupported() throws Exception {
+    QueryService qs = createPortfolios(RegionShortcut.REPLICATE);
+
+    assertThatThrownBy(
+        () -> qs.createHashIndex("statusIdIndex", "p.status, p.ID", "/portfolios p"))
+            .isInstanceOf(IndexInvalidException.class);
+  }
+
+  private QueryService createPortfolios(RegionShortcut shortcut) {
+    Cache cache = serverStarterRule.getCache();
+    Region<Integer, Portfolio> region = cache.<Integer, Portfolio>createRegionFactory(shortcut)
+        .create("portfolios");
+    for (int i = 0; i < 100; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    return cache.getQueryService();
+  }
+
+  private static List<Integer> ids(SelectResults<Portfolio> results) {
+    return results.asList().stream().map(portfolio -> portfolio.ID).collect(Collectors.toList());
+  }
+}
@@ -18,6 +18,7 @@ package org.apache.geode.internal.cache;
 import static org.apache.geode.internal.cache.PartitionedRegionHelper.MAX_PARTITIONED_REGION_ID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doReturn;
@@ -25,6 +26,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -40,6 +42,9 @@ import org.junit.rules.TestName;
 import org.apache.geode.cache.EvictionAction;
 import org.apache.geode.cache.EvictionAttributes;
 import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.IndexInvalidException;
+import org.apache.geode.cache.query.MultiIndexCreationException;
+import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.distributed.DistributedLockService;
 import org.apache.geode.test.junit.rules.ServerStarterRule;
 
@@ -110,4 +115,73 @@ public class PartitionedRegionIntegrationTest {
 
     partitionRegionLogger.removeAppender(listAppender);
   }
+
+  @Test
+  public void createIndexIndexesEveryLocalBucket() throws Exception {
+    server.startServer();
+    PartitionedRegion region =
+        (PartitionedRegion) server.createRegion(RegionShortcut.PARTITION, "PR1");
+    for (int i = 0; i < 100; i++) {
+      region.put(i, new Value(i, false));
+    }
+
+    server.getCache().getQueryService().createIndex("idIndex", "v.id", "/PR1 v");
+
+    assertThat(region.getDataStore().getAllLocalBucketRegions()).hasSizeGreaterThan(1)
+        .allSatisfy(bucket -> assertThat(bucket.getIndexManager().getIndex("idIndex"))
+            .isNotNull());
+  }
+
+  @Test
+  public void createIndexRethrowsFailureOfBucket() {
+    server.startServer();
+    PartitionedRegion region =
+        (PartitionedRegion) server.createRegion(RegionShortcut.PARTITION, "PR1");
+    for (int i = 0; i < 100; i++) {
+      region.put(i, new Value(i, i == 42));
+    }
+
+    assertThatThrownBy(
+        () -> server.getCache().getQueryService().createIndex("idIndex", "v.id", "/PR1 v"))
+            .isInstanceOf(IndexInvalidException.class);
+  }
+
+  @Test
+  public void createDefinedIndexesCollectsFailuresOfAllBuckets() throws Exception {
+    server.startServer();
+    PartitionedRegion region =
+        (PartitionedRegion) server.createRegion(RegionShortcut.PARTITION, "PR1");
+    for (int i = 0; i < 100; i++) {
+      region.put(i, new Value(i, i % 10 == 0));
+    }
+    QueryService queryService = server.getCache().getQueryService();
+    queryService.defineIndex("idIndex", "v.id", "/PR1 v");
+    queryService.defineIndex("nameIndex", "v.name", "/PR1 v");
+
+    assertThatThrownBy(queryService::createDefinedIndexes)
+        .isInstanceOfSatisfying(MultiIndexCreationException.class,
+            e -> assertThat(e.getExceptionsMap()).containsOnlyKeys("idIndex"));
+    assertThat(queryService.getIndex(region, "nameIndex")).isNotNull();
+  }
+
+  public static class Value implements Serializable {
+    private final int id;
+    private final boolean failing;
+
+    public Value(int id, boolean failing) {
+      this.id = id;
+      this.failing = failing;
+    }
+
+    public int getId() {
+      if (failing) {
+        throw new IllegalStateException("Value " + id + " cannot be indexed");
+      }
+      return id;
+    }
+
+    public String getName() {
+      return "value" + id;
+    }
+  }
 }
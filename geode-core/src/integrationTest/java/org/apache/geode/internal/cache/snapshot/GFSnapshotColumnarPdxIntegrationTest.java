@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.snapshot.SnapshotIterator;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.snapshot.GFSnapshot.GFSnapshotExporter;
+import org.apache.geode.internal.cache.snapshot.GFSnapshot.GFSnapshotImporter;
+import org.apache.geode.internal.cache.snapshot.SnapshotPacket.SnapshotRecord;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.test.junit.categories.SnapshotTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({SnapshotTest.class})
+public class GFSnapshotColumnarPdxIntegrationTest {
+
+  private static final int EVENTS = 2 * GFSnapshot.COLUMNAR_BLOCK_SIZE + 10;
+
+  @Rule
+  public ServerStarterRule server =
+      new ServerStarterRule().withPDXReadSerialized().withNoCacheServer().withAutoStart();
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private InternalCache cache;
+  private Region<Object, Object> region;
+
+  @Before
+  public void setUp() {
+    cache = server.getCache();
+    region = cache.createRegionFactory(RegionShortcut.REPLICATE).create("events");
+    for (int i = 0; i < EVENTS; i++) {
+      PdxInstance event = cache.createPdxInstanceFactory("Event")
+          .writeLong("timestamp", 1_500_000_000_000L + i)
+          .writeInt("quantity", i % 7)
+          .writeDouble("price", i * 0.5)
+          .writeBoolean("active", i % 2 == 0)
+          .writeString("symbol", i % 3 == 0 ? "GEODE" : "APACHE")
+          .writeDate("created", i == 5 ? null : new Date(1000L * i))
+          .writeIntArray("tags", new int[] {i})
+          .create();
+      region.put("event" + i, event);
+    }
+    region.put("text", "not a pdx");
+    region.put("otherType",
+        cache.createPdxInstanceFactory("Other").writeString("name", "other").create());
+  }
+
+  @Test
+  public void columnarSnapshotImportsTheExportedValues() throws Exception {
+    File snapshot = temporaryFolder.newFile("columnar.gfd");
+    Map<Object, byte[]> exported = export(snapshot, true);
+
+    GFSnapshotImporter importer = new GFSnapshotImporter(snapshot, cache.getPdxRegistry());
+    Map<Object, byte[]> imported = new HashMap<>();
+    try {
+      assertThat(importer.getVersion()).isEqualTo((byte) GFSnapshot.SNAP_VER_3);
+      SnapshotRecord record;
+      while ((record = importer.readSnapshotRecord()) != null) {
+        imported.put(record.getKeyObject(), record.getValue());
+        assertThat((Object) record.getValueObject()).isEqualTo(region.get(record.getKeyObject()));
+      }
+    } finally {
+      importer.close();
+    }
+
+    assertThat(imported).hasSameSizeAs(exported);
+    for (Map.Entry<Object, byte[]> entry : exported.entrySet()) {
+      assertThat(imported.get(entry.getKey())).as("value of %s", entry.getKey())
+          .isEqualTo(entry.getValue());
+    }
+  }
+
+  @Test
+  public void columnarSnapshotIsSmallerThanRowSnapshot() throws Exception {
+    File rows = temporaryFolder.newFile("rows.gfd");
+    File columns = temporaryFolder.newFile("columns.gfd");
+
+    export(rows, false);
+    export(columns, true);
+
+    assertThat(columns.length()).isLessThan(rows.length());
+  }
+
+  @Test
+  public void snapshotIteratorReadsColumnarSnapshot() throws Exception {
+    File snapshot = temporaryFolder.newFile("iterated.gfd");
+    export(snapshot, true);
+
+    int count = 0;
+    SnapshotIterator<Object, Object> iterator = GFSnapshot.read(snapshot, cache.getPdxRegistry());
+    while (iterator.hasNext()) {
+      Map.Entry<Object, Object> entry = iterator.next();
+      assertThat(entry.getValue()).isEqualTo(region.get(entry.getKey()));
+      count++;
+    }
+
+    assertThat(count).isEqualTo(region.size());
+  }
+
+  private Map<Object, byte[]> export(File snapshot, boolean columnarPdx) throws Exception {
+    Map<Object, byte[]> exported = new HashMap<>();
+    GFSnapshotExporter exporter =
+        new GFSnapshotExporter(snapshot, region.getFullPath(), cache, columnarPdx);
+    for (Region.Entry<Object, Object> entry : region.entrySet()) {
+      SnapshotRecord record = new SnapshotRecord((LocalRegion) region, entry);
+      exported.put(entry.getKey(), record.getValue());
+      exporter.writeSnapshotEntry(record);
+    }
+    exporter.close();
+    return exported;
+  }
+}
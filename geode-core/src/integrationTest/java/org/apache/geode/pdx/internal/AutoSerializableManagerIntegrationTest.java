@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Objects;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.pdx.internal.AutoSerializableManager.FieldAccess;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class AutoSerializableManagerIntegrationTest {
+
+  private FieldAccess originalFieldAccess;
+
+  private Cache cache;
+
+  @Rule
+  public RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  @Before
+  public void setUp() {
+    System.setProperty(AutoSerializableManager.NO_HARDCODED_EXCLUDES_PARAM, "true");
+    originalFieldAccess = AutoSerializableManager.getFieldAccess();
+  }
+
+  @After
+  public void tearDown() {
+    AutoSerializableManager.setFieldAccess(originalFieldAccess);
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void methodHandlesRoundTripPrivateFinalAndInheritedFields() throws Exception {
+    Child child = createChild();
+
+    Object result = roundTrip(FieldAccess.METHOD_HANDLES, child);
+
+    assertThat(result).isNotSameAs(child).isEqualTo(child);
+  }
+
+  @Test
+  public void methodHandlesRoundTripDefaultValues() throws Exception {
+    Child child = new Child();
+
+    Object result = roundTrip(FieldAccess.METHOD_HANDLES, child);
+
+    assertThat(result).isNotSameAs(child).isEqualTo(child);
+  }
+
+  @Test
+  public void methodHandlesAndReflectionRoundTripToTheSameObject() throws Exception {
+    Child child = createChild();
+
+    Object withReflection = roundTrip(FieldAccess.REFLECTION, child);
+    Object withMethodHandles = roundTrip(FieldAccess.METHOD_HANDLES, child);
+
+    assertThat(withMethodHandles).isEqualTo(withReflection);
+  }
+
+  private Child createChild() {
+    return new Child(42L, "parent", 7, "label", true, (byte) -3, (short) 300, 'x', 1.5f, 2.25d,
+        new int[] {1, 2, 3}, new Date(1000L));
+  }
+
+  /**
+   * Serializes and deserializes the given object with a new cache, whose auto serializer accesses
+   * fields in the given way.
+   */
+  private Object roundTrip(FieldAccess fieldAccess, Object object) throws Exception {
+    if (cache != null) {
+      cache.close();
+    }
+    AutoSerializableManager.setFieldAccess(fieldAccess);
+    cache = new CacheFactory().set(MCAST_PORT, "0")
+        .setPdxSerializer(
+            new ReflectionBasedAutoSerializer(AutoSerializableManagerIntegrationTest.class.getName()
+                + ".*"))
+        .create();
+
+    return BlobHelper.deserializeBlob(BlobHelper.serializeToBlob(object));
+  }
+
+  public static class Parent {
+    private long parentId;
+    protected String parentName;
+
+    public Parent() {}
+
+    Parent(long parentId, String parentName) {
+      this.parentId = parentId;
+      this.parentName = parentName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Parent parent = (Parent) o;
+      return parentId == parent.parentId && Objects.equals(parentName, parent.parentName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(parentId, parentName);
+    }
+  }
+
+  public static class Child extends Parent {
+    private final int count;
+    private final String label;
+    private boolean flag;
+    private byte byteValue;
+    private short shortValue;
+    private char charValue;
+    private float floatValue;
+    private double doubleValue;
+    private int[] values;
+    private Date date;
+
+    public Child() {
+      this.count = 0;
+      this.label = null;
+    }
+
+    Child(long parentId, String parentName, int count, String label, boolean flag,
+        byte byteValue, short shortValue, char charValue, float floatValue, double doubleValue,
+        int[] values, Date date) {
+      super(parentId, parentName);
+      this.count = count;
+      this.label = label;
+      this.flag = flag;
+      this.byteValue = byteValue;
+      this.shortValue = shortValue;
+      this.charValue = charValue;
+      this.floatValue = floatValue;
+      this.doubleValue = doubleValue;
+      this.values = values;
+      this.date = date;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!super.equals(o)) {
+        return false;
+      }
+      Child child = (Child) o;
+      return count == child.count && Objects.equals(label, child.label) && flag == child.flag
+          && byteValue == child.byteValue && shortValue == child.shortValue
+          && charValue == child.charValue && Float.compare(floatValue, child.floatValue) == 0
+          && Double.compare(doubleValue, child.doubleValue) == 0
+          && Arrays.equals(values, child.values) && Objects.equals(date, child.date);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(super.hashCode(), count, label);
+    }
+
+    @Override
+    public String toString() {
+      return "Child{parentName=" + parentName + ", count=" + count + ", label=" + label
+          + ", values=" + Arrays.toString(values) + "}";
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Compares an index-less scan of PDX values using the compiled WHERE clause with the same scan
+ * using the interpreter. JMH forks a new JVM for each value of {@link #compiled} so the system
+ * property read by {@link QueryCompiler} takes effect.
+ */
+@State(Scope.Benchmark)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CompiledWhereClauseScanBenchmark {
+
+  private static final int ENTRIES = 100_000;
+
+  @Param({"true", "false"})
+  public boolean compiled;
+
+  private Cache cache;
+  private Query query;
+
+  @Setup
+  public void setup() throws Exception {
+    System.setProperty(
+        DistributionConfig.GEMFIRE_PREFIX + "Query.DISABLE_EXPRESSION_COMPILATION",
+        String.valueOf(!compiled));
+    cache = new CacheFactory().set("mcast-port", "0").set("locators", "")
+        .setPdxReadSerialized(true).create();
+    Region<Integer, Object> region =
+        cache.<Integer, Object>createRegionFactory(RegionShortcut.REPLICATE).create("trades");
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, cache.createPdxInstanceFactory("Trade").writeInt("id", i)
+          .writeDouble("price", i % 1000).writeLong("quantity", i % 100)
+          .writeString("symbol", "SYM" + (i % 50)).create());
+    }
+    query = cache.getQueryService().newQuery(
+        "select * from /trades t where t.price > $1 and t.quantity < $2 and not (t.id = $3)");
+
+    // one in ten prices is above 899 and half of those quantities are below 50
+    assertEquals(ENTRIES / 20, query().size());
+  }
+
+  @TearDown
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  @Warmup(iterations = 5)
+  @Measurement(iterations = 10)
+  public Object scan() throws Exception {
+    return query();
+  }
+
+  private SelectResults query() throws Exception {
+    return (SelectResults) query.execute(899, 50, -1);
+  }
+}
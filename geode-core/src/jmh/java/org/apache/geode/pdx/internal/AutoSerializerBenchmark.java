@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.pdx.internal.AutoSerializableManager.FieldAccess;
+
+/**
+ * Test throughput of ReflectionBasedAutoSerializer round trips, comparing the Unsafe, method
+ * handle and reflection field access strategies.
+ */
+
+@State(Scope.Thread)
+@Fork(1)
+public class AutoSerializerBenchmark {
+
+  @Param({"UNSAFE", "METHOD_HANDLES", "REFLECTION"})
+  public String fieldAccess;
+
+  private FieldAccess originalFieldAccess;
+  private Cache cache;
+  private Customer customer;
+  private byte[] serializedCustomer;
+
+  @Setup(Level.Trial)
+  public void setupCache() throws IOException {
+    // the serializer of a new cache introspects Customer with the field access set here
+    originalFieldAccess = AutoSerializableManager.getFieldAccess();
+    AutoSerializableManager.setFieldAccess(FieldAccess.valueOf(fieldAccess));
+    cache = new CacheFactory().set("mcast-port", "0").set("locators", "")
+        .setPdxSerializer(new ReflectionBasedAutoSerializer(Customer.class.getName()))
+        .create();
+    customer = new Customer(42, "Jane", "Doe", 1234567890L, 98.6, true, new int[] {1, 2, 3});
+    serializedCustomer = BlobHelper.serializeToBlob(customer);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownCache() {
+    cache.close();
+    AutoSerializableManager.setFieldAccess(originalFieldAccess);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] autoSerializeBenchmark() throws IOException {
+    return BlobHelper.serializeToBlob(customer);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object autoDeserializeBenchmark() throws IOException, ClassNotFoundException {
+    return BlobHelper.deserializeBlob(serializedCustomer);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object autoSerializerRoundTripBenchmark() throws IOException, ClassNotFoundException {
+    return BlobHelper.deserializeBlob(BlobHelper.serializeToBlob(customer));
+  }
+
+  public static class Customer {
+    private int id;
+    private String firstName;
+    private String lastName;
+    private long phone;
+    private double score;
+    private boolean active;
+    private int[] orders;
+
+    public Customer() {}
+
+    public Customer(int id, String firstName, String lastName, long phone, double score,
+        boolean active, int[] orders) {
+      this.id = id;
+      this.firstName = firstName;
+      this.lastName = lastName;
+      this.phone = phone;
+      this.score = score;
+      this.active = active;
+      this.orders = orders;
+    }
+  }
+}
@@ -200,6 +200,21 @@ public class AsyncEventQueueFactoryImpl implements AsyncEventQueueFactory {
               id));
     }
 
+    if (gatewaySenderAttributes.getListenerThreads() <= 0) {
+      throw new AsyncEventQueueConfigurationException(
+          String.format("AsyncEventQueue %s can not be created with listener threads less than 1",
+              id));
+    }
+
+    if (gatewaySenderAttributes.getListenerThreads() > 1
+        && gatewaySenderAttributes.getOrderPolicy() != null
+        && gatewaySenderAttributes.getOrderPolicy() != OrderPolicy.KEY) {
+      throw new AsyncEventQueueConfigurationException(
+          String.format(
+              "AsyncEventQueue %s can not be created with OrderPolicy %s when it has more than one listener thread",
+              id, gatewaySenderAttributes.getOrderPolicy()));
+    }
+
     GatewaySender sender;
     if (gatewaySenderAttributes.isParallel()) {
       if (gatewaySenderAttributes.getOrderPolicy() != null
@@ -270,6 +285,16 @@ public class AsyncEventQueueFactoryImpl implements AsyncEventQueueFactory {
     return this;
   }
 
+  /**
+   * Sets the number of threads that invoke the listeners for one batch. With more than one, the
+   * listeners receive the events of a batch in parallel lanes by key, so only the order of the
+   * events of each key is kept. That requires the {@link OrderPolicy#KEY} order policy.
+   */
+  public AsyncEventQueueFactory setListenerThreads(int listenerThreads) {
+    gatewaySenderAttributes.listenerThreads = listenerThreads;
+    return this;
+  }
+
   public AsyncEventQueueFactory setIsMetaQueue(boolean isMetaQueue) {
     gatewaySenderAttributes.isMetaQueue = isMetaQueue;
     return this;
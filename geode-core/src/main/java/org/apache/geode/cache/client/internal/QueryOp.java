@@ -14,9 +14,14 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.geode.SerializationException;
+import org.apache.geode.SystemFailure;
 import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.internal.QueryUtils;
@@ -30,6 +35,7 @@ import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
 import org.apache.geode.internal.cache.tier.sockets.Message;
 import org.apache.geode.internal.cache.tier.sockets.ObjectPartList;
 import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.internal.logging.LoggingThread;
 import org.apache.geode.internal.serialization.Version;
 
 /**
@@ -59,6 +65,42 @@ public class QueryOp {
     return (SelectResults) pool.execute(op);
   }
 
+  /**
+   * Does a region query on a server, returning the results while they are received. The results
+   * are received by a separate thread, which stops reading from the connection while the
+   * consumer is {@link QueryResultIterator#BUFFERED_PAGES} chunks behind. The query is not retried
+   * on another server if it fails, since some results may already have been consumed.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param queryPredicate A query language boolean query predicate
+   * @return An iterator over the values that match the <code>queryPredicate</code>, which must be
+   *         closed if it is not consumed completely.
+   */
+  public static QueryResultIterator executeStreaming(ExecutablePool pool, String queryPredicate,
+      Object[] queryParams) {
+    QueryResultIterator results = new QueryResultIterator();
+    StreamingQueryOpImpl op = new StreamingQueryOpImpl(queryPredicate,
+        queryParams != null ? queryParams : new Object[0], results);
+    UserAttributes userAttributes = UserAttributes.userAttributes.get();
+    Thread thread = new LoggingThread("QueryResultReceiver", () -> {
+      UserAttributes.userAttributes.set(userAttributes);
+      try {
+        pool.execute(op, 0);
+        results.finish(null);
+      } catch (VirtualMachineError err) {
+        SystemFailure.initiateFailure(err);
+        throw err;
+      } catch (Throwable t) {
+        SystemFailure.checkFailure();
+        results.finish(t);
+      } finally {
+        UserAttributes.userAttributes.set(null);
+      }
+    });
+    thread.start();
+    return results;
+  }
+
   private QueryOp() {
     // no instances allowed
   }
@@ -140,32 +182,7 @@ public class QueryOp {
             if (resultRef[0] == null) {
               resultRef[0] = QueryUtils.getEmptySelectResults(collectionType, null);
             }
-            SelectResults selectResults = resultRef[0];
-            ObjectType objectType = collectionType.getElementType();
-            Object[] resultArray;
-            // for select * queries, the serialized object byte arrays are
-            // returned as part of ObjectPartList
-            boolean isObjectPartList = false;
-            if (queryResult instanceof ObjectPartList) {
-              isObjectPartList = true;
-              resultArray = ((ObjectPartList) queryResult).getObjects().toArray();
-            } else {
-              // Add the results to the SelectResults
-              resultArray = (Object[]) queryResult;
-            }
-            if (objectType.isStructType()) {
-              for (int i = 0; i < resultArray.length; i++) {
-                if (isObjectPartList) {
-                  selectResults.add(new StructImpl((StructTypeImpl) objectType,
-                      ((ObjectPartList) resultArray[i]).getObjects().toArray()));
-                } else {
-                  selectResults
-                      .add(new StructImpl((StructTypeImpl) objectType, (Object[]) resultArray[i]));
-                }
-              }
-            } else {
-              selectResults.addAll(Arrays.asList(resultArray));
-            }
+            addResults(resultRef[0], collectionType, queryResult);
           }
         }
       };
@@ -177,6 +194,37 @@ public class QueryOp {
       }
     }
 
+    /**
+     * Adds the results of a chunk of a query response to the given collection.
+     */
+    static void addResults(Collection results, CollectionType collectionType,
+        Object queryResult) {
+      ObjectType objectType = collectionType.getElementType();
+      Object[] resultArray;
+      // for select * queries, the serialized object byte arrays are
+      // returned as part of ObjectPartList
+      boolean isObjectPartList = false;
+      if (queryResult instanceof ObjectPartList) {
+        isObjectPartList = true;
+        resultArray = ((ObjectPartList) queryResult).getObjects().toArray();
+      } else {
+        // Add the results to the SelectResults
+        resultArray = (Object[]) queryResult;
+      }
+      if (objectType.isStructType()) {
+        for (int i = 0; i < resultArray.length; i++) {
+          if (isObjectPartList) {
+            results.add(new StructImpl((StructTypeImpl) objectType,
+                ((ObjectPartList) resultArray[i]).getObjects().toArray()));
+          } else {
+            results.add(new StructImpl((StructTypeImpl) objectType, (Object[]) resultArray[i]));
+          }
+        }
+      } else {
+        results.addAll(Arrays.asList(resultArray));
+      }
+    }
+
     protected String getOpName() {
       return "query";
     }
@@ -202,4 +250,72 @@ public class QueryOp {
       stats.endQuery(start, hasTimedOut(), hasFailed());
     }
   }
+
+  /**
+   * Hands the results of a query to a {@link QueryResultIterator} chunk by chunk instead of
+   * collecting them.
+   */
+  static class StreamingQueryOpImpl extends QueryOpImpl {
+
+    private final QueryResultIterator results;
+
+    StreamingQueryOpImpl(String queryPredicate, Object[] queryParams,
+        QueryResultIterator results) {
+      super(queryParams.length > 0 ? MessageType.QUERY_WITH_PARAMETERS : MessageType.QUERY,
+          queryParams.length > 0 ? 2 + queryParams.length : 1);
+      getMessage().addStringPart(queryPredicate);
+      if (queryParams.length > 0) {
+        getMessage().addIntPart(queryParams.length);
+        for (Object param : queryParams) {
+          getMessage().addObjPart(param);
+        }
+      }
+      this.results = results;
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      final Exception[] exceptionRef = new Exception[1];
+      ChunkHandler ch = new ChunkHandler() {
+        @Override
+        public void handle(ChunkedMessage cm) throws Exception {
+          if (exceptionRef[0] != null || results.isClosed()) {
+            // the remaining chunks are read from the connection but not deserialized
+            return;
+          }
+          Object o = cm.getPart(0).getObject();
+          if (o instanceof Throwable) {
+            String s = "While performing a remote " + getOpName();
+            exceptionRef[0] = new ServerOperationException(s, (Throwable) o);
+            return;
+          }
+          Object queryResult;
+          try {
+            queryResult = cm.getPart(1).getObject();
+          } catch (Exception e) {
+            String s = "While deserializing " + getOpName() + " result";
+            exceptionRef[0] = new SerializationException(s, e);
+            return;
+          }
+          if (queryResult instanceof Throwable) {
+            String s = "While performing a remote " + getOpName();
+            exceptionRef[0] = new ServerOperationException(s, (Throwable) queryResult);
+            return;
+          }
+          if (queryResult instanceof Integer) {
+            results.addPage(Collections.singletonList(queryResult));
+          } else {
+            List<Object> page = new ArrayList<>();
+            addResults(page, (CollectionType) o, queryResult);
+            results.addPage(page);
+          }
+        }
+      };
+      processChunkedResponse((ChunkedMessage) msg, getOpName(), ch);
+      if (exceptionRef[0] != null) {
+        throw exceptionRef[0];
+      }
+      return null;
+    }
+  }
 }
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.cache.query.internal.QueryExecutionCanceledException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Iterates over the results of a query executed on a server while they are received. The server
+ * sends the results in chunks of {@code BridgeServer.MAXIMUM_CHUNK_SIZE} elements; at most
+ * {@link #BUFFERED_PAGES} of them are held by the client at a time. When they are not consumed,
+ * the thread receiving the results stops reading from the connection, so that the server blocks
+ * while writing the next chunk instead of the client running out of memory.
+ * <p>
+ * The iterator must be closed if it is not consumed completely. The remaining chunks are then
+ * read from the connection and discarded without deserializing them.
+ *
+ * @see QueryOp#executeStreaming
+ */
+public class QueryResultIterator implements Iterator<Object>, AutoCloseable {
+
+  /**
+   * The number of chunks of results received ahead of the consumer.
+   */
+  static final int BUFFERED_PAGES = Math.max(1, Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "QueryResultIterator.BUFFERED_PAGES", 2));
+
+  private static final long OFFER_INTERVAL_MILLIS = 100;
+
+  /** Marks the end of the results in the queue of pages. */
+  private static final Object END = new Object();
+
+  private final BlockingQueue<Object> pages = new ArrayBlockingQueue<>(BUFFERED_PAGES);
+
+  private volatile boolean closed;
+
+  private Iterator<?> page = Collections.emptyIterator();
+
+  private boolean done;
+
+  /**
+   * Adds a chunk of results, waiting while {@link #BUFFERED_PAGES} chunks have not been consumed.
+   */
+  void addPage(List<?> results) throws InterruptedException {
+    offer(results);
+  }
+
+  /**
+   * Marks the end of the results.
+   *
+   * @param failure the exception that ended the query, or null if all results were received
+   */
+  void finish(Throwable failure) {
+    try {
+      offer(failure == null ? END : failure);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+    }
+  }
+
+  private void offer(Object element) throws InterruptedException {
+    while (!this.closed) {
+      if (this.pages.offer(element, OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns true if the consumer closed the iterator, in which case further results are discarded.
+   */
+  boolean isClosed() {
+    return this.closed;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!this.page.hasNext()) {
+      if (this.done || this.closed) {
+        return false;
+      }
+      Object next;
+      try {
+        next = this.pages.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        close();
+        throw new QueryExecutionCanceledException(
+            "Interrupted while waiting for the results of a query", e);
+      }
+      if (next == END) {
+        this.done = true;
+      } else if (next instanceof Throwable) {
+        this.done = true;
+        throw asRuntimeException((Throwable) next);
+      } else {
+        this.page = ((List<?>) next).iterator();
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Object next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return this.page.next();
+  }
+
+  /**
+   * Stops receiving results. The results not consumed yet are discarded.
+   */
+  @Override
+  public void close() {
+    this.closed = true;
+    this.pages.clear();
+    this.page = Collections.emptyIterator();
+  }
+
+  /**
+   * Returns a sequential stream of the results that closes this iterator when it is closed.
+   */
+  public Stream<Object> stream() {
+    return StreamSupport
+        .stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+        .onClose(this::close);
+  }
+
+  private static RuntimeException asRuntimeException(Throwable failure) {
+    if (failure instanceof RuntimeException) {
+      return (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    return new ServerOperationException("While performing a remote query", failure);
+  }
+}
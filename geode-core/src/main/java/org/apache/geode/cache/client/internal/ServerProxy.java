@@ -69,4 +69,14 @@ public class ServerProxy {
     return QueryOp.execute(this.pool, queryPredicate, queryParams);
   }
 
+  /**
+   * Does a query on a server, returning the results while they are received
+   *
+   * @param queryPredicate A query language boolean query predicate
+   * @return An iterator over the values that match the <code>queryPredicate</code>
+   */
+  public QueryResultIterator queryStreaming(String queryPredicate, Object[] queryParams) {
+    return QueryOp.executeStreaming(this.pool, queryPredicate, queryParams);
+  }
+
 }
@@ -14,6 +14,8 @@
  */
 package org.apache.geode.cache.query.internal;
 
+import org.apache.geode.annotations.internal.MutableForTesting;
+import org.apache.geode.cache.query.Aggregator;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
@@ -21,14 +23,19 @@ import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.aggregate.Avg;
 import org.apache.geode.cache.query.internal.aggregate.AvgBucketNode;
+import org.apache.geode.cache.query.internal.aggregate.AvgBucketNodeCombiner;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinct;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.AvgPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.Count;
 import org.apache.geode.cache.query.internal.aggregate.CountDistinct;
 import org.apache.geode.cache.query.internal.aggregate.CountDistinctPRQueryNode;
+import org.apache.geode.cache.query.internal.aggregate.CountDistinctSketchBucketNode;
+import org.apache.geode.cache.query.internal.aggregate.CountDistinctSketchCombiner;
+import org.apache.geode.cache.query.internal.aggregate.CountDistinctSketchPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.CountPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.DistinctAggregator;
+import org.apache.geode.cache.query.internal.aggregate.DistinctCombiner;
 import org.apache.geode.cache.query.internal.aggregate.MaxMin;
 import org.apache.geode.cache.query.internal.aggregate.Sum;
 import org.apache.geode.cache.query.internal.aggregate.SumDistinct;
@@ -36,9 +43,19 @@ import org.apache.geode.cache.query.internal.aggregate.SumDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
 import org.apache.geode.cache.query.types.ObjectType;
+import org.apache.geode.distributed.internal.DistributionConfig;
 
 public class CompiledAggregateFunction extends AbstractCompiledValue {
 
+  /**
+   * If true, COUNT(DISTINCT) on partitioned regions is estimated from HyperLogLog sketches built
+   * on the buckets instead of computed exactly from the sets of distinct values, which are shipped
+   * to the PR query node in full. Must be set alike on all members hosting the region.
+   */
+  @MutableForTesting
+  static boolean APPROXIMATE_COUNT_DISTINCT =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.APPROXIMATE_COUNT_DISTINCT");
+
   private final CompiledValue expr;
   private final int aggFuncType;
   private final boolean distinctOnly;
@@ -90,10 +107,13 @@ public class CompiledAggregateFunction extends AbstractCompiledValue {
 
       case OQLLexerTokenTypes.COUNT:
         if (isPRQueryNode) {
-          return this.distinctOnly ? new CountDistinctPRQueryNode() : new CountPRQueryNode();
+          return this.distinctOnly ? (APPROXIMATE_COUNT_DISTINCT
+              ? new CountDistinctSketchPRQueryNode() : new CountDistinctPRQueryNode())
+              : new CountPRQueryNode();
         } else {
-          return this.distinctOnly ? (isBucketNode ? new DistinctAggregator() : new CountDistinct())
-              : new Count();
+          return this.distinctOnly ? (isBucketNode ? (APPROXIMATE_COUNT_DISTINCT
+              ? new CountDistinctSketchBucketNode() : new DistinctAggregator())
+              : new CountDistinct()) : new Count();
         }
 
       default:
@@ -103,6 +123,38 @@ public class CompiledAggregateFunction extends AbstractCompiledValue {
 
   }
 
+  /**
+   * Returns an aggregator which combines the partial results computed on buckets into one partial
+   * result of the same form, so that a member sends one partial result per group for all of its
+   * buckets.
+   */
+  public Aggregator createBucketResultsCombiner() {
+    switch (this.aggFuncType) {
+
+      case OQLLexerTokenTypes.SUM:
+        return this.distinctOnly ? new DistinctCombiner() : new Sum();
+
+      case OQLLexerTokenTypes.MAX:
+        return new MaxMin(true);
+
+      case OQLLexerTokenTypes.MIN:
+        return new MaxMin(false);
+
+      case OQLLexerTokenTypes.AVG:
+        return this.distinctOnly ? new DistinctCombiner() : new AvgBucketNodeCombiner();
+
+      case OQLLexerTokenTypes.COUNT:
+        return this.distinctOnly
+            ? (APPROXIMATE_COUNT_DISTINCT ? new CountDistinctSketchCombiner()
+                : new DistinctCombiner())
+            : new CountPRQueryNode();
+
+      default:
+        throw new UnsupportedOperationException("Aggregate function not implemented");
+
+    }
+  }
+
   private String getStringRep() {
     switch (this.aggFuncType) {
 
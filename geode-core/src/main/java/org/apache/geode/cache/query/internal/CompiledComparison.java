@@ -262,7 +262,10 @@ public class CompiledComparison extends AbstractCompiledValue
       // out.
       // thus the first index is guaranteed to be on the condition which may match our preferred
       // index
-      if (indexInfo[0]._index.getCanonicalizedIndexedExpression().equals(preferredCondn)
+      // a condition on a composite index is preferred if the index orders the values of the
+      // preferred condition within the keys it selects
+      if ((indexInfo[0]._index.getCanonicalizedIndexedExpression().equals(preferredCondn)
+          || isOnCompositeKey() && ((CompiledCompositeKey) _left).isOrderedBy(preferredCondn))
           && indexInfo[0]._index.getType() != IndexType.PRIMARY_KEY) {
         result.isPreferred = true;
       }
@@ -277,6 +280,15 @@ public class CompiledComparison extends AbstractCompiledValue
     return context.addDependencies(this, _right.computeDependencies(context));
   }
 
+  /**
+   * Returns true if this comparison was created from the conditions on a composite index.
+   *
+   * @see CompositeIndexConditions
+   */
+  boolean isOnCompositeKey() {
+    return _left.getType() == COMPOSITE_KEY;
+  }
+
   int reflectOnOperator(CompiledValue key) {
     int operator = _operator;
     if (key == _left)
@@ -662,7 +674,7 @@ public class CompiledComparison extends AbstractCompiledValue
    * get the path to see if there's an index for, and also determine which CompiledValue is the key
    * while we're at it
    */
-  private PathAndKey getPathAndKey(ExecutionContext context)
+  PathAndKey getPathAndKey(ExecutionContext context)
       throws TypeMismatchException, AmbiguousNameException {
     // RuntimeIterator lIter = context.findRuntimeIterator(_left);
     // RuntimeIterator rIter = context.findRuntimeIterator(_right);
@@ -727,7 +739,9 @@ public class CompiledComparison extends AbstractCompiledValue
       PlanInfo pi = this.getPlanInfo(context);
       if (pi.indexes.size() == 1) {
         IndexProtocol ip = (IndexProtocol) pi.indexes.get(0);
-        if (ip.getCanonicalizedIndexedExpression().equals(canonicalizedOrderByClause)
+        if ((ip.getCanonicalizedIndexedExpression().equals(canonicalizedOrderByClause)
+            || isOnCompositeKey()
+                && ((CompiledCompositeKey) _left).isOrderedBy(canonicalizedOrderByClause))
             && ip.getType() != IndexType.PRIMARY_KEY && pi.isPreferred) {
           return true;
         }
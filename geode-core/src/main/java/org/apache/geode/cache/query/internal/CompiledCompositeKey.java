@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.geode.cache.query.AmbiguousNameException;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.TypeMismatchException;
+
+/**
+ * The comma separated list of expressions indexed by a composite index, for example
+ * {@code tenant, ts}. Evaluates to a {@link CompositeIndexKey} holding the values of the
+ * expressions.
+ * <p>
+ * {@link CompositeIndexConditions} also uses it for both sides of the comparisons it combines the
+ * conditions on the components of a composite index into: the path, which is matched to the index
+ * by the canonicalized expression of the index, and the bound compared with the index keys.
+ */
+public class CompiledCompositeKey extends AbstractCompiledValue {
+
+  /** Separates the canonicalized components of the indexed expression of a composite index. */
+  public static final String COMPONENT_SEPARATOR = ", ";
+
+  private final CompiledValue[] components;
+
+  /**
+   * The canonicalized expressions of all components of the composite index a path is matched to,
+   * or null if the canonicalized expression is generated from the components.
+   */
+  private final String[] canonicalizedComponents;
+
+  /**
+   * The number of leading components fixed by equality conditions, for a path. Results read from
+   * the index in key order are then ordered by the component following them.
+   */
+  private final int fixedComponents;
+
+  private final int bound;
+
+  /**
+   * True for a bound whose last component is the value of a range condition. A range condition on
+   * null selects nothing, so the bound then evaluates to UNDEFINED.
+   */
+  private final boolean isRangeBound;
+
+  public CompiledCompositeKey(List<CompiledValue> components) {
+    this(components.toArray(new CompiledValue[0]), null, 0, CompositeIndexKey.EXACT, false);
+  }
+
+  private CompiledCompositeKey(CompiledValue[] components, String[] canonicalizedComponents,
+      int fixedComponents, int bound, boolean isRangeBound) {
+    this.components = components;
+    this.canonicalizedComponents = canonicalizedComponents;
+    this.fixedComponents = fixedComponents;
+    this.bound = bound;
+    this.isRangeBound = isRangeBound;
+  }
+
+  /**
+   * Creates the path of a comparison on a composite index from the expressions of its first
+   * components.
+   */
+  static CompiledCompositeKey path(CompiledValue[] components, String[] canonicalizedComponents,
+      int fixedComponents) {
+    return new CompiledCompositeKey(components, canonicalizedComponents, fixedComponents,
+        CompositeIndexKey.EXACT, false);
+  }
+
+  /**
+   * Creates a bound of a comparison on a composite index from the values of its first components.
+   */
+  static CompiledCompositeKey bound(CompiledValue[] values, int bound, boolean isRangeBound) {
+    return new CompiledCompositeKey(values, null, 0, bound, isRangeBound);
+  }
+
+  public List<CompiledValue> getComponents() {
+    return Arrays.asList(this.components);
+  }
+
+  @Override
+  public List getChildren() {
+    return Arrays.asList(this.components);
+  }
+
+  @Override
+  public int getType() {
+    return COMPOSITE_KEY;
+  }
+
+  @Override
+  public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    Object[] values = new Object[this.components.length];
+    for (int i = 0; i < values.length; i++) {
+      Object value = this.components[i].evaluate(context);
+      if (value == QueryService.UNDEFINED) {
+        return QueryService.UNDEFINED;
+      }
+      values[i] = value;
+    }
+    if (this.isRangeBound && values.length > 0 && values[values.length - 1] == null) {
+      return QueryService.UNDEFINED;
+    }
+    return new CompositeIndexKey(values, this.bound);
+  }
+
+  @Override
+  public Set computeDependencies(ExecutionContext context)
+      throws TypeMismatchException, AmbiguousNameException, NameResolutionException {
+    for (CompiledValue component : this.components) {
+      context.addDependencies(this, component.computeDependencies(context));
+    }
+    return context.getDependencySet(this, true);
+  }
+
+  @Override
+  public void generateCanonicalizedExpression(StringBuilder clauseBuffer,
+      ExecutionContext context)
+      throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    if (this.canonicalizedComponents != null) {
+      clauseBuffer.insert(0, String.join(COMPONENT_SEPARATOR, this.canonicalizedComponents));
+      return;
+    }
+    for (int i = this.components.length - 1; i >= 0; i--) {
+      StringBuilder component = new StringBuilder();
+      this.components[i].generateCanonicalizedExpression(component, context);
+      clauseBuffer.insert(0, component);
+      if (i > 0) {
+        clauseBuffer.insert(0, COMPONENT_SEPARATOR);
+      }
+    }
+  }
+
+  /**
+   * Returns true if the results of a comparison with this path, read from the index in key order,
+   * are ordered by the expression with the given canonicalized form.
+   */
+  boolean isOrderedBy(String canonicalizedExpression) {
+    if (this.canonicalizedComponents == null) {
+      return false;
+    }
+    int last = Math.min(this.fixedComponents, this.canonicalizedComponents.length - 1);
+    for (int i = 0; i <= last; i++) {
+      if (this.canonicalizedComponents[i].equals(canonicalizedExpression)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -162,6 +162,26 @@ public class CompiledGroupBySelect extends CompiledSelect {
   public SelectResults applyAggregateAndGroupBy(SelectResults baseResults, ExecutionContext context)
       throws FunctionDomainException, TypeMismatchException, NameResolutionException,
       QueryInvocationTargetException {
+    return applyAggregateAndGroupBy(baseResults, context, false);
+  }
+
+  /**
+   * Combines the partial results of the buckets hosted by this member into one partial result per
+   * group, so that the PR query node receives one row per group from each member instead of one
+   * row per group from each bucket. The bucket results must be merged in group by order, and the
+   * combined results are returned in the same order.
+   *
+   * @param context a context with the list of buckets queried on this member
+   */
+  public SelectResults combineBucketResults(SelectResults bucketResults, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    return applyAggregateAndGroupBy(bucketResults, context, true);
+  }
+
+  private SelectResults applyAggregateAndGroupBy(SelectResults baseResults,
+      ExecutionContext context, boolean combineBucketResults) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     ObjectType elementType = baseResults.getCollectionType().getElementType();
     boolean isStruct = elementType != null && elementType.isStructType();
     boolean isBucketNodes = context.getBucketList() != null;
@@ -171,10 +191,10 @@ public class CompiledGroupBySelect extends CompiledSelect {
     SelectResults newResults =
         createResultSet(context, elementType, isStruct, createOrderedResultSet);
     Aggregator[] aggregators = new Aggregator[this.aggregateFunctions.length];
-    refreshAggregators(aggregators, context);
+    refreshAggregators(aggregators, context, combineBucketResults);
     if (this.orderByAttrs != null) {
       applyGroupBy(baseResults, context, isStruct, newResults, aggregators, !createOrderedResultSet,
-          objectChangedMarker, limitValue);
+          objectChangedMarker, limitValue, combineBucketResults);
     } else {
       Iterator iter = baseResults.iterator();
       Object current = null;
@@ -185,7 +205,7 @@ public class CompiledGroupBySelect extends CompiledSelect {
       }
       if (unterminated) {
         this.terminateAndAddToResults(isStruct, newResults, aggregators, current, context,
-            !createOrderedResultSet, limitValue);
+            !createOrderedResultSet, limitValue, combineBucketResults);
       }
     }
 
@@ -261,8 +281,9 @@ public class CompiledGroupBySelect extends CompiledSelect {
 
   private void applyGroupBy(SelectResults baseResults, ExecutionContext context, boolean isStruct,
       SelectResults newResults, Aggregator[] aggregators, boolean isStructFields,
-      boolean[] objectChangedMarker, int limitValue) throws FunctionDomainException,
-      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      boolean[] objectChangedMarker, int limitValue, boolean combineBucketResults)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
     Iterator iter = baseResults.iterator();
     Object[] orderByTupleHolderCurrent = null;
     Object[] orderByTupleHolderPrev = null;
@@ -295,7 +316,7 @@ public class CompiledGroupBySelect extends CompiledSelect {
         isFirst = false;
       } else {
         keepAdding = terminateAndAddToResults(isStruct, newResults, aggregators, prev, context,
-            isStructFields, limitValue);
+            isStructFields, limitValue, combineBucketResults);
         this.accumulate(isStruct, aggregators, current, objectChangedMarker);
         unterminated = true;
       }
@@ -308,7 +329,7 @@ public class CompiledGroupBySelect extends CompiledSelect {
     }
     if (unterminated && keepAdding) {
       this.terminateAndAddToResults(isStruct, newResults, aggregators, prev, context,
-          isStructFields, limitValue);
+          isStructFields, limitValue, combineBucketResults);
     }
 
     if (this.originalOrderByClause != null && limitValue > 0
@@ -319,8 +340,8 @@ public class CompiledGroupBySelect extends CompiledSelect {
 
   private boolean terminateAndAddToResults(boolean isStruct, SelectResults newResults,
       Aggregator[] aggregators, Object prev, ExecutionContext context, boolean isStrucFields,
-      int limitValue) throws FunctionDomainException, TypeMismatchException,
-      NameResolutionException, QueryInvocationTargetException {
+      int limitValue, boolean combineBucketResults) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     Object[] newRowArray = isStruct ? copyStruct((Struct) prev) : null;
     Object newObject = null;
     int bitstart = 0;
@@ -356,16 +377,17 @@ public class CompiledGroupBySelect extends CompiledSelect {
       keepAdding = false;
     }
     // rfresh the aggregators
-    refreshAggregators(aggregators, context);
+    refreshAggregators(aggregators, context, combineBucketResults);
     return keepAdding;
   }
 
-  private void refreshAggregators(Aggregator[] aggregators, ExecutionContext context)
-      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
-      QueryInvocationTargetException {
+  private void refreshAggregators(Aggregator[] aggregators, ExecutionContext context,
+      boolean combineBucketResults) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
     int i = 0;
     for (CompiledAggregateFunction aggFunc : this.aggregateFunctions) {
-      Aggregator agg = (Aggregator) aggFunc.evaluate(context);
+      Aggregator agg = combineBucketResults ? aggFunc.createBucketResultsCombiner()
+          : (Aggregator) aggFunc.evaluate(context);
       aggregators[i++] = agg;
     }
   }
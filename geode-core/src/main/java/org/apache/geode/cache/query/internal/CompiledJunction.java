@@ -98,6 +98,12 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
   // not set the place holder
   private static final String PLACEHOLDER_FOR_JOIN = "join";
 
+  /**
+   * The key under which the operands used for index planning are cached in the query execution
+   * context. The junction itself is used as the key for other planning data.
+   */
+  private final Object indexOperandsKey = new Object();
+
   CompiledJunction(CompiledValue[] operands, int operator) {
     // invariant: operator must be LITERAL_and or LITERAL_or
     // invariant: at least two operands
@@ -415,8 +421,9 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     // for LITERAL_and operator, if any say yes to filter,
     // then change default evalAsFilter from false to true
     // of LITERAL_or operator, if any say no to filter, change to false
-    for (int i = 0; i < _operands.length; i++) {
-      PlanInfo opPlanInfo = _operands[i].getPlanInfo(context);
+    CompiledValue[] operands = getIndexOperands(context);
+    for (int i = 0; i < operands.length; i++) {
+      PlanInfo opPlanInfo = operands[i].getPlanInfo(context);
       resultPlanInfo.indexes.addAll(opPlanInfo.indexes);
       if (!isOr && opPlanInfo.evalAsFilter) {
         resultPlanInfo.evalAsFilter = true;
@@ -427,6 +434,27 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     return resultPlanInfo;
   }
 
+  /**
+   * Returns the operands to plan the use of indexes with. The conditions of an AND junction on the
+   * components of a composite index are replaced by comparisons on that index.
+   */
+  private CompiledValue[] getIndexOperands(ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (_operator != LITERAL_and || !(context instanceof QueryExecutionContext)) {
+      return _operands;
+    }
+    CompiledValue[] operands = (CompiledValue[]) context.cacheGet(indexOperandsKey);
+    if (operands == null) {
+      operands = CompositeIndexConditions.combine(_operands, context);
+      if (operands == null) {
+        operands = _operands;
+      }
+      context.cachePut(indexOperandsKey, operands);
+    }
+    return operands;
+  }
+
   /* Package methods */
   @Override
   public int getOperator() {
@@ -454,11 +482,12 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     // get the list of operands to evaluate, and evaluate operands that can use
     // indexes first.
-    List evalOperands = new ArrayList(_operands.length);
+    CompiledValue[] operands = getIndexOperands(context);
+    List evalOperands = new ArrayList(operands.length);
     int indexCount = 0;
     // TODO: Check if we can defer the creation of this array list only
     // if there exists an eval operand
-    List compositeIterOperands = new ArrayList(_operands.length);
+    List compositeIterOperands = new ArrayList(operands.length);
     // Asif: This Map will contain as key the composite filter operand & as
     // value , the set containing independent RuntimeIterators ( which will
     // necessarily be two )
@@ -468,7 +497,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     boolean isJunctionNeeded = false;
     boolean indexExistsOnNonJoinOp = false;
 
-    for (int i = 0; i < _operands.length; i++) {
+    for (int i = 0; i < operands.length; i++) {
       // Asif : If we are inside this function this itself indicates
       // that there exists at least on operand which can be evaluated
       // as an auxFilterEvaluate. If any operand even if its flag of
@@ -485,7 +514,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       // We are here itself implies, that any independent operand can be
       // either true or false for an AND junction but always false for an
       // OR Junction.
-      operand = this._operands[i];
+      operand = operands[i];
       if (!operand.isDependentOnCurrentScope(context)) {
         indexCount++;
         // Asif Ensure that independent operands are always at the start
@@ -1052,10 +1081,11 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
   public boolean isProjectionEvaluationAPossibility(ExecutionContext context)
       throws FunctionDomainException, TypeMismatchException, NameResolutionException,
       QueryInvocationTargetException {
-    for (int i = 0; i < this._operands.length; ++i) {
+    CompiledValue[] operands = getIndexOperands(context);
+    for (int i = 0; i < operands.length; ++i) {
       // LIKE gives rise to a JUNCTION in CompiledLike whether wildcard is present or not
-      if ((this._operands[i].getType() == JUNCTION || this._operands[i].getType() == LIKE)
-          && this._operands[i].getPlanInfo(context).evalAsFilter) {
+      if ((operands[i].getType() == JUNCTION || operands[i].getType() == LIKE)
+          && operands[i].getPlanInfo(context).evalAsFilter) {
         return false;
       }
     }
@@ -1107,11 +1137,12 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       // hard coded to use 1 index
       // we can for the time being return true if there exists atleast one indexable condition
       boolean foundIndex = false;
-      for (int i = 0; i < this._operands.length; ++i) {
-        if (this._operands[i].getPlanInfo(context).evalAsFilter
-            && this._operands[i].getType() == JUNCTION) {
+      CompiledValue[] operands = getIndexOperands(context);
+      for (int i = 0; i < operands.length; ++i) {
+        if (operands[i].getPlanInfo(context).evalAsFilter
+            && operands[i].getType() == JUNCTION) {
           return false;
-        } else if (this._operands[i].getPlanInfo(context).evalAsFilter) {
+        } else if (operands[i].getPlanInfo(context).evalAsFilter) {
           foundIndex = true;
         }
       }
@@ -1126,15 +1157,18 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     if (this._operator == LITERAL_and) {
       // Set<IndexProtocol> usedIndex = new HashSet<IndexProtocol>();
       boolean foundRightIndex = false;
-      for (int i = 0; i < this._operands.length; ++i) {
-        PlanInfo pi = this._operands[i].getPlanInfo(context);
-        if (pi.evalAsFilter && this._operands[i].getType() == JUNCTION) {
+      CompiledValue[] operands = getIndexOperands(context);
+      for (int i = 0; i < operands.length; ++i) {
+        PlanInfo pi = operands[i].getPlanInfo(context);
+        if (pi.evalAsFilter && operands[i].getType() == JUNCTION) {
           return false;
         } else if (pi.evalAsFilter) {
           if (!foundRightIndex) {
-            IndexProtocol ip =
-                (IndexProtocol) this._operands[i].getPlanInfo(context).indexes.get(0);
-            if (ip.getCanonicalizedIndexedExpression().equals(canonicalizedOrderByClause)
+            IndexProtocol ip = (IndexProtocol) operands[i].getPlanInfo(context).indexes.get(0);
+            if ((ip.getCanonicalizedIndexedExpression().equals(canonicalizedOrderByClause)
+                || CompositeIndexConditions.isCompositeIndexCondition(operands[i])
+                    && ((Filter) operands[i]).isOrderByApplicableAtIndexLevel(context,
+                        canonicalizedOrderByClause))
                 && pi.isPreferred) {
               foundRightIndex = true;
             }
@@ -72,6 +72,18 @@ public class CompiledSelect extends AbstractCompiledValue {
   protected ObjectType cachedElementTypeForOrderBy = null;
   private boolean hasUnmappedOrderByCols = false;
 
+  /**
+   * The index generation of the cache when no index matched the where clause, or -1. While the
+   * generation is unchanged later executions skip index selection. This is never remembered when
+   * the from clause depends on a bind argument, because each execution may then iterate regions
+   * with different indexes.
+   *
+   * @see QueryPlanCache
+   */
+  private volatile long indexlessPlanGeneration = -1;
+
+  private final boolean fromClauseHasBindArgument;
+
   // used as a key in a context to identify the scope of this CompiledSelect
   private Object scopeID = new Object();
 
@@ -99,7 +111,24 @@ public class CompiledSelect extends AbstractCompiledValue {
     this.limit = limit;
     this.hints = hints;
     this.groupBy = groupByClause;
+    this.fromClauseHasBindArgument = hasBindArgument(iterators);
+  }
 
+  private static boolean hasBindArgument(List values) {
+    for (Object value : values) {
+      if (value != null && (((CompiledValue) value).getType() == QUERY_PARAM
+          || hasBindArgument(((CompiledValue) value).getChildren()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether executions may remember that no index matched the where clause.
+   */
+  boolean canRememberIndexlessPlan() {
+    return !this.fromClauseHasBindArgument;
   }
 
   @Override
@@ -472,7 +501,17 @@ public class CompiledSelect extends AbstractCompiledValue {
           }
           // see if we should evaluate as filters,
           // and count how many actual index lookups will be performed
-          PlanInfo planInfo = this.whereClause.getPlanInfo(context);
+          long indexGeneration = canRememberIndexlessPlan()
+              ? QueryPlanCache.getIndexGeneration(context.getCache()) : -1;
+          PlanInfo planInfo;
+          if (indexGeneration >= 0 && indexGeneration == this.indexlessPlanGeneration) {
+            planInfo = new PlanInfo();
+          } else {
+            planInfo = this.whereClause.getPlanInfo(context);
+            if (!planInfo.evalAsFilter && planInfo.indexes.isEmpty()) {
+              this.indexlessPlanGeneration = indexGeneration;
+            }
+          }
           if (context.cacheGet(this.whereClause) == null) {
             context.cachePut(this.whereClause, CLAUSE_EVALUATED);
           }
@@ -678,6 +717,7 @@ public class CompiledSelect extends AbstractCompiledValue {
       QueryInvocationTargetException {
 
     SelectResults results = prepareEmptyResultSet(context, false);
+    boundToLimit(results, context);
 
     // TODO: SELF : Work on limit implementation on bulk get
     // check for bulk get optimization
@@ -697,8 +737,10 @@ public class CompiledSelect extends AbstractCompiledValue {
       }
     }
     int numElementsInResult = 0;
+    QueryCompiler.Evaluator whereClauseEvaluator =
+        evaluateWhereClause ? QueryCompiler.compile(this.whereClause, context) : null;
     try {
-      doNestedIterations(0, results, context, evaluateWhereClause, numElementsInResult);
+      doNestedIterations(0, results, context, whereClauseEvaluator, numElementsInResult);
     } catch (CompiledSelect.NullIteratorException ignore) {
       return null;
     }
@@ -761,16 +803,17 @@ public class CompiledSelect extends AbstractCompiledValue {
     return cIn.optimizeBulkGet(rgn, context);
   }
 
-  // returns the number of elements added in the return ResultSet
+  // returns the number of elements added in the return ResultSet. The where clause is not
+  // evaluated if whereClauseEvaluator is null
   private int doNestedIterations(int level, SelectResults results, ExecutionContext context,
-      boolean evaluateWhereClause, int numElementsInResult)
+      QueryCompiler.Evaluator whereClauseEvaluator, int numElementsInResult)
       throws TypeMismatchException, FunctionDomainException, NameResolutionException,
       QueryInvocationTargetException, CompiledSelect.NullIteratorException {
     List iterList = context.getCurrentIterators();
     if (level == iterList.size()) {
       boolean addToResults = true;
-      if (evaluateWhereClause) {
-        Object result = this.whereClause.evaluate(context);
+      if (whereClauseEvaluator != null) {
+        Object result = whereClauseEvaluator.evaluate(context);
         QueryObserver observer = QueryObserverHolder.getInstance();
         observer.afterIterationEvaluation(result);
         if (result == null) {
@@ -839,8 +882,8 @@ public class CompiledSelect extends AbstractCompiledValue {
         rIter.setCurrent(currObj);
         QueryObserver observer = QueryObserverHolder.getInstance();
         observer.beforeIterationEvaluation(rIter, currObj);
-        numElementsInResult = doNestedIterations(level + 1, results, context, evaluateWhereClause,
-            numElementsInResult);
+        numElementsInResult = doNestedIterations(level + 1, results, context,
+            whereClauseEvaluator, numElementsInResult);
         Integer limitValue = evaluateLimitValue(context, this.limit);
         if (this.orderByAttrs == null && limitValue > -1 && numElementsInResult == limitValue) {
           break;
@@ -870,6 +913,7 @@ public class CompiledSelect extends AbstractCompiledValue {
     } else {
       int numElementsAdded = 0;
       SelectResults pResultSet = prepareEmptyResultSet(context, ignoreOrderBy);
+      boundToLimit(pResultSet, context);
       boolean isStructType = resultSet.getCollectionType().getElementType() != null
           && resultSet.getCollectionType().getElementType().isStructType();
       if (isStructType) {
@@ -1031,6 +1075,21 @@ public class CompiledSelect extends AbstractCompiledValue {
     throw new TypeMismatchException("Logical inconsistency in CompiledSelect");
   }
 
+  /**
+   * Only the first LIMIT results in ORDER BY order are returned, so sorted results need not keep
+   * more than that many candidates. Count queries keep a counter instead of candidates.
+   */
+  private void boundToLimit(SelectResults results, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (results instanceof TopKBounded && !this.count) {
+      int limitValue = evaluateLimitValue(context, this.limit);
+      if (limitValue > -1) {
+        ((TopKBounded) results).setTopK(limitValue);
+      }
+    }
+  }
+
   protected ObjectType prepareResultType(ExecutionContext context)
       throws TypeMismatchException, AmbiguousNameException {
     // if no projection attributes or '*'as projection attribute
@@ -52,6 +52,7 @@ public interface CompiledValue {
   int SUBTRACTION = -20;
   int DIVISION = -21;
   int MULTIPLICATION = -22;
+  int COMPOSITE_KEY = -23;
   int INDEX_RESULT_THRESHOLD_DEFAULT = 100;
   String INDX_THRESHOLD_PROP_STR = DistributionConfig.GEMFIRE_PREFIX + "Query.INDEX_THRESHOLD_SIZE";
   String INDEX_INFO = "index_info";
@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+import org.apache.geode.cache.query.internal.index.IndexUtils;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+
+/**
+ * Combines the conditions of an AND junction on the components of a composite index into
+ * comparisons on that index. Equality conditions on its first components, optionally followed by
+ * range conditions on the next component, select a single range of composite keys: for an index on
+ * {@code tenant, ts} the conditions {@code tenant = $1 AND ts > $2} select the keys above
+ * {@code ($1, $2)} and below {@code ($1)} followed by any value. The range is expressed as
+ * comparisons of a {@link CompiledCompositeKey} path with {@link CompiledCompositeKey} bounds,
+ * which are then planned like the comparisons on any other index, so that two of them form a
+ * RangeJunction evaluated by a single index lookup.
+ */
+class CompositeIndexConditions {
+
+  private CompositeIndexConditions() {}
+
+  /**
+   * Returns the operands of the junction with the conditions on composite indexes replaced by
+   * comparisons on those indexes, or null if no composite index can be used.
+   */
+  static CompiledValue[] combine(CompiledValue[] operands, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    Map<RuntimeIterator, List<Condition>> conditionsByIterator = new LinkedHashMap<>();
+    for (CompiledValue operand : operands) {
+      if (isCompositeIndexCondition(operand)) {
+        // already combined
+        return null;
+      }
+      Condition condition = Condition.of(operand, context);
+      if (condition != null) {
+        conditionsByIterator.computeIfAbsent(condition.iterator, k -> new ArrayList<>())
+            .add(condition);
+      }
+    }
+
+    List<CompiledValue> combined = new ArrayList<>();
+    List<CompiledValue> replaced = new ArrayList<>();
+    for (Map.Entry<RuntimeIterator, List<Condition>> entry : conditionsByIterator.entrySet()) {
+      IndexManager indexManager = getIndexManager(entry.getKey(), context);
+      if (indexManager == null) {
+        continue;
+      }
+      Plan best = null;
+      for (String[] components : indexManager.getCompositeIndexComponents()) {
+        Plan plan = Plan.create(components, entry.getValue());
+        if (plan != null && plan.isBetterThan(best)) {
+          best = plan;
+        }
+      }
+      if (best == null || !best.isWorthwhile(context)) {
+        continue;
+      }
+      List<CompiledComparison> comparisons = best.createComparisons(context);
+      if (comparisons != null) {
+        combined.addAll(comparisons);
+        replaced.addAll(best.getOperands());
+      }
+    }
+    if (combined.isEmpty()) {
+      return null;
+    }
+
+    List<CompiledValue> result = new ArrayList<>(operands.length);
+    for (CompiledValue operand : operands) {
+      if (!replaced.contains(operand)) {
+        result.add(operand);
+      }
+    }
+    result.addAll(combined);
+    return result.toArray(new CompiledValue[0]);
+  }
+
+  /**
+   * Returns true if the operand is a comparison created from conditions on a composite index.
+   */
+  static boolean isCompositeIndexCondition(CompiledValue operand) {
+    return operand.getType() == CompiledValue.COMPARISON
+        && ((CompiledComparison) operand).isOnCompositeKey();
+  }
+
+  private static IndexManager getIndexManager(RuntimeIterator iterator,
+      ExecutionContext context) {
+    if (iterator.getScopeID() != context.currentScope().getScopeID()) {
+      return null;
+    }
+    String regionPath = context.getRegionPathForIndependentRuntimeIterator(iterator);
+    if (regionPath == null) {
+      return null;
+    }
+    Region region = context.getCache().getRegion(regionPath);
+    return IndexUtils.getIndexManager(context.getCache(), region, false);
+  }
+
+  /**
+   * A comparison of an expression on a single iterator with a value.
+   */
+  private static class Condition {
+
+    private final CompiledComparison operand;
+
+    private final RuntimeIterator iterator;
+
+    private final CompiledValue path;
+
+    private final String canonicalizedPath;
+
+    private final CompiledValue key;
+
+    /** The operator of {@code path operator key} */
+    private final int operator;
+
+    private Condition(CompiledComparison operand, RuntimeIterator iterator, CompiledValue path,
+        String canonicalizedPath, CompiledValue key, int operator) {
+      this.operand = operand;
+      this.iterator = iterator;
+      this.path = path;
+      this.canonicalizedPath = canonicalizedPath;
+      this.key = key;
+      this.operator = operator;
+    }
+
+    static Condition of(CompiledValue operand, ExecutionContext context)
+        throws TypeMismatchException, NameResolutionException {
+      if (operand.getType() != CompiledValue.COMPARISON) {
+        return null;
+      }
+      CompiledComparison comparison = (CompiledComparison) operand;
+      if (!comparison.isRangeEvaluatable()) {
+        return null;
+      }
+      Set iterators = QueryUtils.getCurrentScopeUltimateRuntimeIteratorsIfAny(comparison, context);
+      if (iterators.size() != 1) {
+        return null;
+      }
+      CompiledComparison.PathAndKey pathAndKey = comparison.getPathAndKey(context);
+      if (pathAndKey == null) {
+        return null;
+      }
+      int operator = comparison.reflectOnOperator(pathAndKey._key);
+      if (operator != OQLLexerTokenTypes.TOK_EQ && operator != OQLLexerTokenTypes.TOK_LT
+          && operator != OQLLexerTokenTypes.TOK_LE && operator != OQLLexerTokenTypes.TOK_GT
+          && operator != OQLLexerTokenTypes.TOK_GE) {
+        return null;
+      }
+      StringBuilder canonicalizedPath = new StringBuilder();
+      pathAndKey._path.generateCanonicalizedExpression(canonicalizedPath, context);
+      return new Condition(comparison, (RuntimeIterator) iterators.iterator().next(),
+          pathAndKey._path, canonicalizedPath.toString(), pathAndKey._key, operator);
+    }
+
+    boolean isLowerBound() {
+      return this.operator == OQLLexerTokenTypes.TOK_GT
+          || this.operator == OQLLexerTokenTypes.TOK_GE;
+    }
+
+    boolean isUpperBound() {
+      return this.operator == OQLLexerTokenTypes.TOK_LT
+          || this.operator == OQLLexerTokenTypes.TOK_LE;
+    }
+  }
+
+  /**
+   * The conditions of a junction usable with one composite index: equality conditions on its
+   * first components, and at most one lower and one upper bound of the component following them.
+   */
+  private static class Plan {
+
+    private final String[] components;
+
+    private final List<Condition> equalities;
+
+    private final Condition lower;
+
+    private final Condition upper;
+
+    private Plan(String[] components, List<Condition> equalities, Condition lower,
+        Condition upper) {
+      this.components = components;
+      this.equalities = equalities;
+      this.lower = lower;
+      this.upper = upper;
+    }
+
+    static Plan create(String[] components, List<Condition> conditions) {
+      List<Condition> equalities = new ArrayList<>();
+      while (equalities.size() < components.length) {
+        Condition equality =
+            find(conditions, components[equalities.size()], OQLLexerTokenTypes.TOK_EQ);
+        if (equality == null) {
+          break;
+        }
+        equalities.add(equality);
+      }
+      Condition lower = null;
+      Condition upper = null;
+      if (equalities.size() < components.length) {
+        String rangeComponent = components[equalities.size()];
+        for (Condition condition : conditions) {
+          if (!condition.canonicalizedPath.equals(rangeComponent)) {
+            continue;
+          }
+          if (lower == null && condition.isLowerBound()) {
+            lower = condition;
+          } else if (upper == null && condition.isUpperBound()) {
+            upper = condition;
+          }
+        }
+      }
+      if (equalities.isEmpty() && lower == null && upper == null) {
+        return null;
+      }
+      return new Plan(components, equalities, lower, upper);
+    }
+
+    private static Condition find(List<Condition> conditions, String component, int operator) {
+      for (Condition condition : conditions) {
+        if (condition.operator == operator && condition.canonicalizedPath.equals(component)) {
+          return condition;
+        }
+      }
+      return null;
+    }
+
+    List<CompiledComparison> getOperands() {
+      List<CompiledComparison> operands = new ArrayList<>();
+      for (Condition equality : this.equalities) {
+        operands.add(equality.operand);
+      }
+      if (this.lower != null) {
+        operands.add(this.lower.operand);
+      }
+      if (this.upper != null) {
+        operands.add(this.upper.operand);
+      }
+      return operands;
+    }
+
+    int size() {
+      return this.equalities.size() + (this.lower != null ? 1 : 0) + (this.upper != null ? 1 : 0);
+    }
+
+    boolean isBetterThan(Plan other) {
+      if (other == null) {
+        return true;
+      }
+      if (size() != other.size()) {
+        return size() > other.size();
+      }
+      return this.equalities.size() > other.equalities.size();
+    }
+
+    /**
+     * A single condition is only worth combining if it can not use an index of its own.
+     */
+    boolean isWorthwhile(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      if (size() > 1) {
+        return true;
+      }
+      return !getOperands().get(0).getPlanInfo(context).evalAsFilter;
+    }
+
+    /**
+     * Creates the comparisons selecting the range of keys of the plan, or returns null if they can
+     * not be evaluated using the composite index.
+     */
+    List<CompiledComparison> createComparisons(ExecutionContext context)
+        throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+        QueryInvocationTargetException {
+      int fixed = this.equalities.size();
+      boolean hasRange = this.lower != null || this.upper != null;
+      CompiledValue[] paths = new CompiledValue[hasRange ? fixed + 1 : fixed];
+      CompiledValue[] values = new CompiledValue[fixed];
+      for (int i = 0; i < fixed; i++) {
+        paths[i] = this.equalities.get(i).path;
+        values[i] = this.equalities.get(i).key;
+      }
+      if (hasRange) {
+        paths[fixed] = this.lower != null ? this.lower.path : this.upper.path;
+      }
+      CompiledCompositeKey path = CompiledCompositeKey.path(paths, this.components, fixed);
+
+      List<CompiledComparison> comparisons = new ArrayList<>(2);
+      if (fixed == this.components.length) {
+        comparisons.add(new CompiledComparison(path,
+            CompiledCompositeKey.bound(values, CompositeIndexKey.EXACT, false),
+            OQLLexerTokenTypes.TOK_EQ));
+      } else {
+        comparisons.add(createLowerBound(path, values));
+        comparisons.add(createUpperBound(path, values));
+      }
+
+      for (CompiledComparison comparison : comparisons) {
+        comparison.computeDependencies(context);
+        if (!comparison.getPlanInfo(context).evalAsFilter) {
+          return null;
+        }
+      }
+      return comparisons;
+    }
+
+    private CompiledComparison createLowerBound(CompiledValue path, CompiledValue[] values) {
+      if (this.lower == null) {
+        if (this.upper == null) {
+          // all keys starting with the values
+          return new CompiledComparison(path,
+              CompiledCompositeKey.bound(values, CompositeIndexKey.BELOW, false),
+              OQLLexerTokenTypes.TOK_GE);
+        }
+        // a range condition on null is never true, exclude the keys whose component is null
+        return new CompiledComparison(path, CompiledCompositeKey
+            .bound(append(values, new CompiledLiteral(null)), CompositeIndexKey.ABOVE, false),
+            OQLLexerTokenTypes.TOK_GT);
+      }
+      // keys starting with the bound value sort above a greater than bound
+      int bound = this.lower.operator == OQLLexerTokenTypes.TOK_GT ? CompositeIndexKey.ABOVE
+          : CompositeIndexKey.BELOW;
+      return new CompiledComparison(path,
+          CompiledCompositeKey.bound(append(values, this.lower.key), bound, true),
+          this.lower.operator);
+    }
+
+    private CompiledComparison createUpperBound(CompiledValue path, CompiledValue[] values) {
+      if (this.upper == null) {
+        return new CompiledComparison(path,
+            CompiledCompositeKey.bound(values, CompositeIndexKey.ABOVE, false),
+            OQLLexerTokenTypes.TOK_LE);
+      }
+      // keys starting with the bound value sort below a less than bound
+      int bound = this.upper.operator == OQLLexerTokenTypes.TOK_LT ? CompositeIndexKey.BELOW
+          : CompositeIndexKey.ABOVE;
+      return new CompiledComparison(path,
+          CompiledCompositeKey.bound(append(values, this.upper.key), bound, true),
+          this.upper.operator);
+    }
+
+    private static CompiledValue[] append(CompiledValue[] values, CompiledValue value) {
+      CompiledValue[] result = new CompiledValue[values.length + 1];
+      System.arraycopy(values, 0, result, 0, values.length);
+      result[values.length] = value;
+      return result;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.pdx.internal.PdxString;
+
+/**
+ * The key of a composite index: the values of its indexed expressions, ordered component by
+ * component. A key used as a bound of an index lookup may hold only the first components; its
+ * missing components then sort below or above all values, so that for example the keys between
+ * {@code (t)} below and {@code (t)} above are all the keys whose first component is t.
+ */
+class CompositeIndexKey implements Comparable<CompositeIndexKey> {
+
+  /** The key holds all components. */
+  static final int EXACT = 0;
+
+  /** The missing components of the key sort below all values. */
+  static final int BELOW = -1;
+
+  /** The missing components of the key sort above all values. */
+  static final int ABOVE = 1;
+
+  private static final Comparator COMPARATOR = TypeUtils.getExtendedNumericComparator();
+
+  private final Object[] components;
+
+  private final int bound;
+
+  CompositeIndexKey(Object[] components, int bound) throws TypeMismatchException {
+    this.components = new Object[components.length];
+    for (int i = 0; i < components.length; i++) {
+      Object component = components[i];
+      if (component instanceof PdxString) {
+        // keys of pdx values and of query parameters have to compare equal
+        component = component.toString();
+      }
+      this.components[i] = TypeUtils.indexKeyFor(component);
+    }
+    this.bound = bound;
+  }
+
+  int size() {
+    return this.components.length;
+  }
+
+  @Override
+  public int compareTo(CompositeIndexKey other) {
+    int length = Math.min(this.components.length, other.components.length);
+    for (int i = 0; i < length; i++) {
+      int result = compareComponents(this.components[i], other.components[i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    if (this.components.length == other.components.length) {
+      return Integer.compare(this.bound, other.bound);
+    }
+    if (this.components.length < other.components.length) {
+      return this.bound == ABOVE ? 1 : -1;
+    }
+    return other.bound == ABOVE ? -1 : 1;
+  }
+
+  /**
+   * Compares two components, null sorts below all other values.
+   */
+  @SuppressWarnings("unchecked")
+  private static int compareComponents(Object component, Object otherComponent) {
+    if (component == null) {
+      return otherComponent == null ? 0 : -1;
+    }
+    if (otherComponent == null) {
+      return 1;
+    }
+    return COMPARATOR.compare(component, otherComponent);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof CompositeIndexKey)) {
+      return false;
+    }
+    try {
+      return compareTo((CompositeIndexKey) other) == 0;
+    } catch (ClassCastException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    int result = this.bound;
+    for (Object component : this.components) {
+      int hash;
+      if (component instanceof Number) {
+        // numbers of different types compare equal if their values do
+        hash = Float.hashCode((float) ((Number) component).doubleValue());
+      } else {
+        hash = component == null ? 0 : component.hashCode();
+      }
+      result = 31 * result + hash;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    String values = Arrays.toString(this.components);
+    if (this.bound == BELOW) {
+      return values + " below";
+    }
+    if (this.bound == ABOVE) {
+      return values + " above";
+    }
+    return values;
+  }
+}
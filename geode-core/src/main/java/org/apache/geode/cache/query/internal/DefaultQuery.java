@@ -30,6 +30,7 @@ import org.apache.geode.annotations.internal.MakeNotStatic;
 import org.apache.geode.annotations.internal.MutableForTesting;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.client.internal.ProxyCache;
+import org.apache.geode.cache.client.internal.QueryResultIterator;
 import org.apache.geode.cache.client.internal.ServerProxy;
 import org.apache.geode.cache.client.internal.UserAttributes;
 import org.apache.geode.cache.execute.Function;
@@ -39,8 +40,6 @@ import org.apache.geode.cache.persistence.PartitionOfflineException;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.Query;
-import org.apache.geode.cache.query.QueryException;
-import org.apache.geode.cache.query.QueryInvalidException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.QueryStatistics;
@@ -163,18 +162,11 @@ public class DefaultQuery implements Query {
    */
   public DefaultQuery(String queryString, InternalCache cache, boolean isForRemote) {
     this.queryString = queryString;
-    QCompiler compiler = new QCompiler();
-    this.compiledQuery = compiler.compileQuery(queryString);
-    CompiledSelect cs = getSimpleSelect();
-    if (cs != null && !isForRemote && (cs.isGroupBy() || cs.isOrderBy())) {
-      QueryExecutionContext ctx = new QueryExecutionContext(null, cache);
-      try {
-        cs.computeDependencies(ctx);
-      } catch (QueryException qe) {
-        throw new QueryInvalidException("", qe);
-      }
-    }
-    this.traceOn = compiler.isTraceRequested() || QUERY_VERBOSE;
+    QueryPlanCache planCache = isForRemote ? null : cache.getQueryPlanCache();
+    QueryPlanCache.QueryPlan plan = planCache != null ? planCache.getPlan(queryString, cache)
+        : QueryPlanCache.compile(queryString, cache, isForRemote);
+    this.compiledQuery = plan.getCompiledQuery();
+    this.traceOn = plan.isTraceRequested() || QUERY_VERBOSE;
     this.cache = cache;
     statisticsClock = cache.getStatisticsClock();
     this.stats = new DefaultQueryStatistics();
@@ -336,6 +328,38 @@ public class DefaultQuery implements Query {
     return result;
   }
 
+  /**
+   * Executes the query on the server of its pool and returns the results while they are received,
+   * instead of collecting them into a SelectResults first. The client holds only a few chunks of
+   * results at a time, and the server waits for the client to consume them before sending more.
+   *
+   * @param params the bind parameters of the query
+   * @return an iterator over the results, which must be closed if it is not consumed completely
+   * @throws UnsupportedOperationException if the query is not executed on a server
+   */
+  public QueryResultIterator executeStreaming(Object[] params) {
+    if (params == null) {
+      throw new IllegalArgumentException("'parameters' cannot be null");
+    }
+    if (this.serverProxy == null) {
+      throw new UnsupportedOperationException(
+          "Streaming query results is only supported for queries executed on a server.");
+    }
+    long startTime = statisticsClock.getTime();
+    try {
+      if (this.proxyCache != null) {
+        if (this.proxyCache.isClosed()) {
+          throw proxyCache.getCacheClosedException("Cache is closed for this user.");
+        }
+        UserAttributes.userAttributes.set(this.proxyCache.getUserAttributes());
+      }
+      return this.serverProxy.queryStreaming(this.queryString, params);
+    } finally {
+      UserAttributes.userAttributes.set(null);
+      updateStatistics(statisticsClock.getTime() - startTime);
+    }
+  }
+
   /**
    * Execute a PR Query on the specified bucket. Assumes query already meets restrictions for PR
    * Query, and the first iterator in the FROM clause can be replaced with the BucketRegion.
@@ -725,7 +749,7 @@ public class DefaultQuery implements Query {
     if (observer instanceof IndexTrackingQueryObserver) {
       IndexTrackingQueryObserver indexObserver = (IndexTrackingQueryObserver) observer;
       Map usedIndexes = indexObserver.getUsedIndexes();
-      indexObserver.reset();
+      Collection<String> indexSelections = indexObserver.getIndexSelections();
       StringBuilder sb = new StringBuilder();
       sb.append(" indexesUsed(");
       sb.append(usedIndexes.size());
@@ -740,6 +764,16 @@ public class DefaultQuery implements Query {
           }
         }
       }
+      if (!indexSelections.isEmpty()) {
+        sb.append(" indexSelection:");
+        for (Iterator<String> itr = indexSelections.iterator(); itr.hasNext();) {
+          sb.append(itr.next());
+          if (itr.hasNext()) {
+            sb.append(',');
+          }
+        }
+      }
+      indexObserver.reset();
       usedIndexesString = sb.toString();
     } else if (DefaultQuery.QUERY_VERBOSE) {
       usedIndexesString = " indexesUsed(NA due to other observer in the way: "
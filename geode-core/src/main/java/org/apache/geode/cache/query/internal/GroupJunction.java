@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.Index;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.TypeMismatchException;
@@ -100,10 +101,12 @@ public class GroupJunction extends AbstractGroupOrRangeJunction {
          * range or those which belong to different independent runtime iterators ( in case of multi
          * region queries). So going for the quick fix of sorting here. The filter operands present
          * here could be Comaprisn, IN or Range. The priority of sorting will be
-         * equality/IN/Range/Inequality
+         * equality/IN/Range/Inequality, unless the size estimates of the indexes disagree strongly,
+         * see IndexCostModel.
          */
 
         Filter currentBestFilter = null;
+        Index currentBestIndex = null;
         int currentBestFilterSize = -1;
         indexCount = 1;
 
@@ -130,29 +133,47 @@ public class GroupJunction extends AbstractGroupOrRangeJunction {
           // leave an operand with two indexes, but the key element is not set
           // this will throw an npe
           if (pi.evalAsFilter && pi.indexes.size() == 1) {
+            Filter filter = (Filter) _operands[i];
+            Index index = (Index) pi.indexes.get(0);
             if (pi.isPreferred) {
               if (currentBestFilter != null) {
                 evalOperands.add(currentBestFilter);
               }
               // new best
-              currentBestFilter = (Filter) _operands[i];
-              currentBestFilterSize = ((Filter) _operands[i]).getSizeEstimate(context);
+              currentBestFilter = filter;
+              currentBestIndex = index;
+              currentBestFilterSize = filter.getSizeEstimate(context);
               foundPreferredCondition = true;
               continue;
             }
             if (currentBestFilter == null) {
-              currentBestFilter = (Filter) _operands[i];
-              currentBestFilterSize = ((Filter) _operands[i]).getSizeEstimate(context);
-            } else if (foundPreferredCondition || currentBestFilter
-                .isBetterFilter((Filter) _operands[i], context, currentBestFilterSize)) {
+              currentBestFilter = filter;
+              currentBestIndex = index;
+              currentBestFilterSize = filter.getSizeEstimate(context);
+            } else if (foundPreferredCondition) {
               evalOperands.add(_operands[i]);
             } else {
-              evalOperands.add(currentBestFilter);
-              currentBestFilter = (Filter) _operands[i];
-              // TODO:Asif: Avoid this call. Let the function which is doing the
-              // comparison return some how the size of comparedTo operand.
-              currentBestFilterSize = ((Filter) _operands[i]).getSizeEstimate(context);
-
+              int filterSize = filter.getSizeEstimate(context);
+              boolean keepCurrent =
+                  currentBestFilter.isBetterFilter(filter, context, currentBestFilterSize);
+              boolean costBased = IndexCostModel.overridesPreference(keepCurrent,
+                  currentBestFilterSize, filterSize);
+              if (costBased) {
+                keepCurrent = !keepCurrent;
+              }
+              QueryObserver observer = QueryObserverHolder.getInstance();
+              if (keepCurrent) {
+                observer.afterIndexSelection(currentBestIndex, currentBestFilterSize, index,
+                    filterSize, costBased);
+                evalOperands.add(_operands[i]);
+              } else {
+                observer.afterIndexSelection(index, filterSize, currentBestIndex,
+                    currentBestFilterSize, costBased);
+                evalOperands.add(currentBestFilter);
+                currentBestFilter = filter;
+                currentBestIndex = index;
+                currentBestFilterSize = filterSize;
+              }
             }
           } else if (!_operands[i].isDependentOnCurrentScope(context)) {
             // TODO: Asif :Remove this Assert & else if condition after successful
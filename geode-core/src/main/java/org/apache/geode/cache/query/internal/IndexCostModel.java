@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Decides which of two indexed conditions of an AND junction is evaluated using its index.
+ * {@link Filter#isBetterFilter} prefers conditions by operator, equality before ranges before
+ * inequality, because size estimates used to be unreliable. Now that range estimates come from
+ * the histograms of the indexes, the preference is overridden when the preferred condition is
+ * estimated to select many times more values than the other one.
+ */
+class IndexCostModel {
+
+  static final boolean DISABLED = Boolean
+      .getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.DISABLE_COST_BASED_INDEX_SELECTION");
+
+  /**
+   * How many times more values the condition preferred by operator must be estimated to select
+   * before the other condition is chosen instead.
+   */
+  static final int COST_RATIO =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.INDEX_COST_RATIO", 4);
+
+  private IndexCostModel() {}
+
+  /**
+   * Returns true if the estimates should override the choice made by operator preference.
+   *
+   * @param preferCurrent the result of {@link Filter#isBetterFilter} for the current filter
+   */
+  static boolean overridesPreference(boolean preferCurrent, int currentSize, int candidateSize) {
+    if (DISABLED || !isEstimated(currentSize) || !isEstimated(candidateSize)) {
+      return false;
+    }
+    if (preferCurrent) {
+      return currentSize > (long) candidateSize * COST_RATIO;
+    }
+    return candidateSize > (long) currentSize * COST_RATIO;
+  }
+
+  /**
+   * Indexes return Integer.MAX_VALUE when they can not estimate a condition.
+   */
+  private static boolean isEstimated(int size) {
+    return size >= 0 && size != Integer.MAX_VALUE;
+  }
+}
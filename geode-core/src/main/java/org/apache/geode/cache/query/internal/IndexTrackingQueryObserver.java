@@ -21,6 +21,7 @@ package org.apache.geode.cache.query.internal;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -42,6 +43,7 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
   private static final ThreadLocal indexInfo = new ThreadLocal();
   private static final ThreadLocal lastKeyUsed = new ThreadLocal();
   private static final ThreadLocal lastIndexUsed = new ThreadLocal();
+  private static final ThreadLocal<Map<String, String>> indexSelections = new ThreadLocal<>();
   private volatile TestHook th;
 
   @Override
@@ -119,6 +121,35 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
     }
   }
 
+  /**
+   * Records why an index was chosen over another one. Only the last decision between the same two
+   * indexes is kept, so the buckets of a partitioned region do not repeat it.
+   */
+  @Override
+  public void afterIndexSelection(Index chosen, int chosenSize, Index rejected, int rejectedSize,
+      boolean costBased) {
+    Map<String, String> selections = indexSelections.get();
+    if (selections == null) {
+      selections = new LinkedHashMap<>();
+      indexSelections.set(selections);
+    }
+    selections.put(chosen.getName() + '/' + rejected.getName(),
+        chosen.getName() + "(estimate: " + chosenSize + ") over " + rejected.getName()
+            + "(estimate: " + rejectedSize + ")"
+            + (costBased ? " by estimated cost" : " by operator preference"));
+  }
+
+  /**
+   * Returns the index selections made since the last {@link #reset()}.
+   */
+  public Collection<String> getIndexSelections() {
+    Map<String, String> selections = indexSelections.get();
+    if (selections == null) {
+      return Collections.emptyList();
+    }
+    return selections.values();
+  }
+
   private String getIndexName(Index index, Object key) {
     String indexName;
     if ((index instanceof MapRangeIndex || index instanceof CompactMapRangeIndex)
@@ -140,6 +171,7 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
       th.hook(4);
     }
     this.indexInfo.set(null);
+    indexSelections.set(null);
   }
 
   public void setIndexInfo(Map indexInfoMap) {
@@ -25,6 +25,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 import org.apache.geode.DataSerializer;
@@ -219,7 +220,7 @@ public class NWayMergeResults<E> implements SelectResults<E>, Ordered, DataSeria
       if (isDistinct) {
         iter = new NWayMergeDistinctIterator();
       } else {
-        iter = new NWayMergeIterator();
+        iter = new HeapMergeIterator();
       }
       if (this.limit > -1) {
         iter = new LimitIterator<E>(iter, this.limit);
@@ -227,6 +228,74 @@ public class NWayMergeResults<E> implements SelectResults<E>, Ordered, DataSeria
       return iter;
     }
 
+    int compareElements(E obj1, E obj2) {
+      return collectionType.getElementType().isStructType() ? comparator
+          .compare(((StructImpl) obj1).getFieldValues(), ((StructImpl) obj2).getFieldValues())
+          : comparator.compare(obj1, obj2);
+    }
+
+    /**
+     * Merges the sorted results using a heap of their iterators, so that each element takes log(n)
+     * comparisons for n sorted results instead of n. There is one sorted result per bucket or per
+     * chunk received from a member, so n can be large. Equal elements are returned in the order of
+     * the sorted results, as by {@link NWayMergeIterator}.
+     */
+    private class HeapMergeIterator implements Iterator<E> {
+
+      private final PriorityQueue<HeapEntry> heap;
+
+      HeapMergeIterator() {
+        this.heap = new PriorityQueue<>(Math.max(1, sortedResults.size()), (entry1, entry2) -> {
+          int result = compareElements(entry1.current, entry2.current);
+          return result != 0 ? result : Integer.compare(entry1.index, entry2.index);
+        });
+        int index = 0;
+        for (Collection<E> result : sortedResults) {
+          Iterator<E> iterator = result.iterator();
+          if (iterator.hasNext()) {
+            this.heap.add(new HeapEntry(index, iterator, iterator.next()));
+          }
+          index++;
+        }
+      }
+
+      @Override
+      public boolean hasNext() {
+        return !this.heap.isEmpty();
+      }
+
+      @Override
+      public E next() {
+        HeapEntry entry = this.heap.poll();
+        if (entry == null) {
+          throw new NoSuchElementException();
+        }
+        E next = entry.current;
+        if (entry.iterator.hasNext()) {
+          entry.current = entry.iterator.next();
+          this.heap.add(entry);
+        }
+        return next;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException("remove not supported");
+      }
+
+      private class HeapEntry {
+        private final int index;
+        private final Iterator<E> iterator;
+        private E current;
+
+        private HeapEntry(int index, Iterator<E> iterator, E current) {
+          this.index = index;
+          this.iterator = iterator;
+          this.current = current;
+        }
+      }
+    }
+
     private class NWayMergeIterator implements Iterator<E> {
 
       protected final IteratorWrapper<E>[] iterators;
@@ -307,10 +376,7 @@ public class NWayMergeResults<E> implements SelectResults<E>, Ordered, DataSeria
       }
 
       protected int compare(E obj1, E obj2) {
-        return collectionType.getElementType().isStructType() ? comparator
-            .compare(((StructImpl) obj1).getFieldValues(), ((StructImpl) obj2).getFieldValues())
-            : comparator.compare(obj1, obj2);
-
+        return compareElements(obj1, obj2);
       }
 
       @Override
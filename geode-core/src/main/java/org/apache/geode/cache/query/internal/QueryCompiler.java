@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.List;
+
+import org.apache.geode.cache.EntryDestroyedException;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxType;
+
+/**
+ * Compiles the WHERE clause of a {@link CompiledSelect} into a tree of {@link Evaluator}s that is
+ * used instead of {@link CompiledValue#evaluate} for every entry of an index-less scan.
+ *
+ * <p>
+ * Comparisons of a numeric PDX field of the iterator with a literal or bind argument are
+ * specialized: the field is located once per {@link PdxType} and read as a primitive straight from
+ * the serialized bytes, and the comparison is done on primitives with the same rules as
+ * {@link org.apache.geode.cache.query.internal.types.NumericComparator}. AND, OR and NOT are
+ * compiled recursively. Anything else, and any entry that is not a PDX instance with the expected
+ * field, is evaluated by the interpreter so results are identical.
+ */
+public class QueryCompiler {
+
+  static final boolean DISABLED = Boolean
+      .getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.DISABLE_EXPRESSION_COMPILATION");
+
+  /**
+   * An expression that evaluates against the current iteration state of a context.
+   */
+  interface Evaluator {
+    Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException;
+  }
+
+  private QueryCompiler() {}
+
+  /**
+   * Compiles an expression for evaluation against the iterators currently in scope. The result is
+   * only valid for the execution it was compiled in, because bind arguments are read once.
+   */
+  static Evaluator compile(CompiledValue expression, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (DISABLED || context.isCqQueryContext()) {
+      return new Interpreted(expression);
+    }
+    List iterators = context.getCurrentIterators();
+    if (iterators.size() != 1) {
+      return new Interpreted(expression);
+    }
+    return compile(expression, (RuntimeIterator) iterators.get(0), context);
+  }
+
+  private static Evaluator compile(CompiledValue expression, RuntimeIterator iterator,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    Class<?> expressionClass = expression.getClass();
+    if (expressionClass == CompiledJunction.class) {
+      List operands = expression.getChildren();
+      Evaluator[] compiled = new Evaluator[operands.size()];
+      for (int i = 0; i < compiled.length; i++) {
+        compiled[i] = compile((CompiledValue) operands.get(i), iterator, context);
+      }
+      return new Junction(compiled, ((CompiledJunction) expression).getOperator());
+    }
+    if (expressionClass == CompiledNegation.class) {
+      return new Negation(
+          compile((CompiledValue) expression.getChildren().get(0), iterator, context));
+    }
+    if (expressionClass == CompiledComparison.class) {
+      Evaluator comparison =
+          compileComparison((CompiledComparison) expression, iterator, context);
+      if (comparison != null) {
+        return comparison;
+      }
+    }
+    return new Interpreted(expression);
+  }
+
+  private static Evaluator compileComparison(CompiledComparison comparison,
+      RuntimeIterator iterator, ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    CompiledValue attribute;
+    CompiledValue constant;
+    int operator = comparison.getOperator();
+    if (isConstant(comparison._right)) {
+      attribute = comparison._left;
+      constant = comparison._right;
+    } else if (isConstant(comparison._left)) {
+      attribute = comparison._right;
+      constant = comparison._left;
+      operator = comparison.reflectOperator(operator);
+    } else {
+      return null;
+    }
+    Object value = constant.evaluate(context);
+    if (!isSupportedNumber(value)) {
+      return null;
+    }
+    List path = attribute.getPathOnIterator(iterator, context);
+    if (path == null || path.size() != 1) {
+      return null;
+    }
+    return new PdxNumericComparison(comparison, iterator, (String) path.get(0), operator,
+        (Number) value);
+  }
+
+  private static boolean isConstant(CompiledValue value) {
+    int type = value.getType();
+    return type == CompiledValue.LITERAL || type == OQLLexerTokenTypes.QUERY_PARAM;
+  }
+
+  private static boolean isSupportedNumber(Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Double
+        || value instanceof Float || value instanceof Short || value instanceof Byte;
+  }
+
+  static class Interpreted implements Evaluator {
+    private final CompiledValue expression;
+
+    Interpreted(CompiledValue expression) {
+      this.expression = expression;
+    }
+
+    @Override
+    public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      return expression.evaluate(context);
+    }
+  }
+
+  /**
+   * AND or OR with the same short circuit and UNDEFINED semantics as {@link CompiledJunction}.
+   */
+  static class Junction implements Evaluator {
+    private final Evaluator[] operands;
+    private final boolean and;
+
+    Junction(Evaluator[] operands, int operator) {
+      this.operands = operands;
+      this.and = operator == OQLLexerTokenTypes.LITERAL_and;
+    }
+
+    @Override
+    public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      Object r = operands[0].evaluate(context);
+      if (r instanceof Boolean && (Boolean) r != and) {
+        return r;
+      }
+      if (r == null || r == QueryService.UNDEFINED) {
+        r = QueryService.UNDEFINED;
+      } else if (!(r instanceof Boolean)) {
+        throw operandTypeMismatch(r);
+      }
+      for (int i = 1; i < operands.length; i++) {
+        Object ri;
+        try {
+          ri = operands[i].evaluate(context);
+        } catch (EntryDestroyedException ignore) {
+          continue;
+        }
+        if (ri instanceof Boolean && (Boolean) ri != and) {
+          return ri;
+        }
+        if (ri == null || ri == QueryService.UNDEFINED || r == QueryService.UNDEFINED) {
+          r = QueryService.UNDEFINED;
+        } else if (!(ri instanceof Boolean)) {
+          throw operandTypeMismatch(ri);
+        }
+        // otherwise both are equal to the non short circuiting value
+      }
+      return r;
+    }
+
+    private static TypeMismatchException operandTypeMismatch(Object operand) {
+      return new TypeMismatchException(
+          String.format("LITERAL_and/LITERAL_or operands must be of type boolean, not type ' %s '",
+              operand.getClass().getName()));
+    }
+  }
+
+  static class Negation implements Evaluator {
+    private final Evaluator operand;
+
+    Negation(Evaluator operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      Object value = operand.evaluate(context);
+      if (value instanceof Boolean) {
+        return !(Boolean) value;
+      }
+      if (value == null || value == QueryService.UNDEFINED) {
+        return QueryService.UNDEFINED;
+      }
+      throw new TypeMismatchException(String.format("%s cannot be negated", value.getClass()));
+    }
+  }
+
+  /**
+   * Compares a numeric field of the current PDX value of an iterator with a constant, with the
+   * field on the left hand side.
+   */
+  static class PdxNumericComparison implements Evaluator {
+    private final CompiledComparison comparison;
+    private final RuntimeIterator iterator;
+    private final String fieldName;
+    private final int operator;
+    private final long longConstant;
+    private final double doubleConstant;
+    private final boolean doubleConstantType;
+    private final boolean floatConstantType;
+    private final boolean longConstantType;
+
+    private PdxType lastType;
+    private PdxField lastField;
+
+    PdxNumericComparison(CompiledComparison comparison, RuntimeIterator iterator,
+        String fieldName, int operator, Number constant) {
+      this.comparison = comparison;
+      this.iterator = iterator;
+      this.fieldName = fieldName;
+      this.operator = operator;
+      this.longConstant = constant.longValue();
+      this.doubleConstant = constant.doubleValue();
+      this.doubleConstantType = constant instanceof Double;
+      this.floatConstantType = constant instanceof Float;
+      this.longConstantType = constant instanceof Long;
+    }
+
+    @Override
+    public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      Object current = iterator.evaluate(context);
+      // writable instances may hold unflushed changes so they are left to the interpreter
+      if (current != null && current.getClass() == PdxInstanceImpl.class) {
+        PdxInstanceImpl pdx = (PdxInstanceImpl) current;
+        PdxType type = pdx.getPdxType();
+        if (type != lastType) {
+          lastField = getNumericField(type);
+          lastType = type;
+        }
+        if (lastField != null) {
+          return applyOperator(compare(pdx, lastField));
+        }
+      }
+      return comparison.evaluate(context);
+    }
+
+    private PdxField getNumericField(PdxType type) {
+      PdxField field = type.getPdxField(fieldName);
+      if (field == null) {
+        return null;
+      }
+      switch (field.getFieldType()) {
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+          return field;
+        default:
+          return null;
+      }
+    }
+
+    int compare(PdxInstanceImpl pdx, PdxField field) {
+      FieldType fieldType = field.getFieldType();
+      if (fieldType == FieldType.DOUBLE || doubleConstantType) {
+        return Double.compare(readDouble(pdx, field), doubleConstant);
+      }
+      if (fieldType == FieldType.FLOAT || floatConstantType) {
+        return Float.compare(readFloat(pdx, field), (float) doubleConstant);
+      }
+      if (fieldType == FieldType.LONG || longConstantType) {
+        return Long.compare(readLong(pdx, field), longConstant);
+      }
+      return Integer.compare((int) readLong(pdx, field), (int) longConstant);
+    }
+
+    private static double readDouble(PdxInstanceImpl pdx, PdxField field) {
+      switch (field.getFieldType()) {
+        case DOUBLE:
+          return pdx.readDouble(field);
+        case FLOAT:
+          return pdx.readFloat(field);
+        default:
+          return readLong(pdx, field);
+      }
+    }
+
+    private static float readFloat(PdxInstanceImpl pdx, PdxField field) {
+      if (field.getFieldType() == FieldType.FLOAT) {
+        return pdx.readFloat(field);
+      }
+      return (float) (double) readLong(pdx, field);
+    }
+
+    private static long readLong(PdxInstanceImpl pdx, PdxField field) {
+      switch (field.getFieldType()) {
+        case BYTE:
+          return pdx.readByte(field);
+        case SHORT:
+          return pdx.readShort(field);
+        case INT:
+          return pdx.readInt(field);
+        default:
+          return pdx.readLong(field);
+      }
+    }
+
+    private Boolean applyOperator(int result) {
+      switch (operator) {
+        case OQLLexerTokenTypes.TOK_EQ:
+          return result == 0;
+        case OQLLexerTokenTypes.TOK_LT:
+          return result < 0;
+        case OQLLexerTokenTypes.TOK_LE:
+          return result <= 0;
+        case OQLLexerTokenTypes.TOK_GT:
+          return result > 0;
+        case OQLLexerTokenTypes.TOK_GE:
+          return result >= 0;
+        default:
+          return result != 0;
+      }
+    }
+  }
+}
@@ -109,6 +109,19 @@ public interface QueryObserver {
    */
   void afterIndexLookup(Collection results);
 
+  /**
+   * Called when one of two indexed conditions of an AND junction is chosen to be evaluated using
+   * its index while the other is applied to the results of the first.
+   *
+   * @param chosen The index of the chosen condition
+   * @param chosenSize The estimated number of results of the chosen condition
+   * @param rejected The index of the other condition
+   * @param rejectedSize The estimated number of results of the other condition
+   * @param costBased true if the estimates overrode the preferred order of the operators
+   */
+  void afterIndexSelection(Index chosen, int chosenSize, Index rejected, int rejectedSize,
+      boolean costBased);
+
   /**
    * Called immediately after the query expression is evaluated.
    *
@@ -102,6 +102,10 @@ public class QueryObserverAdapter implements QueryObserver {
   @Override
   public void afterIndexLookup(Collection results) {}
 
+  @Override
+  public void afterIndexSelection(Index chosen, int chosenSize, Index rejected, int rejectedSize,
+      boolean costBased) {}
+
   /**
    * Called immediately after the query expression is evaluated.
    *
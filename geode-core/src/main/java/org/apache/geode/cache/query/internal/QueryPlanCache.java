@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.QueryInvalidException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+
+/**
+ * A bounded, per cache cache of compiled queries keyed by their normalized query text, so that
+ * {@link DefaultQueryService#newQuery} only parses a query the first time its text is seen.
+ *
+ * <p>
+ * A plan also remembers, in its {@link CompiledSelect}, that no index matched its WHERE clause so
+ * later executions skip index selection. That is only valid while the indexes of the cache do not
+ * change, so {@link org.apache.geode.cache.query.internal.index.IndexManager} calls
+ * {@link #invalidate(InternalCache)} whenever an index is created, populated or removed. This
+ * drops all cached plans and advances the index generation, which also invalidates the
+ * remembered state of plans still referenced by existing queries.
+ */
+public class QueryPlanCache {
+
+  /**
+   * The maximum number of plans kept per cache. Zero disables the cache.
+   */
+  public static final int MAX_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.PLAN_CACHE_SIZE", 1000);
+
+  private final int maxSize;
+
+  private final CachePerfStats stats;
+
+  private final AtomicLong indexGeneration = new AtomicLong();
+
+  /** guarded by itself */
+  private final Map<String, QueryPlan> plans;
+
+  public QueryPlanCache(int maxSize, CachePerfStats stats) {
+    this.maxSize = maxSize;
+    this.stats = stats;
+    this.plans = new LinkedHashMap<String, QueryPlan>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, QueryPlan> eldest) {
+        return size() > QueryPlanCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * Returns the plan for the given query, compiling it if it is not cached.
+   *
+   * @throws QueryInvalidException if the query can not be compiled
+   */
+  QueryPlan getPlan(String queryString, InternalCache cache) {
+    String key = normalize(queryString);
+    QueryPlan plan;
+    synchronized (plans) {
+      plan = plans.get(key);
+    }
+    if (plan != null) {
+      stats.incQueryPlanCacheHits();
+      return plan;
+    }
+    stats.incQueryPlanCacheMisses();
+    plan = compile(queryString, cache, false);
+    if (plan.isCacheable()) {
+      synchronized (plans) {
+        QueryPlan existing = plans.putIfAbsent(key, plan);
+        if (existing != null) {
+          plan = existing;
+        }
+      }
+    }
+    return plan;
+  }
+
+  /**
+   * Drops all cached plans because the indexes of the cache changed.
+   */
+  public void invalidate() {
+    indexGeneration.incrementAndGet();
+    synchronized (plans) {
+      plans.clear();
+    }
+  }
+
+  long getIndexGeneration() {
+    return indexGeneration.get();
+  }
+
+  int size() {
+    synchronized (plans) {
+      return plans.size();
+    }
+  }
+
+  public static void invalidate(InternalCache cache) {
+    QueryPlanCache planCache = cache == null ? null : cache.getQueryPlanCache();
+    if (planCache != null) {
+      planCache.invalidate();
+    }
+  }
+
+  /**
+   * Returns the current index generation of the cache, or -1 if it has no plan cache.
+   */
+  static long getIndexGeneration(InternalCache cache) {
+    QueryPlanCache planCache = cache == null ? null : cache.getQueryPlanCache();
+    return planCache == null ? -1 : planCache.getIndexGeneration();
+  }
+
+  static QueryPlan compile(String queryString, InternalCache cache, boolean isForRemote) {
+    QCompiler compiler = new QCompiler();
+    CompiledValue compiledQuery = compiler.compileQuery(queryString);
+    if (compiledQuery instanceof CompiledSelect && !isForRemote) {
+      CompiledSelect cs = (CompiledSelect) compiledQuery;
+      if (cs.isGroupBy() || cs.isOrderBy()) {
+        QueryExecutionContext ctx = new QueryExecutionContext(null, cache);
+        try {
+          cs.computeDependencies(ctx);
+        } catch (QueryException qe) {
+          throw new QueryInvalidException("", qe);
+        }
+      }
+    }
+    return new QueryPlan(compiledQuery, compiler.isTraceRequested());
+  }
+
+  /**
+   * Collapses runs of whitespace outside of string literals and quoted identifiers so queries that
+   * only differ in formatting share a plan. Queries with comments are returned unchanged because a
+   * line break ends a line comment.
+   */
+  static String normalize(String queryString) {
+    StringBuilder sb = new StringBuilder(queryString.length());
+    char quote = 0;
+    boolean pendingSpace = false;
+    for (int i = 0; i < queryString.length(); i++) {
+      char c = queryString.charAt(i);
+      if (quote != 0) {
+        sb.append(c);
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if ((c == '-' || c == '/') && i + 1 < queryString.length()
+          && queryString.charAt(i + 1) == (c == '-' ? '-' : '*')) {
+        return queryString;
+      } else if (Character.isWhitespace(c)) {
+        pendingSpace = sb.length() > 0;
+      } else {
+        if (pendingSpace) {
+          sb.append(' ');
+          pendingSpace = false;
+        }
+        if (c == '\'' || c == '"') {
+          quote = c;
+        }
+        sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * A compiled query that may be shared by any number of {@link DefaultQuery} instances.
+   */
+  static class QueryPlan {
+    private final CompiledValue compiledQuery;
+    private final boolean traceRequested;
+
+    QueryPlan(CompiledValue compiledQuery, boolean traceRequested) {
+      this.compiledQuery = compiledQuery;
+      this.traceRequested = traceRequested;
+    }
+
+    CompiledValue getCompiledQuery() {
+      return compiledQuery;
+    }
+
+    boolean isTraceRequested() {
+      return traceRequested;
+    }
+
+    /**
+     * Count queries keep a running count in their CompiledSelect so they are not shared.
+     */
+    boolean isCacheable() {
+      return !(compiledQuery instanceof CompiledSelect
+          && ((CompiledSelect) compiledQuery).isCount());
+    }
+  }
+}
@@ -44,11 +44,14 @@ import org.apache.geode.internal.serialization.Version;
  * @since GemFire 4.0
  */
 public class SortedResultSet extends TreeSet
-    implements SelectResults, Ordered, DataSerializableFixedID {
+    implements SelectResults, Ordered, TopKBounded, DataSerializableFixedID {
   private static final long serialVersionUID = 5184711453750319224L;
 
   private ObjectType elementType;
 
+  // transient fields are not initialized by java deserialization, so 0 means unbounded
+  private transient int topKPlusOne;
+
   public SortedResultSet() {}
 
   SortedResultSet(Collection c) {
@@ -96,6 +99,20 @@ public class SortedResultSet extends TreeSet
     this.elementType = elementType;
   }
 
+  @Override
+  public void setTopK(int k) {
+    this.topKPlusOne = k + 1;
+  }
+
+  @Override
+  public boolean add(Object element) {
+    boolean added = super.add(element);
+    if (this.topKPlusOne > 0 && size() >= this.topKPlusOne) {
+      pollLast();
+    }
+    return added;
+  }
+
   @Override
   public List asList() {
     return new ArrayList(this);
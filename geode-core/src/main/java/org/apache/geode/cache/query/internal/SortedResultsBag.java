@@ -35,11 +35,12 @@ import org.apache.geode.internal.cache.CachePerfStats;
  *
  * @param <E>
  */
-public class SortedResultsBag<E> extends Bag implements Ordered {
+public class SortedResultsBag<E> extends Bag implements Ordered, TopKBounded {
 
   private final Map<E, Integer> sortedMap;
   private final boolean orderedDataAddition;
   private final boolean emitNullAtStart;
+  private int topK = -1;
 
   /**
    * Constructor for unordered input
@@ -140,6 +141,48 @@ public class SortedResultsBag<E> extends Bag implements Ordered {
     return false;
   }
 
+  /**
+   * Only bags built for unordered input can be bounded, as the last element of ordered input is
+   * not known until all of it was added.
+   */
+  @Override
+  public void setTopK(int k) {
+    if (!this.orderedDataAddition) {
+      this.topK = k;
+    }
+  }
+
+  @Override
+  public boolean add(Object element) {
+    boolean added = super.add(element);
+    trimToTopK();
+    return added;
+  }
+
+  @Override
+  public int addAndGetOccurence(Object element) {
+    int occurrence = super.addAndGetOccurence(element);
+    trimToTopK();
+    return occurrence;
+  }
+
+  private void trimToTopK() {
+    while (this.topK > -1 && this.size > this.topK) {
+      if (this.numNulls > 0 && (this.sortedMap.isEmpty() || !nullOutputAtBegining())) {
+        this.numNulls--;
+      } else {
+        E last = ((SortedMap<E, Integer>) this.sortedMap).lastKey();
+        int count = mapGet(last);
+        if (count == 1) {
+          mapRemove(last);
+        } else {
+          mapPut(last, count - 1);
+        }
+      }
+      this.size--;
+    }
+  }
+
   @Override
   protected int mapGet(Object element) {
     Integer count = this.sortedMap.get(element);
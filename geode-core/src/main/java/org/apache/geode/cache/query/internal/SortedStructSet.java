@@ -46,7 +46,7 @@ import org.apache.geode.internal.serialization.Version;
  * @since GemFire 4.0
  */
 public class SortedStructSet extends TreeSet
-    implements SelectResults, DataSerializableFixedID, Ordered, StructFields {
+    implements SelectResults, DataSerializableFixedID, Ordered, TopKBounded, StructFields {
   private static final long serialVersionUID = -1687142950781718159L;
 
   protected StructTypeImpl structType;
@@ -55,6 +55,9 @@ public class SortedStructSet extends TreeSet
    */
   private boolean modifiable = true;
 
+  // transient fields are not initialized by java deserialization, so 0 means unbounded
+  private transient int topKPlusOne;
+
   /** Creates a new instance of StructSet */
   public SortedStructSet() {};
 
@@ -119,7 +122,16 @@ public class SortedStructSet extends TreeSet
    */
   @Override
   public boolean addFieldValues(Object[] fieldValues) {
-    return super.add(fieldValues);
+    boolean added = super.add(fieldValues);
+    if (this.topKPlusOne > 0 && size() >= this.topKPlusOne) {
+      pollLast();
+    }
+    return added;
+  }
+
+  @Override
+  public void setTopK(int k) {
+    this.topKPlusOne = k + 1;
   }
 
   /**
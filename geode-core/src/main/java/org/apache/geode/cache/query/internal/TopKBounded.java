@@ -0,0 +1,31 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+/**
+ * Implemented by sorted query results that can keep only their first elements in sort order while
+ * elements are added. A query with ORDER BY and LIMIT k then holds at most k candidates per bucket
+ * instead of sorting every match and truncating afterwards.
+ *
+ * @see CompiledSelect
+ */
+interface TopKBounded {
+
+  /**
+   * Limits this collection to its first k elements in sort order, dropping the last element
+   * whenever an addition makes it larger. Must be called before any element is added.
+   */
+  void setTopK(int k);
+}
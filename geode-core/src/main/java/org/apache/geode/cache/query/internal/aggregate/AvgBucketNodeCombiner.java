@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+/**
+ * Adds up the partial averages of the buckets hosted by a member, which is sent to the PR query
+ * node in place of one partial average per bucket.
+ */
+public class AvgBucketNodeCombiner extends Sum {
+  private int count = 0;
+
+  int getCount() {
+    return count;
+  }
+
+  /**
+   * Takes the two element arrays of {@link AvgBucketNode}, the number of values followed by their
+   * sum.
+   */
+  @Override
+  public void accumulate(Object value) {
+    Object[] array = (Object[]) value;
+    this.count += ((Integer) array[0]);
+    super.accumulate(array[1]);
+  }
+
+  /**
+   * Returns a two element array in the form produced by {@link AvgBucketNode}.
+   */
+  @Override
+  public Object terminate() {
+    return new Object[] {count, super.terminate()};
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+import org.apache.geode.cache.query.QueryService;
+
+/**
+ * Collects the distinct values of a bucket into a {@link HyperLogLog} sketch for an approximate
+ * count distinct on a partitioned region. The bucket node returns the sketch registers instead of
+ * the set of distinct values, so the size of the partial result does not grow with the number of
+ * distinct values.
+ */
+public class CountDistinctSketchBucketNode extends AbstractAggregator {
+  private final HyperLogLog sketch = new HyperLogLog();
+
+  HyperLogLog getSketch() {
+    return sketch;
+  }
+
+  @Override
+  public void init() {}
+
+  @Override
+  public void accumulate(Object value) {
+    if (value != null && value != QueryService.UNDEFINED) {
+      this.sketch.offer(value);
+    }
+  }
+
+  /**
+   * Returns the registers of the sketch.
+   */
+  @Override
+  public Object terminate() {
+    return this.sketch.getRegisters();
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+import java.util.Set;
+
+import org.apache.geode.cache.query.QueryService;
+
+/**
+ * Merges the sketches of the buckets hosted by a member into one sketch, which is sent to the PR
+ * query node in place of one sketch per bucket.
+ */
+public class CountDistinctSketchCombiner extends AbstractAggregator {
+  private final HyperLogLog sketch = new HyperLogLog();
+
+  HyperLogLog getSketch() {
+    return sketch;
+  }
+
+  @Override
+  public void init() {}
+
+  /**
+   * The input data is either the registers of a sketch or, from a member which does not build
+   * sketches, the Set containing the distinct values of a bucket.
+   */
+  @Override
+  public void accumulate(Object value) {
+    if (value == null || value == QueryService.UNDEFINED) {
+      return;
+    }
+    if (value instanceof byte[]) {
+      this.sketch.merge((byte[]) value);
+    } else {
+      for (Object distinct : (Set) value) {
+        this.sketch.offer(distinct);
+      }
+    }
+  }
+
+  /**
+   * Returns the registers of the merged sketch.
+   */
+  @Override
+  public Object terminate() {
+    return this.sketch.getRegisters();
+  }
+}
@@ -53,6 +53,7 @@ import org.apache.geode.cache.query.internal.ExecutionContext;
 import org.apache.geode.cache.query.internal.IndexInfo;
 import org.apache.geode.cache.query.internal.QRegion;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.QueryUtils;
 import org.apache.geode.cache.query.internal.RuntimeIterator;
 import org.apache.geode.cache.query.internal.StructFields;
@@ -267,6 +268,7 @@ public abstract class AbstractIndex implements IndexProtocol {
           if (bucketIndex == null) {
             continue;
           }
+          bucketIndex.waitForPendingUpdates();
           bucketIndex.lockedQuery(key, operator, results, null/* No Keys to be removed */, context);
 
         }
@@ -276,6 +278,7 @@ public abstract class AbstractIndex implements IndexProtocol {
     } else {
       long start = updateIndexUseStats();
       try {
+        waitForPendingUpdates();
         lockedQuery(key, operator, results, null/* No Keys to be removed */, context);
       } finally {
         updateIndexUseEndStats(start);
@@ -300,6 +303,7 @@ public abstract class AbstractIndex implements IndexProtocol {
           if (bucketIndex == null) {
             continue;
           }
+          bucketIndex.waitForPendingUpdates();
           bucketIndex.lockedQuery(key, operator, results, iterOp, indpndntItr, context, projAttrib,
               intermediateResults, isIntersection);
         }
@@ -309,6 +313,7 @@ public abstract class AbstractIndex implements IndexProtocol {
     } else {
       long start = updateIndexUseStats();
       try {
+        waitForPendingUpdates();
         lockedQuery(key, operator, results, iterOp, indpndntItr, context, projAttrib,
             intermediateResults, isIntersection);
       } finally {
@@ -333,6 +338,7 @@ public abstract class AbstractIndex implements IndexProtocol {
           if (bucketIndex == null) {
             continue;
           }
+          bucketIndex.waitForPendingUpdates();
           bucketIndex.lockedQuery(key, operator, results, keysToRemove, context);
         }
       } finally {
@@ -341,6 +347,7 @@ public abstract class AbstractIndex implements IndexProtocol {
     } else {
       long start = updateIndexUseStats();
       try {
+        waitForPendingUpdates();
         lockedQuery(key, operator, results, keysToRemove, context);
       } finally {
         updateIndexUseEndStats(start);
@@ -366,6 +373,7 @@ public abstract class AbstractIndex implements IndexProtocol {
           if (bucketIndex == null) {
             continue;
           }
+          bucketIndex.waitForPendingUpdates();
           bucketIndex.lockedQuery(temp, OQLLexerTokenTypes.TOK_NE, results,
               iterator.hasNext() ? keysToRemove : null, context);
         }
@@ -375,6 +383,7 @@ public abstract class AbstractIndex implements IndexProtocol {
     } else {
       long start = updateIndexUseStats();
       try {
+        waitForPendingUpdates();
         lockedQuery(temp, OQLLexerTokenTypes.TOK_NE, results,
             iterator.hasNext() ? keysToRemove : null, context);
       } finally {
@@ -400,6 +409,7 @@ public abstract class AbstractIndex implements IndexProtocol {
             if (bucketIndex == null) {
               continue;
             }
+            bucketIndex.waitForPendingUpdates();
             bucketIndex.lockedQuery(lowerBoundKey, lowerBoundOperator, upperBoundKey,
                 upperBoundOperator, results, keysToRemove, context);
           }
@@ -410,6 +420,7 @@ public abstract class AbstractIndex implements IndexProtocol {
     } else {
       long start = updateIndexUseStats();
       try {
+        waitForPendingUpdates();
         lockedQuery(lowerBoundKey, lowerBoundOperator, upperBoundKey, upperBoundOperator, results,
             keysToRemove, context);
       } finally {
@@ -833,6 +844,21 @@ public abstract class AbstractIndex implements IndexProtocol {
    */
   abstract void saveMapping(Object key, Object value, RegionEntry entry) throws IMQException;
 
+  /**
+   * Waits for the asynchronous maintenance of this index to apply the updates queued so far, if
+   * queries are configured to read their own writes.
+   */
+  void waitForPendingUpdates() {
+    if (IndexManager.INDEX_MAINTENANCE_QUERY_WAIT_MILLIS > 0) {
+      IndexManager indexManager = ((LocalRegion) this.region).getIndexManager();
+      if (indexManager != null && !indexManager
+          .waitForPendingIndexUpdates(IndexManager.INDEX_MAINTENANCE_QUERY_WAIT_MILLIS)) {
+        logger.warn("Index {} did not apply its pending updates within {} ms", this.indexName,
+            IndexManager.INDEX_MAINTENANCE_QUERY_WAIT_MILLIS);
+      }
+    }
+  }
+
   /** Lookup method used when appropriate lock is held */
   abstract void lockedQuery(Object key, int operator, Collection results, CompiledValue iterOps,
       RuntimeIterator indpndntItr, ExecutionContext context, List projAttrib,
@@ -2097,6 +2123,10 @@ public abstract class AbstractIndex implements IndexProtocol {
 
   public void setPopulated(boolean isPopulated) {
     this.isPopulated = isPopulated;
+    if (isPopulated) {
+      // queries that found no usable index must look again
+      QueryPlanCache.invalidate(this.cache);
+    }
   }
 
   boolean isIndexOnPdxKeys() {
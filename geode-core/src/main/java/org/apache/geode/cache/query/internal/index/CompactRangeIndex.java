@@ -95,6 +95,12 @@ public class CompactRangeIndex extends AbstractIndex {
 
   private IndexStore indexStore;
 
+  /**
+   * The canonicalized expressions of the components of a composite index, or null if the index
+   * has a single indexed expression
+   */
+  private String[] compositeComponents;
+
   @MutableForTesting
   static boolean TEST_ALWAYS_UPDATE_IN_PROGRESS = false;
 
@@ -317,6 +323,7 @@ public class CompactRangeIndex extends AbstractIndex {
     if (key == null) {
       key = IndexManager.NULL;
     }
+    IndexHistogram histogram;
     long start = updateIndexUseStats(false);
     try {
       switch (operator) {
@@ -335,7 +342,10 @@ public class CompactRangeIndex extends AbstractIndex {
           break;
         case OQLLexerTokenTypes.TOK_LE:
         case OQLLexerTokenTypes.TOK_LT:
-          if (matchLevel <= 0 && (key instanceof Number)) {
+          histogram = matchLevel <= 0 ? getHistogram() : null;
+          if (histogram != null) {
+            size = getRangeSizeEstimate(histogram, key, operator);
+          } else if (matchLevel <= 0 && (key instanceof Number)) {
 
             int totalSize = indexStore.size();
             if (CompactRangeIndex.testHook != null) {
@@ -384,7 +394,7 @@ public class CompactRangeIndex extends AbstractIndex {
                   iter1.close();
                 }
                 if (iter2 != null) {
-                  iter1.close();
+                  iter2.close();
                 }
               }
 
@@ -399,7 +409,10 @@ public class CompactRangeIndex extends AbstractIndex {
 
         case OQLLexerTokenTypes.TOK_GE:
         case OQLLexerTokenTypes.TOK_GT:
-          if (matchLevel <= 0 && (key instanceof Number)) {
+          histogram = matchLevel <= 0 ? getHistogram() : null;
+          if (histogram != null) {
+            size = getRangeSizeEstimate(histogram, key, operator);
+          } else if (matchLevel <= 0 && (key instanceof Number)) {
             int totalSize = indexStore.size();
             if (CompactRangeIndex.testHook != null) {
               CompactRangeIndex.testHook.hook(2);
@@ -446,6 +459,9 @@ public class CompactRangeIndex extends AbstractIndex {
                 if (iter1 != null) {
                   iter1.close();
                 }
+                if (iter2 != null) {
+                  iter2.close();
+                }
               }
             } else {
               // not attempting to differentiate between GT & GE
@@ -469,6 +485,46 @@ public class CompactRangeIndex extends AbstractIndex {
     return size;
   }
 
+  /**
+   * Returns the histogram of the index store, or null if the store has none yet, in which case
+   * range estimates fall back to interpolating between the first and last key.
+   */
+  private IndexHistogram getHistogram() {
+    return indexStore instanceof MemoryIndexStore ? ((MemoryIndexStore) indexStore).getHistogram()
+        : null;
+  }
+
+  /**
+   * Estimates the number of values selected by a range condition from the histogram of the index
+   * store, in the same unit as the equality estimate so that both can be compared.
+   */
+  private int getRangeSizeEstimate(IndexHistogram histogram, Object key, int operator)
+      throws TypeMismatchException {
+    if (key == null || key == IndexManager.NULL || key == QueryService.UNDEFINED) {
+      return 0;
+    }
+    key = TypeUtils.indexKeyFor(key);
+    key = getPdxStringForIndexedPdxKeys(key);
+    long total = histogram.getTotalCount();
+    long lessThan = histogram.estimateLessThan(key);
+    long estimate;
+    switch (operator) {
+      case OQLLexerTokenTypes.TOK_LT:
+        estimate = lessThan;
+        break;
+      case OQLLexerTokenTypes.TOK_LE:
+        estimate = lessThan + indexStore.size(key);
+        break;
+      case OQLLexerTokenTypes.TOK_GT:
+        estimate = total - lessThan - indexStore.size(key);
+        break;
+      default:
+        estimate = total - lessThan;
+        break;
+    }
+    return (int) Math.min(Integer.MAX_VALUE, Math.max(0, Math.min(total, estimate)));
+  }
+
   /** Method called while appropriate lock held on index */
   private void lockedQueryPrivate(Object key, int operator, Collection results,
       CompiledValue iterOps, RuntimeIterator runtimeItr, ExecutionContext context, Set keysToRemove,
@@ -692,6 +748,14 @@ public class CompactRangeIndex extends AbstractIndex {
   @Override
   void instantiateEvaluator(IndexCreationHelper indexCreationHelper) {
     this.evaluator = new IMQEvaluator(indexCreationHelper);
+    if (indexCreationHelper instanceof FunctionalIndexCreationHelper) {
+      this.compositeComponents =
+          ((FunctionalIndexCreationHelper) indexCreationHelper).compositeComponents;
+    }
+  }
+
+  String[] getCompositeComponents() {
+    return this.compositeComponents;
   }
 
   // Only used by CompactMapRangeIndex. This is due to the way the index initialization happens
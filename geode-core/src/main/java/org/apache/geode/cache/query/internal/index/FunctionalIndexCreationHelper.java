@@ -26,6 +26,7 @@ import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.CompiledBindArgument;
 import org.apache.geode.cache.query.internal.CompiledComparison;
+import org.apache.geode.cache.query.internal.CompiledCompositeKey;
 import org.apache.geode.cache.query.internal.CompiledFunction;
 import org.apache.geode.cache.query.internal.CompiledID;
 import org.apache.geode.cache.query.internal.CompiledIndexOperation;
@@ -88,6 +89,12 @@ class FunctionalIndexCreationHelper extends IndexCreationHelper {
 
   CompiledValue modifiedIndexExpr = null;
 
+  /**
+   * The canonicalized expressions of the components of a composite index, or null if the index
+   * has a single indexed expression
+   */
+  String[] compositeComponents = null;
+
   boolean isFirstIteratorRegionEntry = false;
 
   boolean isFirstIteratorRegionKey = false;
@@ -433,24 +440,36 @@ class FunctionalIndexCreationHelper extends IndexCreationHelper {
    * TODO: refactor large method prepareIndexExpression
    */
   private void prepareIndexExpression(String indexedExpression) throws IndexInvalidException {
-    CompiledValue expr = this.compiler.compileQuery(indexedExpression);
-    if (expr == null) {
-      throw new IndexInvalidException(
-          String.format("Invalid indexed expression : ' %s '",
-              indexedExpression));
-    }
-
-    if (expr instanceof CompiledUndefined || expr instanceof CompiledLiteral
-        || expr instanceof CompiledComparison || expr instanceof CompiledBindArgument
-        || expr instanceof CompiledNegation) {
-      throw new IndexInvalidException(
-          String.format("Invalid indexed expression : ' %s '",
-              indexedExpression));
+    List<String> components = splitCompositeExpression(indexedExpression);
+    CompiledValue expr;
+    if (components.size() > 1) {
+      List<CompiledValue> compiledComponents = new ArrayList<>(components.size());
+      for (String component : components) {
+        CompiledValue compiledComponent = compileIndexExpression(component, indexedExpression);
+        if (compiledComponent instanceof MapIndexable) {
+          throw new IndexInvalidException(
+              String.format("Invalid indexed expression : ' %s '",
+                  indexedExpression));
+        }
+        compiledComponents.add(compiledComponent);
+      }
+      expr = new CompiledCompositeKey(compiledComponents);
+    } else {
+      expr = compileIndexExpression(indexedExpression, indexedExpression);
     }
 
     try {
       StringBuilder sb = new StringBuilder();
-      if (expr instanceof MapIndexable) {
+      if (expr instanceof CompiledCompositeKey) {
+        List<CompiledValue> compiledComponents = ((CompiledCompositeKey) expr).getComponents();
+        this.compositeComponents = new String[compiledComponents.size()];
+        for (int i = 0; i < this.compositeComponents.length; i++) {
+          StringBuilder component = new StringBuilder();
+          compiledComponents.get(i).generateCanonicalizedExpression(component, this.context);
+          this.compositeComponents[i] = component.toString();
+        }
+        expr.generateCanonicalizedExpression(sb, this.context);
+      } else if (expr instanceof MapIndexable) {
         MapIndexable mi = (MapIndexable) expr;
         List<CompiledValue> indexingKeys = mi.getIndexingKeys();
 
@@ -511,6 +530,58 @@ class FunctionalIndexCreationHelper extends IndexCreationHelper {
     this.indexedExpr = expr;
   }
 
+  private CompiledValue compileIndexExpression(String expression, String indexedExpression)
+      throws IndexInvalidException {
+    CompiledValue expr = this.compiler.compileQuery(expression);
+    if (expr == null) {
+      throw new IndexInvalidException(
+          String.format("Invalid indexed expression : ' %s '",
+              indexedExpression));
+    }
+
+    if (expr instanceof CompiledUndefined || expr instanceof CompiledLiteral
+        || expr instanceof CompiledComparison || expr instanceof CompiledBindArgument
+        || expr instanceof CompiledNegation) {
+      throw new IndexInvalidException(
+          String.format("Invalid indexed expression : ' %s '",
+              indexedExpression));
+    }
+    return expr;
+  }
+
+  /**
+   * Splits the indexed expression of a composite index, such as {@code tenant, ts}, into the
+   * expressions of its components. Commas inside string literals, parentheses and brackets do not
+   * separate components.
+   */
+  static List<String> splitCompositeExpression(String indexedExpression) {
+    List<String> components = new ArrayList<>();
+    int depth = 0;
+    char quote = 0;
+    int start = 0;
+    for (int i = 0; i < indexedExpression.length(); i++) {
+      char c = indexedExpression.charAt(i);
+      if (quote != 0) {
+        // a quote inside a string literal is escaped by doubling it, which is handled by leaving
+        // and reentering the literal
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+      } else if (c == '(' || c == '[') {
+        depth++;
+      } else if (c == ')' || c == ']') {
+        depth--;
+      } else if (c == ',' && depth == 0) {
+        components.add(indexedExpression.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+    components.add(indexedExpression.substring(start).trim());
+    return components;
+  }
+
   private void prepareProjectionAttributes(String projectionAttributes)
       throws IndexInvalidException {
     if (projectionAttributes != null && !projectionAttributes.equals("*")) {
@@ -689,6 +760,17 @@ class FunctionalIndexCreationHelper extends IndexCreationHelper {
       return new CompiledIndexOperation(
           getModifiedDependentCompiledValue(context, currItrID, co.getReceiver(), isDependent),
           cv1);
+
+    } else if (cv instanceof CompiledCompositeKey) {
+      List<CompiledValue> components = ((CompiledCompositeKey) cv).getComponents();
+      List<CompiledValue> newComponents = new ArrayList<>(components.size());
+      for (CompiledValue component : components) {
+        StringBuilder sb = new StringBuilder();
+        component.generateCanonicalizedExpression(sb, context);
+        newComponents.add(getModifiedDependentCompiledValue(context, currItrID, component,
+            sb.toString().startsWith(this.canonicalizedIteratorNames[0])));
+      }
+      return new CompiledCompositeKey(newComponents);
     } else {
       return cv;
     }
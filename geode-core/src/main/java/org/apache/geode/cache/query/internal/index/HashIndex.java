@@ -458,7 +458,7 @@ public class HashIndex extends AbstractIndex {
         case OQLLexerTokenTypes.TOK_NE:
           size = this.region.size();
           key = TypeUtils.indexKeyFor(key);
-          size = this.entriesSet.size(key);
+          size -= this.entriesSet.size(key);
           break;
       }
     } finally {
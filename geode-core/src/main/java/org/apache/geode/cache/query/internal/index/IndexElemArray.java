@@ -30,8 +30,11 @@ public class IndexElemArray implements Iterable, Collection {
   private Object[] elementData;
   private volatile byte size;
 
-  /* lock for making size and data changes atomically. */
-  private Object lock = new Object();
+  /*
+   * lock for making size and data changes atomically. The array itself is the lock, a separate lock
+   * object per index key would cost more heap than the references of a small array.
+   */
+  private final Object lock = this;
 
   public IndexElemArray(int initialCapacity) {
     if (initialCapacity < 0) {
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The set of region entries mapped to an index key holding more entries than fit in an
+ * {@link IndexElemArray}. The entries are kept by identity in a single open addressed array, which
+ * takes a reference and a quarter per entry instead of the node per entry of a concurrent hash set.
+ * A key indexing a large share of a region, such as a status field, otherwise needs more heap for
+ * its entry set than for the region entries themselves.
+ *
+ * Updates are synchronized on the set. Iterators read the array without locking and are weakly
+ * consistent: removed slots are marked rather than emptied, so entries present for the whole
+ * iteration are never skipped, and an array replaced by a resize keeps serving its iterators.
+ */
+class IndexEntrySet extends AbstractSet<Object> {
+
+  private static final Object REMOVED = new Object();
+
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private volatile AtomicReferenceArray<Object> table;
+
+  private volatile int size;
+
+  // slots holding an entry or REMOVED, guarded by this
+  private int usedSlots;
+
+  IndexEntrySet(int expectedSize) {
+    this.table = new AtomicReferenceArray<>(tableSizeFor(expectedSize));
+  }
+
+  @Override
+  public synchronized boolean add(Object entry) {
+    if (entry == null) {
+      throw new NullPointerException();
+    }
+    AtomicReferenceArray<Object> tab = this.table;
+    int mask = tab.length() - 1;
+    int freeSlot = -1;
+    for (int i = indexFor(entry, mask);; i = (i + 1) & mask) {
+      Object current = tab.get(i);
+      if (current == entry) {
+        return false;
+      }
+      if (current == REMOVED) {
+        if (freeSlot < 0) {
+          freeSlot = i;
+        }
+      } else if (current == null) {
+        if (freeSlot < 0) {
+          freeSlot = i;
+          this.usedSlots++;
+        }
+        break;
+      }
+    }
+    tab.set(freeSlot, entry);
+    this.size++;
+    if (this.usedSlots > tab.length() * LOAD_FACTOR) {
+      resize();
+    }
+    return true;
+  }
+
+  @Override
+  public synchronized boolean remove(Object entry) {
+    int slot = slotOf(entry);
+    if (slot < 0) {
+      return false;
+    }
+    this.table.set(slot, REMOVED);
+    this.size--;
+    return true;
+  }
+
+  @Override
+  public synchronized boolean contains(Object entry) {
+    return slotOf(entry) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  @Override
+  public synchronized void clear() {
+    this.table = new AtomicReferenceArray<>(this.table.length());
+    this.size = 0;
+    this.usedSlots = 0;
+  }
+
+  @Override
+  public Iterator<Object> iterator() {
+    return new EntryIterator(this.table);
+  }
+
+  private int slotOf(Object entry) {
+    if (entry == null) {
+      return -1;
+    }
+    AtomicReferenceArray<Object> tab = this.table;
+    int mask = tab.length() - 1;
+    for (int i = indexFor(entry, mask);; i = (i + 1) & mask) {
+      Object current = tab.get(i);
+      if (current == entry) {
+        return i;
+      }
+      if (current == null) {
+        return -1;
+      }
+    }
+  }
+
+  /**
+   * Copies the entries into a new array sized for the current number of entries, dropping the
+   * slots of removed entries. Iterators on the old array keep iterating it.
+   */
+  private void resize() {
+    AtomicReferenceArray<Object> oldTable = this.table;
+    AtomicReferenceArray<Object> newTable =
+        new AtomicReferenceArray<>(tableSizeFor(this.size * 2));
+    int mask = newTable.length() - 1;
+    for (int i = 0; i < oldTable.length(); i++) {
+      Object entry = oldTable.get(i);
+      if (entry != null && entry != REMOVED) {
+        int slot = indexFor(entry, mask);
+        while (newTable.get(slot) != null) {
+          slot = (slot + 1) & mask;
+        }
+        newTable.set(slot, entry);
+      }
+    }
+    this.usedSlots = this.size;
+    this.table = newTable;
+  }
+
+  private static int indexFor(Object entry, int mask) {
+    int hash = System.identityHashCode(entry);
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  private static int tableSizeFor(int expectedSize) {
+    int minimum = (int) Math.min((long) (expectedSize / LOAD_FACTOR) + 1, 1 << 30);
+    return Math.max(Integer.highestOneBit(minimum - 1) << 1, 16);
+  }
+
+  private static class EntryIterator implements Iterator<Object> {
+    private final AtomicReferenceArray<Object> table;
+    private int index = -1;
+    private Object next;
+
+    EntryIterator(AtomicReferenceArray<Object> table) {
+      this.table = table;
+      advance();
+    }
+
+    private void advance() {
+      this.next = null;
+      while (++this.index < this.table.length()) {
+        Object entry = this.table.get(this.index);
+        if (entry != null && entry != REMOVED) {
+          this.next = entry;
+          return;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public Object next() {
+      Object entry = this.next;
+      if (entry == null) {
+        throw new NoSuchElementException();
+      }
+      advance();
+      return entry;
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.geode.cache.query.QueryService;
+
+/**
+ * An equi-depth histogram of the number of index values per key of a sorted index, used to
+ * estimate how many values a range condition selects. Each bucket covers a contiguous range of keys
+ * holding roughly the same number of values, so a key with many values ends up in a bucket of its
+ * own and skewed distributions are estimated as well as uniform ones.
+ *
+ * <p>
+ * A histogram is an immutable snapshot; {@link MemoryIndexStore} replaces it once enough mappings
+ * changed.
+ */
+class IndexHistogram {
+
+  static final int MAX_BUCKETS = 64;
+
+  private final Comparator comparator;
+
+  private final Object[] lowerKeys;
+
+  private final Object[] upperKeys;
+
+  /** number of values in each bucket */
+  private final long[] counts;
+
+  /** number of values in the buckets before each bucket */
+  private final long[] countsBefore;
+
+  private final long totalCount;
+
+  private final int distinctKeys;
+
+  private IndexHistogram(Comparator comparator, Object[] lowerKeys, Object[] upperKeys,
+      long[] counts, int distinctKeys) {
+    this.comparator = comparator;
+    this.lowerKeys = lowerKeys;
+    this.upperKeys = upperKeys;
+    this.counts = counts;
+    this.countsBefore = new long[counts.length];
+    long total = 0;
+    for (int i = 0; i < counts.length; i++) {
+      this.countsBefore[i] = total;
+      total += counts[i];
+    }
+    this.totalCount = total;
+    this.distinctKeys = distinctKeys;
+  }
+
+  /**
+   * Builds a histogram from the sorted key to values map of an index. The map values are either a
+   * single value or a collection of values. NULL and UNDEFINED keys are left out as they never
+   * satisfy a range condition.
+   *
+   * @param expectedCount the approximate number of values in the map, used to size the buckets
+   */
+  static IndexHistogram build(Map<?, ?> sortedMap, Comparator comparator, long expectedCount,
+      int maxBuckets) {
+    long depth = Math.max(1, expectedCount / maxBuckets);
+    Object[] lowerKeys = new Object[maxBuckets];
+    Object[] upperKeys = new Object[maxBuckets];
+    long[] counts = new long[maxBuckets];
+    int buckets = 0;
+    int distinctKeys = 0;
+    for (Iterator<? extends Map.Entry<?, ?>> iterator = sortedMap.entrySet().iterator(); iterator
+        .hasNext();) {
+      Map.Entry<?, ?> entry = iterator.next();
+      Object key = entry.getKey();
+      if (key == IndexManager.NULL || key == QueryService.UNDEFINED) {
+        continue;
+      }
+      Object value = entry.getValue();
+      int count = value instanceof Collection ? ((Collection) value).size() : 1;
+      if (count == 0) {
+        continue;
+      }
+      distinctKeys++;
+      // the last bucket takes all remaining keys if the map grew since expectedCount was read
+      if (buckets == 0 || (counts[buckets - 1] >= depth && buckets < maxBuckets)) {
+        lowerKeys[buckets] = key;
+        buckets++;
+      }
+      upperKeys[buckets - 1] = key;
+      counts[buckets - 1] += count;
+    }
+    return new IndexHistogram(comparator, copyOf(lowerKeys, buckets), copyOf(upperKeys, buckets),
+        copyOf(counts, buckets), distinctKeys);
+  }
+
+  private static Object[] copyOf(Object[] array, int length) {
+    Object[] copy = new Object[length];
+    System.arraycopy(array, 0, copy, 0, length);
+    return copy;
+  }
+
+  private static long[] copyOf(long[] array, int length) {
+    long[] copy = new long[length];
+    System.arraycopy(array, 0, copy, 0, length);
+    return copy;
+  }
+
+  long getTotalCount() {
+    return totalCount;
+  }
+
+  int getDistinctKeys() {
+    return distinctKeys;
+  }
+
+  int getBucketCount() {
+    return counts.length;
+  }
+
+  /**
+   * Estimates the number of values with a key less than the given key. Values within a bucket are
+   * assumed to be spread evenly between its lowest and highest numeric key, or to be half below
+   * the key for other key types.
+   *
+   * @throws ClassCastException if the key can not be compared with the keys of the index
+   */
+  long estimateLessThan(Object key) {
+    int low = 0;
+    int high = counts.length - 1;
+    // find the first bucket whose upper key is not less than the key
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (comparator.compare(upperKeys[mid], key) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    if (low == counts.length) {
+      return totalCount;
+    }
+    if (comparator.compare(key, lowerKeys[low]) <= 0) {
+      return countsBefore[low];
+    }
+    return countsBefore[low] + Math.round(counts[low] * fractionBelow(low, key));
+  }
+
+  private double fractionBelow(int bucket, Object key) {
+    Object lower = lowerKeys[bucket];
+    Object upper = upperKeys[bucket];
+    if (lower instanceof Number && upper instanceof Number && key instanceof Number) {
+      double l = ((Number) lower).doubleValue();
+      double u = ((Number) upper).doubleValue();
+      double k = ((Number) key).doubleValue();
+      if (u > l && k >= l && k <= u) {
+        return (k - l) / (u - l);
+      }
+    }
+    return 0.5;
+  }
+}
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +53,7 @@ import org.apache.geode.cache.query.MultiIndexCreationException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.CompiledCompositeKey;
 import org.apache.geode.cache.query.internal.CompiledPath;
 import org.apache.geode.cache.query.internal.CompiledValue;
 import org.apache.geode.cache.query.internal.ExecutionContext;
@@ -60,6 +62,7 @@ import org.apache.geode.cache.query.internal.NullToken;
 import org.apache.geode.cache.query.internal.QueryMonitor;
 import org.apache.geode.cache.query.internal.QueryObserver;
 import org.apache.geode.cache.query.internal.QueryObserverHolder;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.index.AbstractIndex.InternalIndexStatistics;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.distributed.internal.DistributionConfig;
@@ -109,6 +112,20 @@ public class IndexManager {
   private final int INDEX_MAINTENANCE_BUFFER =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", -1);
 
+  /**
+   * The maximum number of queued updates the asynchronous index maintenance takes at once.
+   */
+  private static final int INDEX_MAINTENANCE_BATCH_SIZE = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceBatchSize", 1000);
+
+  /**
+   * How long a query waits for the asynchronous maintenance of an index to apply the updates queued
+   * before the index is used, so that the query sees the writes completed before it started. Zero,
+   * the default, does not wait.
+   */
+  static final long INDEX_MAINTENANCE_QUERY_WAIT_MILLIS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceQueryWait", 0);
+
   public static final boolean JOIN_OPTIMIZATION =
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.DisableJoinOptimization");
 
@@ -308,6 +325,19 @@ public class IndexManager {
       } else {
         throw new AssertionError("Don't know how to set helper for " + indexType);
       }
+      if (helper instanceof FunctionalIndexCreationHelper
+          && ((FunctionalIndexCreationHelper) helper).compositeComponents != null) {
+        if (indexType != IndexType.FUNCTIONAL) {
+          throw new IndexInvalidException(
+              "Multiple indexed expressions are only supported for functional indexes.");
+        }
+        if (!isCompactOrHash) {
+          throw new IndexInvalidException(
+              String.format(
+                  "Multiple indexed expressions are only supported for indexes having a single iterator on a region with synchronous index maintenance. The region involved is %s",
+                  region.getFullPath()));
+        }
+      }
       if (!isCompactOrHash && indexType != IndexType.PRIMARY_KEY) {
 
         if (indexType == IndexType.HASH) {
@@ -418,6 +448,7 @@ public class IndexManager {
         }
       }
       assert (index != null);
+      QueryPlanCache.invalidate(this.cache);
       if (logger.isDebugEnabled()) {
         logger.debug("Completed creating index with indexName: {} On region: {}", indexName,
             region.getFullPath());
@@ -453,26 +484,15 @@ public class IndexManager {
     }
 
     // indexedExpression requirement
-    CompiledValue cv = helper.getCompiledIndexedExpression();
-    int nodeType;
-    do {
-      nodeType = cv.getType();
-      if (nodeType == CompiledValue.PATH) {
-        cv = ((CompiledPath) cv).getReceiver();
-      }
-    } while (nodeType == CompiledValue.PATH);
-    // end of path, nodeType at this point should be an Identifier
-    if (nodeType != OQLLexerTokenTypes.Identifier && nodeType != OQLLexerTokenTypes.METHOD_INV) {
-      if (nodeType == OQLLexerTokenTypes.TOK_LBRACK && !helper.isMapTypeIndex()
-          && helper.modifiedIndexExpr instanceof MapIndexable) {
-        if (((MapIndexable) helper.modifiedIndexExpr).getIndexingKeys().size() == 1) {
-
-        } else {
+    CompiledValue indexedExpression = helper.getCompiledIndexedExpression();
+    if (indexedExpression instanceof CompiledCompositeKey) {
+      for (CompiledValue component : ((CompiledCompositeKey) indexedExpression).getComponents()) {
+        if (!isCompactIndexExpression(component, helper)) {
           return false;
         }
-      } else {
-        return false;
       }
+    } else if (!isCompactIndexExpression(indexedExpression, helper)) {
+      return false;
     }
 
     // fromClause requirement
@@ -495,6 +515,31 @@ public class IndexManager {
     return true;
   }
 
+  private boolean isCompactIndexExpression(CompiledValue cv,
+      FunctionalIndexCreationHelper helper) {
+    int nodeType;
+    do {
+      nodeType = cv.getType();
+      if (nodeType == CompiledValue.PATH) {
+        cv = ((CompiledPath) cv).getReceiver();
+      }
+    } while (nodeType == CompiledValue.PATH);
+    // end of path, nodeType at this point should be an Identifier
+    if (nodeType != OQLLexerTokenTypes.Identifier && nodeType != OQLLexerTokenTypes.METHOD_INV) {
+      if (nodeType == OQLLexerTokenTypes.TOK_LBRACK && !helper.isMapTypeIndex()
+          && helper.modifiedIndexExpr instanceof MapIndexable) {
+        if (((MapIndexable) helper.modifiedIndexExpr).getIndexingKeys().size() == 1) {
+
+        } else {
+          return false;
+        }
+      } else {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public Index getIndex(String indexName) {
     IndexTask indexTask = new IndexTask(cache, indexName);
     Object ind = this.indexes.get(indexTask);
@@ -509,6 +554,7 @@ public class IndexManager {
   public void addIndex(String indexName, Index index) {
     IndexTask indexTask = new IndexTask(cache, indexName);
     this.indexes.put(indexTask, index);
+    QueryPlanCache.invalidate(this.cache);
   }
 
   /**
@@ -805,6 +851,29 @@ public class IndexManager {
     return list;
   }
 
+  /**
+   * Returns the canonicalized expressions of the components of each composite index managed by
+   * this IndexManager. The components of a partitioned index are those of its bucket indexes.
+   */
+  public List<String[]> getCompositeIndexComponents() {
+    List<String[]> components = new ArrayList<>();
+    for (Object ind : this.indexes.values()) {
+      // Check if the value is instance of FutureTask, this means
+      // the index is in create phase.
+      if (ind instanceof FutureTask) {
+        continue;
+      }
+      if (ind instanceof PartitionedIndex) {
+        ind = ((PartitionedIndex) ind).getBucketIndex();
+      }
+      if (ind instanceof CompactRangeIndex
+          && ((CompactRangeIndex) ind).getCompositeComponents() != null) {
+        components.add(((CompactRangeIndex) ind).getCompositeComponents());
+      }
+    }
+    return components;
+  }
+
   /**
    * Get a collection of all the indexes managed by IndexManager
    *
@@ -836,6 +905,7 @@ public class IndexManager {
     if (this.indexes.remove(indexTask) != null) {
       AbstractIndex indexHandle = (AbstractIndex) index;
       indexHandle.destroy();
+      QueryPlanCache.invalidate(this.cache);
     }
   }
 
@@ -859,6 +929,9 @@ public class IndexManager {
       IndexTask indexTask = (IndexTask) entry.getKey();
       this.indexes.remove(indexTask);
     }
+    if (numIndexes > 0) {
+      QueryPlanCache.invalidate(this.cache);
+    }
     return numIndexes;
   }
 
@@ -991,6 +1064,92 @@ public class IndexManager {
     }
   }
 
+  /**
+   * Waits until the asynchronous index maintenance has applied the updates queued before this call,
+   * so that the indexes reflect the writes completed so far. Returns immediately if the indexes are
+   * maintained synchronously.
+   *
+   * @return false if the updates were not applied within the timeout
+   */
+  public boolean waitForPendingIndexUpdates(long timeoutMillis) {
+    if (isIndexMaintenanceTypeSynchronous()) {
+      return true;
+    }
+    try {
+      return updater.waitForAppliedTasks(timeoutMillis);
+    } catch (InterruptedException ignored) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Removes the updates of a batch which a later update of the same entry makes redundant. An
+   * update evaluates the current value of the entry rather than the value at the time it was
+   * queued, so when an update of an entry is followed by another update of that entry, with no
+   * other operation on the entry in between, only the later one needs to be applied. An update
+   * is either a single UPDATE_ENTRY or the REMOVE_ENTRY with BEFORE_UPDATE_OP preceding it, and
+   * only updates of the same form are coalesced.
+   * Removals and additions are never dropped, and the order of the remaining updates is kept.
+   *
+   * @param batch tasks of the form {action, entry, opCode} in the order they were queued
+   */
+  static List<Object[]> coalesceIndexUpdates(List<Object[]> batch) {
+    Map<Object, List<Integer>> positionsByEntry = new IdentityHashMap<>();
+    for (int i = 0; i < batch.size(); i++) {
+      Object entry = batch.get(i)[1];
+      if (entry != null) {
+        positionsByEntry.computeIfAbsent(entry, k -> new ArrayList<>(2)).add(i);
+      }
+    }
+    if (positionsByEntry.size() == batch.size()) {
+      return batch;
+    }
+    boolean[] redundant = new boolean[batch.size()];
+    for (List<Integer> positions : positionsByEntry.values()) {
+      int i = 0;
+      while (i < positions.size()) {
+        int length = updateLength(batch, positions, i);
+        if (length > 0 && updateLength(batch, positions, i + length) == length) {
+          for (int j = i; j < i + length; j++) {
+            redundant[positions.get(j)] = true;
+          }
+        }
+        i += Math.max(length, 1);
+      }
+    }
+    List<Object[]> coalesced = new ArrayList<>(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      if (!redundant[i]) {
+        coalesced.add(batch.get(i));
+      }
+    }
+    return coalesced;
+  }
+
+  /**
+   * Returns the number of tasks making up the update of an entry starting at the given one of its
+   * positions in the batch, or 0 if no update starts there.
+   */
+  private static int updateLength(List<Object[]> batch, List<Integer> positions, int start) {
+    if (start >= positions.size()) {
+      return 0;
+    }
+    if (isUpdateTask(batch.get(positions.get(start)))) {
+      return 1;
+    }
+    Object[] task = batch.get(positions.get(start));
+    if ((Integer) task[0] == REMOVE_ENTRY && (Integer) task[2] == IndexProtocol.BEFORE_UPDATE_OP
+        && start + 1 < positions.size() && isUpdateTask(batch.get(positions.get(start + 1)))) {
+      return 2;
+    }
+    return 0;
+  }
+
+  private static boolean isUpdateTask(Object[] task) {
+    return (Integer) task[0] == UPDATE_ENTRY && (Integer) task[2] == IndexProtocol.AFTER_UPDATE_OP;
+  }
+
   /**
    * @param opCode one of IndexProtocol.OTHER_OP, BEFORE_UPDATE_OP, AFTER_UPDATE_OP.
    */
@@ -1402,6 +1561,13 @@ public class IndexManager {
 
     private volatile BlockingQueue pendingTasks;
 
+    // tasks queued and tasks applied, for queries waiting to read their own writes
+    private final AtomicLong tasksAdded = new AtomicLong();
+
+    private volatile long tasksApplied;
+
+    private final Object appliedLock = new Object();
+
     /**
      * Creates instance of IndexUpdaterThread
      */
@@ -1423,6 +1589,27 @@ public class IndexManager {
       task[1] = entry;
       task[2] = opCode;
       pendingTasks.add(task);
+      tasksAdded.incrementAndGet();
+    }
+
+    /**
+     * Waits until the tasks added before this call have been applied.
+     *
+     * @return false if they were not applied within the timeout or the thread has stopped
+     */
+    boolean waitForAppliedTasks(long timeoutMillis) throws InterruptedException {
+      long target = tasksAdded.get();
+      long deadline = System.currentTimeMillis() + timeoutMillis;
+      synchronized (appliedLock) {
+        while (tasksApplied < target) {
+          long remaining = deadline - System.currentTimeMillis();
+          if (!this.running || remaining <= 0) {
+            return false;
+          }
+          appliedLock.wait(remaining);
+        }
+      }
+      return true;
     }
 
     /**
@@ -1459,13 +1646,25 @@ public class IndexManager {
             if (this.shutdownRequested) {
               break;
             }
-            updateIndexes(task);
+            List<Object[]> batch = new ArrayList<>();
+            batch.add(task);
+            pendingTasks.drainTo(batch, INDEX_MAINTENANCE_BATCH_SIZE - 1);
+            for (Object[] coalescedTask : coalesceIndexUpdates(batch)) {
+              updateIndexes(coalescedTask);
+            }
+            synchronized (appliedLock) {
+              tasksApplied += batch.size();
+              appliedLock.notifyAll();
+            }
           } catch (InterruptedException ignore) {
             return; // give up (exit the thread)
           }
         }
       } finally {
         this.running = false;
+        synchronized (appliedLock) {
+          appliedLock.notifyAll();
+        }
       }
     }
 
@@ -1500,7 +1699,7 @@ public class IndexManager {
      * point of view.
      */
     public synchronized boolean isDone() {
-      return this.pendingTasks.size() == 0;
+      return this.pendingTasks.size() == 0 && tasksApplied >= tasksAdded.get();
     }
 
   }
@@ -24,8 +24,12 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.geode.annotations.internal.MakeNotStatic;
 import org.apache.geode.cache.EntryDestroyedException;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionAttributes;
@@ -44,6 +48,7 @@ import org.apache.geode.internal.cache.NonTXEntry;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.persistence.query.CloseableIterator;
+import org.apache.geode.internal.logging.LoggingExecutors;
 
 /**
  * The in-memory index storage
@@ -61,6 +66,15 @@ public class MemoryIndexStore implements IndexStore {
   // number of keys
   private final AtomicInteger numIndexKeys = new AtomicInteger(0);
 
+  // number of values, and how many of them were added or removed since the histogram was built
+  private final AtomicInteger numIndexValues = new AtomicInteger(0);
+  private final AtomicInteger modificationsSinceHistogram = new AtomicInteger(0);
+
+  private volatile IndexHistogram histogram;
+
+  // set while a histogram is being built, so that only one build runs at a time
+  private final AtomicBoolean histogramBuildScheduled = new AtomicBoolean(false);
+
   // Map for RegionEntries=>value of indexedExpression (reverse map)
   private ConcurrentMap entryToValuesMap;
 
@@ -83,6 +97,8 @@ public class MemoryIndexStore implements IndexStore {
   // new collection
   private final Object TRANSITIONING_TOKEN = new IndexElemArray(1);
 
+  private static final int HISTOGRAM_MIN_MODIFICATIONS = 100;
+
   MemoryIndexStore(Region region, InternalIndexStatistics internalIndexStats, InternalCache cache) {
     this.region = region;
     RegionAttributes ra = region.getAttributes();
@@ -171,12 +187,12 @@ public class MemoryIndexStore implements IndexStore {
                 DefaultQuery.TestHook.SPOTS.COMPLETE_TRANSITION_FROM_REGION_ENTRY_TO_ELEMARRAY,
                 null, null);
           }
-        } else if (regionEntries instanceof IndexConcurrentHashSet) {
+        } else if (regionEntries instanceof IndexEntrySet) {
           // This synchronized is for avoiding conflcts with remove of
-          // ConcurrentHashSet when set size becomes zero during
+          // IndexEntrySet when set size becomes zero during
           // basicRemoveMapping();
           synchronized (regionEntries) {
-            ((IndexConcurrentHashSet) regionEntries).add(re);
+            ((IndexEntrySet) regionEntries).add(re);
           }
           if (regionEntries != this.valueToEntriesMap.get(indexKey)) {
             retry = true;
@@ -185,8 +201,7 @@ public class MemoryIndexStore implements IndexStore {
           IndexElemArray elemArray = (IndexElemArray) regionEntries;
           synchronized (elemArray) {
             if (elemArray.size() >= IndexManager.INDEX_ELEMARRAY_THRESHOLD) {
-              IndexConcurrentHashSet set =
-                  new IndexConcurrentHashSet(IndexManager.INDEX_ELEMARRAY_THRESHOLD + 20, 0.75f, 1);
+              IndexEntrySet set = new IndexEntrySet(IndexManager.INDEX_ELEMARRAY_THRESHOLD + 20);
               // Replace first so that we are sure that the set is placed in
               // index then we should add old elements in the new set.
 
@@ -253,6 +268,8 @@ public class MemoryIndexStore implements IndexStore {
       throw new IMQException("Could not add object of type " + indexKey.getClass().getName(), ex);
     }
     internalIndexStats.incNumValues(1);
+    numIndexValues.incrementAndGet();
+    modificationsSinceHistogram.incrementAndGet();
   }
 
   /**
@@ -380,6 +397,8 @@ public class MemoryIndexStore implements IndexStore {
     if (found) {
       // Update stats if entry was actually removed
       internalIndexStats.incNumValues(-1);
+      numIndexValues.decrementAndGet();
+      modificationsSinceHistogram.incrementAndGet();
     } else if (!found && !possiblyAlreadyRemoved && !IndexManager.isObjectModificationInplace()
         && key != null) {
       // if there is an inplace-modification find old key by iterating
@@ -557,6 +576,8 @@ public class MemoryIndexStore implements IndexStore {
       this.entryToValuesMap.clear();
     }
     numIndexKeys.set(0);
+    numIndexValues.set(0);
+    histogram = null;
     return true;
   }
 
@@ -575,6 +596,50 @@ public class MemoryIndexStore implements IndexStore {
     return numIndexKeys.get();
   }
 
+  /**
+   * Returns the number of values in the index, which unlike {@link #size()} counts every value of
+   * a key.
+   */
+  int getNumberOfValues() {
+    return numIndexValues.get();
+  }
+
+  /**
+   * Returns the last histogram of the values per key, or null if none was built yet. If there is no
+   * histogram or a tenth of the values were added or removed since it was built, a new one is
+   * built in the background, so the caller never scans the index and at most one build runs at a
+   * time.
+   */
+  IndexHistogram getHistogram() {
+    IndexHistogram current = histogram;
+    if ((current == null || modificationsSinceHistogram.get() > Math
+        .max(HISTOGRAM_MIN_MODIFICATIONS, numIndexValues.get() / 10))
+        && histogramBuildScheduled.compareAndSet(false, true)) {
+      try {
+        HistogramExecutorHolder.EXECUTOR.execute(this::buildHistogram);
+      } catch (RejectedExecutionException ignore) {
+        histogramBuildScheduled.set(false);
+      }
+    }
+    return current;
+  }
+
+  private void buildHistogram() {
+    try {
+      modificationsSinceHistogram.set(0);
+      histogram = IndexHistogram.build(valueToEntriesMap, valueToEntriesMap.comparator(),
+          numIndexValues.get(), IndexHistogram.MAX_BUCKETS);
+    } finally {
+      histogramBuildScheduled.set(false);
+    }
+  }
+
+  private static class HistogramExecutorHolder {
+    @MakeNotStatic
+    private static final ExecutorService EXECUTOR =
+        LoggingExecutors.newFixedThreadPoolWithTimeout("Index Histogram Builder", 1, 120);
+  }
+
   private class MemoryIndexStoreKeyIterator implements Iterator<IndexStoreEntry> {
 
     private final Map valuesToEntriesMap;
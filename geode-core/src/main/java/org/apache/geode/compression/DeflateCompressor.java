@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An implementation of {@link Compressor} that uses the JDK deflate codec, optionally primed with a
+ * preset dictionary. Region values are usually small and share most of their structure (field
+ * names, class names, common strings), so a dictionary trained from sampled values with
+ * {@link #trainDictionary(Iterable, int)} lets each value be encoded as references into that shared
+ * content and greatly improves the ratio achieved on small values.
+ *
+ * <p>
+ * Every member hosting a region must use an equal compressor, including the same dictionary.
+ *
+ * @since Geode 1.11
+ */
+public class DeflateCompressor implements Compressor, Serializable {
+  private static final long serialVersionUID = 2617352713489153447L;
+
+  /**
+   * The largest dictionary that deflate can make use of.
+   */
+  public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+  private static final int HEADER_SIZE = 4;
+  private static final int SEGMENT_SIZE = 8;
+  private static final int EPOCH_SIZE = 64;
+  private static final int MAX_SAMPLED_BYTES = 4 * 1024 * 1024;
+
+  private final int level;
+
+  private final byte[] dictionary;
+
+  private transient ThreadLocal<Deflater> deflaters;
+
+  private transient ThreadLocal<Inflater> inflaters;
+
+  /**
+   * Create a new instance of the DeflateCompressor that uses the default compression level and no
+   * dictionary.
+   */
+  public DeflateCompressor() {
+    this(Deflater.DEFAULT_COMPRESSION, null);
+  }
+
+  /**
+   * Create a new instance of the DeflateCompressor.
+   *
+   * @param level the deflate compression level, from 0 to 9 or -1 for the default.
+   * @param dictionary a preset dictionary, typically created with
+   *        {@link #trainDictionary(Iterable, int)}, or null for none.
+   */
+  public DeflateCompressor(int level, byte[] dictionary) {
+    if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("Invalid compression level " + level);
+    }
+    if (dictionary != null && dictionary.length > MAX_DICTIONARY_SIZE) {
+      throw new IllegalArgumentException(
+          "Dictionary size " + dictionary.length + " exceeds " + MAX_DICTIONARY_SIZE);
+    }
+    this.level = level;
+    this.dictionary = dictionary == null || dictionary.length == 0 ? null : dictionary.clone();
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * Returns a copy of the preset dictionary, or null if there is none.
+   */
+  public byte[] getDictionary() {
+    return dictionary == null ? null : dictionary.clone();
+  }
+
+  @Override
+  public byte[] compress(byte[] input) {
+    Deflater deflater = getDeflater();
+    deflater.reset();
+    if (dictionary != null) {
+      deflater.setDictionary(dictionary);
+    }
+    deflater.setInput(input);
+    deflater.finish();
+
+    byte[] output = new byte[HEADER_SIZE + input.length + (input.length >>> 4) + 64];
+    output[0] = (byte) (input.length >>> 24);
+    output[1] = (byte) (input.length >>> 16);
+    output[2] = (byte) (input.length >>> 8);
+    output[3] = (byte) input.length;
+    int length = HEADER_SIZE;
+    while (!deflater.finished()) {
+      if (length == output.length) {
+        output = Arrays.copyOf(output, output.length * 2);
+      }
+      length += deflater.deflate(output, length, output.length - length);
+    }
+    return Arrays.copyOf(output, length);
+  }
+
+  @Override
+  public byte[] decompress(byte[] input) {
+    if (input.length < HEADER_SIZE) {
+      throw new CompressionException("Compressed value is too short: " + input.length);
+    }
+    int length = ((input[0] & 0xFF) << 24) | ((input[1] & 0xFF) << 16) | ((input[2] & 0xFF) << 8)
+        | (input[3] & 0xFF);
+    if (length < 0) {
+      throw new CompressionException("Invalid uncompressed length " + length);
+    }
+
+    Inflater inflater = getInflater();
+    inflater.reset();
+    inflater.setInput(input, HEADER_SIZE, input.length - HEADER_SIZE);
+    byte[] output = new byte[length];
+    int offset = 0;
+    try {
+      while (!inflater.finished()) {
+        int count = inflater.inflate(output, offset, length - offset);
+        offset += count;
+        if (count == 0) {
+          if (inflater.needsDictionary()) {
+            if (dictionary == null) {
+              throw new CompressionException("Value was compressed with a preset dictionary");
+            }
+            inflater.setDictionary(dictionary);
+          } else if (inflater.needsInput() || offset == length) {
+            break;
+          }
+        }
+      }
+    } catch (DataFormatException | IllegalArgumentException e) {
+      throw new CompressionException(e);
+    }
+
+    if (!inflater.finished() || offset != length) {
+      throw new CompressionException(
+          "Value decompressed to " + offset + " bytes but expected " + length);
+    }
+    return output;
+  }
+
+  private Deflater getDeflater() {
+    ThreadLocal<Deflater> local = deflaters;
+    if (local == null) {
+      local = ThreadLocal.withInitial(() -> new Deflater(level));
+      deflaters = local;
+    }
+    return local.get();
+  }
+
+  private Inflater getInflater() {
+    ThreadLocal<Inflater> local = inflaters;
+    if (local == null) {
+      local = ThreadLocal.withInitial(Inflater::new);
+      inflaters = local;
+    }
+    return local.get();
+  }
+
+  /**
+   * Builds a preset dictionary from sample values, such as the serialized values of existing region
+   * entries. The content of the samples is split into fixed size epochs and each epoch is scored by
+   * how many of the samples contain each of its short segments. The best scoring epochs are then
+   * chosen greedily, discounting segments already covered, until the dictionary is full. The most
+   * valuable content is placed at the end of the dictionary where deflate can reference it most
+   * cheaply.
+   *
+   * @param samples the values to learn from.
+   * @param maxSize the maximum size of the dictionary, at most {@link #MAX_DICTIONARY_SIZE}.
+   * @return the trained dictionary; empty if the samples share no content.
+   */
+  public static byte[] trainDictionary(Iterable<byte[]> samples, int maxSize) {
+    if (maxSize <= 0 || maxSize > MAX_DICTIONARY_SIZE) {
+      throw new IllegalArgumentException("Invalid dictionary size " + maxSize);
+    }
+
+    // count the number of samples each segment occurs in
+    List<byte[]> sampled = new ArrayList<>();
+    Map<Long, int[]> frequencies = new HashMap<>();
+    int sampledBytes = 0;
+    Set<Long> seen = new HashSet<>();
+    for (byte[] sample : samples) {
+      if (sample == null || sample.length < SEGMENT_SIZE) {
+        continue;
+      }
+      if (sampledBytes + sample.length > MAX_SAMPLED_BYTES) {
+        break;
+      }
+      sampled.add(sample);
+      sampledBytes += sample.length;
+      seen.clear();
+      for (int i = 0; i + SEGMENT_SIZE <= sample.length; i++) {
+        Long segment = segmentAt(sample, i);
+        if (seen.add(segment)) {
+          frequencies.computeIfAbsent(segment, k -> new int[1])[0]++;
+        }
+      }
+    }
+
+    // only content shared by more than one sample is worth keeping
+    PriorityQueue<Epoch> epochs =
+        new PriorityQueue<>(Comparator.comparingLong((Epoch epoch) -> epoch.score).reversed());
+    for (byte[] sample : sampled) {
+      for (int start = 0; start + SEGMENT_SIZE <= sample.length; start += EPOCH_SIZE) {
+        Epoch epoch = new Epoch(sample, start, Math.min(EPOCH_SIZE, sample.length - start));
+        if (epoch.updateScore(frequencies) > 0) {
+          epochs.add(epoch);
+        }
+      }
+    }
+
+    // scores only drop as content is covered, so an epoch whose refreshed score still beats the
+    // cached score of the next candidate is the best remaining choice
+    List<Epoch> chosen = new ArrayList<>();
+    int size = 0;
+    while (size < maxSize && !epochs.isEmpty()) {
+      Epoch best = epochs.poll();
+      if (best.updateScore(frequencies) == 0) {
+        continue;
+      }
+      Epoch next = epochs.peek();
+      if (next != null && best.score < next.score) {
+        epochs.add(best);
+        continue;
+      }
+      int length = Math.min(best.length, maxSize - size);
+      chosen.add(new Epoch(best.sample, best.start, length));
+      size += length;
+      best.cover(frequencies);
+    }
+
+    // the first chosen epochs are the most valuable so they go last
+    byte[] result = new byte[size];
+    int position = size;
+    for (Epoch epoch : chosen) {
+      position -= epoch.length;
+      System.arraycopy(epoch.sample, epoch.start, result, position, epoch.length);
+    }
+    return result;
+  }
+
+  private static Long segmentAt(byte[] bytes, int index) {
+    long segment = 0;
+    for (int i = 0; i < SEGMENT_SIZE; i++) {
+      segment = (segment << 8) | (bytes[index + i] & 0xFF);
+    }
+    return segment;
+  }
+
+  private static class Epoch {
+    private final byte[] sample;
+    private final int start;
+    private final int length;
+    private long score;
+
+    Epoch(byte[] sample, int start, int length) {
+      this.sample = sample;
+      this.start = start;
+      this.length = length;
+    }
+
+    long updateScore(Map<Long, int[]> frequencies) {
+      long score = 0;
+      for (int i = start; i + SEGMENT_SIZE <= start + length; i++) {
+        int frequency = frequencies.get(segmentAt(sample, i))[0];
+        if (frequency > 1) {
+          score += frequency;
+        }
+      }
+      this.score = score;
+      return score;
+    }
+
+    void cover(Map<Long, int[]> frequencies) {
+      for (int i = start; i + SEGMENT_SIZE <= start + length; i++) {
+        frequencies.get(segmentAt(sample, i))[0] = 0;
+      }
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * level + Arrays.hashCode(dictionary);
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (other == null || getClass() != other.getClass()) {
+      return false;
+    }
+    DeflateCompressor that = (DeflateCompressor) other;
+    return level == that.level && Arrays.equals(dictionary, that.dictionary);
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * An implementation of {@link Compressor} that produces the LZ4 block format. The compressor favors
+ * speed over ratio and is a good fit for regions whose values are read far more often than they
+ * are written.
+ *
+ * <p>
+ * The compressed form is the uncompressed length as a big-endian int followed by a single LZ4
+ * block. The implementation is pure Java and has no external dependencies.
+ *
+ * @since Geode 1.11
+ */
+public class LZ4Compressor implements Compressor, Serializable {
+  private static final long serialVersionUID = -7284135312484711470L;
+
+  private static final int HEADER_SIZE = 4;
+  private static final int MIN_MATCH = 4;
+  private static final int LAST_LITERALS = 5;
+  private static final int MF_LIMIT = 12;
+  private static final int MAX_DISTANCE = 65535;
+  private static final int MIN_HASH_LOG = 8;
+  private static final int MAX_HASH_LOG = 12;
+  private static final int RUN_MASK = 15;
+
+  private static final ThreadLocal<int[]> HASH_TABLE =
+      ThreadLocal.withInitial(() -> new int[1 << MAX_HASH_LOG]);
+
+  /**
+   * Create a new instance of the LZ4Compressor.
+   */
+  public LZ4Compressor() {}
+
+  @Override
+  public byte[] compress(byte[] input) {
+    final int length = input.length;
+    byte[] output = new byte[HEADER_SIZE + maxCompressedLength(length)];
+    writeInt(output, 0, length);
+    int op = HEADER_SIZE;
+    int anchor = 0;
+
+    if (length > MF_LIMIT) {
+      final int hashLog = hashLog(length);
+      final int[] table = HASH_TABLE.get();
+      Arrays.fill(table, 0, 1 << hashLog, -1);
+      final int matchLimit = length - LAST_LITERALS;
+      final int limit = length - MF_LIMIT;
+      int ip = 0;
+      while (ip < limit) {
+        int sequence = readIntLE(input, ip);
+        int hash = hash(sequence, hashLog);
+        int ref = table[hash];
+        table[hash] = ip;
+        if (ref < 0 || ip - ref > MAX_DISTANCE || readIntLE(input, ref) != sequence) {
+          ip++;
+          continue;
+        }
+
+        while (ip > anchor && ref > 0 && input[ip - 1] == input[ref - 1]) {
+          ip--;
+          ref--;
+        }
+        int matchLength = MIN_MATCH;
+        while (ip + matchLength < matchLimit
+            && input[ip + matchLength] == input[ref + matchLength]) {
+          matchLength++;
+        }
+
+        op = writeSequence(input, anchor, ip - anchor, ip - ref, matchLength, output, op);
+        ip += matchLength;
+        anchor = ip;
+      }
+    }
+
+    op = writeLastLiterals(input, anchor, length - anchor, output, op);
+    return Arrays.copyOf(output, op);
+  }
+
+  @Override
+  public byte[] decompress(byte[] input) {
+    try {
+      final int length = readIntBE(input, 0);
+      if (length < 0) {
+        throw new CompressionException("Invalid LZ4 uncompressed length " + length);
+      }
+      final byte[] output = new byte[length];
+      int ip = HEADER_SIZE;
+      int op = 0;
+      while (true) {
+        int token = input[ip++] & 0xFF;
+
+        int literalLength = token >>> 4;
+        if (literalLength == RUN_MASK) {
+          int b;
+          do {
+            b = input[ip++] & 0xFF;
+            literalLength += b;
+          } while (b == 255);
+        }
+        System.arraycopy(input, ip, output, op, literalLength);
+        ip += literalLength;
+        op += literalLength;
+        if (ip >= input.length) {
+          break;
+        }
+
+        int offset = (input[ip++] & 0xFF) | ((input[ip++] & 0xFF) << 8);
+        int matchLength = token & RUN_MASK;
+        if (matchLength == RUN_MASK) {
+          int b;
+          do {
+            b = input[ip++] & 0xFF;
+            matchLength += b;
+          } while (b == 255);
+        }
+        matchLength += MIN_MATCH;
+
+        int ref = op - offset;
+        if (offset == 0 || ref < 0 || op + matchLength > length) {
+          throw new CompressionException("Corrupt LZ4 block at offset " + ip);
+        }
+        if (offset >= matchLength) {
+          System.arraycopy(output, ref, output, op, matchLength);
+          op += matchLength;
+        } else {
+          // overlapping match; copy byte by byte so the run repeats
+          for (int i = 0; i < matchLength; i++) {
+            output[op++] = output[ref++];
+          }
+        }
+      }
+
+      if (op != length) {
+        throw new CompressionException(
+            "LZ4 block decompressed to " + op + " bytes but expected " + length);
+      }
+      return output;
+    } catch (ArrayIndexOutOfBoundsException | NegativeArraySizeException e) {
+      throw new CompressionException("Corrupt LZ4 block", e);
+    }
+  }
+
+  static int maxCompressedLength(int length) {
+    return length + length / 255 + 16;
+  }
+
+  private static int hashLog(int length) {
+    int log = 32 - Integer.numberOfLeadingZeros(length);
+    return Math.max(MIN_HASH_LOG, Math.min(MAX_HASH_LOG, log));
+  }
+
+  private static int hash(int sequence, int hashLog) {
+    return (sequence * -1640531535) >>> (32 - hashLog);
+  }
+
+  private static int writeSequence(byte[] input, int literalStart, int literalLength, int offset,
+      int matchLength, byte[] output, int op) {
+    int tokenPosition = op++;
+    int token;
+    if (literalLength >= RUN_MASK) {
+      token = RUN_MASK << 4;
+      op = writeLength(literalLength - RUN_MASK, output, op);
+    } else {
+      token = literalLength << 4;
+    }
+    System.arraycopy(input, literalStart, output, op, literalLength);
+    op += literalLength;
+
+    output[op++] = (byte) offset;
+    output[op++] = (byte) (offset >>> 8);
+
+    int remainingMatch = matchLength - MIN_MATCH;
+    if (remainingMatch >= RUN_MASK) {
+      token |= RUN_MASK;
+      op = writeLength(remainingMatch - RUN_MASK, output, op);
+    } else {
+      token |= remainingMatch;
+    }
+    output[tokenPosition] = (byte) token;
+    return op;
+  }
+
+  private static int writeLastLiterals(byte[] input, int literalStart, int literalLength,
+      byte[] output, int op) {
+    if (literalLength >= RUN_MASK) {
+      output[op++] = (byte) (RUN_MASK << 4);
+      op = writeLength(literalLength - RUN_MASK, output, op);
+    } else {
+      output[op++] = (byte) (literalLength << 4);
+    }
+    System.arraycopy(input, literalStart, output, op, literalLength);
+    return op + literalLength;
+  }
+
+  private static int writeLength(int length, byte[] output, int op) {
+    while (length >= 255) {
+      output[op++] = (byte) 255;
+      length -= 255;
+    }
+    output[op++] = (byte) length;
+    return op;
+  }
+
+  private static int readIntLE(byte[] bytes, int index) {
+    return (bytes[index] & 0xFF) | ((bytes[index + 1] & 0xFF) << 8)
+        | ((bytes[index + 2] & 0xFF) << 16) | ((bytes[index + 3] & 0xFF) << 24);
+  }
+
+  private static int readIntBE(byte[] bytes, int index) {
+    return ((bytes[index] & 0xFF) << 24) | ((bytes[index + 1] & 0xFF) << 16)
+        | ((bytes[index + 2] & 0xFF) << 8) | (bytes[index + 3] & 0xFF);
+  }
+
+  private static void writeInt(byte[] bytes, int index, int value) {
+    bytes[index] = (byte) (value >>> 24);
+    bytes[index + 1] = (byte) (value >>> 16);
+    bytes[index + 2] = (byte) (value >>> 8);
+    bytes[index + 3] = (byte) value;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.getClass().getName().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (other == null) {
+      return false;
+    }
+
+    return this.getClass().getName().equals(other.getClass().getName());
+  }
+}
@@ -89,6 +89,7 @@ import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.LocalRegion.InitializationLevel;
+import org.apache.geode.internal.cache.compression.DecompressedValueCache;
 import org.apache.geode.internal.cache.extension.Extensible;
 import org.apache.geode.internal.cache.extension.ExtensionPoint;
 import org.apache.geode.internal.cache.extension.SimpleExtensionPoint;
@@ -267,6 +268,8 @@ public abstract class AbstractRegion implements InternalRegion, AttributesMutato
 
   protected Compressor compressor;
 
+  private DecompressedValueCache decompressedValueCache;
+
   /**
    * @see #getExtensionPoint()
    * @since GemFire 8.1
@@ -385,6 +388,7 @@ public abstract class AbstractRegion implements InternalRegion, AttributesMutato
     }
 
     compressor = attrs.getCompressor();
+    decompressedValueCache = DecompressedValueCache.create(compressor);
     // enable concurrency checks for persistent regions
     if (!attrs.getConcurrencyChecksEnabled() && attrs.getDataPolicy().withPersistence()
         && supportsConcurrencyChecks()) {
@@ -1860,6 +1864,11 @@ public abstract class AbstractRegion implements InternalRegion, AttributesMutato
     return compressor;
   }
 
+  @Override
+  public DecompressedValueCache getDecompressedValueCache() {
+    return decompressedValueCache;
+  }
+
   /**
    * @since GemFire 8.1
    */
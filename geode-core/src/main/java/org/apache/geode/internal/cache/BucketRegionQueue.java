@@ -31,11 +31,14 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.annotations.internal.MutableForTesting;
 import org.apache.geode.cache.CacheWriterException;
 import org.apache.geode.cache.EntryNotFoundException;
 import org.apache.geode.cache.RegionAttributes;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.TimeoutException;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.cache.execute.BucketMovedException;
 import org.apache.geode.internal.cache.persistence.query.mock.ByteComparator;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
@@ -54,6 +57,16 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
 
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * Whether an event superseded by a newer event for the same key is taken off the primary bucket's
+   * dispatch order by the thread that queues the newer event when it has not been peeked yet. The
+   * event is then never dispatched, even if the conflation thread pool that destroys it falls
+   * behind under high update rates for a few keys.
+   */
+  @MutableForTesting
+  public static boolean CONFLATE_ON_ENQUEUE =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.CONFLATE_ON_ENQUEUE");
+
   /**
    * The <code>Map</code> mapping the regionName->key to the queue key. This index allows fast
    * updating of entries in the queue for conflation. This is necesaary for Colocated regions and if
@@ -285,7 +298,8 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
     }
   }
 
-  private void conflateOldEntry(Conflatable object, Long tailKey) {
+  @VisibleForTesting
+  void conflateOldEntry(Conflatable object, Long tailKey) {
     PartitionedRegion region = this.getPartitionedRegion();
     Conflatable conflatableObject = object;
     if (region.isConflationEnabled() && conflatableObject.shouldBeConflated()) {
@@ -311,9 +325,15 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
           return;
         ConcurrentParallelGatewaySenderQueue queue =
             (ConcurrentParallelGatewaySenderQueue) ep.getQueue();
-        // Give the actual conflation work to another thread.
-        // ParallelGatewaySenderQueue takes care of maintaining a thread pool.
-        queue.conflateEvent(conflatableObject, getId(), previousTailKey);
+        if (CONFLATE_ON_ENQUEUE && this.eventSeqNumDeque.removeLastOccurrence(previousTailKey)) {
+          // Only the primary conflates. The previous event has not been peeked yet, and removing
+          // its key from the deque prevents that. It is still destroyed by the conflation pool.
+          queue.conflateQueuedEvent(conflatableObject, getId(), previousTailKey);
+        } else {
+          // Give the actual conflation work to another thread.
+          // ParallelGatewaySenderQueue takes care of maintaining a thread pool.
+          queue.conflateEvent(conflatableObject, getId(), previousTailKey);
+        }
       } else {
         region.getParallelGatewaySender().getStatistics().incConflationIndexesMapSize();
       }
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Collection;
+
+import org.apache.geode.cache.CacheLoader;
+import org.apache.geode.cache.Region;
+
+/**
+ * A {@link CacheLoader} that can read many keys at once. Before a getAll loads its missing keys one
+ * at a time, the region passes them to {@link #prefetch} on the same thread. The loader reads them
+ * in bulk and answers the loads that follow on that thread from what it read, until
+ * {@link #endPrefetch} is called. The loads themselves are unchanged, so the entries are still
+ * created as loads with the usual locking and events.
+ */
+public interface BulkCacheLoader {
+
+  /**
+   * Reads ahead the values of keys that the current thread is about to load from the region.
+   */
+  void prefetch(Region region, Collection<?> keys);
+
+  /**
+   * Discards whatever the current thread prefetched and did not load.
+   */
+  void endPrefetch(Region region);
+}
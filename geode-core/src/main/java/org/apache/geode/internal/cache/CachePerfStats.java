@@ -78,6 +78,8 @@ public class CachePerfStats {
   static final int queryResultsHashCollisionsId;
   static final int queryResultsHashCollisionProbeTimeId;
   static final int partitionedRegionQueryRetriesId;
+  static final int queryPlanCacheHitsId;
+  static final int queryPlanCacheMissesId;
 
   static final int txSuccessLifeTimeId;
   static final int txFailedLifeTimeId;
@@ -153,6 +155,7 @@ public class CachePerfStats {
   static final int compressionDecompressionsId;
   static final int compressionPreCompressedBytesId;
   static final int compressionPostCompressedBytesId;
+  static final int compressionDecompressedValueCacheHitsId;
 
   static {
     StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
@@ -234,6 +237,10 @@ public class CachePerfStats {
         "Total time spent probing the hashtable in an OQL result set due to hash code collisions, includes reads, writes, and rehashes";
     final String partitionedRegionOQLQueryRetriesDesc =
         "Total number of times an OQL Query on a Partitioned Region had to be retried";
+    final String queryPlanCacheHitsDesc =
+        "Total number of times a new query reused the compiled plan of an earlier query with the same text";
+    final String queryPlanCacheMissesDesc =
+        "Total number of times a new query had to be compiled because its plan was not cached";
     final String txSuccessLifeTimeDesc =
         "The total amount of time, in nanoseconds, spent in a transaction before a successful commit. The time measured starts at transaction begin and ends when commit is called.";
     final String txFailedLifeTimeDesc =
@@ -316,6 +323,8 @@ public class CachePerfStats {
         "The total number of bytes before compressing.";
     final String compressionPostCompressedBytesDesc =
         "The total number of bytes after compressing.";
+    final String compressionDecompressedValueCacheHitsDesc =
+        "The total number of reads of a compressed value served from the decompressed value cache.";
 
     // total actual evictions (entries evicted)
     final String evictByCriteria_evictionsDesc = "The total number of entries evicted";
@@ -403,6 +412,8 @@ public class CachePerfStats {
                 queryResultsHashCollisionProbeTimeDesc, "nanoseconds"),
             f.createLongCounter("partitionedRegionQueryRetries",
                 partitionedRegionOQLQueryRetriesDesc, "retries"),
+            f.createLongCounter("queryPlanCacheHits", queryPlanCacheHitsDesc, "operations"),
+            f.createLongCounter("queryPlanCacheMisses", queryPlanCacheMissesDesc, "operations"),
 
             f.createIntCounter("txCommits", txCommitsDesc, "commits"),
             f.createIntCounter("txCommitChanges", txCommitChangesDesc, "changes"),
@@ -480,6 +491,8 @@ public class CachePerfStats {
             f.createLongCounter("decompressions", compressionDecompressionsDesc, "operations"),
             f.createLongCounter("preCompressedBytes", compressionPreCompresssedBytesDesc, "bytes"),
             f.createLongCounter("postCompressedBytes", compressionPostCompressedBytesDesc, "bytes"),
+            f.createLongCounter("decompressedValueCacheHits",
+                compressionDecompressedValueCacheHitsDesc, "operations"),
 
             f.createLongCounter("evictByCriteria_evictions", evictByCriteria_evictionsDesc,
                 "operations"),
@@ -543,6 +556,8 @@ public class CachePerfStats {
     queryResultsHashCollisionsId = type.nameToId("queryResultsHashCollisions");
     queryResultsHashCollisionProbeTimeId = type.nameToId("queryResultsHashCollisionProbeTime");
     partitionedRegionQueryRetriesId = type.nameToId("partitionedRegionQueryRetries");
+    queryPlanCacheHitsId = type.nameToId("queryPlanCacheHits");
+    queryPlanCacheMissesId = type.nameToId("queryPlanCacheMisses");
 
     txSuccessLifeTimeId = type.nameToId("txSuccessLifeTime");
     txFailedLifeTimeId = type.nameToId("txFailedLifeTime");
@@ -611,6 +626,7 @@ public class CachePerfStats {
     compressionDecompressionsId = type.nameToId("decompressions");
     compressionPreCompressedBytesId = type.nameToId("preCompressedBytes");
     compressionPostCompressedBytesId = type.nameToId("postCompressedBytes");
+    compressionDecompressedValueCacheHitsId = type.nameToId("decompressedValueCacheHits");
   }
 
   /** The Statistics object that we delegate most behavior to */
@@ -840,6 +856,10 @@ public class CachePerfStats {
     return stats.getLong(compressionPostCompressedBytesId);
   }
 
+  public long getDecompressedValueCacheHits() {
+    return stats.getLong(compressionDecompressedValueCacheHitsId);
+  }
+
   public long startCompression() {
     stats.incLong(compressionCompressionsId, 1);
     return getTime();
@@ -864,6 +884,10 @@ public class CachePerfStats {
     }
   }
 
+  public void incDecompressedValueCacheHits() {
+    stats.incLong(compressionDecompressedValueCacheHitsId, 1);
+  }
+
   /**
    * @return the timestamp that marks the start of the operation
    */
@@ -1136,6 +1160,22 @@ public class CachePerfStats {
     stats.incInt(queryResultsHashCollisionsId, 1);
   }
 
+  public long getQueryPlanCacheHits() {
+    return stats.getLong(queryPlanCacheHitsId);
+  }
+
+  public void incQueryPlanCacheHits() {
+    stats.incLong(queryPlanCacheHitsId, 1);
+  }
+
+  public long getQueryPlanCacheMisses() {
+    return stats.getLong(queryPlanCacheMissesId);
+  }
+
+  public void incQueryPlanCacheMisses() {
+    stats.incLong(queryPlanCacheMissesId, 1);
+  }
+
   public int getTxCommits() {
     return stats.getInt(txCommitsId);
   }
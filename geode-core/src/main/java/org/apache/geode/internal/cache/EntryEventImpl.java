@@ -84,6 +84,7 @@ import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.internal.size.Sizeable;
 import org.apache.geode.internal.util.ArrayUtils;
 import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.internal.PdxPatchImpl;
 import org.apache.geode.pdx.internal.PeerTypeRegistration;
 
 /**
@@ -1691,6 +1692,8 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
     // not be applied. This is possible if the event originated locally.
     if (this.deltaBytes != null && this.newValue == null && this.newValueBytes == null) {
       processDeltaBytes(oldValueForDelta);
+    } else if (this.deltaBytes != null && PdxPatchImpl.isPdxPatch(this.deltaBytes)) {
+      reapplyPdxPatch(oldValueForDelta);
     }
 
     if (owner != null) {
@@ -1813,6 +1816,10 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
         getRegion().getCachePerfStats().incDeltaFailedUpdates();
         throw new InvalidDeltaException("Old value not found for key " + this.keyInfo.getKey());
       }
+      if (PdxPatchImpl.isPdxPatch(getDeltaBytes())) {
+        processPdxPatch(oldValueInVM);
+        return;
+      }
       FilterProfile fp = getRegion().getFilterProfile();
       // If compression is enabled then we've already gotten a new copy due to the
       // serializaion and deserialization that occurs.
@@ -1879,6 +1886,61 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
     }
   }
 
+  /**
+   * Applies delta bytes holding a {@link org.apache.geode.pdx.PdxPatch} to the serialized form of
+   * the old value. Unlike other deltas the old value is never deserialized.
+   */
+  private void processPdxPatch(Object oldValueInVM) {
+    byte[] oldBytes = PdxPatchImpl.getSerializedPdx(oldValueInVM);
+    if (oldBytes == null) {
+      getRegion().getCachePerfStats().incDeltaFailedUpdates();
+      throw new InvalidDeltaException(
+          "A PDX patch can not be applied to the value for key " + this.keyInfo.getKey()
+              + " because it is not a PDX instance");
+    }
+    applyPdxPatch(oldBytes);
+  }
+
+  /**
+   * Applies a {@link org.apache.geode.pdx.PdxPatch} that came with the full value computed by its
+   * originator to the old value found while the entry is locked instead, so that concurrent
+   * patches of the same entry are not lost. The full value is only kept when there is no PDX old
+   * value to apply the patch to.
+   */
+  private void reapplyPdxPatch(Object oldValueInVM) {
+    if (getRegion().hasSeenEvent(this) || oldValueInVM == null
+        || Token.isInvalidOrRemoved(oldValueInVM)) {
+      return;
+    }
+    byte[] oldBytes = PdxPatchImpl.getSerializedPdx(oldValueInVM);
+    if (oldBytes != null) {
+      applyPdxPatch(oldBytes);
+    }
+  }
+
+  private void applyPdxPatch(byte[] oldBytes) {
+    boolean deltaBytesApplied = false;
+    byte[] newBytes;
+    try {
+      long start = getRegion().getCachePerfStats().getTime();
+      newBytes =
+          PdxPatchImpl.fromDeltaBytes(getDeltaBytes()).apply(oldBytes, getRegion().getCache());
+      getRegion().getCachePerfStats().endDeltaUpdate(start);
+      deltaBytesApplied = true;
+    } finally {
+      if (!deltaBytesApplied) {
+        getRegion().getCachePerfStats().incDeltaFailedUpdates();
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("PDX patch has been applied for key {}", getKey());
+    }
+    setSerializedNewValue(newBytes);
+    if (this.causedByMessage != null && this.causedByMessage instanceof PutMessage) {
+      ((PutMessage) this.causedByMessage).setDeltaValObj(basicGetNewValue());
+    }
+  }
+
   void setTXEntryOldValue(Object oldVal, boolean mustBeAvailable) {
     if (Token.isInvalidOrRemoved(oldVal)) {
       oldVal = null;
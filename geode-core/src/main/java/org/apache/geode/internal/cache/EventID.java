@@ -288,6 +288,16 @@ public class EventID implements DataSerializableFixedID, Serializable, Externali
     return this.membershipID;
   }
 
+  /**
+   * Replaces this id's membership id bytes with an equal, shared array so that many ids from the
+   * same member can hold a single copy. Ids whose bytes differ are left unchanged.
+   */
+  public void canonicalizeMembershipID(byte[] canonical) {
+    if (canonical != this.membershipID && Arrays.equals(canonical, this.membershipID)) {
+      this.membershipID = canonical;
+    }
+  }
+
   public int getBucketID() {
     return this.bucketID;
   }
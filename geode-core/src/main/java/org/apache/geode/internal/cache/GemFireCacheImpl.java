@@ -143,6 +143,7 @@ import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.cq.CqServiceProvider;
 import org.apache.geode.cache.server.CacheServer;
@@ -550,6 +551,9 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
 
   private final Object queryMonitorLock = new Object();
 
+  /** null if the query plan cache is disabled */
+  private final QueryPlanCache queryPlanCache;
+
   private final PersistentMemberManager persistentMemberManager;
 
   private final ClientMetadataService clientMetadataService;
@@ -852,6 +856,9 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
       cachePerfStats = new CachePerfStats(
           internalDistributedSystem.getStatisticsManager(), statisticsClock);
 
+      queryPlanCache = QueryPlanCache.MAX_SIZE > 0
+          ? new QueryPlanCache(QueryPlanCache.MAX_SIZE, cachePerfStats) : null;
+
       transactionManager = new TXManagerImpl(cachePerfStats, this, statisticsClock);
       dm.addMembershipListener(transactionManager);
 
@@ -4512,6 +4519,11 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
     return queryMonitor;
   }
 
+  @Override
+  public QueryPlanCache getQueryPlanCache() {
+    return queryPlanCache;
+  }
+
   /**
    * Simple class to allow waiters for register interest. Has at most one thread that ever calls
    * wait.
@@ -60,6 +60,7 @@ import org.apache.geode.cache.internal.HttpService;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.server.CacheServer;
 import org.apache.geode.cache.snapshot.CacheSnapshotService;
@@ -1006,6 +1007,11 @@ public class InternalCacheForClientAccess implements InternalCache {
     return delegate.getQueryMonitor();
   }
 
+  @Override
+  public QueryPlanCache getQueryPlanCache() {
+    return delegate.getQueryPlanCache();
+  }
+
   @Override
   public void close(String reason, Throwable systemFailureCause, boolean keepAlive,
       boolean keepDS) {
@@ -67,6 +67,7 @@ import org.apache.geode.Delta;
 import org.apache.geode.DeltaSerializationException;
 import org.apache.geode.InternalGemFireError;
 import org.apache.geode.InternalGemFireException;
+import org.apache.geode.InvalidDeltaException;
 import org.apache.geode.LogWriter;
 import org.apache.geode.Statistics;
 import org.apache.geode.SystemFailure;
@@ -220,6 +221,7 @@ import org.apache.geode.internal.util.concurrent.FutureResult;
 import org.apache.geode.internal.util.concurrent.StoppableCountDownLatch;
 import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.PdxPatchImpl;
 
 /**
  * Implementation of a local scoped-region. Note that this class has a different meaning starting
@@ -5228,6 +5230,64 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
   }
 
+  /**
+   * Applies a {@link org.apache.geode.pdx.PdxPatch} to the value of an existing entry. Like a
+   * {@link Delta}, the patch is first applied to the current value on this member so that the
+   * update event carries the full patched value. The patch itself is carried as the event's delta
+   * bytes, so only the patch is distributed. Every member storing the entry, this one included,
+   * applies it to its own copy of the old value while the entry is locked, so concurrent patches
+   * are not lost. A member that cannot apply it requests the full value.
+   *
+   * @return true if the entry existed and was updated
+   */
+  public boolean basicPdxPatch(Object key, PdxPatchImpl patch, Object callbackArg)
+      throws TimeoutException, CacheWriterException {
+    validateKey(key);
+    checkReadiness();
+    checkForLimitedOrNoAccess();
+    if (hasServerProxy()) {
+      throw new UnsupportedOperationException(
+          "A PDX patch must be applied on a server, for example from a function");
+    }
+    if (!getSystem().getConfig().getDeltaPropagation()) {
+      throw new IllegalStateException("A PDX patch requires delta propagation to be enabled");
+    }
+    discoverJTA();
+
+    long startPut = getStatisticsClock().getTime();
+    Object oldValue = get(key, callbackArg, false, true, true, null, null, false);
+    if (oldValue == null || Token.isInvalid(oldValue)) {
+      return false;
+    }
+    byte[] oldBytes = PdxPatchImpl.getSerializedPdx(oldValue);
+    if (oldBytes == null) {
+      throw new InvalidDeltaException("A PDX patch can not be applied to the value for key " + key
+          + " because it is not a PDX instance");
+    }
+    byte[] newBytes = patch.apply(oldBytes, getCache());
+    @Released
+    final EntryEventImpl event = entryEventFactory.create(this, Operation.UPDATE, key, null,
+        callbackArg, false, getMyId());
+    try {
+      event.setSerializedNewValue(newBytes);
+      event.setDeltaBytes(patch.toDeltaBytes());
+      if (event.getEventId() == null && generateEventID()) {
+        event.setNewEventId(cache.getDistributedSystem());
+      }
+      boolean success = basicPut(event, false, // ifNew
+          true, // ifOld
+          null, // expectedOldValue
+          false // requireOldValue
+      );
+      if (success && !getDataView().isDeferredStats()) {
+        getCachePerfStats().endPut(startPut, false);
+      }
+      return success;
+    } finally {
+      event.release();
+    }
+  }
+
   /**
    * issue a config message if the server and client have different concurrency checking
    * expectations
@@ -8697,19 +8757,66 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     } else {
       // This implementation for a P2P VM is a stop-gap to provide the
       // functionality. It needs to be rewritten more efficiently.
-      for (Object key : keys) {
-        try {
-          allResults.put(key, get(key, callback));
-        } catch (Exception e) {
-          logger.warn(String.format("The following exception occurred attempting to get key=%s",
-              key),
-              e);
+      BulkCacheLoader prefetchingLoader = prefetchForGetAll(keys);
+      try {
+        for (Object key : keys) {
+          try {
+            allResults.put(key, get(key, callback));
+          } catch (Exception e) {
+            logger.warn(String.format("The following exception occurred attempting to get key=%s",
+                key),
+                e);
+          }
+        }
+      } finally {
+        if (prefetchingLoader != null) {
+          prefetchingLoader.endPrefetch(this);
         }
       }
     }
     return allResults;
   }
 
+  /**
+   * Lets a {@link BulkCacheLoader} read the keys of a getAll that this member would load in bulk,
+   * before the current thread gets them one at a time.
+   *
+   * @return the loader, whose {@link BulkCacheLoader#endPrefetch} the caller must call once the
+   *         keys have been gotten, or null if nothing was prefetched
+   */
+  public BulkCacheLoader prefetchForGetAll(Collection<?> keys) {
+    CacheLoader loader = basicGetLoader();
+    if (!(loader instanceof BulkCacheLoader) || keys.size() < 2 || getTXState() != null) {
+      return null;
+    }
+    List<Object> keysToLoad = new ArrayList<>();
+    for (Object key : keys) {
+      if (key != null && isLoadedLocally(key)) {
+        keysToLoad.add(key);
+      }
+    }
+    if (keysToLoad.size() < 2) {
+      return null;
+    }
+    BulkCacheLoader bulkLoader = (BulkCacheLoader) loader;
+    try {
+      bulkLoader.prefetch(this, keysToLoad);
+    } catch (RuntimeException e) {
+      // the keys are still loaded one at a time
+      logger.warn("Prefetching {} keys of region {} failed", keysToLoad.size(), getFullPath(), e);
+      bulkLoader.endPrefetch(this);
+      return null;
+    }
+    return bulkLoader;
+  }
+
+  /**
+   * Returns whether getting the key would invoke this member's loader for it.
+   */
+  boolean isLoadedLocally(Object key) {
+    return !containsKey(key);
+  }
+
   /**
    * Return false if it will never store entry ekys and values locally; otherwise return true.
    */
@@ -42,7 +42,9 @@ import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.CompiledGroupBySelect;
 import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.CompiledValue;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.ExecutionContext;
 import org.apache.geode.cache.query.internal.NWayMergeResults;
@@ -216,7 +218,7 @@ public class PRQueryProcessor {
   }
 
   private Collection coalesceOrderedResults(Collection<Collection> results,
-      ExecutionContext context, CompiledSelect cs, int limit) {
+      ExecutionContext context, CompiledSelect cs, int limit) throws QueryException {
     List<Collection> sortedResults = new ArrayList<Collection>(results.size());
     // TODO :Asif : Deal with UNDEFINED
     for (Object o : results) {
@@ -225,9 +227,16 @@ public class PRQueryProcessor {
       }
     }
 
-    return new NWayMergeResults(sortedResults, cs.isDistinct(), limit, cs.getOrderByAttrs(),
-        context, cs.getElementTypeForOrderByQueries());
-
+    NWayMergeResults mergedResults = new NWayMergeResults(sortedResults, cs.isDistinct(), limit,
+        cs.getOrderByAttrs(), context, cs.getElementTypeForOrderByQueries());
+    if (cs.getType() == CompiledValue.GROUP_BY_SELECT && cs.getOrderByAttrs() != null
+        && sortedResults.size() > 1) {
+      // the buckets return partial aggregates per group, combine them so that one row per group
+      // is sent for all the buckets of this member
+      context.setBucketList(this._bucketsToQuery);
+      return ((CompiledGroupBySelect) cs).combineBucketResults(mergedResults, context);
+    }
+    return mergedResults;
   }
 
   private void executeQueryOnBuckets(Collection<Collection> resultCollector,
@@ -40,6 +40,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -49,6 +50,7 @@ import java.util.concurrent.locks.Lock;
 
 import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.CancelCriterion;
 import org.apache.geode.CancelException;
 import org.apache.geode.InternalGemFireException;
 import org.apache.geode.StatisticsFactory;
@@ -291,6 +293,14 @@ public class PartitionedRegion extends LocalRegion
   static final boolean DISABLE_SECONDARY_BUCKET_ACK =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disablePartitionedRegionBucketAck");
 
+  /**
+   * The maximum number of threads used to create or populate the indexes of the local buckets.
+   * Each bucket has its own index manager, so buckets are indexed independently of each other.
+   */
+  static final int INDEX_POPULATION_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "PartitionedRegion.INDEX_THREADS",
+          Runtime.getRuntime().availableProcessors());
+
   /**
    * A debug flag used for testing calculation of starting bucket id
    */
@@ -8606,21 +8616,28 @@ public class PartitionedRegion extends LocalRegion
       HashMap<String, Exception> exceptionsMap) {
     boolean throwException = false;
     if (getDataStore() != null && indexes.size() > 0) {
-      Set localBuckets = getDataStore().getAllLocalBuckets();
-      Iterator it = localBuckets.iterator();
-      while (it.hasNext()) {
-        Map.Entry entry = (Map.Entry) it.next();
+      List<Callable<Map<String, Exception>>> tasks = new ArrayList<>();
+      for (Object o : getDataStore().getAllLocalBuckets()) {
+        Map.Entry entry = (Map.Entry) o;
         Region bucket = (Region) entry.getValue();
 
         if (bucket == null) {
           continue;
         }
-        IndexManager bucketIndexManager = IndexUtils.getIndexManager(cache, bucket, true);
-        Set<Index> bucketIndexes = getBucketIndexesForPRIndexes(bucket, indexes);
-        try {
-          bucketIndexManager.populateIndexes(bucketIndexes);
-        } catch (MultiIndexCreationException ex) {
-          exceptionsMap.putAll(ex.getExceptionsMap());
+        tasks.add(() -> {
+          IndexManager bucketIndexManager = IndexUtils.getIndexManager(cache, bucket, true);
+          Set<Index> bucketIndexes = getBucketIndexesForPRIndexes(bucket, indexes);
+          try {
+            bucketIndexManager.populateIndexes(bucketIndexes);
+          } catch (MultiIndexCreationException ex) {
+            return ex.getExceptionsMap();
+          }
+          return null;
+        });
+      }
+      for (Map<String, Exception> bucketExceptions : invokeBucketIndexTasks(tasks)) {
+        if (bucketExceptions != null) {
+          exceptionsMap.putAll(bucketExceptions);
           throwException = true;
         }
       }
@@ -8628,6 +8645,83 @@ public class PartitionedRegion extends LocalRegion
     return throwException;
   }
 
+  private <T> List<T> invokeBucketIndexTasks(List<Callable<T>> tasks) {
+    return invokeBucketIndexTasks(tasks, INDEX_POPULATION_THREADS, getCancelCriterion());
+  }
+
+  /**
+   * Runs the given per bucket index tasks, on at most maxThreads of the shared index threads when
+   * there is more than one task and more than one thread, and returns their results in task order.
+   * Tasks report expected failures through their results; the first other failure in task order is
+   * rethrown here.
+   */
+  @VisibleForTesting
+  static <T> List<T> invokeBucketIndexTasks(List<Callable<T>> tasks, int maxThreads,
+      CancelCriterion cancelCriterion) {
+    List<T> results = new ArrayList<>(tasks.size());
+    if (maxThreads <= 1 || tasks.size() <= 1) {
+      for (Callable<T> task : tasks) {
+        try {
+          results.add(task.call());
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Exception e) {
+          throw new InternalGemFireException(e);
+        }
+      }
+      return results;
+    }
+
+    // each worker takes the next task until none is left, so no more than maxThreads run at once
+    AtomicInteger nextTask = new AtomicInteger();
+    Object[] taskResults = new Object[tasks.size()];
+    Throwable[] taskFailures = new Throwable[tasks.size()];
+    int workerCount = Math.min(maxThreads, tasks.size());
+    List<Callable<Void>> workers = new ArrayList<>(workerCount);
+    for (int i = 0; i < workerCount; i++) {
+      workers.add(() -> {
+        int task;
+        while ((task = nextTask.getAndIncrement()) < taskResults.length) {
+          try {
+            taskResults[task] = tasks.get(task).call();
+          } catch (Throwable t) {
+            taskFailures[task] = t;
+          }
+        }
+        return null;
+      });
+    }
+    try {
+      IndexExecutorHolder.EXECUTOR.invokeAll(workers);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      cancelCriterion.checkCancelInProgress(ie);
+      throw new InternalGemFireException(ie);
+    }
+
+    for (int i = 0; i < taskResults.length; i++) {
+      Throwable failure = taskFailures[i];
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      if (failure instanceof Error) {
+        throw (Error) failure;
+      }
+      if (failure != null) {
+        throw new InternalGemFireException(failure);
+      }
+      results.add((T) taskResults[i]);
+    }
+    return results;
+  }
+
+  private static class IndexExecutorHolder {
+    @MakeNotStatic
+    private static final ExecutorService EXECUTOR =
+        LoggingExecutors.newFixedThreadPoolWithTimeout("PartitionedRegionIndexThread",
+            Math.max(1, INDEX_POPULATION_THREADS), 120);
+  }
+
   private Set<Index> getBucketIndexesForPRIndexes(Region bucket, Set<Index> indexes) {
     Set<Index> bucketIndexes = new HashSet<Index>();
     for (Index ind : indexes) {
@@ -8998,6 +9092,20 @@ public class PartitionedRegion extends LocalRegion
     return remoteInfos;
   }
 
+  @Override
+  boolean isLoadedLocally(Object key) {
+    // a missing key is loaded by the primary of its bucket
+    if (this.dataStore == null) {
+      return false;
+    }
+    int bucketId = PartitionedRegionHelper.getHashKey(this, null, key, null, null);
+    if (!getRegionAdvisor().isPrimaryForBucket(bucketId)) {
+      return false;
+    }
+    BucketRegion bucket = this.dataStore.getLocalBucketById(bucketId);
+    return bucket != null && !bucket.containsKey(key);
+  }
+
   /**
    * Return the primary for the local bucket. Returns null if no primary can be found within
    * {@link DistributionConfig#getMemberTimeout}.
@@ -9687,6 +9795,7 @@ public class PartitionedRegion extends LocalRegion
       if (!it.hasNext()) {
         parIndex.setPopulated(true);
       }
+      List<Callable<Exception>> tasks = new ArrayList<>();
       while (it.hasNext()) {
         Map.Entry entry = (Map.Entry) it.next();
         Region bucket = (Region) entry.getValue();
@@ -9695,23 +9804,37 @@ public class PartitionedRegion extends LocalRegion
           continue;
         }
 
-        ExecutionContext externalContext = new ExecutionContext(null, cache);
-        externalContext.setBucketRegion(PartitionedRegion.this, (BucketRegion) bucket);
-        IndexManager indMng = IndexUtils.getIndexManager(cache, bucket, true);
-        try {
-          Index bucketIndex = indMng.createIndex(indexName, indexType, indexedExpression,
-              fromClause, imports, externalContext, parIndex, loadEntries);
-          // parIndex.addToBucketIndexes(bucketIndex);
-        } catch (IndexNameConflictException ince) {
-          if (!remotelyOriginated) {
-            throw ince;
-          }
-        } catch (IndexExistsException iee) {
-          if (!remotelyOriginated) {
-            throw iee;
+        tasks.add(() -> {
+          ExecutionContext externalContext = new ExecutionContext(null, cache);
+          externalContext.setBucketRegion(PartitionedRegion.this, (BucketRegion) bucket);
+          IndexManager indMng = IndexUtils.getIndexManager(cache, bucket, true);
+          try {
+            Index bucketIndex = indMng.createIndex(indexName, indexType, indexedExpression,
+                fromClause, imports, externalContext, parIndex, loadEntries);
+            // parIndex.addToBucketIndexes(bucketIndex);
+          } catch (IndexNameConflictException | IndexExistsException e) {
+            if (!remotelyOriginated) {
+              return e;
+            }
+          } catch (IndexCreationException e) {
+            return e;
           }
-        }
+          return null;
+        });
       } // End of bucket list
+
+      // the buckets are indexed in parallel, rethrow the first failure in bucket order
+      for (Exception e : invokeBucketIndexTasks(tasks)) {
+        if (e instanceof IndexNameConflictException) {
+          throw (IndexNameConflictException) e;
+        }
+        if (e instanceof IndexExistsException) {
+          throw (IndexExistsException) e;
+        }
+        if (e instanceof IndexCreationException) {
+          throw (IndexCreationException) e;
+        }
+      }
       parIndex.markValid(true);
       return parIndex;
     }
@@ -16,6 +16,7 @@
 package org.apache.geode.internal.cache;
 
 import org.apache.geode.compression.Compressor;
+import org.apache.geode.internal.cache.compression.DecompressedValueCache;
 
 /**
  * Provides important contextual information that allows a {@link RegionEntry} to manage its state.
@@ -33,6 +34,15 @@ public interface RegionEntryContext extends HasCachePerfStats {
    */
   Compressor getCompressor();
 
+  /**
+   * Returns the cache of recently decompressed values used when reading compressed entries.
+   *
+   * @return null if decompressed values are not cached for the entry.
+   */
+  default DecompressedValueCache getDecompressedValueCache() {
+    return null;
+  }
+
   /**
    * Returns true if region entries are stored off heap.
    */
@@ -559,4 +559,10 @@ class RegionPerfStats extends CachePerfStats implements RegionStats {
       cachePerfStats.stats.incLong(compressionDecompressTimeId, time);
     }
   }
+
+  @Override
+  public void incDecompressedValueCacheHits() {
+    stats.incLong(compressionDecompressedValueCacheHitsId, 1);
+    cachePerfStats.stats.incLong(compressionDecompressedValueCacheHitsId, 1);
+  }
 }
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.compression;
+
+import static org.apache.geode.distributed.internal.DistributionConfig.GEMFIRE_PREFIX;
+
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.RegionEntryContext;
+
+/**
+ * A small, lossy cache of decompressed region values used to avoid repeatedly decompressing hot
+ * entries. Slots are keyed by the identity of the compressed byte array stored in the region
+ * entry. Since an update always stores a new compressed array, a stale slot can never match and
+ * no explicit invalidation is needed.
+ *
+ * <p>
+ * The cache holds the decompressed serialized form rather than the deserialized object so readers
+ * still get their own copy of the value. Memory use is bounded by the number of slots times the
+ * largest value that may be cached.
+ */
+public class DecompressedValueCache {
+
+  public static final String SIZE_PROPERTY = "compression.decompressedValueCacheSize";
+
+  public static final String MAX_VALUE_SIZE_PROPERTY =
+      "compression.decompressedValueCacheMaxValueSize";
+
+  private static final int DEFAULT_MAX_VALUE_SIZE = 4096;
+
+  private final Slot[] slots;
+
+  private final int mask;
+
+  private final int maxValueSize;
+
+  /**
+   * @param size the requested number of slots; rounded up to a power of two.
+   * @param maxValueSize the largest decompressed value, in bytes, that will be cached.
+   */
+  public DecompressedValueCache(int size, int maxValueSize) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("size must be positive: " + size);
+    }
+    int capacity = Integer.highestOneBit(size);
+    if (capacity < size) {
+      capacity <<= 1;
+    }
+    slots = new Slot[capacity];
+    mask = capacity - 1;
+    this.maxValueSize = maxValueSize;
+  }
+
+  /**
+   * Creates a cache sized by the {@link #SIZE_PROPERTY} system property, or returns null if the
+   * property is not set or the region does not compress its values.
+   */
+  public static DecompressedValueCache create(Compressor compressor) {
+    if (compressor == null) {
+      return null;
+    }
+    int size = Integer.getInteger(GEMFIRE_PREFIX + SIZE_PROPERTY, 0);
+    if (size <= 0) {
+      return null;
+    }
+    int maxValueSize =
+        Integer.getInteger(GEMFIRE_PREFIX + MAX_VALUE_SIZE_PROPERTY, DEFAULT_MAX_VALUE_SIZE);
+    return new DecompressedValueCache(size, maxValueSize);
+  }
+
+  /**
+   * Returns the decompressed form of the given compressed value, from the cache if possible.
+   * Decompressions performed here are recorded in the context's stats.
+   */
+  public byte[] decompress(RegionEntryContext context, byte[] compressed) {
+    int index = System.identityHashCode(compressed) & mask;
+    Slot slot = slots[index];
+    CachePerfStats stats = context.getCachePerfStats();
+    if (slot != null && slot.compressed == compressed) {
+      stats.incDecompressedValueCacheHits();
+      return slot.decompressed;
+    }
+
+    long time = stats.startDecompression();
+    byte[] decompressed = context.getCompressor().decompress(compressed);
+    stats.endDecompression(time);
+    if (decompressed.length <= maxValueSize) {
+      slots[index] = new Slot(compressed, decompressed);
+    }
+    return decompressed;
+  }
+
+  /**
+   * Drops all cached values.
+   */
+  public void clear() {
+    for (int i = 0; i < slots.length; i++) {
+      slots[i] = null;
+    }
+  }
+
+  int getCapacity() {
+    return slots.length;
+  }
+
+  private static class Slot {
+    private final byte[] compressed;
+    private final byte[] decompressed;
+
+    Slot(byte[] compressed, byte[] decompressed) {
+      this.compressed = compressed;
+      this.decompressed = decompressed;
+    }
+  }
+}
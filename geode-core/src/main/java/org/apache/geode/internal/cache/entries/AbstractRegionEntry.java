@@ -58,6 +58,7 @@ import org.apache.geode.internal.cache.TimestampedEntryEventImpl;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.TombstoneService;
 import org.apache.geode.internal.cache.ValueComparisonHelper;
+import org.apache.geode.internal.cache.compression.DecompressedValueCache;
 import org.apache.geode.internal.cache.eviction.EvictionList;
 import org.apache.geode.internal.cache.persistence.DiskRecoveryStore;
 import org.apache.geode.internal.cache.persistence.DiskStoreID;
@@ -512,6 +513,11 @@ public abstract class AbstractRegionEntry implements HashRegionEntry<Object, Obj
    */
   static Object decompress(RegionEntryContext context, Object value) {
     if (isCompressible(context, value)) {
+      DecompressedValueCache decompressedValueCache = context.getDecompressedValueCache();
+      if (decompressedValueCache != null) {
+        return EntryEventImpl
+            .deserialize(decompressedValueCache.decompress(context, (byte[]) value));
+      }
       long time = context.getCachePerfStats().startDecompression();
       value = EntryEventImpl.deserialize(context.getCompressor().decompress((byte[]) value));
       context.getCachePerfStats().endDecompression(time);
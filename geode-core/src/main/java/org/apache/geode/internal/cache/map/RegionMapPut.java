@@ -40,6 +40,7 @@ import org.apache.geode.internal.offheap.ReferenceCountHelper;
 import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.sequencelog.EntryLogger;
+import org.apache.geode.pdx.internal.PdxPatchImpl;
 
 public class RegionMapPut extends AbstractRegionMapPut {
   protected static final Logger logger = LogService.getLogger();
@@ -73,7 +74,9 @@ public class RegionMapPut extends AbstractRegionMapPut {
     this.ifOld = ifOld;
     this.overwriteDestroyed = overwriteDestroyed;
     this.requireOldValue = requireOldValue;
-    this.retrieveOldValueForDelta = event.getDeltaBytes() != null && event.getRawNewValue() == null;
+    // a PDX patch is applied to the old value even when the event carries the patched value
+    this.retrieveOldValueForDelta = event.getDeltaBytes() != null
+        && (event.getRawNewValue() == null || PdxPatchImpl.isPdxPatch(event.getDeltaBytes()));
     this.replaceOnClient = event.getOperation() == Operation.REPLACE && owner.hasServerProxy();
     this.onlyExisting = ifOld && !isReplaceOnClient();
     this.cacheWriter = owner.basicGetWriter();
@@ -22,22 +22,32 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.Queue;
 
 import org.apache.geode.DataSerializer;
 import org.apache.geode.annotations.Immutable;
 import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.snapshot.SnapshotIterator;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.ExitCode;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.snapshot.SnapshotPacket.SnapshotRecord;
+import org.apache.geode.internal.serialization.DSCODE;
 import org.apache.geode.pdx.internal.EnumInfo;
+import org.apache.geode.pdx.internal.PdxColumnarBlock;
 import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.PdxWriterImpl;
 import org.apache.geode.pdx.internal.TypeRegistry;
 
 /**
@@ -67,6 +77,30 @@ public class GFSnapshot {
   /** the snapshot format version 2 */
   public static final int SNAP_VER_2 = 2;
 
+  /**
+   * the snapshot format version 3, which stores PDX values of the same type in
+   * {@link PdxColumnarBlock}s
+   */
+  public static final int SNAP_VER_3 = 3;
+
+  /**
+   * If true, snapshots are written in version 3 format. Older members can not import them.
+   */
+  private static final boolean COLUMNAR_PDX =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "GFSnapshot.COLUMNAR_PDX");
+
+  /** the number of PDX values of one type written in each columnar block */
+  static final int COLUMNAR_BLOCK_SIZE = 1024;
+
+  /** in version 3, precedes an entry written as a {@link SnapshotRecord} */
+  private static final byte ROW_RECORD = 0;
+
+  /** in version 3, precedes the keys and columnar block of PDX values of one type */
+  private static final byte BLOCK_RECORD = 1;
+
+  /** in version 3, marks the end of the entries */
+  private static final byte END_RECORD = 2;
+
   /** the snapshot file format */
   @Immutable
   private static final byte[] SNAP_FMT = {0x47, 0x46, 0x53};
@@ -117,7 +151,7 @@ public class GFSnapshot {
    */
   public static SnapshotWriter create(File snapshot, String region, InternalCache cache)
       throws IOException {
-    final GFSnapshotExporter out = new GFSnapshotExporter(snapshot, region, cache);
+    final GFSnapshotExporter out = new GFSnapshotExporter(snapshot, region, cache, COLUMNAR_PDX);
     return new SnapshotWriter() {
       @Override
       public void snapshotEntry(SnapshotRecord entry) throws IOException {
@@ -220,15 +254,27 @@ public class GFSnapshot {
     private final DataOutputStream dos;
     private final InternalCache cache;
 
+    /** true if PDX values are collected into columnar blocks */
+    private final boolean columnarPdx;
+
+    /** the PDX values being collected into columnar blocks and their keys, by type id */
+    private final Map<Integer, PendingBlock> pendingBlocks = new HashMap<>();
+
     public GFSnapshotExporter(File out, String region, InternalCache cache) throws IOException {
+      this(out, region, cache, false);
+    }
+
+    GFSnapshotExporter(File out, String region, InternalCache cache, boolean columnarPdx)
+        throws IOException {
       this.cache = cache;
+      this.columnarPdx = columnarPdx;
       FileOutputStream fos = new FileOutputStream(out);
       fc = fos.getChannel();
 
       dos = new DataOutputStream(new BufferedOutputStream(fos));
 
       // write snapshot version
-      dos.writeByte(SNAP_VER_2);
+      dos.writeByte(columnarPdx ? SNAP_VER_3 : SNAP_VER_2);
 
       // write format type
       dos.write(SNAP_FMT);
@@ -247,12 +293,73 @@ public class GFSnapshot {
      * @throws IOException unable to write entry
      */
     public void writeSnapshotEntry(SnapshotRecord entry) throws IOException {
-      InternalDataSerializer.invokeToData(entry, dos);
+      if (!columnarPdx) {
+        InternalDataSerializer.invokeToData(entry, dos);
+        return;
+      }
+      PendingBlock pending = getPendingBlock(entry.getValue());
+      if (pending != null && pending.builder.add(entry.getValue())) {
+        pending.keys.add(entry.getKey());
+        if (pending.builder.size() == COLUMNAR_BLOCK_SIZE) {
+          pendingBlocks.remove(pending.builder.getPdxType().getTypeId());
+          writeBlock(pending);
+        }
+      } else {
+        dos.writeByte(ROW_RECORD);
+        InternalDataSerializer.invokeToData(entry, dos);
+      }
+    }
+
+    /**
+     * Returns the block collecting values of the type of the given serialized value, or null if
+     * the value is not a PDX that can be stored in a columnar block.
+     */
+    private PendingBlock getPendingBlock(byte[] value) {
+      if (value == null || value.length < PdxWriterImpl.HEADER_SIZE
+          || value[0] != DSCODE.PDX.toByte()) {
+        return null;
+      }
+      // the type id is the last int of the header
+      int typeId = ByteBuffer.wrap(value).getInt(PdxWriterImpl.HEADER_SIZE - 4);
+      PendingBlock pending = pendingBlocks.get(typeId);
+      if (pending == null) {
+        PdxType pdxType;
+        try {
+          pdxType = cache.getPdxRegistry().getType(typeId);
+        } catch (CacheClosedException e) {
+          return null;
+        }
+        if (pdxType == null || pdxType.getHasDeletedField()) {
+          return null;
+        }
+        pending = new PendingBlock(pdxType);
+        pendingBlocks.put(typeId, pending);
+      }
+      return pending;
+    }
+
+    private void writeBlock(PendingBlock pending) throws IOException {
+      PdxColumnarBlock block = pending.builder.build();
+      dos.writeByte(BLOCK_RECORD);
+      dos.writeInt(block.getPdxType().getTypeId());
+      dos.writeInt(pending.keys.size());
+      for (byte[] key : pending.keys) {
+        DataSerializer.writeByteArray(key, dos);
+      }
+      block.toData(dos);
     }
 
     public void close() throws IOException {
-      // write entry terminator entry
-      DataSerializer.writeByteArray(null, dos);
+      if (columnarPdx) {
+        for (PendingBlock pending : pendingBlocks.values()) {
+          writeBlock(pending);
+        }
+        pendingBlocks.clear();
+        dos.writeByte(END_RECORD);
+      } else {
+        // write entry terminator entry
+        DataSerializer.writeByteArray(null, dos);
+      }
 
       // grab the pdx start location
       dos.flush();
@@ -275,6 +382,18 @@ public class GFSnapshot {
     }
   }
 
+  /**
+   * The PDX values of one type collected for a columnar block, and their keys.
+   */
+  private static class PendingBlock {
+    private final PdxColumnarBlock.Builder builder;
+    private final List<byte[]> keys = new ArrayList<>();
+
+    PendingBlock(PdxType pdxType) {
+      builder = new PdxColumnarBlock.Builder(pdxType);
+    }
+  }
+
   /**
    * Reads a snapshot file.
    */
@@ -291,6 +410,9 @@ public class GFSnapshot {
     /** the input stream */
     private final DataInputStream dis;
 
+    /** the entries of the columnar block being read that have not been returned yet */
+    private final Queue<SnapshotRecord> blockRecords = new ArrayDeque<>();
+
     public GFSnapshotImporter(File in, TypeRegistry typeRegistry)
         throws IOException, ClassNotFoundException {
       pdx = new ExportedRegistry();
@@ -309,7 +431,7 @@ public class GFSnapshot {
               String.format("Unsupported snapshot version: %s", SNAP_VER_1)
                   + ": " + in);
 
-        } else if (version == SNAP_VER_2) {
+        } else if (version == SNAP_VER_2 || version == SNAP_VER_3) {
           // read format
           byte[] format = new byte[3];
           tmp.readFully(format);
@@ -385,6 +507,9 @@ public class GFSnapshot {
      * @throws ClassNotFoundException unable to create entry
      */
     public SnapshotRecord readSnapshotRecord() throws IOException, ClassNotFoundException {
+      if (version == SNAP_VER_3) {
+        return readColumnarSnapshotRecord();
+      }
       byte[] key = DataSerializer.readByteArray(dis);
       if (key == null) {
         return null;
@@ -394,6 +519,41 @@ public class GFSnapshot {
       return new SnapshotRecord(key, value);
     }
 
+    private SnapshotRecord readColumnarSnapshotRecord() throws IOException {
+      while (blockRecords.isEmpty()) {
+        byte record = dis.readByte();
+        if (record == END_RECORD) {
+          return null;
+        } else if (record == ROW_RECORD) {
+          byte[] key = DataSerializer.readByteArray(dis);
+          byte[] value = DataSerializer.readByteArray(dis);
+          return new SnapshotRecord(key, value);
+        } else if (record == BLOCK_RECORD) {
+          readBlock();
+        } else {
+          throw new IOException(String.format("Unrecognized snapshot record type: %s", record));
+        }
+      }
+      return blockRecords.remove();
+    }
+
+    private void readBlock() throws IOException {
+      int typeId = dis.readInt();
+      PdxType pdxType = pdx.types().get(typeId);
+      if (pdxType == null) {
+        throw new IOException(String.format("Snapshot is missing PDX type %s", typeId));
+      }
+      int size = dis.readInt();
+      byte[][] keys = new byte[size][];
+      for (int i = 0; i < size; i++) {
+        keys[i] = DataSerializer.readByteArray(dis);
+      }
+      PdxColumnarBlock block = PdxColumnarBlock.fromData(dis, pdxType);
+      for (int i = 0; i < size; i++) {
+        blockRecords.add(new SnapshotRecord(keys[i], block.getSerializedValue(i)));
+      }
+    }
+
     public void close() throws IOException {
       dis.close();
     }
@@ -15,9 +15,9 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Set;
 
 import org.apache.geode.cache.RegionDestroyedException;
@@ -225,7 +225,7 @@ public abstract class BaseCommandQuery extends BaseCommand {
           // from 7.0, if the object is in the form of serialized byte array,
           // send it as a part of ObjectPartList
           if (hasSerializedObjects) {
-            sendResultsAsObjectPartList(numberOfChunks, servConn, selectResults.asList(), isStructs,
+            sendResultsAsObjectPartList(numberOfChunks, servConn, selectResults, isStructs,
                 collectionType, queryString, cqQuery, sendCqResultsWithKey, sendResults,
                 securityService);
           } else {
@@ -365,37 +365,34 @@ public abstract class BaseCommandQuery extends BaseCommand {
     }
   }
 
+  /**
+   * Sends the results chunk by chunk while iterating over them, without copying the whole result.
+   * Each chunk is written to the connection before the next one is built, so the server only holds
+   * the chunk being sent while a slow client consumes the results.
+   */
   private void sendResultsAsObjectArray(SelectResults selectResults, int numberOfChunks,
       ServerConnection servConn, boolean isStructs, CollectionType collectionType,
       String queryString, ServerCQ cqQuery, boolean sendCqResultsWithKey, boolean sendResults)
       throws IOException {
     int resultIndex = 0;
-    // For CQ only as we dont want CQEntries which have null values.
-    int cqResultIndex = 0;
-    Object[] objs = selectResults.toArray();
+    Iterator objs = selectResults.iterator();
     for (int j = 0; j < numberOfChunks; j++) {
-      boolean incompleteArray = false;
       if (logger.isTraceEnabled()) {
         logger.trace("{}: Creating chunk: {}", servConn.getName(), j);
       }
       Object[] results = new Object[MAXIMUM_CHUNK_SIZE];
-      for (int i = 0; i < MAXIMUM_CHUNK_SIZE; i++) {
-        if ((resultIndex) == objs.length) {
-          incompleteArray = true;
-          break;
-        }
+      int i = 0;
+      while (i < MAXIMUM_CHUNK_SIZE && objs.hasNext()) {
+        Object obj = objs.next();
         if (logger.isTraceEnabled()) {
           logger.trace("{}: Adding entry [{}] to query results: {}", servConn.getName(),
-              resultIndex, objs[resultIndex]);
+              resultIndex, obj);
         }
+        resultIndex++;
         if (cqQuery != null) {
-          CqEntry e = (CqEntry) objs[resultIndex];
+          CqEntry e = (CqEntry) obj;
           // The value may have become null because of entry invalidation.
           if (e.getValue() == null) {
-            resultIndex++;
-            // i will get incremented anyway so we need to decrement it back so
-            // that results[i] is not null.
-            i--;
             continue;
           }
           // Add the key into CQ results cache.
@@ -415,34 +412,24 @@ public abstract class BaseCommandQuery extends BaseCommand {
           }
         } else {
           // instance check added to fix bug 40516.
-          if (isStructs && (objs[resultIndex] instanceof Struct)) {
-            results[i] = ((Struct) objs[resultIndex]).getFieldValues();
+          if (isStructs && (obj instanceof Struct)) {
+            results[i] = ((Struct) obj).getFieldValues();
           } else {
-            results[i] = objs[resultIndex];
+            results[i] = obj;
           }
         }
-        resultIndex++;
-        cqResultIndex++;
+        i++;
       }
       // Shrink array if necessary. This will occur if the number
       // of entries in the chunk does not divide evenly into the
       // number of entries in the result set.
-      if (incompleteArray) {
-        Object[] newResults;
-        if (cqQuery != null) {
-          newResults = new Object[cqResultIndex % MAXIMUM_CHUNK_SIZE];
-        } else {
-          newResults = new Object[resultIndex % MAXIMUM_CHUNK_SIZE];
-        }
-        for (int i = 0; i < newResults.length; i++) {
-          newResults[i] = results[i];
-        }
-        results = newResults;
+      if (i < MAXIMUM_CHUNK_SIZE) {
+        results = Arrays.copyOf(results, i);
       }
 
+      boolean lastChunk = !objs.hasNext();
       if (sendResults) {
-        writeQueryResponseChunk(results, collectionType, (resultIndex == objs.length),
-            servConn);
+        writeQueryResponseChunk(results, collectionType, lastChunk, servConn);
 
         if (logger.isDebugEnabled()) {
           logger.debug("{}: Sent chunk ({} of {}) of query response for query: {}",
@@ -451,17 +438,18 @@ public abstract class BaseCommandQuery extends BaseCommand {
       }
       // If we have reached the last element of SelectResults then we should
       // break out of loop here only.
-      if (resultIndex == objs.length) {
+      if (lastChunk) {
         break;
       }
     }
   }
 
-  private void sendResultsAsObjectPartList(int numberOfChunks, ServerConnection servConn, List objs,
-      boolean isStructs, CollectionType collectionType, String queryString, ServerCQ cqQuery,
-      boolean sendCqResultsWithKey, boolean sendResults, final SecurityService securityService)
-      throws IOException {
+  private void sendResultsAsObjectPartList(int numberOfChunks, ServerConnection servConn,
+      Collection selectResults, boolean isStructs, CollectionType collectionType,
+      String queryString, ServerCQ cqQuery, boolean sendCqResultsWithKey, boolean sendResults,
+      final SecurityService securityService) throws IOException {
     int resultIndex = 0;
+    Iterator objs = selectResults.iterator();
     Object result = null;
     for (int j = 0; j < numberOfChunks; j++) {
       if (logger.isTraceEnabled()) {
@@ -469,15 +457,16 @@ public abstract class BaseCommandQuery extends BaseCommand {
       }
       ObjectPartList serializedObjs = new ObjectPartList(MAXIMUM_CHUNK_SIZE, false);
       for (int i = 0; i < MAXIMUM_CHUNK_SIZE; i++) {
-        if ((resultIndex) == objs.size()) {
+        if (!objs.hasNext()) {
           break;
         }
+        Object obj = objs.next();
         if (logger.isTraceEnabled()) {
           logger.trace("{}: Adding entry [{}] to query results: {}", servConn.getName(),
-              resultIndex, objs.get(resultIndex));
+              resultIndex, obj);
         }
         if (cqQuery != null) {
-          CqEntry e = (CqEntry) objs.get(resultIndex);
+          CqEntry e = (CqEntry) obj;
           // The value may have become null because of entry invalidation.
           if (e.getValue() == null) {
             resultIndex++;
@@ -500,7 +489,7 @@ public abstract class BaseCommandQuery extends BaseCommand {
             result = e.getValue();
           }
         } else {
-          result = objs.get(resultIndex);
+          result = obj;
         }
         if (sendResults) {
           addToObjectPartList(serializedObjs, result, collectionType, false, servConn, isStructs,
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.annotations.internal.MakeNotStatic;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.control.MemoryThresholds.MemoryState;
+
+/**
+ * Admission control for the batches received by the gateway receivers of this member. With each
+ * acknowledgement a receiver advertises how many more events the sender on that connection can
+ * send, based on the events of all batches being applied and on the heap state. The events that
+ * can still be taken are shared out among the connections of the receiver, so that the credit
+ * advertised to all senders together does not exceed it. Senders pause before dispatching a batch
+ * that is larger than the advertised credit.
+ */
+final class GatewayReceiverAdmission {
+
+  /**
+   * The number of events the gateway receivers of this member may be applying at once before they
+   * advertise no more credit. Credit is only advertised when this is set.
+   */
+  static final int MAX_EVENTS_IN_PROGRESS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "GatewayReceiver.MAX_EVENTS_IN_PROGRESS", 0);
+
+  @MakeNotStatic
+  private static final AtomicInteger eventsInProgress = new AtomicInteger();
+
+  private GatewayReceiverAdmission() {
+    // no instances
+  }
+
+  static boolean isEnabled() {
+    return MAX_EVENTS_IN_PROGRESS > 0;
+  }
+
+  static void admit(int numberOfEvents) {
+    eventsInProgress.addAndGet(numberOfEvents);
+  }
+
+  static void release(int numberOfEvents) {
+    eventsInProgress.addAndGet(-numberOfEvents);
+  }
+
+  /**
+   * Returns the credit to advertise on one of the given number of connections of a receiver.
+   */
+  static int getCredit(InternalCache cache, int connections) {
+    return getCredit(MAX_EVENTS_IN_PROGRESS, eventsInProgress.get(),
+        cache.getInternalResourceManager().getHeapMonitor().getState(), connections);
+  }
+
+  /**
+   * Returns the number of events the sender on one of the given number of connections can send.
+   * There is no credit once the heap is critical, and only half of it once the heap is above the
+   * eviction threshold.
+   */
+  static int getCredit(int maxEventsInProgress, int eventsInProgress, MemoryState heapState,
+      int connections) {
+    if (heapState.isCritical()) {
+      return 0;
+    }
+    int credit = Math.max(0, maxEventsInProgress - eventsInProgress) / Math.max(1, connections);
+    return heapState.isEviction() ? credit / 2 : credit;
+  }
+}
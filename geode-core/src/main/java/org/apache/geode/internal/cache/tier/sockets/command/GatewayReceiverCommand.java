@@ -16,16 +16,29 @@ package org.apache.geode.internal.cache.tier.sockets.command;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
+import org.apache.shiro.util.ThreadState;
 
 import org.apache.geode.CancelException;
 import org.apache.geode.annotations.Immutable;
+import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.annotations.internal.MakeNotStatic;
 import org.apache.geode.cache.EntryNotFoundException;
+import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.operations.DestroyOperationContext;
 import org.apache.geode.cache.operations.PutOperationContext;
 import org.apache.geode.cache.wan.GatewayReceiver;
 import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.DistributionStats;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.EntryEventImpl;
@@ -33,6 +46,8 @@ import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.EventIDHolder;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionHelper;
 import org.apache.geode.internal.cache.tier.CachedRegionHelper;
 import org.apache.geode.internal.cache.tier.Command;
 import org.apache.geode.internal.cache.tier.MessageType;
@@ -42,7 +57,9 @@ import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompression;
 import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
+import org.apache.geode.internal.logging.LoggingExecutors;
 import org.apache.geode.internal.security.AuthorizeRequest;
 import org.apache.geode.internal.security.SecurityService;
 import org.apache.geode.internal.serialization.Version;
@@ -59,6 +76,17 @@ public class GatewayReceiverCommand extends BaseCommand {
   @Immutable
   private static final GatewayReceiverCommand SINGLETON = new GatewayReceiverCommand();
 
+  /**
+   * The number of threads that apply the events of one batch. With more than one, the events are
+   * spread over that many lanes by bucket (or by key for regions that are not partitioned) and the
+   * lanes are applied in parallel, each in batch order, so the events of a key keep their order.
+   * PDX type events are applied before all others. The batch is acknowledged once every lane has
+   * finished. Batches from connections using an authorization callback are always applied by the
+   * connection's own thread.
+   */
+  static final int APPLY_BATCH_THREADS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "GatewayReceiver.APPLY_BATCH_THREADS", 1);
+
   public static Command getCommand() {
     return SINGLETON;
   }
@@ -144,364 +172,522 @@ public class GatewayReceiverCommand extends BaseCommand {
 
     boolean removeOnException = clientMessage.getPart(partNumber++).getSerializedForm()[0] == 1;
 
-    // event received in batch also have PDX events at the start of the batch,to
-    // represent correct index on which the exception occurred, number of PDX
-    // events need to be subtracted.
-    int indexWithoutPDXEvent = -1; //
+    ReceivedBatch batch = new ReceivedBatch(clientMessage, serverConnection, securityService,
+        crHelper, stats, batchId, numberOfEvents, dsid, removeOnException, APPLY_BATCH_THREADS);
+    GatewayReceiverAdmission.admit(numberOfEvents);
+    try {
+      applyBatch(batch, partNumber);
+    } catch (CancelException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "{} ignoring message of type {} from client {} because shutdown occurred during message processing.",
+            serverConnection.getName(), MessageType.getString(clientMessage.getMessageType()),
+            serverConnection.getProxyID());
+      }
+      serverConnection.setFlagProcessMessagesAsFalse();
+      serverConnection.setClientDisconnectedException(e);
+      return;
+    } finally {
+      GatewayReceiverAdmission.release(numberOfEvents);
+    }
+    Throwable fatalException = batch.fatalException;
+    List<BatchException70> exceptions = batch.exceptions;
+
+    {
+      long oldStart = start;
+      start = DistributionStats.getStatTime();
+      stats.incProcessBatchTime(start - oldStart);
+    }
+    if (fatalException != null) {
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+      writeFatalException(clientMessage, fatalException, serverConnection, batchId);
+      serverConnection.setAsTrue(RESPONDED);
+    } else if (!exceptions.isEmpty()) {
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+      writeBatchException(clientMessage, exceptions, serverConnection, batchId);
+      serverConnection.setAsTrue(RESPONDED);
+    } else {
+      // Increment the batch id unless the received batch id is -1 (a failover
+      // batch)
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+
+      writeReply(clientMessage, serverConnection, batchId, numberOfEvents);
+      serverConnection.setAsTrue(RESPONDED);
+      stats.incWriteProcessBatchResponseTime(DistributionStats.getStatTime() - start);
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "{}: Sent process batch normal response for batch {} containing {} events ({} bytes) with {} acknowledgement on {}",
+            serverConnection.getName(), batchId, numberOfEvents, clientMessage.getPayloadLength(),
+            "normal", serverConnection.getSocketString());
+      }
+    }
+  }
+
+  /**
+   * Applies one event of a batch, adding a {@link BatchException70} to the batch if it fails or
+   * setting the fatal exception of the batch if no more events may be applied.
+   *
+   * @param partNumber the number of the first part of the event
+   * @param indexWithoutPDXEvent the number of non-PDX events preceding the event in the batch
+   * @return the number of parts of the event
+   */
+  private int applyEvent(ReceivedBatch batch, int partNumber, int indexWithoutPDXEvent)
+      throws InterruptedException, IOException {
+    final Message clientMessage = batch.clientMessage;
+    final ServerConnection serverConnection = batch.serverConnection;
+    final CachedRegionHelper crHelper = batch.crHelper;
+    final GatewayReceiverStats stats = batch.stats;
+    final int batchId = batch.batchId;
+    final int numberOfEvents = batch.numberOfEvents;
+    final int dsid = batch.dsid;
+    final boolean removeOnException = batch.removeOnException;
+
+    Part actionTypePart = clientMessage.getPart(partNumber);
+    int actionType = actionTypePart.getInt();
+
     Part valuePart = null;
-    Throwable fatalException = null;
-    List<BatchException70> exceptions = new ArrayList<>();
-    for (int i = 0; i < numberOfEvents; i++) {
-      indexWithoutPDXEvent++;
+    boolean callbackArgExists = false;
+    int eventParts = 0;
+
+    try {
+      boolean isPdxEvent = false;
+      boolean retry = true;
+      do {
+        if (isPdxEvent) {
+          // This is a retried event. Reset the PDX event index.
+          indexWithoutPDXEvent++;
+        }
+        isPdxEvent = false;
+        Part possibleDuplicatePart = clientMessage.getPart(partNumber + 1);
+        byte[] possibleDuplicatePartBytes;
+        try {
+          possibleDuplicatePartBytes = (byte[]) possibleDuplicatePart.getObject();
+        } catch (Exception e) {
+          logger.warn(String.format(
+              "%s: Caught exception processing batch request %s containing %s events",
+              serverConnection.getName(), batchId, numberOfEvents), e);
+          handleException(removeOnException, stats, e);
+          break;
+        }
+        boolean possibleDuplicate =
+            (possibleDuplicatePartBytes[0] & GatewayBatchCompression.POSSIBLE_DUPLICATE) != 0;
+        boolean valueCompressed =
+            (possibleDuplicatePartBytes[0] & GatewayBatchCompression.VALUE_COMPRESSED) != 0;
 
-      Part actionTypePart = clientMessage.getPart(partNumber);
-      int actionType = actionTypePart.getInt();
+        // Make sure instance variables are null before each iteration
+        String regionName = null;
+        Object key = null;
+        Object callbackArg = null;
 
-      boolean callbackArgExists = false;
+        // Retrieve the region name from the message parts
+        Part regionNamePart = clientMessage.getPart(partNumber + 2);
+        regionName = regionNamePart.getCachedString();
+        if (regionName.equals(PeerTypeRegistration.REGION_FULL_PATH)) {
+          indexWithoutPDXEvent--;
+          isPdxEvent = true;
+        }
 
-      try {
-        boolean isPdxEvent = false;
-        boolean retry = true;
-        do {
-          if (isPdxEvent) {
-            // This is a retried event. Reset the PDX event index.
-            indexWithoutPDXEvent++;
-          }
-          isPdxEvent = false;
-          Part possibleDuplicatePart = clientMessage.getPart(partNumber + 1);
-          byte[] possibleDuplicatePartBytes;
-          try {
-            possibleDuplicatePartBytes = (byte[]) possibleDuplicatePart.getObject();
-          } catch (Exception e) {
-            logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
-                serverConnection.getName(), batchId, numberOfEvents), e);
-            handleException(removeOnException, stats, e);
-            break;
-          }
-          boolean possibleDuplicate = possibleDuplicatePartBytes[0] == 0x01;
-
-          // Make sure instance variables are null before each iteration
-          String regionName = null;
-          Object key = null;
-          Object callbackArg = null;
-
-          // Retrieve the region name from the message parts
-          Part regionNamePart = clientMessage.getPart(partNumber + 2);
-          regionName = regionNamePart.getCachedString();
-          if (regionName.equals(PeerTypeRegistration.REGION_FULL_PATH)) {
-            indexWithoutPDXEvent--;
-            isPdxEvent = true;
-          }
-
-          // Retrieve the event id from the message parts
-          // This was going to be used to determine possible
-          // duplication of events, but it is unused now. In
-          // fact the event id is overridden by the FROM_GATEWAY
-          // token.
-          Part eventIdPart = clientMessage.getPart(partNumber + 3);
-          eventIdPart.setVersion(serverConnection.getClientVersion());
-          // String eventId = eventIdPart.getString();
-          EventID eventId;
-          try {
-            eventId = (EventID) eventIdPart.getObject();
-          } catch (Exception e) {
-            logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
-                serverConnection.getName(), batchId, numberOfEvents), e);
-            handleException(removeOnException, stats, e);
-            break;
-          }
-
-          // Retrieve the key from the message parts
-          Part keyPart = clientMessage.getPart(partNumber + 4);
-          try {
-            key = keyPart.getStringOrObject();
-          } catch (Exception e) {
-            logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
-                serverConnection.getName(), batchId, numberOfEvents), e);
-            handleException(removeOnException, stats, e);
-            break;
-          }
-          int index;
-          Part callbackArgPart;
-          EventIDHolder clientEvent;
-          long versionTimeStamp;
-          Part callbackArgExistsPart;
-          LocalRegion region;
-          switch (actionType) {
-            case 0: // Create
-              try {
-
-                /*
-                 * CLIENT EXCEPTION HANDLING TESTING CODE String keySt = (String) key;
-                 * System.out.println("Processing new key: " + key); if
-                 * (keySt.startsWith("failure")) { throw new Exception(LocalizedStrings
-                 * .ProcessBatch_THIS_EXCEPTION_REPRESENTS_A_FAILURE_ON_THE_SERVER
-                 * )); }
-                 */
-
-                // Retrieve the value from the message parts (do not deserialize it)
-                valuePart = clientMessage.getPart(partNumber + 5);
-                // try {
-                // logger.warn(getName() + ": Creating key " + key + " value " +
-                // valuePart.getObject());
-                // } catch (Exception e) {}
-
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 6;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
+        // Retrieve the event id from the message parts
+        // This was going to be used to determine possible
+        // duplication of events, but it is unused now. In
+        // fact the event id is overridden by the FROM_GATEWAY
+        // token.
+        Part eventIdPart = clientMessage.getPart(partNumber + 3);
+        eventIdPart.setVersion(serverConnection.getClientVersion());
+        // String eventId = eventIdPart.getString();
+        EventID eventId;
+        try {
+          eventId = (EventID) eventIdPart.getObject();
+        } catch (Exception e) {
+          logger.warn(String.format(
+              "%s: Caught exception processing batch request %s containing %s events",
+              serverConnection.getName(), batchId, numberOfEvents), e);
+          handleException(removeOnException, stats, e);
+          break;
+        }
+
+        // Retrieve the key from the message parts
+        Part keyPart = clientMessage.getPart(partNumber + 4);
+        try {
+          key = keyPart.getStringOrObject();
+        } catch (Exception e) {
+          logger.warn(String.format(
+              "%s: Caught exception processing batch request %s containing %s events",
+              serverConnection.getName(), batchId, numberOfEvents), e);
+          handleException(removeOnException, stats, e);
+          break;
+        }
+        int index;
+        Part callbackArgPart;
+        EventIDHolder clientEvent;
+        long versionTimeStamp;
+        Part callbackArgExistsPart;
+        LocalRegion region;
+        switch (actionType) {
+          case 0: // Create
+            try {
+
+              /*
+               * CLIENT EXCEPTION HANDLING TESTING CODE String keySt = (String) key;
+               * System.out.println("Processing new key: " + key); if
+               * (keySt.startsWith("failure")) { throw new Exception(LocalizedStrings
+               * .ProcessBatch_THIS_EXCEPTION_REPRESENTS_A_FAILURE_ON_THE_SERVER
+               * )); }
+               */
+
+              // Retrieve the value from the message parts (do not deserialize it)
+              valuePart = clientMessage.getPart(partNumber + 5);
+              // try {
+              // logger.warn(getName() + ": Creating key " + key + " value " +
+              // valuePart.getObject());
+              // } catch (Exception e) {}
+
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 6;
+              callbackArgExistsPart = clientMessage.getPart(index++);
+              {
+                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+                callbackArgExists = partBytes[0] == 0x01;
+              }
+              if (callbackArgExists) {
+                callbackArgPart = clientMessage.getPart(index++);
+                try {
+                  callbackArg = callbackArgPart.getObject();
+                } catch (Exception e) {
+                  logger
+                      .warn(String.format(
+                          "%s: Caught exception processing batch create request %s for %s events",
+                          serverConnection.getName(), batchId, numberOfEvents),
+                          e);
+                  throw e;
                 }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(String.format(
-                            "%s: Caught exception processing batch create request %s for %s events",
-                            serverConnection.getName(), batchId, numberOfEvents),
-                            e);
-                    throw e;
-                  }
+              }
+              if (logger.isDebugEnabled()) {
+                logger.debug(
+                    "{}: Processing batch create request {} on {} for region {} key {} value {} callbackArg {}, eventId={}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key, valuePart, callbackArg, eventId);
+              }
+              versionTimeStamp = clientMessage.getPart(index++).getLong();
+              // Process the create request
+              if (key == null || regionName == null) {
+                String message = null;
+                if (key == null) {
+                  message = "%s: The input key for the batch create request %s is null";
                 }
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch create request {} on {} for region {} key {} value {} callbackArg {}, eventId={}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg, eventId);
+                if (regionName == null) {
+                  message = "%s: The input region name for the batch create request %s is null";
                 }
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                // Process the create request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  if (key == null) {
-                    message = "%s: The input key for the batch create request %s is null";
-                  }
-                  if (regionName == null) {
-                    message = "%s: The input region name for the batch create request %s is null";
-                  }
-                  String s = String.format(message, serverConnection.getName(), batchId);
-                  logger.warn(s);
-                  throw new Exception(s);
+                String s = String.format(message, serverConnection.getName(), batchId);
+                logger.warn(s);
+                throw new Exception(s);
+              }
+              region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+              if (region == null) {
+                handleRegionNull(serverConnection, regionName, batchId);
+              } else {
+                clientEvent = new EventIDHolder(eventId);
+                if (versionTimeStamp > 0) {
+                  VersionTag tag = VersionTag.create(region.getVersionMember());
+                  tag.setIsGatewayTag(true);
+                  tag.setVersionTimeStamp(versionTimeStamp);
+                  tag.setDistributedSystemId(dsid);
+                  clientEvent.setVersionTag(tag);
                 }
-                region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-                if (region == null) {
-                  handleRegionNull(serverConnection, regionName, batchId);
+                clientEvent.setPossibleDuplicate(possibleDuplicate);
+                handleMessageRetry(region, clientEvent);
+                byte[] value = valuePart.getSerializedForm();
+                if (valueCompressed) {
+                  value = GatewayBatchCompression.decompress(value);
+                }
+                boolean isObject = valuePart.isObject();
+                // [sumedh] This should be done on client while sending
+                // since that is the WAN gateway
+                AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
+                if (authzRequest != null) {
+                  PutOperationContext putContext =
+                      authzRequest.putAuthorize(regionName, key, value, isObject, callbackArg);
+                  value = putContext.getSerializedValue();
+                  isObject = putContext.isObject();
+                }
+                // Attempt to create the entry
+                boolean result = false;
+                if (isPdxEvent) {
+                  result = addPdxType(crHelper, key, value);
                 } else {
-                  clientEvent = new EventIDHolder(eventId);
-                  if (versionTimeStamp > 0) {
-                    VersionTag tag = VersionTag.create(region.getVersionMember());
-                    tag.setIsGatewayTag(true);
-                    tag.setVersionTimeStamp(versionTimeStamp);
-                    tag.setDistributedSystemId(dsid);
-                    clientEvent.setVersionTag(tag);
-                  }
-                  clientEvent.setPossibleDuplicate(possibleDuplicate);
-                  handleMessageRetry(region, clientEvent);
-                  byte[] value = valuePart.getSerializedForm();
-                  boolean isObject = valuePart.isObject();
-                  // [sumedh] This should be done on client while sending
-                  // since that is the WAN gateway
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    PutOperationContext putContext =
-                        authzRequest.putAuthorize(regionName, key, value, isObject, callbackArg);
-                    value = putContext.getSerializedValue();
-                    isObject = putContext.isObject();
-                  }
-                  // Attempt to create the entry
-                  boolean result = false;
-                  if (isPdxEvent) {
-                    result = addPdxType(crHelper, key, value);
-                  } else {
-                    result = region.basicBridgeCreate(key, value, isObject, callbackArg,
-                        serverConnection.getProxyID(), false, clientEvent, false);
-                    // If the create fails (presumably because it already exists),
-                    // attempt to update the entry
-                    if (!result) {
-                      result = region.basicBridgePut(key, value, null, isObject, callbackArg,
-                          serverConnection.getProxyID(), false, clientEvent);
-                    }
+                  result = region.basicBridgeCreate(key, value, isObject, callbackArg,
+                      serverConnection.getProxyID(), false, clientEvent, false);
+                  // If the create fails (presumably because it already exists),
+                  // attempt to update the entry
+                  if (!result) {
+                    result = region.basicBridgePut(key, value, null, isObject, callbackArg,
+                        serverConnection.getProxyID(), false, clientEvent);
                   }
+                }
 
-                  if (result || clientEvent.isConcurrencyConflict()) {
-                    serverConnection.setModificationInfo(true, regionName, key);
-                    stats.incCreateRequest();
-                    retry = false;
-                  } else {
-                    // This exception will be logged in the catch block below
-                    throw new Exception(
-                        String.format(
-                            "%s: Failed to create or update entry for region %s key %s value %s callbackArg %s",
-                            serverConnection.getName(), regionName, key, valuePart, callbackArg));
-                  }
+                if (result || clientEvent.isConcurrencyConflict()) {
+                  batch.setModificationInfo(regionName, key);
+                  stats.incCreateRequest();
+                  retry = false;
+                } else {
+                  // This exception will be logged in the catch block below
+                  throw new Exception(
+                      String.format(
+                          "%s: Failed to create or update entry for region %s key %s value %s callbackArg %s",
+                          serverConnection.getName(), regionName, key, valuePart, callbackArg));
                 }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch create request %s for %s events",
-                    serverConnection.getName(), batchId, numberOfEvents), e);
-                handleException(removeOnException, stats, e);
               }
-              break;
-
-            case 1: // Update
-              try {
-                // Retrieve the value from the message parts (do not deserialize it)
-                valuePart = clientMessage.getPart(partNumber + 5);
-                // try {
-                // logger.warn(getName() + ": Updating key " + key + " value " +
-                // valuePart.getObject());
-                // } catch (Exception e) {}
-
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 6;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
+            } catch (Exception e) {
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch create request %s for %s events",
+                  serverConnection.getName(), batchId, numberOfEvents), e);
+              handleException(removeOnException, stats, e);
+            }
+            break;
+
+          case 1: // Update
+            try {
+              // Retrieve the value from the message parts (do not deserialize it)
+              valuePart = clientMessage.getPart(partNumber + 5);
+              // try {
+              // logger.warn(getName() + ": Updating key " + key + " value " +
+              // valuePart.getObject());
+              // } catch (Exception e) {}
+
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 6;
+              callbackArgExistsPart = clientMessage.getPart(index++);
+              {
+                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+                callbackArgExists = partBytes[0] == 0x01;
+              }
+              if (callbackArgExists) {
+                callbackArgPart = clientMessage.getPart(index++);
+                try {
+                  callbackArg = callbackArgPart.getObject();
+                } catch (Exception e) {
+                  logger
+                      .warn(
+                          String.format(
+                              "%s: Caught exception processing batch update request %s containing %s events",
+                              serverConnection.getName(), batchId, numberOfEvents),
+                          e);
+                  throw e;
                 }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(
-                            String.format(
-                                "%s: Caught exception processing batch update request %s containing %s events",
-                                serverConnection.getName(), batchId, numberOfEvents),
-                            e);
-                    throw e;
-                  }
+              }
+              versionTimeStamp = clientMessage.getPart(index++).getLong();
+              if (logger.isDebugEnabled()) {
+                logger.debug(
+                    "{}: Processing batch update request {} on {} for region {} key {} value {} callbackArg {}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key, valuePart, callbackArg);
+              }
+              // Process the update request
+              if (key == null || regionName == null) {
+                String message = null;
+                if (key == null) {
+                  message = "%s: The input key for the batch update request %s is null";
                 }
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch update request {} on {} for region {} key {} value {} callbackArg {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg);
+                if (regionName == null) {
+                  message = "%s: The input region name for the batch update request %s is null";
                 }
-                // Process the update request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  if (key == null) {
-                    message = "%s: The input key for the batch update request %s is null";
-                  }
-                  if (regionName == null) {
-                    message = "%s: The input region name for the batch update request %s is null";
-                  }
-                  String s = String.format(message, serverConnection.getName(), batchId);
-                  logger.warn(s);
-                  throw new Exception(s);
+                String s = String.format(message, serverConnection.getName(), batchId);
+                logger.warn(s);
+                throw new Exception(s);
+              }
+              region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+              if (region == null) {
+                handleRegionNull(serverConnection, regionName, batchId);
+              } else {
+                clientEvent = new EventIDHolder(eventId);
+                if (versionTimeStamp > 0) {
+                  VersionTag tag = VersionTag.create(region.getVersionMember());
+                  tag.setIsGatewayTag(true);
+                  tag.setVersionTimeStamp(versionTimeStamp);
+                  tag.setDistributedSystemId(dsid);
+                  clientEvent.setVersionTag(tag);
                 }
-                region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-                if (region == null) {
-                  handleRegionNull(serverConnection, regionName, batchId);
-                } else {
-                  clientEvent = new EventIDHolder(eventId);
-                  if (versionTimeStamp > 0) {
-                    VersionTag tag = VersionTag.create(region.getVersionMember());
-                    tag.setIsGatewayTag(true);
-                    tag.setVersionTimeStamp(versionTimeStamp);
-                    tag.setDistributedSystemId(dsid);
-                    clientEvent.setVersionTag(tag);
-                  }
-                  clientEvent.setPossibleDuplicate(possibleDuplicate);
-                  handleMessageRetry(region, clientEvent);
-                  byte[] value = valuePart.getSerializedForm();
-                  boolean isObject = valuePart.isObject();
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    PutOperationContext putContext = authzRequest.putAuthorize(regionName, key,
-                        value, isObject, callbackArg, PutOperationContext.UPDATE);
-                    value = putContext.getSerializedValue();
-                    isObject = putContext.isObject();
-                  }
-                  boolean result = false;
-                  if (isPdxEvent) {
-                    result = addPdxType(crHelper, key, value);
-                  } else {
-                    result = region.basicBridgePut(key, value, null, isObject, callbackArg,
-                        serverConnection.getProxyID(), false, clientEvent);
-                  }
-                  if (result || clientEvent.isConcurrencyConflict()) {
-                    serverConnection.setModificationInfo(true, regionName, key);
-                    stats.incUpdateRequest();
-                    retry = false;
-                  } else {
-                    final String message =
-                        "%s: Failed to update entry for region %s, key %s, value %s, and callbackArg %s";
-                    String s = String.format(message, serverConnection.getName(), regionName,
-                        key, valuePart, callbackArg);
-                    logger.info(s);
-                    throw new Exception(s);
-                  }
+                clientEvent.setPossibleDuplicate(possibleDuplicate);
+                handleMessageRetry(region, clientEvent);
+                byte[] value = valuePart.getSerializedForm();
+                if (valueCompressed) {
+                  value = GatewayBatchCompression.decompress(value);
                 }
-              } catch (Exception e) {
-                // Preserve the connection under all circumstances
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch update request %s containing %s events",
-                    serverConnection.getName(), batchId, numberOfEvents), e);
-                handleException(removeOnException, stats, e);
-              }
-              break;
-
-            case 2: // Destroy
-              try {
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 5;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
+                boolean isObject = valuePart.isObject();
+                AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
+                if (authzRequest != null) {
+                  PutOperationContext putContext = authzRequest.putAuthorize(regionName, key,
+                      value, isObject, callbackArg, PutOperationContext.UPDATE);
+                  value = putContext.getSerializedValue();
+                  isObject = putContext.isObject();
                 }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(
-                            String.format(
-                                "%s: Caught exception processing batch destroy request %s containing %s events",
-                                serverConnection.getName(), batchId, numberOfEvents),
-                            e);
-                    throw e;
-                  }
+                boolean result = false;
+                if (isPdxEvent) {
+                  result = addPdxType(crHelper, key, value);
+                } else {
+                  result = region.basicBridgePut(key, value, null, isObject, callbackArg,
+                      serverConnection.getProxyID(), false, clientEvent);
                 }
+                if (result || clientEvent.isConcurrencyConflict()) {
+                  batch.setModificationInfo(regionName, key);
+                  stats.incUpdateRequest();
+                  retry = false;
+                } else {
+                  final String message =
+                      "%s: Failed to update entry for region %s, key %s, value %s, and callbackArg %s";
+                  String s = String.format(message, serverConnection.getName(), regionName,
+                      key, valuePart, callbackArg);
+                  logger.info(s);
+                  throw new Exception(s);
+                }
+              }
+            } catch (Exception e) {
+              // Preserve the connection under all circumstances
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch update request %s containing %s events",
+                  serverConnection.getName(), batchId, numberOfEvents), e);
+              handleException(removeOnException, stats, e);
+            }
+            break;
 
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug("{}: Processing batch destroy request {} on {} for region {} key {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key);
+          case 2: // Destroy
+            try {
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 5;
+              callbackArgExistsPart = clientMessage.getPart(index++);
+              {
+                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+                callbackArgExists = partBytes[0] == 0x01;
+              }
+              if (callbackArgExists) {
+                callbackArgPart = clientMessage.getPart(index++);
+                try {
+                  callbackArg = callbackArgPart.getObject();
+                } catch (Exception e) {
+                  logger
+                      .warn(
+                          String.format(
+                              "%s: Caught exception processing batch destroy request %s containing %s events",
+                              serverConnection.getName(), batchId, numberOfEvents),
+                          e);
+                  throw e;
                 }
+              }
 
-                // Process the destroy request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  if (key == null) {
-                    message =
-                        "%s: The input key for the batch destroy request %s is null";
-                  }
-                  if (regionName == null) {
-                    message =
-                        "%s: The input region name for the batch destroy request %s is null";
-                  }
-                  String s = String.format(message, serverConnection.getName(), batchId);
-                  logger.warn(s);
-                  throw new Exception(s);
+              versionTimeStamp = clientMessage.getPart(index++).getLong();
+              if (logger.isDebugEnabled()) {
+                logger.debug("{}: Processing batch destroy request {} on {} for region {} key {}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key);
+              }
+
+              // Process the destroy request
+              if (key == null || regionName == null) {
+                String message = null;
+                if (key == null) {
+                  message =
+                      "%s: The input key for the batch destroy request %s is null";
                 }
+                if (regionName == null) {
+                  message =
+                      "%s: The input region name for the batch destroy request %s is null";
+                }
+                String s = String.format(message, serverConnection.getName(), batchId);
+                logger.warn(s);
+                throw new Exception(s);
+              }
+              region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+              if (region == null) {
+                handleRegionNull(serverConnection, regionName, batchId);
+              } else {
+                clientEvent = new EventIDHolder(eventId);
+                if (versionTimeStamp > 0) {
+                  VersionTag tag = VersionTag.create(region.getVersionMember());
+                  tag.setIsGatewayTag(true);
+                  tag.setVersionTimeStamp(versionTimeStamp);
+                  tag.setDistributedSystemId(dsid);
+                  clientEvent.setVersionTag(tag);
+                }
+                handleMessageRetry(region, clientEvent);
+                // Destroy the entry
+                AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
+                if (authzRequest != null) {
+                  DestroyOperationContext destroyContext =
+                      authzRequest.destroyAuthorize(regionName, key, callbackArg);
+                  callbackArg = destroyContext.getCallbackArg();
+                }
+                try {
+                  region.basicBridgeDestroy(key, callbackArg, serverConnection.getProxyID(),
+                      false, clientEvent);
+                  batch.setModificationInfo(regionName, key);
+                } catch (EntryNotFoundException e) {
+                  logger.info("{}: during batch destroy no entry was found for key {}",
+                      serverConnection.getName(), key);
+                }
+                stats.incDestroyRequest();
+                retry = false;
+              }
+            } catch (Exception e) {
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch destroy request %s containing %s events",
+                  serverConnection.getName(), batchId, numberOfEvents),
+                  e);
+              handleException(removeOnException, stats, e);
+            }
+            break;
+
+          case 3: // Update Time-stamp for a RegionEntry
+            try {
+              // Region name
+              regionNamePart = clientMessage.getPart(partNumber + 2);
+              regionName = regionNamePart.getCachedString();
+
+              // Retrieve the event id from the message parts
+              eventIdPart = clientMessage.getPart(partNumber + 3);
+              eventId = (EventID) eventIdPart.getObject();
+
+              // Retrieve the key from the message parts
+              keyPart = clientMessage.getPart(partNumber + 4);
+              key = keyPart.getStringOrObject();
+
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 5;
+              callbackArgExistsPart = clientMessage.getPart(index++);
+
+              byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+              callbackArgExists = partBytes[0] == 0x01;
+
+              if (callbackArgExists) {
+                callbackArgPart = clientMessage.getPart(index++);
+                callbackArg = callbackArgPart.getObject();
+              }
+
+              versionTimeStamp = clientMessage.getPart(index++).getLong();
+              if (logger.isDebugEnabled()) {
+                logger.debug(
+                    "{}: Processing batch update-version request {} on {} for region {} key {} value {} callbackArg {}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key, valuePart, callbackArg);
+              }
+              // Process the update time-stamp request
+              if (key == null || regionName == null) {
+                String message =
+                    "%s: Caught exception processing batch update version request request %s containing %s events";
+
+                String s = String.format(message, serverConnection.getName(),
+                    batchId, numberOfEvents);
+                logger.warn(s);
+                throw new Exception(s);
+
+              } else {
                 region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+
                 if (region == null) {
                   handleRegionNull(serverConnection, regionName, batchId);
                 } else {
+
                   clientEvent = new EventIDHolder(eventId);
+
                   if (versionTimeStamp > 0) {
                     VersionTag tag = VersionTag.create(region.getVersionMember());
                     tag.setIsGatewayTag(true);
@@ -509,143 +695,46 @@ public class GatewayReceiverCommand extends BaseCommand {
                     tag.setDistributedSystemId(dsid);
                     clientEvent.setVersionTag(tag);
                   }
-                  handleMessageRetry(region, clientEvent);
-                  // Destroy the entry
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    DestroyOperationContext destroyContext =
-                        authzRequest.destroyAuthorize(regionName, key, callbackArg);
-                    callbackArg = destroyContext.getCallbackArg();
-                  }
+
+                  // Update the version tag
                   try {
-                    region.basicBridgeDestroy(key, callbackArg, serverConnection.getProxyID(),
-                        false, clientEvent);
-                    serverConnection.setModificationInfo(true, regionName, key);
+                    region.basicBridgeUpdateVersionStamp(key, callbackArg,
+                        serverConnection.getProxyID(), false, clientEvent);
                   } catch (EntryNotFoundException e) {
-                    logger.info("{}: during batch destroy no entry was found for key {}",
+                    logger.info(
+                        "Entry for key {} was not found in Region {} during ProcessBatch for Update Entry Version",
                         serverConnection.getName(), key);
                   }
-                  stats.incDestroyRequest();
                   retry = false;
                 }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch destroy request %s containing %s events",
-                    serverConnection.getName(), batchId, numberOfEvents),
-                    e);
-                handleException(removeOnException, stats, e);
-              }
-              break;
-
-            case 3: // Update Time-stamp for a RegionEntry
-              try {
-                // Region name
-                regionNamePart = clientMessage.getPart(partNumber + 2);
-                regionName = regionNamePart.getCachedString();
-
-                // Retrieve the event id from the message parts
-                eventIdPart = clientMessage.getPart(partNumber + 3);
-                eventId = (EventID) eventIdPart.getObject();
-
-                // Retrieve the key from the message parts
-                keyPart = clientMessage.getPart(partNumber + 4);
-                key = keyPart.getStringOrObject();
-
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 5;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-
-                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                callbackArgExists = partBytes[0] == 0x01;
-
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  callbackArg = callbackArgPart.getObject();
-                }
-
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch update-version request {} on {} for region {} key {} value {} callbackArg {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg);
-                }
-                // Process the update time-stamp request
-                if (key == null || regionName == null) {
-                  String message =
-                      "%s: Caught exception processing batch update version request request %s containing %s events";
-
-                  String s = String.format(message, serverConnection.getName(),
-                      batchId, numberOfEvents);
-                  logger.warn(s);
-                  throw new Exception(s);
-
-                } else {
-                  region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-
-                  if (region == null) {
-                    handleRegionNull(serverConnection, regionName, batchId);
-                  } else {
-
-                    clientEvent = new EventIDHolder(eventId);
-
-                    if (versionTimeStamp > 0) {
-                      VersionTag tag = VersionTag.create(region.getVersionMember());
-                      tag.setIsGatewayTag(true);
-                      tag.setVersionTimeStamp(versionTimeStamp);
-                      tag.setDistributedSystemId(dsid);
-                      clientEvent.setVersionTag(tag);
-                    }
-
-                    // Update the version tag
-                    try {
-                      region.basicBridgeUpdateVersionStamp(key, callbackArg,
-                          serverConnection.getProxyID(), false, clientEvent);
-                    } catch (EntryNotFoundException e) {
-                      logger.info(
-                          "Entry for key {} was not found in Region {} during ProcessBatch for Update Entry Version",
-                          serverConnection.getName(), key);
-                    }
-                    retry = false;
-                  }
-                }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch update version request request %s containing %s events",
-                    serverConnection.getName(), batchId, numberOfEvents), e);
-                handleException(removeOnException, stats, e);
               }
+            } catch (Exception e) {
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch update version request request %s containing %s events",
+                  serverConnection.getName(), batchId, numberOfEvents), e);
+              handleException(removeOnException, stats, e);
+            }
 
-              break;
-            default:
-              logger.fatal("{}: Unknown action type ({}) for batch from {}",
-                  serverConnection.getName(), actionType, serverConnection.getSocketString());
-              stats.incUnknowsOperationsReceived();
-          }
-        } while (retry);
-      } catch (CancelException e) {
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              "{} ignoring message of type {} from client {} because shutdown occurred during message processing.",
-              serverConnection.getName(), MessageType.getString(clientMessage.getMessageType()),
-              serverConnection.getProxyID());
-        }
-        serverConnection.setFlagProcessMessagesAsFalse();
-        serverConnection.setClientDisconnectedException(e);
-        return;
-      } catch (Exception e) {
-        // If an interrupted exception is thrown , rethrow it
-        checkForInterrupt(serverConnection, e);
-
-        // If we have an issue with the PDX registry, stop processing more data
-        if (e.getCause() instanceof PdxRegistryMismatchException) {
-          fatalException = e.getCause();
-          logger.fatal(String.format(
-              "This gateway receiver has received a PDX type from %s that does match the existing PDX type. This gateway receiver will not process any more events, in order to prevent receiving objects which may not be deserializable.",
-              serverConnection.getMembershipID()), e.getCause());
-          break;
+            break;
+          default:
+            logger.fatal("{}: Unknown action type ({}) for batch from {}",
+                serverConnection.getName(), actionType, serverConnection.getSocketString());
+            stats.incUnknowsOperationsReceived();
         }
+      } while (retry);
+    } catch (CancelException e) {
+      throw e;
+    } catch (Exception e) {
+      // If an interrupted exception is thrown , rethrow it
+      checkForInterrupt(serverConnection, e);
 
+      // If we have an issue with the PDX registry, stop processing more data
+      if (e.getCause() instanceof PdxRegistryMismatchException) {
+        batch.fatalException = e.getCause();
+        logger.fatal(String.format(
+            "This gateway receiver has received a PDX type from %s that does match the existing PDX type. This gateway receiver will not process any more events, in order to prevent receiving objects which may not be deserializable.",
+            serverConnection.getMembershipID()), e.getCause());
+      } else {
         // Increment the batch id unless the received batch id is -1 (a
         // failover batch)
         DistributedSystem ds = crHelper.getCacheForGatewayCommand().getDistributedSystem();
@@ -655,58 +744,228 @@ public class GatewayReceiverCommand extends BaseCommand {
             ds.getDistributedMember());
         BatchException70 be =
             new BatchException70(exceptionMessage, e, indexWithoutPDXEvent, batchId);
-        exceptions.add(be);
-      } finally {
-        // Increment the partNumber
-        if (actionType == 0 /* create */ || actionType == 1 /* update */) {
-          if (callbackArgExists) {
-            partNumber += 9;
-          } else {
-            partNumber += 8;
-          }
-        } else if (actionType == 2 /* destroy */) {
-          if (callbackArgExists) {
-            partNumber += 8;
-          } else {
-            partNumber += 7;
-          }
-        } else if (actionType == 3 /* update-version */) {
-          if (callbackArgExists) {
-            partNumber += 8;
-          } else {
-            partNumber += 7;
-          }
+        batch.exceptions.add(be);
+      }
+    } finally {
+      // Count the parts of this event
+      if (actionType == 0 /* create */ || actionType == 1 /* update */) {
+        if (callbackArgExists) {
+          eventParts = 9;
+        } else {
+          eventParts = 8;
+        }
+      } else if (actionType == 2 /* destroy */) {
+        if (callbackArgExists) {
+          eventParts = 8;
+        } else {
+          eventParts = 7;
+        }
+      } else if (actionType == 3 /* update-version */) {
+        if (callbackArgExists) {
+          eventParts = 8;
+        } else {
+          eventParts = 7;
         }
       }
     }
+    return eventParts;
+  }
 
-    {
-      long oldStart = start;
-      start = DistributionStats.getStatTime();
-      stats.incProcessBatchTime(start - oldStart);
-    }
-    if (fatalException != null) {
-      serverConnection.incrementLatestBatchIdReplied(batchId);
-      writeFatalException(clientMessage, fatalException, serverConnection, batchId);
-      serverConnection.setAsTrue(RESPONDED);
-    } else if (!exceptions.isEmpty()) {
-      serverConnection.incrementLatestBatchIdReplied(batchId);
-      writeBatchException(clientMessage, exceptions, serverConnection, batchId);
-      serverConnection.setAsTrue(RESPONDED);
+  /**
+   * Applies the events of a batch, in parallel lanes if the batch allows it.
+   *
+   * @param partNumber the number of the first part of the first event
+   */
+  @VisibleForTesting
+  void applyBatch(ReceivedBatch batch, int partNumber) throws InterruptedException, IOException {
+    // Authorization callbacks are only ever invoked by the connection's thread
+    if (batch.lanes > 1 && batch.numberOfEvents > 1
+        && batch.serverConnection.getAuthzRequest() == null) {
+      applyEventsInParallel(batch, partNumber);
     } else {
-      // Increment the batch id unless the received batch id is -1 (a failover
-      // batch)
-      serverConnection.incrementLatestBatchIdReplied(batchId);
+      applyEvents(batch, partNumber);
+    }
+  }
 
-      writeReply(clientMessage, serverConnection, batchId, numberOfEvents);
-      serverConnection.setAsTrue(RESPONDED);
-      stats.incWriteProcessBatchResponseTime(DistributionStats.getStatTime() - start);
-      if (logger.isDebugEnabled()) {
-        logger.debug(
-            "{}: Sent process batch normal response for batch {} containing {} events ({} bytes) with {} acknowledgement on {}",
-            serverConnection.getName(), batchId, numberOfEvents, clientMessage.getPayloadLength(),
-            "normal", serverConnection.getSocketString());
+  /**
+   * Applies the events of a batch one after the other.
+   */
+  private void applyEvents(ReceivedBatch batch, int partNumber)
+      throws InterruptedException, IOException {
+    // event received in batch also have PDX events at the start of the batch,to
+    // represent correct index on which the exception occurred, number of PDX
+    // events need to be subtracted.
+    int indexWithoutPDXEvent = 0;
+    for (int i = 0; i < batch.numberOfEvents && batch.fatalException == null; i++) {
+      boolean isPdxEvent = isPdxEvent(batch.clientMessage, partNumber);
+      partNumber += applyEvent(batch, partNumber, indexWithoutPDXEvent);
+      if (!isPdxEvent) {
+        indexWithoutPDXEvent++;
+      }
+    }
+  }
+
+  /**
+   * Applies the events of a batch in its lanes. Falls back to {@link #applyEvents} if the parts of
+   * the batch cannot be mapped to its events up front. The security subject of the calling thread
+   * is bound to the threads applying the other lanes.
+   */
+  private void applyEventsInParallel(ReceivedBatch batch, int firstPartNumber)
+      throws InterruptedException, IOException {
+    int numberOfEvents = batch.numberOfEvents;
+    int[] partNumbers = new int[numberOfEvents];
+    int[] indexes = new int[numberOfEvents];
+    List<Integer> pdxEvents = new ArrayList<>();
+    List<List<Integer>> lanes = new ArrayList<>(batch.lanes);
+    for (int lane = 0; lane < batch.lanes; lane++) {
+      lanes.add(new ArrayList<>());
+    }
+
+    int partNumber = firstPartNumber;
+    int indexWithoutPDXEvent = 0;
+    for (int i = 0; i < numberOfEvents; i++) {
+      int eventParts = getEventPartCount(batch.clientMessage, partNumber);
+      if (eventParts == 0) {
+        applyEvents(batch, firstPartNumber);
+        return;
+      }
+      partNumbers[i] = partNumber;
+      indexes[i] = indexWithoutPDXEvent;
+      if (isPdxEvent(batch.clientMessage, partNumber)) {
+        pdxEvents.add(i);
+      } else {
+        indexWithoutPDXEvent++;
+        lanes.get(getLane(batch, partNumber)).add(i);
+      }
+      partNumber += eventParts;
+    }
+
+    // PDX types are registered before any event that may use them
+    applyLane(batch, pdxEvents, partNumbers, indexes);
+
+    Subject subject = ThreadContext.getSubject();
+    List<Future<Void>> futures = new ArrayList<>();
+    List<Integer> callerLane = null;
+    for (List<Integer> lane : lanes) {
+      if (lane.isEmpty() || batch.fatalException != null) {
+        continue;
+      }
+      if (callerLane == null) {
+        callerLane = lane;
+      } else {
+        futures.add(ApplyExecutorHolder.EXECUTOR
+            .submit(() -> applyLane(batch, lane, partNumbers, indexes, subject)));
+      }
+    }
+
+    Throwable failure = null;
+    try {
+      if (callerLane != null) {
+        applyLane(batch, callerLane, partNumbers, indexes);
+      }
+    } catch (RuntimeException | InterruptedException | IOException e) {
+      failure = e;
+    }
+    for (Future<Void> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+    }
+    batch.publishModificationInfo();
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof InterruptedException) {
+      throw (InterruptedException) failure;
+    } else if (failure instanceof IOException) {
+      throw (IOException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    // report the exceptions in the order the sender dispatched the events
+    batch.exceptions.sort(Comparator.comparingInt(BatchException70::getIndex));
+  }
+
+  private Void applyLane(ReceivedBatch batch, List<Integer> lane, int[] partNumbers,
+      int[] indexes, Subject subject) throws InterruptedException, IOException {
+    ThreadState threadState = null;
+    if (subject != null) {
+      threadState = batch.securityService.bindSubject(subject);
+    }
+    try {
+      return applyLane(batch, lane, partNumbers, indexes);
+    } finally {
+      if (threadState != null) {
+        threadState.clear();
+      }
+    }
+  }
+
+  private Void applyLane(ReceivedBatch batch, List<Integer> lane, int[] partNumbers,
+      int[] indexes) throws InterruptedException, IOException {
+    for (int i : lane) {
+      if (batch.fatalException != null) {
+        break;
+      }
+      applyEvent(batch, partNumbers[i], indexes[i]);
+    }
+    return null;
+  }
+
+  private static boolean isPdxEvent(Message clientMessage, int partNumber) {
+    return PeerTypeRegistration.REGION_FULL_PATH
+        .equals(clientMessage.getPart(partNumber + 2).getCachedString());
+  }
+
+  /**
+   * Returns the number of parts of the event starting at the given part, or 0 if the event cannot
+   * be read.
+   */
+  private static int getEventPartCount(Message clientMessage, int partNumber) {
+    try {
+      int actionType = clientMessage.getPart(partNumber).getInt();
+      int callbackArgExistsPart;
+      int eventParts;
+      if (actionType == 0 /* create */ || actionType == 1 /* update */) {
+        callbackArgExistsPart = partNumber + 6;
+        eventParts = 8;
+      } else if (actionType == 2 /* destroy */ || actionType == 3 /* update-version */) {
+        callbackArgExistsPart = partNumber + 5;
+        eventParts = 7;
+      } else {
+        return 0;
+      }
+      byte[] partBytes = (byte[]) clientMessage.getPart(callbackArgExistsPart).getObject();
+      return partBytes[0] == 0x01 ? eventParts + 1 : eventParts;
+    } catch (Exception e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Returns the lane of the event starting at the given part. Events of the same bucket, or of the
+   * same key in a region that is not partitioned, always get the same lane.
+   */
+  @VisibleForTesting
+  static int getLane(ReceivedBatch batch, int partNumber) {
+    try {
+      String regionName = batch.clientMessage.getPart(partNumber + 2).getCachedString();
+      Object key = batch.clientMessage.getPart(partNumber + 4).getStringOrObject();
+      Region<?, ?> region = batch.crHelper.getCacheForGatewayCommand().getRegion(regionName);
+      int hash;
+      if (region instanceof PartitionedRegion) {
+        hash = PartitionedRegionHelper.getHashKey((PartitionedRegion) region, null, key, null,
+            null);
+      } else {
+        hash = key.hashCode();
       }
+      return Math.floorMod(31 * regionName.hashCode() + hash, batch.lanes);
+    } catch (Exception e) {
+      // the event fails again when it is applied
+      return 0;
     }
   }
 
@@ -759,9 +1018,19 @@ public class GatewayReceiverCommand extends BaseCommand {
     Message replyMsg = servConn.getResponseMessage();
     replyMsg.setMessageType(MessageType.REPLY);
     replyMsg.setTransactionId(msg.getTransactionId());
-    replyMsg.setNumberOfParts(2);
-    replyMsg.addIntPart(batchId);
-    replyMsg.addIntPart(numberOfEvents);
+    if (GatewayReceiverAdmission.isEnabled()) {
+      // Senders that do not pace by credit only read the first two parts
+      replyMsg.setNumberOfParts(3);
+      replyMsg.addIntPart(batchId);
+      replyMsg.addIntPart(numberOfEvents);
+      replyMsg.addIntPart(GatewayReceiverAdmission.getCredit(
+          servConn.getCachedRegionHelper().getCacheForGatewayCommand(),
+          servConn.getAcceptor().getClientServerConnectionCount()));
+    } else {
+      replyMsg.setNumberOfParts(2);
+      replyMsg.addIntPart(batchId);
+      replyMsg.addIntPart(numberOfEvents);
+    }
     replyMsg.setTransactionId(msg.getTransactionId());
     replyMsg.send(servConn);
     servConn.setAsTrue(Command.RESPONDED);
@@ -815,4 +1084,80 @@ public class GatewayReceiverCommand extends BaseCommand {
     logger.warn(servConn.getName() + ": Wrote batch exception: ",
         exception);
   }
+
+  /**
+   * The state of one received batch shared by the threads applying its events.
+   */
+  @VisibleForTesting
+  static class ReceivedBatch {
+    private final Message clientMessage;
+    private final ServerConnection serverConnection;
+    private final SecurityService securityService;
+    private final CachedRegionHelper crHelper;
+    private final GatewayReceiverStats stats;
+    private final int batchId;
+    private final int numberOfEvents;
+    private final int dsid;
+    private final boolean removeOnException;
+    private final int lanes;
+    private final Thread connectionThread = Thread.currentThread();
+    final List<BatchException70> exceptions = Collections.synchronizedList(new ArrayList<>());
+    volatile Throwable fatalException;
+
+    /** The last modification made by a lane thread, guarded by this batch */
+    private String modRegion;
+    private Object modKey;
+
+    ReceivedBatch(Message clientMessage, ServerConnection serverConnection,
+        SecurityService securityService, CachedRegionHelper crHelper, GatewayReceiverStats stats,
+        int batchId, int numberOfEvents, int dsid, boolean removeOnException, int lanes) {
+      this.clientMessage = clientMessage;
+      this.serverConnection = serverConnection;
+      this.securityService = securityService;
+      this.crHelper = crHelper;
+      this.stats = stats;
+      this.batchId = batchId;
+      this.numberOfEvents = numberOfEvents;
+      this.dsid = dsid;
+      this.removeOnException = removeOnException;
+      this.lanes = lanes;
+    }
+
+    /**
+     * Records a modification on the server connection, which is only ever updated by the
+     * connection's own thread. Modifications made by other lane threads are published once all
+     * lanes have finished.
+     */
+    void setModificationInfo(String regionName, Object key) {
+      if (Thread.currentThread() == connectionThread) {
+        serverConnection.setModificationInfo(true, regionName, key);
+      } else {
+        synchronized (this) {
+          modRegion = regionName;
+          modKey = key;
+        }
+      }
+    }
+
+    void publishModificationInfo() {
+      synchronized (this) {
+        if (modRegion != null) {
+          serverConnection.setModificationInfo(true, modRegion, modKey);
+        }
+      }
+    }
+  }
+
+  /**
+   * Holds the threads applying batch lanes, created when the first batch is applied in parallel.
+   * The thread applying a batch takes one lane itself and waits for the others, so each receiver
+   * connection uses at most {@link #APPLY_BATCH_THREADS} - 1 of these threads at a time. The pool
+   * grows with the number of connections applying batches instead of making them queue behind each
+   * other, and idle threads go away.
+   */
+  private static class ApplyExecutorHolder {
+    @MakeNotStatic
+    private static final ExecutorService EXECUTOR =
+        LoggingExecutors.newCachedThreadPool("GatewayReceiver Batch Apply Thread", true);
+  }
 }
@@ -15,13 +15,16 @@
 package org.apache.geode.internal.cache.tier.sockets.command;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.geode.annotations.Immutable;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.operations.GetOperationContext;
 import org.apache.geode.cache.operations.internal.GetOperationContextImpl;
+import org.apache.geode.internal.cache.BulkCacheLoader;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.tier.Command;
 import org.apache.geode.internal.cache.tier.MessageType;
@@ -167,10 +170,31 @@ public class GetAll70 extends BaseCommand {
     // in the old mode (which may be impossible since we only used that mode pre 7.0) in which the
     // client told us
     // to get and return all the keys and values. I think this was used for register interest.
+    AuthorizeRequest authzRequest = servConn.getAuthzRequest();
+    // When a bulk loader can read the missing keys ahead, the keys are authorized before any is
+    // gotten so that only the keys the client may read are read ahead
+    GetOperationContext[] getContexts = null;
+    NotAuthorizedException[] authorizationFailures = null;
+    BulkCacheLoader prefetchingLoader = null;
+    if (keys != null && region instanceof LocalRegion
+        && region.getAttributes().getCacheLoader() instanceof BulkCacheLoader) {
+      getContexts = new GetOperationContext[numKeys];
+      authorizationFailures = new NotAuthorizedException[numKeys];
+      List<Object> readableKeys = new ArrayList<>(numKeys);
+      for (int i = 0; i < numKeys; i++) {
+        try {
+          getContexts[i] =
+              authorizeGet(regionName, keys[i], authzRequest, servConn, securityService);
+          readableKeys.add(keys[i]);
+        } catch (NotAuthorizedException ex) {
+          authorizationFailures[i] = ex;
+        }
+      }
+      prefetchingLoader = ((LocalRegion) region).prefetchForGetAll(readableKeys);
+    }
     VersionedObjectList values = new VersionedObjectList(MAXIMUM_CHUNK_SIZE, keys == null,
         region.getAttributes().getConcurrencyChecksEnabled(), requestSerializedValues);
     try {
-      AuthorizeRequest authzRequest = servConn.getAuthzRequest();
       AuthorizeRequestPP postAuthzRequest = servConn.getPostAuthzRequest();
       Get70 request = (Get70) Get70.getCommand();
       final boolean isDebugEnabled = logger.isDebugEnabled();
@@ -194,25 +218,15 @@ public class GetAll70 extends BaseCommand {
           logger.debug("{}: Getting value for key={}", servConn.getName(), key);
         }
         // Determine if the user authorized to get this key
-        GetOperationContext getContext = null;
-        if (authzRequest != null) {
-          try {
-            getContext = authzRequest.getAuthorize(regionName, key, null);
-            if (isDebugEnabled) {
-              logger.debug("{}: Passed GET pre-authorization for key={}", servConn.getName(), key);
-            }
-          } catch (NotAuthorizedException ex) {
-            logger.warn(String.format(
-                "%s: Caught the following exception attempting to get value for key=%s",
-                new Object[] {servConn.getName(), key}),
-                ex);
-            values.addExceptionPart(key, ex);
-            continue;
-          }
-        }
-
+        GetOperationContext getContext;
         try {
-          securityService.authorize(Resource.DATA, Operation.READ, regionName, key);
+          if (authorizationFailures == null) {
+            getContext = authorizeGet(regionName, key, authzRequest, servConn, securityService);
+          } else if (authorizationFailures[i] != null) {
+            throw authorizationFailures[i];
+          } else {
+            getContext = getContexts[i];
+          }
         } catch (NotAuthorizedException ex) {
           logger.warn(
               String.format("%s: Caught the following exception attempting to get value for key=%s",
@@ -290,7 +304,29 @@ public class GetAll70 extends BaseCommand {
       servConn.setAsTrue(RESPONDED);
     } finally {
       values.release();
+      if (prefetchingLoader != null) {
+        prefetchingLoader.endPrefetch(region);
+      }
+    }
+  }
+
+  /**
+   * Checks that the user may get the given key.
+   *
+   * @return the context of the pre-authorization, or null if there is no authorization callback
+   * @throws NotAuthorizedException if the user may not get the key
+   */
+  private static GetOperationContext authorizeGet(String regionName, Object key,
+      AuthorizeRequest authzRequest, ServerConnection servConn, SecurityService securityService) {
+    GetOperationContext getContext = null;
+    if (authzRequest != null) {
+      getContext = authzRequest.getAuthorize(regionName, key, null);
+      if (logger.isDebugEnabled()) {
+        logger.debug("{}: Passed GET pre-authorization for key={}", servConn.getName(), key);
+      }
     }
+    securityService.authorize(Resource.DATA, Operation.READ, regionName, key);
+    return getContext;
   }
 
 
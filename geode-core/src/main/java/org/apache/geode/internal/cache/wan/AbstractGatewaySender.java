@@ -161,6 +161,8 @@ public abstract class AbstractGatewaySender implements InternalGatewaySender, Di
 
   protected boolean isMetaQueue;
 
+  private int listenerThreads;
+
   private int parallelismForReplicatedRegion;
 
   protected AbstractGatewaySenderEventProcessor eventProcessor;
@@ -286,6 +288,7 @@ public abstract class AbstractGatewaySender implements InternalGatewaySender, Di
     }
     this.isBucketSorted = attrs.isBucketSorted();
     this.forwardExpirationDestroy = attrs.isForwardExpirationDestroy();
+    this.listenerThreads = attrs.getListenerThreads();
   }
 
   public GatewaySenderAdvisor getSenderAdvisor() {
@@ -483,6 +486,14 @@ public abstract class AbstractGatewaySender implements InternalGatewaySender, Di
     return this.isBucketSorted;
   }
 
+  /**
+   * Returns the number of threads that invoke the <code>AsyncEventListener</code>s of this queue
+   * for one batch.
+   */
+  public int getListenerThreads() {
+    return this.listenerThreads;
+  }
+
   @Override
   public boolean getIsMetaQueue() {
     return this.isMetaQueue;
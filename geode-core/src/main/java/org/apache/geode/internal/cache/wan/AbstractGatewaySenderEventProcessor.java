@@ -140,17 +140,17 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   private long numEventsDispatched;
 
   /**
-   * The batchSize is the batch size being used by this processor. By default, it is the configured
-   * batch size of the GatewaySender. It may be automatically reduced if a MessageTooLargeException
-   * occurs.
+   * Chooses the batch size being used by this processor. By default, it is the configured batch
+   * size of the GatewaySender. It may be automatically reduced if a MessageTooLargeException
+   * occurs, bounded by bytes, or adapted to the acknowledgement latency of the receiver.
    */
-  private int batchSize;
+  private final AdaptiveBatchSizer batchSizer;
 
   public AbstractGatewaySenderEventProcessor(String string,
       GatewaySender sender, ThreadsMonitoring tMonitoring) {
     super(string);
     this.sender = (AbstractGatewaySender) sender;
-    this.batchSize = sender.getBatchSize();
+    this.batchSizer = new AdaptiveBatchSizer(sender.getBatchSize());
     this.threadMonitoring = tMonitoring;
   }
 
@@ -174,6 +174,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
     if (isStopped) {
       this.isStopped = true;
       this.failureLogInterval.clear();
+      notifyBatchWindow();
     } else {
       this.isStopped = isStopped;
     }
@@ -217,20 +218,20 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   }
 
   protected int getBatchSize() {
-    return this.batchSize;
+    return this.batchSizer.getBatchSize();
   }
 
   protected void setBatchSize(int batchSize) {
-    int currentBatchSize = this.batchSize;
+    int currentBatchSize = getBatchSize();
     if (batchSize <= 0) {
-      this.batchSize = 1;
+      this.batchSizer.setBatchSize(1);
       logger.warn(
           "Attempting to set the batch size from {} to {} events failed. Instead it was set to 1.",
           new Object[] {currentBatchSize, batchSize});
     } else {
-      this.batchSize = batchSize;
+      this.batchSizer.setBatchSize(batchSize);
       logger.info("Set the batch size from {} to {} events",
-          new Object[] {currentBatchSize, this.batchSize});
+          new Object[] {currentBatchSize, batchSize});
     }
   }
 
@@ -299,6 +300,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
       return;
     }
     this.isPaused = true;
+    notifyBatchWindow();
   }
 
   // merge44957: WHile merging 44957, need this method hence picked up this method from revision
@@ -367,6 +369,26 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   protected static final int FAILURE_LOG_MAX_INTERVAL = Integer.getInteger(
       DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.FAILURE_LOG_MAX_INTERVAL", 300000);
 
+  /**
+   * The maximum number of dispatched batches waiting for an acknowledgement. A value of zero or
+   * less, the default, does not limit them.
+   *
+   * <p>
+   * This is only a safety cap, not a flow control window: batches are written to the connection
+   * without waiting for the acknowledgements of earlier batches whether or not it is set, so it
+   * does not improve throughput. It bounds how many batches a processor holds for a slow or stalled
+   * receiver, and therefore how many have to be resent after a failure. It is not sized from the
+   * acknowledgement latency, so a cap below the number of batches sent during one round trip
+   * lowers throughput.
+   */
+  public static final int MAX_BATCHES_IN_FLIGHT = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.MAX_BATCHES_IN_FLIGHT", 0);
+
+  /**
+   * Notified whenever a batch is acknowledged or the outstanding batches are discarded
+   */
+  private final Object batchWindowLock = new Object();
+
   public boolean skipFailureLogging(Integer batchId) {
     boolean skipLogging = false;
     // if map has become large then give up on new events but we don't expect
@@ -441,7 +463,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
 
         // Peek a batch
         if (isDebugEnabled) {
-          logger.debug("Attempting to peek a batch of {} events", this.batchSize);
+          logger.debug("Attempting to peek a batch of {} events", getBatchSize());
         }
         for (;;) {
           // check before sleeping
@@ -465,6 +487,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
           // sleep a little bit, look for events
           boolean interrupted = Thread.interrupted();
           try {
+            waitForBatchWindow();
             if (resetLastPeekedEvents) {
               resetLastPeekedEvents();
               resetLastPeekedEvents = false;
@@ -493,7 +516,9 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
                * Thread.currentThread().interrupt(); } } }
                */
             }
-            events = this.queue.peek(this.batchSize, batchTimeInterval);
+            int batchSize = getBatchSize();
+            statistics.setCurrentBatchSize(batchSize);
+            events = this.queue.peek(batchSize, batchTimeInterval);
           } catch (InterruptedException e) {
             interrupted = true;
             this.sender.getCancelCriterion().checkCancelInProgress(e);
@@ -641,6 +666,8 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
                   conflatedEventsToBeDispatched);
             }
 
+            this.batchSizer.batchDispatched(getBatchId(), events.size(),
+                conflatedEventsToBeDispatched);
             boolean success = this.dispatcher.dispatchBatch(conflatedEventsToBeDispatched,
                 sender.isRemoveFromQueueOnException(), false);
             if (success) {
@@ -665,6 +692,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
             // If the batch is successfully processed, remove it from the queue.
             if (success) {
               if (this.dispatcher instanceof GatewaySenderEventCallbackDispatcher) {
+                this.batchSizer.batchAcknowledged(getBatchId());
                 handleSuccessfulBatchDispatch(conflatedEventsToBeDispatched, events);
               } else {
                 incrementBatchId();
@@ -679,6 +707,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
               increaseNumEventsDispatched(conflatedEventsToBeDispatched.size());
             } // successful batch
             else { // The batch was unsuccessful.
+              this.batchSizer.batchFailed();
               if (this.dispatcher instanceof GatewaySenderEventCallbackDispatcher) {
                 handleUnSuccessfulBatchDispatch(events);
                 this.resetLastPeekedEvents = true;
@@ -922,6 +951,43 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
     }
   }
 
+  protected int getMaxBatchesInFlight() {
+    return MAX_BATCHES_IN_FLIGHT;
+  }
+
+  /**
+   * Returns true if the safety cap of {@link #MAX_BATCHES_IN_FLIGHT} dispatched batches waiting for
+   * an acknowledgement is reached. Batches handed to a callback dispatcher are complete once
+   * dispatched.
+   */
+  protected boolean isBatchWindowFull() {
+    int maxBatchesInFlight = getMaxBatchesInFlight();
+    return maxBatchesInFlight > 0
+        && !(this.dispatcher instanceof GatewaySenderEventCallbackDispatcher)
+        && this.batchIdToEventsMap.size() >= maxBatchesInFlight;
+  }
+
+  /**
+   * Waits until the next batch fits in the window of outstanding batches, or until this processor
+   * is stopped, paused or has to resend the outstanding batches.
+   */
+  protected void waitForBatchWindow() throws InterruptedException {
+    synchronized (this.batchWindowLock) {
+      while (isBatchWindowFull() && !stopped() && !this.isPaused && !this.resetLastPeekedEvents) {
+        if (threadMonitoring != null) {
+          threadMonitoring.updateThreadStatus();
+        }
+        this.batchWindowLock.wait(100);
+      }
+    }
+  }
+
+  private void notifyBatchWindow() {
+    synchronized (this.batchWindowLock) {
+      this.batchWindowLock.notifyAll();
+    }
+  }
+
   private void resetLastPeekedEvents() {
     this.batchIdToEventsMap.clear();
     // make sure that when there is problem while receiving ack, pdx gateway
@@ -1000,10 +1066,13 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   public void handleException() {
     final GatewaySenderStats statistics = this.sender.getStatistics();
     statistics.incBatchesRedistributed();
+    this.batchSizer.batchFailed();
     this.resetLastPeekedEvents = true;
+    notifyBatchWindow();
   }
 
   public void handleSuccessBatchAck(int batchId) {
+    this.batchSizer.batchAcknowledged(batchId);
     // this is to acknowledge PDX related events
     List<GatewaySenderEventImpl> pdxEvents = this.batchIdToPDXEventsMap.remove(batchId);
     if (pdxEvents != null) {
@@ -1013,6 +1082,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
     }
 
     List<GatewaySenderEventImpl>[] eventsArr = this.batchIdToEventsMap.remove(batchId);
+    notifyBatchWindow();
     if (eventsArr != null) {
       List<GatewaySenderEventImpl> filteredEvents = eventsArr[1];
       for (GatewayEventFilter filter : sender.getGatewayEventFilters()) {
@@ -1058,6 +1128,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
 
   public void handleUnSuccessBatchAck(int bId) {
     this.sender.getStatistics().incBatchesRedistributed();
+    this.batchSizer.batchFailed();
     // Set posDup flag on each event in the batch
     List<GatewaySenderEventImpl>[] eventsArr = this.batchIdToEventsMap.get(bId);
     if (eventsArr != null) {
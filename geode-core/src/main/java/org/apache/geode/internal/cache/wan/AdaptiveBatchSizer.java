@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Chooses how many events an {@link AbstractGatewaySenderEventProcessor} peeks for its next batch.
+ *
+ * <p>
+ * The batch size starts at the configured batch size of the sender. If
+ * {@link #MAX_BATCH_BYTES} is set, batches are also limited to the number of events of average
+ * size that fit in that many bytes. If {@link #ADAPTIVE_BATCH_SIZE} is set, the batch size grows
+ * additively while full batches are acknowledged within {@link #TARGET_ACK_LATENCY_MS}, up to
+ * {@link #MAX_GROWTH_FACTOR} times the configured size, and is halved when an acknowledgement is
+ * late or a batch fails. Only batches dispatched after the last decrease can halve it again, so a
+ * burst of late acknowledgements for batches already in flight counts once.
+ *
+ * <p>
+ * Batches are dispatched by the processor thread and acknowledged by the ack reader thread, so the
+ * methods of this class are synchronized.
+ */
+class AdaptiveBatchSizer {
+
+  static final boolean ADAPTIVE_BATCH_SIZE =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.ADAPTIVE_BATCH_SIZE");
+
+  static final int MAX_BATCH_BYTES =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.MAX_BATCH_BYTES", 0);
+
+  static final int TARGET_ACK_LATENCY_MS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.TARGET_ACK_LATENCY_MS", 1000);
+
+  static final int MAX_GROWTH_FACTOR = 4;
+
+  /** The weight of the latest batch in the running average of the event size */
+  private static final double EVENT_SIZE_WEIGHT = 0.2;
+
+  private final boolean adaptive;
+
+  private final long maxBatchBytes;
+
+  private final long targetAckLatencyNanos;
+
+  private final LongSupplier nanoClock;
+
+  private final int increment;
+
+  private final Map<Integer, Long> dispatchTimes = new HashMap<>();
+
+  private int batchSize;
+
+  private int maxBatchSize;
+
+  private double averageEventBytes;
+
+  private boolean lastBatchFull;
+
+  private long lastDecreaseTime;
+
+  private boolean dispatchedSinceDecrease;
+
+  AdaptiveBatchSizer(int configuredBatchSize) {
+    this(configuredBatchSize, ADAPTIVE_BATCH_SIZE, MAX_BATCH_BYTES,
+        TimeUnit.MILLISECONDS.toNanos(TARGET_ACK_LATENCY_MS), System::nanoTime);
+  }
+
+  AdaptiveBatchSizer(int configuredBatchSize, boolean adaptive, long maxBatchBytes,
+      long targetAckLatencyNanos, LongSupplier nanoClock) {
+    this.batchSize = Math.max(1, configuredBatchSize);
+    this.adaptive = adaptive;
+    this.maxBatchBytes = maxBatchBytes;
+    this.targetAckLatencyNanos = targetAckLatencyNanos;
+    this.nanoClock = nanoClock;
+    this.increment = Math.max(1, this.batchSize / 4);
+    this.maxBatchSize = adaptive
+        ? (int) Math.min(Integer.MAX_VALUE, (long) this.batchSize * MAX_GROWTH_FACTOR)
+        : this.batchSize;
+    this.lastDecreaseTime = nanoClock.getAsLong();
+  }
+
+  /**
+   * Returns the number of events to peek for the next batch.
+   */
+  synchronized int getBatchSize() {
+    if (maxBatchBytes <= 0 || averageEventBytes <= 0) {
+      return batchSize;
+    }
+    long eventsInBytes = (long) (maxBatchBytes / averageEventBytes);
+    return (int) Math.max(1, Math.min(batchSize, eventsInBytes));
+  }
+
+  /**
+   * Forces the batch size, for example after a batch was too large to send. The batch size never
+   * grows beyond a forced size afterwards.
+   */
+  synchronized void setBatchSize(int batchSize) {
+    this.batchSize = Math.max(1, batchSize);
+    this.maxBatchSize = Math.min(this.maxBatchSize, this.batchSize);
+  }
+
+  /**
+   * Records a batch that is about to be dispatched.
+   *
+   * @param batchId the id of the batch
+   * @param numberOfEvents the number of events peeked for the batch
+   * @param events the events of the batch as they are dispatched
+   */
+  synchronized void batchDispatched(int batchId, int numberOfEvents, List<?> events) {
+    if (maxBatchBytes > 0 && !events.isEmpty()) {
+      long bytes = 0;
+      for (Object event : events) {
+        if (event instanceof GatewaySenderEventImpl) {
+          bytes += ((GatewaySenderEventImpl) event).getSizeInBytes();
+        }
+      }
+      double eventBytes = (double) bytes / events.size();
+      averageEventBytes = averageEventBytes == 0 ? eventBytes
+          : averageEventBytes + EVENT_SIZE_WEIGHT * (eventBytes - averageEventBytes);
+    }
+    lastBatchFull = numberOfEvents >= batchSize;
+    dispatchedSinceDecrease = true;
+    if (adaptive) {
+      dispatchTimes.put(batchId, nanoClock.getAsLong());
+    }
+  }
+
+  /**
+   * Adjusts the batch size to the time the given batch took to be acknowledged.
+   */
+  synchronized void batchAcknowledged(int batchId) {
+    Long dispatchTime = dispatchTimes.remove(batchId);
+    if (dispatchTime == null) {
+      return;
+    }
+    long latency = nanoClock.getAsLong() - dispatchTime;
+    if (latency > targetAckLatencyNanos) {
+      if (dispatchTime - lastDecreaseTime >= 0) {
+        decrease();
+      }
+    } else if (lastBatchFull) {
+      batchSize = Math.min(maxBatchSize, batchSize + increment);
+    }
+  }
+
+  /**
+   * Halves the batch size after a batch failed to be dispatched or acknowledged, unless no batch
+   * was dispatched since the last decrease. Batches still in flight are no longer timed.
+   */
+  synchronized void batchFailed() {
+    dispatchTimes.clear();
+    if (adaptive && dispatchedSinceDecrease) {
+      decrease();
+    }
+  }
+
+  private void decrease() {
+    batchSize = Math.max(1, batchSize / 2);
+    lastDecreaseTime = nanoClock.getAsLong();
+    dispatchedSinceDecrease = false;
+  }
+}
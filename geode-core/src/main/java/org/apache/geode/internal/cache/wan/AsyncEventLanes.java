@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.asyncqueue.AsyncEvent;
+
+/**
+ * Splits a batch of events into lanes that <code>AsyncEventListener</code>s can process in
+ * parallel. All events of a key go to the same lane. Within a lane the events are grouped by region
+ * and operation so that a listener writing to another system can apply each group in bulk. A
+ * group is only ever followed by groups holding later events of its keys, so processing the groups
+ * of a lane in order keeps the events of every key in order.
+ */
+final class AsyncEventLanes {
+
+  private AsyncEventLanes() {}
+
+  /**
+   * Returns the non-empty lanes of the events, each a list of groups to process in order.
+   */
+  static List<List<List<AsyncEvent>>> partition(List<? extends AsyncEvent> events,
+      int laneCount) {
+    List<List<AsyncEvent>> laneEvents = new ArrayList<>(laneCount);
+    for (int i = 0; i < laneCount; i++) {
+      laneEvents.add(new ArrayList<>());
+    }
+    for (AsyncEvent event : events) {
+      laneEvents.get(getLane(event, laneCount)).add(event);
+    }
+    List<List<List<AsyncEvent>>> lanes = new ArrayList<>(laneCount);
+    for (List<AsyncEvent> lane : laneEvents) {
+      if (!lane.isEmpty()) {
+        lanes.add(group(lane));
+      }
+    }
+    return lanes;
+  }
+
+  /**
+   * Groups the events by region and operation. An event joins the latest group of its region and
+   * operation unless an earlier event of its key is in a later group, in which case it starts a new
+   * group.
+   */
+  static List<List<AsyncEvent>> group(List<? extends AsyncEvent> events) {
+    List<List<AsyncEvent>> groups = new ArrayList<>();
+    Map<List<Object>, Integer> latestGroupOfKind = new HashMap<>();
+    Map<Object, Integer> latestGroupOfKey = new HashMap<>();
+    for (AsyncEvent event : events) {
+      List<Object> kind = Arrays.asList(getRegionPath(event), event.getOperation());
+      Integer groupIndex = latestGroupOfKind.get(kind);
+      Integer keyIndex = latestGroupOfKey.get(event.getKey());
+      if (groupIndex == null || (keyIndex != null && keyIndex > groupIndex)) {
+        groupIndex = groups.size();
+        groups.add(new ArrayList<>());
+        latestGroupOfKind.put(kind, groupIndex);
+      }
+      groups.get(groupIndex).add(event);
+      latestGroupOfKey.put(event.getKey(), groupIndex);
+    }
+    return groups;
+  }
+
+  private static int getLane(AsyncEvent event, int laneCount) {
+    Object key = event.getKey();
+    return key == null ? 0 : Math.floorMod(key.hashCode(), laneCount);
+  }
+
+  private static String getRegionPath(AsyncEvent event) {
+    if (event instanceof GatewaySenderEventImpl) {
+      return ((GatewaySenderEventImpl) event).getRegionPath();
+    }
+    Region region = event.getRegion();
+    return region == null ? null : region.getFullPath();
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.compression.LZ4Compressor;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.serialization.Version;
+
+/**
+ * Compression of event values in the batches a gateway sender writes to a gateway receiver.
+ *
+ * <p>
+ * When {@link #COMPRESSION_THRESHOLD} is set, values at least that many bytes long are written as
+ * LZ4 blocks to receiving sites running {@link Version#GEODE_1_11_0} or later. A compressed value
+ * is flagged by {@link #VALUE_COMPRESSED} in the byte part that also carries the possible
+ * duplicate flag, so the layout of the batch message does not change. Only set the threshold once
+ * every receiving site reads that flag.
+ */
+public class GatewayBatchCompression {
+
+  /**
+   * The minimum size in bytes of a serialized value that is compressed before it is sent. A
+   * negative value, the default, disables compression.
+   */
+  public static final int COMPRESSION_THRESHOLD = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.BATCH_COMPRESSION_THRESHOLD", -1);
+
+  /** Set in the flags part of an event whose possible duplicate flag is set */
+  public static final byte POSSIBLE_DUPLICATE = 0x01;
+
+  /** Set in the flags part of an event whose value part is compressed */
+  public static final byte VALUE_COMPRESSED = 0x02;
+
+  private static final Compressor compressor = new LZ4Compressor();
+
+  private GatewayBatchCompression() {
+    // no instances allowed
+  }
+
+  /**
+   * Returns true if batch values are compressed for receivers that support it.
+   */
+  public static boolean isEnabled() {
+    return COMPRESSION_THRESHOLD >= 0;
+  }
+
+  /**
+   * Returns true if a receiver of the given site version can decompress batch values. Receivers
+   * before {@link Version#GEODE_1_11_0} only read the possible duplicate flag of the flags part.
+   */
+  public static boolean isSupportedBy(short siteVersion) {
+    return Version.GEODE_1_11_0.compareTo(siteVersion) <= 0;
+  }
+
+  /**
+   * Returns the compressed form of the given value, or null if the value is below the threshold or
+   * does not get smaller.
+   */
+  public static byte[] compress(byte[] value) {
+    return compress(value, COMPRESSION_THRESHOLD);
+  }
+
+  static byte[] compress(byte[] value, int threshold) {
+    if (value == null || threshold < 0 || value.length < threshold) {
+      return null;
+    }
+    byte[] compressed = compressor.compress(value);
+    return compressed.length < value.length ? compressed : null;
+  }
+
+  public static byte[] decompress(byte[] compressedValue) {
+    return compressor.decompress(compressedValue);
+  }
+}
@@ -0,0 +1,440 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.annotations.internal.MakeNotStatic;
+import org.apache.geode.cache.DiskStoreFactory;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingExecutors;
+
+/**
+ * An append-only log of queued events split into segment files. Events are appended as they are
+ * queued and are never rewritten. Dequeueing only moves a head pointer, which is written to its own small
+ * file, and a segment file is deleted as a whole once every event in it is behind the head. Unlike
+ * a persistent queue region this writes no destroy records and leaves nothing for the disk store to
+ * compact.
+ *
+ * <p>
+ * The head file is written at most once per {@link #HEAD_SYNC_INTERVAL_MS} and whenever a segment
+ * is released, so after a crash a few events that were already removed may be recovered again.
+ * This matches the at-least-once delivery of gateway queues.
+ *
+ * <p>
+ * A log that is not synchronous buffers its appends and writes them out at least once per flush
+ * interval, like an asynchronous disk store does once per its time interval.
+ */
+public class GatewayQueueLog {
+
+  private static final Logger logger = LogService.getLogger();
+
+  public static final long SEGMENT_BYTES = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.QUEUE_LOG_SEGMENT_BYTES",
+      16 * 1024 * 1024);
+
+  public static final long HEAD_SYNC_INTERVAL_MS = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.QUEUE_LOG_HEAD_SYNC_INTERVAL_MS", 1000);
+
+  static final String SEGMENT_SUFFIX = ".qlog";
+
+  static final String HEAD_SUFFIX = ".qhead";
+
+  /** length, key and checksum around each record's payload */
+  private static final int RECORD_OVERHEAD = 4 + 8 + 4;
+
+  /**
+   * Handles the events read back by {@link #recover}.
+   */
+  public interface RecoveryHandler {
+    void recovered(long key, byte[] payload) throws IOException;
+  }
+
+  private static class Segment {
+    private final long sequence;
+    private final File file;
+    private long maxKey = -1;
+    private long length;
+    /** whether maxKey is known, which it is not for a segment left by a previous instance */
+    private boolean scanned;
+
+    Segment(long sequence, File file, boolean scanned) {
+      this.sequence = sequence;
+      this.file = file;
+      this.scanned = scanned;
+    }
+  }
+
+  private final File directory;
+
+  private final String name;
+
+  private final long segmentBytes;
+
+  private final boolean synchronous;
+
+  private final File headFile;
+
+  /** the released segments are at the front, the segment being appended to is at the back */
+  private final Deque<Segment> segments = new ArrayDeque<>();
+
+  private DataOutputStream out;
+
+  private long head;
+
+  private long persistedHead;
+
+  private long lastHeadWrite;
+
+  private boolean closed;
+
+  /** whether appends were buffered since the last flush */
+  private boolean unflushed;
+
+  /** writes out the buffered appends of a log that is not synchronous, or null */
+  private final ScheduledFuture<?> flushTask;
+
+  public GatewayQueueLog(File directory, String name, long segmentBytes, boolean synchronous)
+      throws IOException {
+    this(directory, name, segmentBytes, synchronous, DiskStoreFactory.DEFAULT_TIME_INTERVAL);
+  }
+
+  /**
+   * Opens the log with the given name in the directory, keeping the segments a previous instance
+   * left there until they are {@link #recover recovered} or released.
+   *
+   * @param synchronous whether every append is written through to the file before returning
+   * @param flushIntervalMs how often the buffered appends of a log that is not synchronous are
+   *        written out, or 0 to only write them out when the buffer fills or the head is written
+   */
+  public GatewayQueueLog(File directory, String name, long segmentBytes, boolean synchronous,
+      long flushIntervalMs) throws IOException {
+    this.directory = directory;
+    this.name = name.replaceAll("[^A-Za-z0-9_\\-]", "_");
+    this.segmentBytes = segmentBytes;
+    this.synchronous = synchronous;
+    this.headFile = new File(directory, this.name + HEAD_SUFFIX);
+    this.head = readHead();
+    this.persistedHead = this.head;
+    for (Segment segment : findSegments()) {
+      this.segments.addLast(segment);
+    }
+    if (!synchronous && flushIntervalMs > 0) {
+      this.flushTask = FlusherHolder.FLUSHER.scheduleWithFixedDelay(this::flushQuietly,
+          flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    } else {
+      this.flushTask = null;
+    }
+  }
+
+  public synchronized long getHead() {
+    return this.head;
+  }
+
+  synchronized int getSegmentCount() {
+    return this.segments.size();
+  }
+
+  /**
+   * Reads every event at or after the head in the order it was appended. A record torn by a crash
+   * ends its segment, and the segment is truncated to its last complete record.
+   */
+  public synchronized void recover(RecoveryHandler handler) throws IOException {
+    checkOpen();
+    for (Segment segment : this.segments) {
+      if (segment.scanned) {
+        continue;
+      }
+      long validLength = 0;
+      try (DataInputStream in = new DataInputStream(
+          new BufferedInputStream(new FileInputStream(segment.file)))) {
+        while (true) {
+          int length;
+          long key;
+          byte[] payload;
+          try {
+            length = in.readInt();
+            if (length < 0 || validLength + RECORD_OVERHEAD + length > segment.file.length()) {
+              break;
+            }
+            key = in.readLong();
+            payload = new byte[length];
+            in.readFully(payload);
+            if (in.readInt() != checksum(key, payload)) {
+              break;
+            }
+          } catch (EOFException torn) {
+            break;
+          }
+          validLength += RECORD_OVERHEAD + length;
+          segment.maxKey = Math.max(segment.maxKey, key);
+          if (key >= this.head) {
+            handler.recovered(key, payload);
+          }
+        }
+      }
+      if (validLength < segment.file.length()) {
+        logger.warn("Truncating queue log segment {} from {} to {} bytes after an incomplete record",
+            segment.file, segment.file.length(), validLength);
+        try (RandomAccessFile raf = new RandomAccessFile(segment.file, "rw")) {
+          raf.setLength(validLength);
+        }
+      }
+      segment.length = validLength;
+      segment.scanned = true;
+    }
+    releaseSegments();
+  }
+
+  /**
+   * Appends an event to the end of the log, starting a new segment when the current one is full.
+   */
+  public synchronized void append(long key, byte[] payload) throws IOException {
+    checkOpen();
+    Segment current = this.out == null ? null : this.segments.peekLast();
+    if (current == null || current.length >= this.segmentBytes) {
+      current = startSegment();
+    }
+    this.out.writeInt(payload.length);
+    this.out.writeLong(key);
+    this.out.write(payload);
+    this.out.writeInt(checksum(key, payload));
+    if (this.synchronous) {
+      this.out.flush();
+    } else {
+      this.unflushed = true;
+    }
+    current.length += RECORD_OVERHEAD + payload.length;
+    current.maxKey = Math.max(current.maxKey, key);
+  }
+
+  /**
+   * Moves the head so that every event with a key below the given key is treated as removed.
+   */
+  public synchronized void advanceHead(long nextKey) throws IOException {
+    if (this.closed || nextKey <= this.head) {
+      return;
+    }
+    this.head = nextKey;
+    if (!releaseSegments()
+        && System.currentTimeMillis() - this.lastHeadWrite >= HEAD_SYNC_INTERVAL_MS) {
+      writeHead();
+    }
+  }
+
+  /**
+   * Writes out the events appended since the last flush.
+   */
+  public synchronized void flush() throws IOException {
+    if (this.out != null && this.unflushed) {
+      this.out.flush();
+      this.unflushed = false;
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (IOException e) {
+      logger.warn("Could not flush the queue log {}", this, e);
+    }
+  }
+
+  /**
+   * Writes out the head and closes the current segment. The log can be reopened from its files.
+   */
+  public synchronized void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    cancelFlushTask();
+    try {
+      closeCurrentSegment();
+    } finally {
+      if (this.head != this.persistedHead) {
+        writeHead();
+      }
+    }
+  }
+
+  /**
+   * Closes the log and deletes all of its files.
+   */
+  public synchronized void destroy() throws IOException {
+    this.closed = true;
+    cancelFlushTask();
+    closeCurrentSegment();
+    for (Segment segment : this.segments) {
+      Files.deleteIfExists(segment.file.toPath());
+    }
+    this.segments.clear();
+    Files.deleteIfExists(this.headFile.toPath());
+  }
+
+  private void cancelFlushTask() {
+    if (this.flushTask != null) {
+      this.flushTask.cancel(false);
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    if (this.closed) {
+      throw new IOException("Queue log " + this.name + " is closed");
+    }
+  }
+
+  private File currentFile() {
+    Segment last = this.segments.peekLast();
+    return this.out == null || last == null ? null : last.file;
+  }
+
+  private Segment startSegment() throws IOException {
+    closeCurrentSegment();
+    Segment last = this.segments.peekLast();
+    long sequence = last == null ? 0 : last.sequence + 1;
+    Segment segment = new Segment(sequence,
+        new File(this.directory, String.format("%s_%019d%s", this.name, sequence, SEGMENT_SUFFIX)),
+        true);
+    this.out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(segment.file), 64 * 1024));
+    this.segments.addLast(segment);
+    return segment;
+  }
+
+  private void closeCurrentSegment() throws IOException {
+    if (this.out != null) {
+      DataOutputStream toClose = this.out;
+      this.out = null;
+      this.unflushed = false;
+      toClose.close();
+    }
+  }
+
+  /**
+   * Deletes the segments whose events are all behind the head.
+   *
+   * @return whether any segment was deleted
+   */
+  private boolean releaseSegments() throws IOException {
+    List<Segment> released = new ArrayList<>();
+    for (Segment segment : this.segments) {
+      if (!segment.scanned || segment.file.equals(currentFile())
+          || segment.maxKey >= this.head) {
+        break;
+      }
+      released.add(segment);
+    }
+    if (released.isEmpty()) {
+      return false;
+    }
+    // the head must be durable before the events it skips are gone
+    writeHead();
+    for (Segment segment : released) {
+      this.segments.remove(segment);
+      Files.deleteIfExists(segment.file.toPath());
+    }
+    return true;
+  }
+
+  private List<Segment> findSegments() {
+    List<Segment> found = new ArrayList<>();
+    String prefix = this.name + "_";
+    File[] files = this.directory.listFiles(
+        (dir, fileName) -> fileName.startsWith(prefix) && fileName.endsWith(SEGMENT_SUFFIX));
+    if (files != null) {
+      for (File file : files) {
+        String sequence = file.getName().substring(prefix.length(),
+            file.getName().length() - SEGMENT_SUFFIX.length());
+        try {
+          found.add(new Segment(Long.parseLong(sequence), file, false));
+        } catch (NumberFormatException notOurs) {
+          // another queue whose name starts with this one
+        }
+      }
+    }
+    found.sort((first, second) -> Long.compare(first.sequence, second.sequence));
+    return found;
+  }
+
+  private long readHead() throws IOException {
+    if (!this.headFile.exists()) {
+      return 0;
+    }
+    try (DataInputStream in = new DataInputStream(new FileInputStream(this.headFile))) {
+      return in.readLong();
+    } catch (EOFException torn) {
+      return 0;
+    }
+  }
+
+  private void writeHead() throws IOException {
+    flush();
+    File tmp = new File(this.directory, this.name + HEAD_SUFFIX + ".tmp");
+    try (FileOutputStream fos = new FileOutputStream(tmp);
+        DataOutputStream headOut = new DataOutputStream(fos)) {
+      headOut.writeLong(this.head);
+      headOut.flush();
+      fos.getFD().sync();
+    }
+    Files.move(tmp.toPath(), this.headFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    this.persistedHead = this.head;
+    this.lastHeadWrite = System.currentTimeMillis();
+  }
+
+  private static int checksum(long key, byte[] payload) {
+    CRC32 crc = new CRC32();
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      crc.update((int) (key >>> shift));
+    }
+    crc.update(payload, 0, payload.length);
+    return (int) crc.getValue();
+  }
+
+  private static class FlusherHolder {
+    @MakeNotStatic
+    private static final ScheduledExecutorService FLUSHER =
+        LoggingExecutors.newScheduledThreadPool("GatewayQueueLog Flusher", 1, false);
+  }
+
+  @Override
+  public String toString() {
+    return "GatewayQueueLog[" + this.name + ";head=" + this.head + ";segments="
+        + this.segments.size() + "]";
+  }
+}
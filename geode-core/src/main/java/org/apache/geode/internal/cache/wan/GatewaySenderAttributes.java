@@ -29,6 +29,7 @@ public class GatewaySenderAttributes {
 
   public static final boolean DEFAULT_IS_BUCKETSORTED = true;
   public static final boolean DEFAULT_IS_META_QUEUE = false;
+  public static final int DEFAULT_LISTENER_THREADS = 1;
 
 
   public int socketBufferSize = GatewaySender.DEFAULT_SOCKET_BUFFER_SIZE;
@@ -83,6 +84,8 @@ public class GatewaySenderAttributes {
 
   public boolean forwardExpirationDestroy = GatewaySender.DEFAULT_FORWARD_EXPIRATION_DESTROY;
 
+  public int listenerThreads = GatewaySenderAttributes.DEFAULT_LISTENER_THREADS;
+
   public int getSocketBufferSize() {
     return this.socketBufferSize;
   }
@@ -199,4 +202,8 @@ public class GatewaySenderAttributes {
     return this.forwardExpirationDestroy;
   }
 
+  public int getListenerThreads() {
+    return this.listenerThreads;
+  }
+
 }
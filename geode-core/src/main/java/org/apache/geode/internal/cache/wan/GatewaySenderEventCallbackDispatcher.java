@@ -18,12 +18,17 @@ package org.apache.geode.internal.cache.wan;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CancelException;
+import org.apache.geode.cache.asyncqueue.AsyncEvent;
 import org.apache.geode.cache.asyncqueue.AsyncEventListener;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingExecutors;
 
 /**
  * Class <code>SerialGatewayEventCallbackDispatcher</code> dispatches batches of
@@ -53,8 +58,28 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
    */
   private final Object eventLock = new Object();
 
+  /**
+   * The number of threads that invoke the listeners for one batch. With more than one, the batch is
+   * split into that many lanes by key and the listeners receive each lane's events grouped by
+   * region and operation, in parallel with the other lanes. The events of a key keep their order.
+   */
+  private final int listenerThreads;
+
+  /**
+   * Invokes the listeners for all lanes but the first, or null if there is only one lane.
+   */
+  private final ExecutorService listenerExecutor;
+
   public GatewaySenderEventCallbackDispatcher(AbstractGatewaySenderEventProcessor eventProcessor) {
     this.eventProcessor = eventProcessor;
+    this.listenerThreads = eventProcessor.getSender().getListenerThreads();
+    if (this.listenerThreads > 1) {
+      this.listenerExecutor = LoggingExecutors.newFixedThreadPoolWithTimeout(
+          "AsyncEventListener Dispatch Thread for " + eventProcessor.getSender().getId(),
+          this.listenerThreads - 1, 120);
+    } else {
+      this.listenerExecutor = null;
+    }
     initializeEventListeners();
   }
 
@@ -146,10 +171,14 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
     int batchId = this.eventProcessor.getBatchId();
     boolean successAll = true;
     try {
-      for (AsyncEventListener listener : this.eventListeners) {
-        boolean successOne = listener.processEvents(events);
-        if (!successOne) {
-          successAll = false;
+      if (this.listenerThreads > 1 && events.size() > 1) {
+        successAll = dispatchLanes(AsyncEventLanes.partition(events, this.listenerThreads));
+      } else {
+        for (AsyncEventListener listener : this.eventListeners) {
+          boolean successOne = listener.processEvents(events);
+          if (!successOne) {
+            successAll = false;
+          }
         }
       }
     } catch (Exception e) {
@@ -164,6 +193,59 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
     return successAll;
   }
 
+  /**
+   * Processes the first lane on this thread and the others on the listener threads, and waits for
+   * all of them.
+   */
+  private boolean dispatchLanes(List<List<List<AsyncEvent>>> lanes) throws Exception {
+    List<Future<Boolean>> futures = new ArrayList<>(lanes.size() - 1);
+    for (List<List<AsyncEvent>> lane : lanes.subList(1, lanes.size())) {
+      futures.add(this.listenerExecutor.submit(() -> dispatchLane(lane)));
+    }
+    boolean successAll;
+    Exception failure = null;
+    try {
+      successAll = dispatchLane(lanes.get(0));
+    } catch (Exception e) {
+      successAll = false;
+      failure = e;
+    }
+    for (Future<Boolean> future : futures) {
+      try {
+        if (!future.get()) {
+          successAll = false;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw e;
+      } catch (ExecutionException e) {
+        successAll = false;
+        if (failure == null) {
+          failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return successAll;
+  }
+
+  /**
+   * Hands the groups of a lane to the listeners in order, stopping at the first group a listener
+   * fails to process since the whole batch will be dispatched again.
+   */
+  private boolean dispatchLane(List<List<AsyncEvent>> groups) {
+    for (List<AsyncEvent> group : groups) {
+      for (AsyncEventListener listener : this.eventListeners) {
+        if (!listener.processEvents(group)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   @Override
   public boolean isRemoteDispatcher() {
     return false;
@@ -176,8 +258,9 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
 
   @Override
   public void stop() {
-    // no op
-
+    if (this.listenerExecutor != null) {
+      this.listenerExecutor.shutdown();
+    }
   }
 
   @Override
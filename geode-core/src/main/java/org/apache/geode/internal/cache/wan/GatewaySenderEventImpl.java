@@ -746,7 +746,11 @@ public class GatewaySenderEventImpl
     // specific Token.FROM_GATEWAY
     // and retain the serialized Token.FROM_GATEWAY
     // this._id.setFromGateway(false);
-    this.regionPath = DataSerializer.readString(in);
+    if (this.id != null) {
+      this.id.canonicalizeMembershipID(
+          GatewaySenderEventInterner.internMembershipID(this.id.getMembershipID()));
+    }
+    this.regionPath = GatewaySenderEventInterner.internRegionPath(DataSerializer.readString(in));
     this.valueIsObject = in.readByte();
     deserializeKey(in);
     this.value = DataSerializer.readByteArray(in);
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.geode.annotations.internal.MakeNotStatic;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Canonicalizes the region paths and member ids held by queued gateway sender events. Events
+ * created locally already share these with their region and member, but every event read back
+ * from an overflow file, a persistent queue or a primary bucket gets its own copies, so each such
+ * event holds its own region path string and member id array.
+ *
+ * <p>
+ * Both dictionaries are concurrent maps that are cleared once they reach {@link #MAX_ENTRIES}, so
+ * an unbounded number of distinct client member ids cannot grow them without limit. Events
+ * interned before a clear keep their instances, which are then no longer shared with later events.
+ */
+final class GatewaySenderEventInterner {
+
+  static final int MAX_ENTRIES =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.MAX_INTERNED_IDS",
+          1024);
+
+  @MakeNotStatic
+  private static final ConcurrentMap<String, String> regionPaths = new ConcurrentHashMap<>();
+
+  @MakeNotStatic
+  private static final ConcurrentMap<ByteBuffer, byte[]> membershipIds =
+      new ConcurrentHashMap<>();
+
+  private GatewaySenderEventInterner() {}
+
+  /**
+   * Returns the canonical instance of the given region path.
+   */
+  static String internRegionPath(String regionPath) {
+    if (regionPath == null || MAX_ENTRIES <= 0) {
+      return regionPath;
+    }
+    return intern(regionPaths, regionPath, regionPath);
+  }
+
+  /**
+   * Returns the canonical byte array with the same contents as the given member id. The returned
+   * array is shared by every caller and must not be modified.
+   */
+  static byte[] internMembershipID(byte[] membershipID) {
+    if (membershipID == null || MAX_ENTRIES <= 0) {
+      return membershipID;
+    }
+    return intern(membershipIds, ByteBuffer.wrap(membershipID), membershipID);
+  }
+
+  private static <K, V> V intern(ConcurrentMap<K, V> dictionary, K key, V value) {
+    V canonical = dictionary.get(key);
+    if (canonical != null) {
+      return canonical;
+    }
+    if (dictionary.size() >= MAX_ENTRIES) {
+      dictionary.clear();
+    }
+    canonical = dictionary.putIfAbsent(key, value);
+    return canonical == null ? value : canonical;
+  }
+
+  static void clear() {
+    regionPaths.clear();
+    membershipIds.clear();
+  }
+}
@@ -43,6 +43,8 @@ public class GatewaySenderStats {
   protected static final String EVENTS_NOT_QUEUED_CONFLATED = "eventsNotQueuedConflated";
   /** Name of the events conflated from the batch statistic */
   protected static final String EVENTS_CONFLATED_FROM_BATCHES = "eventsConflatedFromBatches";
+  /** Name of the events conflated when a newer event for the same key was queued statistic */
+  protected static final String EVENTS_CONFLATED_ON_ENQUEUE = "eventsConflatedOnEnqueue";
   /** Name of the event queue time statistic */
   protected static final String EVENT_QUEUE_TIME = "eventQueueTime";
   /** Name of the event queue size statistic */
@@ -65,6 +67,12 @@ public class GatewaySenderStats {
   protected static final String BATCHES_REDISTRIBUTED = "batchesRedistributed";
   /** Name of the batches resized statistic */
   protected static final String BATCHES_RESIZED = "batchesResized";
+  /** Name of the batch value bytes before compression statistic */
+  protected static final String BATCH_UNCOMPRESSED_BYTES = "batchUncompressedBytes";
+  /** Name of the batch value bytes after compression statistic */
+  protected static final String BATCH_COMPRESSED_BYTES = "batchCompressedBytes";
+  /** Name of the current batch size statistic */
+  protected static final String CURRENT_BATCH_SIZE = "currentBatchSize";
   /** Name of the unprocessed events added by primary statistic */
   protected static final String UNPROCESSED_TOKENS_ADDED_BY_PRIMARY =
       "unprocessedTokensAddedByPrimary";
@@ -127,6 +135,12 @@ public class GatewaySenderStats {
   private static final int batchesRedistributedId;
   /** Id of the batches resized statistic */
   private static final int batchesResizedId;
+  /** Id of the batch value bytes before compression statistic */
+  private static final int batchUncompressedBytesId;
+  /** Id of the batch value bytes after compression statistic */
+  private static final int batchCompressedBytesId;
+  /** Id of the current batch size statistic */
+  private static final int currentBatchSizeId;
   /** Id of the unprocessed events added by primary statistic */
   private static final int unprocessedTokensAddedByPrimaryId;
   /** Id of the unprocessed events added by secondary statistic */
@@ -150,6 +164,8 @@ public class GatewaySenderStats {
   private static final int eventsDroppedDueToPrimarySenderNotRunningId;
   /** Id of events conflated in batch */
   private static final int eventsConflatedFromBatchesId;
+  /** Id of events conflated on enqueue */
+  private static final int eventsConflatedOnEnqueueId;
   /** Id of load balances completed */
   private static final int loadBalancesCompletedId;
   /** Id of load balances in progress */
@@ -185,6 +201,9 @@ public class GatewaySenderStats {
     batchesDistributedId = type.nameToId(BATCHES_DISTRIBUTED);
     batchesRedistributedId = type.nameToId(BATCHES_REDISTRIBUTED);
     batchesResizedId = type.nameToId(BATCHES_RESIZED);
+    batchUncompressedBytesId = type.nameToId(BATCH_UNCOMPRESSED_BYTES);
+    batchCompressedBytesId = type.nameToId(BATCH_COMPRESSED_BYTES);
+    currentBatchSizeId = type.nameToId(CURRENT_BATCH_SIZE);
     unprocessedTokensAddedByPrimaryId = type.nameToId(UNPROCESSED_TOKENS_ADDED_BY_PRIMARY);
     unprocessedEventsAddedBySecondaryId = type.nameToId(UNPROCESSED_EVENTS_ADDED_BY_SECONDARY);
     unprocessedEventsRemovedByPrimaryId = type.nameToId(UNPROCESSED_EVENTS_REMOVED_BY_PRIMARY);
@@ -199,6 +218,7 @@ public class GatewaySenderStats {
         type.nameToId(EVENTS_DROPPED_DUE_TO_PRIMARY_SENDER_NOT_RUNNING);
     eventsFilteredId = type.nameToId(EVENTS_FILTERED);
     eventsConflatedFromBatchesId = type.nameToId(EVENTS_CONFLATED_FROM_BATCHES);
+    eventsConflatedOnEnqueueId = type.nameToId(EVENTS_CONFLATED_ON_ENQUEUE);
     loadBalancesCompletedId = type.nameToId(LOAD_BALANCES_COMPLETED);
     loadBalancesInProgressId = type.nameToId(LOAD_BALANCES_IN_PROGRESS);
     loadBalanceTimeId = type.nameToId(LOAD_BALANCE_TIME);
@@ -229,6 +249,9 @@ public class GatewaySenderStats {
                 "operations"),
             f.createIntCounter(EVENTS_CONFLATED_FROM_BATCHES,
                 "Number of events conflated from batches.", "operations"),
+            f.createIntCounter(EVENTS_CONFLATED_ON_ENQUEUE,
+                "Number of queued events that were not yet dispatched and were removed from the event queue because a newer event with the same key was queued.",
+                "operations"),
             f.createIntCounter(EVENTS_DISTRIBUTED,
                 "Number of events removed from the event queue and sent.", "operations"),
             f.createIntCounter(EVENTS_EXCEEDING_ALERT_THRESHOLD,
@@ -243,6 +266,14 @@ public class GatewaySenderStats {
             f.createIntCounter(BATCHES_RESIZED,
                 "Number of batches that were resized because they were too large", "operations",
                 false),
+            f.createLongCounter(BATCH_UNCOMPRESSED_BYTES,
+                "Total size of the event values sent in batches, before compression.", "bytes"),
+            f.createLongCounter(BATCH_COMPRESSED_BYTES,
+                "Total size of the event values sent in batches, as written after compression.",
+                "bytes"),
+            f.createIntGauge(CURRENT_BATCH_SIZE,
+                "Maximum number of events currently peeked from the queue for one batch.",
+                "operations", false),
             f.createIntCounter(UNPROCESSED_TOKENS_ADDED_BY_PRIMARY,
                 "Number of tokens added to the secondary's unprocessed token map by the primary (though a listener).",
                 "tokens"),
@@ -379,6 +410,15 @@ public class GatewaySenderStats {
     return this.stats.getInt(eventsConflatedFromBatchesId);
   }
 
+  /**
+   * Returns the current value of the "eventsConflatedOnEnqueue" stat.
+   *
+   * @return the current value of the "eventsConflatedOnEnqueue" stat
+   */
+  public int getEventsConflatedOnEnqueue() {
+    return this.stats.getInt(eventsConflatedOnEnqueueId);
+  }
+
   /**
    * Returns the current value of the "eventQueueSize" stat.
    *
@@ -501,6 +541,47 @@ public class GatewaySenderStats {
     this.stats.incInt(batchesResizedId, 1);
   }
 
+  /**
+   * Increments the "batchUncompressedBytes" and "batchCompressedBytes" stats.
+   *
+   * @param uncompressedBytes the size of the batch values before compression
+   * @param compressedBytes the size of the batch values as written to the receiver
+   */
+  public void incBatchBytes(long uncompressedBytes, long compressedBytes) {
+    this.stats.incLong(batchUncompressedBytesId, uncompressedBytes);
+    this.stats.incLong(batchCompressedBytesId, compressedBytes);
+  }
+
+  public long getBatchUncompressedBytes() {
+    return this.stats.getLong(batchUncompressedBytesId);
+  }
+
+  public long getBatchCompressedBytes() {
+    return this.stats.getLong(batchCompressedBytesId);
+  }
+
+  /**
+   * Returns the ratio of uncompressed to compressed batch value bytes, or 1 if nothing has been
+   * sent yet.
+   */
+  public double getBatchCompressionRatio() {
+    long compressed = getBatchCompressedBytes();
+    return compressed == 0 ? 1.0 : (double) getBatchUncompressedBytes() / compressed;
+  }
+
+  /**
+   * Sets the "currentBatchSize" stat.
+   *
+   * @param batchSize the number of events peeked for the next batch
+   */
+  public void setCurrentBatchSize(int batchSize) {
+    this.stats.setInt(currentBatchSizeId, batchSize);
+  }
+
+  public int getCurrentBatchSize() {
+    return this.stats.getInt(currentBatchSizeId);
+  }
+
   /**
    * Sets the "eventQueueSize" stat.
    *
@@ -657,6 +738,13 @@ public class GatewaySenderStats {
     this.stats.incInt(eventsConflatedFromBatchesId, numEvents);
   }
 
+  /**
+   * Increments the "eventsConflatedOnEnqueue" stat.
+   */
+  public void incEventsConflatedOnEnqueue() {
+    this.stats.incInt(eventsConflatedOnEnqueueId, 1);
+  }
+
 
   /**
    * Returns the current value of the "unprocessedTokensAddedByPrimary" stat.
@@ -211,6 +211,11 @@ public class ConcurrentParallelGatewaySenderQueue implements RegionQueue {
     getPGSProcessor(bucketId).conflateEvent(conflatableObject, bucketId, tailKey);
   }
 
+  public void conflateQueuedEvent(Conflatable conflatableObject, int bucketId, Long tailKey) {
+    ((ParallelGatewaySenderQueue) getQueueByBucket(bucketId)).conflateQueuedEvent(conflatableObject,
+        bucketId, tailKey);
+  }
+
   public void addShadowPartitionedRegionForUserRR(DistributedRegion userRegion) {
     for (int i = 0; i < processors.length; i++) {
       processors[i].addShadowPartitionedRegionForUserRR(userRegion);;
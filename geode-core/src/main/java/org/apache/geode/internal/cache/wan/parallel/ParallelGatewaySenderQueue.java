@@ -1531,6 +1531,19 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
     conflationExecutor.execute(conflationHandler);
   }
 
+  /**
+   * Conflates an event that has not been peeked yet. The caller has already taken the event's key
+   * off its primary bucket's dispatch order, so it can no longer be peeked or dispatched. Destroying
+   * the event, which is distributed to the secondaries, is still left to the conflation thread pool
+   * so that the thread queueing the newer event does not wait on it.
+   */
+  public void conflateQueuedEvent(Conflatable conflatableObject, int bucketId, Long tailKey) {
+    conflateEvent(conflatableObject, bucketId, tailKey);
+    if (this.stats != null) {
+      this.stats.incEventsConflatedOnEnqueue();
+    }
+  }
+
   public long getNumEntriesOverflowOnDiskTestOnly() {
     long numEntriesOnDisk = 0;
     for (PartitionedRegion prQ : this.userRegionNameToshadowPRMap.values()) {
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.cache.wan.serial;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Deque;
@@ -21,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -31,6 +33,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.CancelException;
 import org.apache.geode.SystemFailure;
 import org.apache.geode.annotations.Immutable;
+import org.apache.geode.annotations.internal.MutableForTesting;
 import org.apache.geode.cache.AttributesFactory;
 import org.apache.geode.cache.AttributesMutator;
 import org.apache.geode.cache.Cache;
@@ -38,6 +41,7 @@ import org.apache.geode.cache.CacheException;
 import org.apache.geode.cache.CacheListener;
 import org.apache.geode.cache.CacheWriterException;
 import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.DiskAccessException;
 import org.apache.geode.cache.EntryNotFoundException;
 import org.apache.geode.cache.EvictionAction;
 import org.apache.geode.cache.EvictionAttributes;
@@ -53,6 +57,7 @@ import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.CachedDeserializable;
 import org.apache.geode.internal.cache.Conflatable;
+import org.apache.geode.internal.cache.DiskStoreImpl;
 import org.apache.geode.internal.cache.DistributedRegion;
 import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.InternalCache;
@@ -65,11 +70,13 @@ import org.apache.geode.internal.cache.event.NonDistributedEventTracker;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
+import org.apache.geode.internal.cache.wan.GatewayQueueLog;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.internal.cache.wan.GatewaySenderStats;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
 import org.apache.geode.internal.statistics.StatisticsClock;
+import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.management.ManagementService;
 import org.apache.geode.management.internal.beans.AsyncEventQueueMBean;
 import org.apache.geode.management.internal.beans.GatewaySenderMBean;
@@ -164,6 +171,20 @@ public class SerialGatewaySenderQueue implements RegionQueue {
   private static final boolean NO_ACK =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "gateway-queue-no-ack");
 
+  /**
+   * Whether a persistent queue keeps its events in a {@link GatewayQueueLog} instead of a
+   * persistent region. The region is then only replicated and overflowed.
+   */
+  @MutableForTesting
+  public static boolean USE_QUEUE_LOG =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.USE_QUEUE_LOG");
+
+  /**
+   * The log persisting this queue's events, or null if the queue is not persistent or uses a
+   * persistent region
+   */
+  private GatewayQueueLog queueLog;
+
   private volatile long lastDispatchedKey = -1;
 
   private volatile long lastDestroyedKey = -1;
@@ -214,6 +235,13 @@ public class SerialGatewaySenderQueue implements RegionQueue {
 
   public void destroy() {
     getRegion().localDestroyRegion();
+    if (this.queueLog != null) {
+      try {
+        this.queueLog.destroy();
+      } catch (IOException e) {
+        logger.warn("{}: Could not delete the queue log {}", this, this.queueLog, e);
+      }
+    }
   }
 
   @Override
@@ -847,11 +875,12 @@ public class SerialGatewaySenderQueue implements RegionQueue {
     if (this.region == null) {
       AttributesFactory<Long, AsyncEvent> factory = new AttributesFactory<Long, AsyncEvent>();
       factory.setScope(NO_ACK ? Scope.DISTRIBUTED_NO_ACK : Scope.DISTRIBUTED_ACK);
+      final boolean persistentRegion = this.enablePersistence && !USE_QUEUE_LOG;
       factory.setDataPolicy(
-          this.enablePersistence ? DataPolicy.PERSISTENT_REPLICATE : DataPolicy.REPLICATE);
+          persistentRegion ? DataPolicy.PERSISTENT_REPLICATE : DataPolicy.REPLICATE);
       if (logger.isDebugEnabled()) {
         logger.debug("The policy of region is {}",
-            (this.enablePersistence ? DataPolicy.PERSISTENT_REPLICATE : DataPolicy.REPLICATE));
+            (persistentRegion ? DataPolicy.PERSISTENT_REPLICATE : DataPolicy.REPLICATE));
       }
       // Set listener if it is not null. The listener will be non-null
       // when the user of this queue is a secondary VM.
@@ -880,12 +909,20 @@ public class SerialGatewaySenderQueue implements RegionQueue {
             new SerialGatewaySenderQueueMetaRegion(this.regionName, ra, null, gemCache, sender,
                 sender.getStatisticsClock());
         try {
+          if (this.enablePersistence && USE_QUEUE_LOG) {
+            this.queueLog = openQueueLog(gemCache);
+            meta.queueLog = this.queueLog;
+          }
           this.region = gemCache.createVMRegion(this.regionName, ra,
               new InternalRegionArguments().setInternalMetaRegion(meta).setDestroyLockFlag(true)
                   .setSnapshotInputStream(null).setImageTarget(null)
                   .setIsUsedForSerialGatewaySenderQueue(true).setInternalRegion(true)
                   .setSerialGatewaySender(sender));
 
+          if (this.queueLog != null) {
+            recoverQueueLog(meta);
+          }
+
           // Add overflow statistics to the mbean
           addOverflowStatisticsToMBean(gemCache, sender);
         } catch (IOException veryUnLikely) {
@@ -911,6 +948,51 @@ public class SerialGatewaySenderQueue implements RegionQueue {
     }
   }
 
+  private GatewayQueueLog openQueueLog(InternalCache cache) throws IOException {
+    DiskStoreImpl diskStore = this.diskStoreName == null ? cache.getOrCreateDefaultDiskStore()
+        : (DiskStoreImpl) cache.findDiskStore(this.diskStoreName);
+    File directory = diskStore.getDiskDirs()[0];
+    return new GatewayQueueLog(directory, this.regionName, GatewayQueueLog.SEGMENT_BYTES,
+        this.isDiskSynchronous, diskStore.getTimeInterval());
+  }
+
+  /**
+   * Fills the queue from its log if no other member had a copy of it. Otherwise the copy received
+   * from the other member is current, so the log is moved up to its first event and the copy is
+   * written to the log.
+   */
+  private void recoverQueueLog(SerialGatewaySenderQueueMetaRegion meta) throws IOException {
+    if (this.region.isEmpty()) {
+      meta.recoveringQueueLog = true;
+      try {
+        this.queueLog.recover((key, payload) -> {
+          try {
+            this.region.put(key, (AsyncEvent) BlobHelper.deserializeBlob(payload));
+          } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+          }
+        });
+      } finally {
+        meta.recoveringQueueLog = false;
+      }
+      if (logger.isDebugEnabled()) {
+        logger.debug("{}: Recovered {} events from {}", this, this.region.size(), this.queueLog);
+      }
+    } else {
+      this.queueLog.recover((key, payload) -> {
+        // only scanned so that its segments can be released
+      });
+      TreeSet<Long> keys = new TreeSet<>(this.region.keySet());
+      this.queueLog.advanceHead(keys.first());
+      for (Long key : keys) {
+        AsyncEvent event = optimalGet(key);
+        if (event != null) {
+          this.queueLog.append(key, BlobHelper.serializeToBlob(event));
+        }
+      }
+    }
+  }
+
   private void addOverflowStatisticsToMBean(Cache cache, AbstractGatewaySender sender) {
     // Get the appropriate mbean and add the overflow stats to it
     LocalRegion lr = (LocalRegion) this.region;
@@ -962,6 +1044,13 @@ public class SerialGatewaySenderQueue implements RegionQueue {
       } catch (RegionDestroyedException e) {
       }
     }
+    if (this.queueLog != null) {
+      try {
+        this.queueLog.close();
+      } catch (IOException e) {
+        logger.warn("{}: Could not close the queue log {}", this, this.queueLog, e);
+      }
+    }
   }
 
   private class BatchRemovalThread extends Thread {
@@ -1117,6 +1206,12 @@ public class SerialGatewaySenderQueue implements RegionQueue {
   public static class SerialGatewaySenderQueueMetaRegion extends DistributedRegion {
     AbstractGatewaySender sender = null;
 
+    /** persists the events put on this member, whether it is the primary or a secondary */
+    volatile GatewayQueueLog queueLog;
+
+    /** set while the queue is filled from its own log, so the events are not logged again */
+    volatile boolean recoveringQueueLog;
+
     protected SerialGatewaySenderQueueMetaRegion(String regionName, RegionAttributes attrs,
         LocalRegion parentRegion, InternalCache cache, AbstractGatewaySender sender,
         StatisticsClock statisticsClock) {
@@ -1199,6 +1294,14 @@ public class SerialGatewaySenderQueue implements RegionQueue {
         throws EntryNotFoundException, CacheWriterException, TimeoutException {
       try {
         super.basicDestroy(event, cacheWrite, expectedOldValue);
+        // events leave the head of the queue with this token; conflation removes events from the
+        // middle and those may be recovered again
+        GatewayQueueLog log = this.queueLog;
+        if (log != null && event.getRawCallbackArgument() == RegionQueue.WAN_QUEUE_TOKEN) {
+          log.advanceHead((Long) event.getKey() + 1);
+        }
+      } catch (IOException e) {
+        throw new DiskAccessException("Could not advance the queue log of " + getFullPath(), e);
       } finally {
         GatewaySenderEventImpl.release(event.getRawOldValue());
       }
@@ -1211,6 +1314,10 @@ public class SerialGatewaySenderQueue implements RegionQueue {
       try {
         boolean success = super.virtualPut(event, ifNew, ifOld, expectedOldValue, requireOldValue,
             lastModified, overwriteDestroyed);
+        GatewayQueueLog log = this.queueLog;
+        if (success && log != null && !this.recoveringQueueLog) {
+          appendToQueueLog(log, event);
+        }
         if (!success) {
           // release offheap reference if GatewaySenderEventImpl is not put into
           // the region queue
@@ -1224,6 +1331,18 @@ public class SerialGatewaySenderQueue implements RegionQueue {
         GatewaySenderEventImpl.release(event.getRawOldValue());
       }
     }
+
+    private void appendToQueueLog(GatewayQueueLog log, EntryEventImpl event) {
+      Object value = event.getRawNewValue();
+      try {
+        byte[] payload = value instanceof CachedDeserializable
+            ? ((CachedDeserializable) value).getSerializedValue()
+            : BlobHelper.serializeToBlob(value);
+        log.append((Long) event.getKey(), payload);
+      } catch (IOException e) {
+        throw new DiskAccessException("Could not append to the queue log of " + getFullPath(), e);
+      }
+    }
   }
 
   public String displayContent() {
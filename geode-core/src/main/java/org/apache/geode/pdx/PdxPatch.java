@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx;
+
+import org.apache.geode.annotations.Experimental;
+import org.apache.geode.cache.Region;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.pdx.internal.PdxPatchImpl;
+
+/**
+ * A set of field level changes to a PDX value, including JSON documents stored with
+ * {@link JSONFormatter}. The patch is applied to the current value on the member that applies it,
+ * and only the patch is sent to the other members hosting the entry, using the same mechanism as
+ * {@link org.apache.geode.Delta}. A member that can not apply the patch to its own copy receives
+ * the full patched value instead. The domain class of the value is never needed.
+ *
+ * <pre>
+ * new PdxPatch().set("status", "SHIPPED").increment("version", 1).append("history", "shipped")
+ *     .applyTo(orders, orderId);
+ * </pre>
+ *
+ * A patch must be applied on a peer or server member, for example from a function. Changes are
+ * applied in the order they were added. Delta propagation must be enabled.
+ *
+ * @since Geode 1.11
+ */
+@Experimental
+public class PdxPatch {
+
+  private final PdxPatchImpl patch = new PdxPatchImpl();
+
+  /**
+   * Sets the named field to the given value.
+   *
+   * @return this patch
+   */
+  public PdxPatch set(String fieldName, Object value) {
+    patch.addSet(fieldName, value);
+    return this;
+  }
+
+  /**
+   * Adds the given amount to the named numeric field. The amount is converted to the type of the
+   * field.
+   *
+   * @return this patch
+   */
+  public PdxPatch increment(String fieldName, Number amount) {
+    patch.addIncrement(fieldName, amount);
+    return this;
+  }
+
+  /**
+   * Appends the given element to the named array field. For JSON documents the field may also hold
+   * a list. A null array is treated as an empty one.
+   *
+   * @return this patch
+   */
+  public PdxPatch append(String fieldName, Object element) {
+    patch.addAppend(fieldName, element);
+    return this;
+  }
+
+  /**
+   * Applies this patch to the value of an existing entry.
+   *
+   * @return true if the entry existed and was updated
+   * @throws PdxFieldDoesNotExistException if the patch names a field the value does not have
+   * @throws PdxFieldTypeMismatchException if a change does not fit the type of its field
+   * @throws org.apache.geode.InvalidDeltaException if the value is not a PDX instance
+   * @throws IllegalStateException if the patch is empty or delta propagation is disabled
+   * @throws UnsupportedOperationException if the region is a client region
+   */
+  public <K> boolean applyTo(Region<K, ?> region, K key) {
+    return applyTo(region, key, null);
+  }
+
+  /**
+   * Applies this patch to the value of an existing entry, passing the given callback argument to
+   * any cache listeners and writers.
+   *
+   * @return true if the entry existed and was updated
+   * @see #applyTo(Region, Object)
+   */
+  public <K> boolean applyTo(Region<K, ?> region, K key, Object callbackArgument) {
+    if (patch.isEmpty()) {
+      throw new IllegalStateException("The patch does not contain any changes");
+    }
+    if (!(region instanceof LocalRegion)) {
+      throw new UnsupportedOperationException("A PDX patch can not be applied to " + region);
+    }
+    return ((LocalRegion) region).basicPdxPatch(key, patch, callbackArgument);
+  }
+}
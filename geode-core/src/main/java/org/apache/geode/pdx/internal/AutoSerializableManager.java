@@ -17,6 +17,9 @@ package org.apache.geode.pdx.internal;
 import java.io.Externalizable;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -39,6 +42,8 @@ import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CancelException;
 import org.apache.geode.annotations.Immutable;
+import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.annotations.internal.MutableForTesting;
 import org.apache.geode.cache.RegionService;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.CopyOnWriteHashSet;
@@ -654,6 +659,210 @@ public class AutoSerializableManager {
     }
   }
 
+  /**
+   * Accesses a field through {@link MethodHandle}s that have been adapted to a fixed, erased
+   * signature so that each access is an {@code invokeExact} call. Only used instead of reflection
+   * when Unsafe is not available or was explicitly disabled; Unsafe remains the default.
+   */
+  private static class MethodHandleFieldWrapper extends FieldWrapper {
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    public MethodHandleFieldWrapper(Field f) throws IllegalAccessException {
+      super(f);
+      Class<?> type = f.getType().isPrimitive() ? f.getType() : Object.class;
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      this.getter =
+          lookup.unreflectGetter(f).asType(MethodType.methodType(type, Object.class));
+      this.setter = lookup.unreflectSetter(f)
+          .asType(MethodType.methodType(void.class, Object.class, type));
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+      if (t instanceof RuntimeException) {
+        throw (RuntimeException) t;
+      }
+      if (t instanceof Error) {
+        throw (Error) t;
+      }
+      return new IllegalStateException(t);
+    }
+
+    @Override
+    public int getInt(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (int) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setInt(Object o, int v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public boolean getBoolean(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (boolean) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setBoolean(Object o, boolean v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public byte getByte(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (byte) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setByte(Object o, byte v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public short getShort(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (short) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setShort(Object o, short v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public char getChar(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (char) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setChar(Object o, char v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public long getLong(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (long) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setLong(Object o, long v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public float getFloat(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (float) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setFloat(Object o, float v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public double getDouble(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (double) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setDouble(Object o, double v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public Object getObject(Object o) throws IllegalArgumentException, IllegalAccessException {
+      if (getField().getType().isPrimitive()) {
+        return super.getObject(o);
+      }
+      try {
+        return (Object) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setObject(Object o, Object v)
+        throws IllegalArgumentException, IllegalAccessException {
+      if (getField().getType().isPrimitive()) {
+        super.setObject(o, v);
+        return;
+      }
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+  }
+
   // unsafe will be null if the Unsafe class is not available or SAFE was requested.
   // We attempt to use Unsafe by default for best performance.
   @Immutable
@@ -678,6 +887,42 @@ public class AutoSerializableManager {
     unsafe = tmp;
   }
 
+  /**
+   * When Unsafe is not used, fields are accessed through method handles unless
+   * "AutoSerializer.REFLECTION" is set, in which case plain reflection is used.
+   */
+  private static final boolean USE_METHOD_HANDLES =
+      !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "AutoSerializer.REFLECTION");
+
+  /**
+   * The ways the fields of auto-serialized classes can be read and written.
+   */
+  @VisibleForTesting
+  enum FieldAccess {
+    UNSAFE, METHOD_HANDLES, REFLECTION
+  }
+
+  @MutableForTesting
+  private static FieldAccess fieldAccess = unsafe != null ? FieldAccess.UNSAFE
+      : USE_METHOD_HANDLES ? FieldAccess.METHOD_HANDLES : FieldAccess.REFLECTION;
+
+  @VisibleForTesting
+  static FieldAccess getFieldAccess() {
+    return fieldAccess;
+  }
+
+  /**
+   * Changes how the fields of classes are accessed. Only applies to the classes an
+   * AutoSerializableManager has not yet introspected.
+   */
+  @VisibleForTesting
+  static void setFieldAccess(FieldAccess access) {
+    if (access == FieldAccess.UNSAFE && unsafe == null) {
+      throw new IllegalStateException("Unsafe is not available");
+    }
+    fieldAccess = access;
+  }
+
   public abstract static class PdxFieldWrapper {
     private final FieldWrapper field;
     private final String fieldName;
@@ -688,8 +933,15 @@ public class AutoSerializableManager {
     protected PdxFieldWrapper(AutoSerializableManager owner, Field f, String name,
         boolean transformValue, boolean isIdentityField) {
       FieldWrapper tmp;
-      if (unsafe != null) {
+      FieldAccess access = fieldAccess;
+      if (access == FieldAccess.UNSAFE) {
         tmp = new UnsafeFieldWrapper(f);
+      } else if (access == FieldAccess.METHOD_HANDLES) {
+        try {
+          tmp = new MethodHandleFieldWrapper(f);
+        } catch (IllegalAccessException ex) {
+          tmp = new FieldWrapper(f);
+        }
       } else {
         tmp = new FieldWrapper(f);
       }
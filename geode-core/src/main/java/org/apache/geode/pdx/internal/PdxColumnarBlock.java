@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.serialization.DSCODE;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSource;
+
+/**
+ * A block of PDX values that all have the same {@link PdxType}, stored one column per field
+ * instead of one serialized blob per value. This removes the per-value header and variable length
+ * offset table and lets each column use an encoding suited to its contents:
+ * <ul>
+ * <li>fixed width fields are frame-of-reference encoded: the column's minimum is stored once and
+ * each value is bit packed as its delta from that minimum using only as many bits as the widest
+ * delta needs.
+ * <li>variable width fields are dictionary encoded: each distinct serialized field value is stored
+ * once and each value is a bit packed index into the dictionary.
+ * </ul>
+ * Values are decoded back into their serialized form on demand with
+ * {@link #getSerializedValue(int)}.
+ */
+public class PdxColumnarBlock {
+
+  private final PdxType pdxType;
+  private final int size;
+  private final Column[] columns;
+
+  private PdxColumnarBlock(PdxType pdxType, int size, Column[] columns) {
+    this.pdxType = pdxType;
+    this.size = size;
+    this.columns = columns;
+  }
+
+  public PdxType getPdxType() {
+    return this.pdxType;
+  }
+
+  /**
+   * @return the number of values in this block
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Decodes the value at the given index back into its serialized PDX form, including the header.
+   */
+  public byte[] getSerializedValue(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("index " + index + " size " + this.size);
+    }
+    PdxWriterImpl writer = new PdxWriterImpl(this.pdxType, new PdxOutputStream());
+    for (PdxField f : this.pdxType.getFields()) {
+      Column c = this.columns[f.getFieldIndex()];
+      if (c instanceof DictionaryColumn) {
+        writer.writeRawField(f, ((DictionaryColumn) c).get(index));
+      } else {
+        writer.writeRawField(f,
+            toBytes(((PackedLongColumn) c).get(index), f.getFieldType().getWidth()));
+      }
+    }
+    writer.completeByteStreamGeneration();
+    return writer.toByteArray();
+  }
+
+  /**
+   * Writes the columns of this block. The type is not written; it must be passed to
+   * {@link #fromData(DataInput, PdxType)}.
+   */
+  public void toData(DataOutput out) throws IOException {
+    out.writeInt(this.size);
+    for (PdxField f : this.pdxType.getFields()) {
+      this.columns[f.getFieldIndex()].toData(out);
+    }
+  }
+
+  /**
+   * Reads a block written by {@link #toData(DataOutput)} for values of the given type.
+   */
+  public static PdxColumnarBlock fromData(DataInput in, PdxType pdxType) throws IOException {
+    int size = in.readInt();
+    Column[] columns = new Column[pdxType.getFieldCount()];
+    for (PdxField f : pdxType.getFields()) {
+      if (f.isVariableLengthType()) {
+        columns[f.getFieldIndex()] = DictionaryColumn.fromData(in, size);
+      } else {
+        columns[f.getFieldIndex()] = PackedLongColumn.fromData(in, size);
+      }
+    }
+    return new PdxColumnarBlock(pdxType, size, columns);
+  }
+
+  /**
+   * Reads a fixed width field as a big endian, sign extended long.
+   */
+  private static long toLong(ByteSource raw) {
+    long result = 0;
+    int width = raw.remaining();
+    for (int i = 0; i < width; i++) {
+      result = (result << 8) | (raw.get() & 0xFF);
+    }
+    int unusedBits = 64 - width * 8;
+    return unusedBits == 0 ? result : (result << unusedBits) >> unusedBits;
+  }
+
+  private static byte[] toBytes(long value, int width) {
+    byte[] result = new byte[width];
+    for (int i = width - 1; i >= 0; i--) {
+      result[i] = (byte) value;
+      value >>= 8;
+    }
+    return result;
+  }
+
+  /**
+   * Collects serialized PDX values of a single type and encodes them into a
+   * {@link PdxColumnarBlock}.
+   */
+  public static class Builder {
+    private final PdxType pdxType;
+    private final long[][] values;
+    private final Map<ByteBuffer, Integer>[] dictionaries;
+    private final List<byte[]>[] dictionaryValues;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public Builder(PdxType pdxType) {
+      if (pdxType.getHasDeletedField()) {
+        throw new IllegalArgumentException("Types with deleted fields can not be columnar encoded");
+      }
+      this.pdxType = pdxType;
+      int fieldCount = pdxType.getFieldCount();
+      this.values = new long[fieldCount][16];
+      this.dictionaries = new Map[fieldCount];
+      this.dictionaryValues = new List[fieldCount];
+      for (PdxField f : pdxType.getFields()) {
+        if (f.isVariableLengthType()) {
+          this.dictionaries[f.getFieldIndex()] = new HashMap<>();
+          this.dictionaryValues[f.getFieldIndex()] = new ArrayList<>();
+        }
+      }
+    }
+
+    /**
+     * Adds a serialized PDX value, including its header.
+     *
+     * @return false if the value is not a PDX of this builder's type, in which case it was not
+     *         added and the caller should keep it in its row form
+     */
+    public boolean add(byte[] serializedPdx) {
+      if (serializedPdx.length < PdxWriterImpl.HEADER_SIZE
+          || serializedPdx[0] != DSCODE.PDX.toByte()) {
+        return false;
+      }
+      ByteBuffer header = ByteBuffer.wrap(serializedPdx);
+      int len = header.getInt(DataSize.BYTE_SIZE);
+      int typeId = header.getInt(DataSize.BYTE_SIZE + DataSize.INTEGER_SIZE);
+      if (typeId != this.pdxType.getTypeId()
+          || len != serializedPdx.length - PdxWriterImpl.HEADER_SIZE) {
+        return false;
+      }
+      // field offsets are relative to the first byte after the header
+      PdxReaderImpl reader = new PdxReaderImpl(this.pdxType, new PdxInputStream(
+          ByteBuffer.wrap(serializedPdx, PdxWriterImpl.HEADER_SIZE, len).slice()));
+      for (PdxField f : this.pdxType.getFields()) {
+        int idx = f.getFieldIndex();
+        ByteSource raw = reader.getRaw(f);
+        if (f.isVariableLengthType()) {
+          byte[] bytes = new byte[raw.remaining()];
+          raw.get(bytes);
+          ByteBuffer key = ByteBuffer.wrap(bytes);
+          Integer code = this.dictionaries[idx].get(key);
+          if (code == null) {
+            code = this.dictionaryValues[idx].size();
+            this.dictionaries[idx].put(key, code);
+            this.dictionaryValues[idx].add(bytes);
+          }
+          append(idx, code);
+        } else {
+          append(idx, toLong(raw));
+        }
+      }
+      this.size++;
+      return true;
+    }
+
+    private void append(int fieldIdx, long value) {
+      long[] column = this.values[fieldIdx];
+      if (this.size == column.length) {
+        column = Arrays.copyOf(column, column.length * 2);
+        this.values[fieldIdx] = column;
+      }
+      column[this.size] = value;
+    }
+
+    public int size() {
+      return this.size;
+    }
+
+    public PdxColumnarBlock build() {
+      Column[] columns = new Column[this.pdxType.getFieldCount()];
+      for (PdxField f : this.pdxType.getFields()) {
+        int idx = f.getFieldIndex();
+        PackedLongColumn packed = PackedLongColumn.pack(this.values[idx], this.size);
+        if (f.isVariableLengthType()) {
+          List<byte[]> dict = this.dictionaryValues[idx];
+          columns[idx] = new DictionaryColumn(dict.toArray(new byte[dict.size()][]), packed);
+        } else {
+          columns[idx] = packed;
+        }
+      }
+      return new PdxColumnarBlock(this.pdxType, this.size, columns);
+    }
+  }
+
+  private interface Column {
+    void toData(DataOutput out) throws IOException;
+  }
+
+  /**
+   * Frame-of-reference encoded longs. Each value is stored as its unsigned delta from the minimum
+   * value, bit packed into consecutive longs.
+   */
+  static class PackedLongColumn implements Column {
+    private final long base;
+    private final int bitWidth;
+    private final long mask;
+    private final long[] words;
+
+    private PackedLongColumn(long base, int bitWidth, long[] words) {
+      this.base = base;
+      this.bitWidth = bitWidth;
+      this.mask = bitWidth == 64 ? -1L : (1L << bitWidth) - 1;
+      this.words = words;
+    }
+
+    static PackedLongColumn pack(long[] values, int size) {
+      long min = 0;
+      long max = 0;
+      for (int i = 0; i < size; i++) {
+        min = i == 0 ? values[i] : Math.min(min, values[i]);
+        max = i == 0 ? values[i] : Math.max(max, values[i]);
+      }
+      // max - min may overflow but is correct when treated as unsigned
+      int bitWidth = 64 - Long.numberOfLeadingZeros(max - min);
+      PackedLongColumn result =
+          new PackedLongColumn(min, bitWidth, new long[wordCount(size, bitWidth)]);
+      for (int i = 0; i < size; i++) {
+        result.set(i, values[i] - min);
+      }
+      return result;
+    }
+
+    static PackedLongColumn fromData(DataInput in, int size) throws IOException {
+      long base = in.readLong();
+      int bitWidth = in.readByte();
+      long[] words = new long[wordCount(size, bitWidth)];
+      for (int i = 0; i < words.length; i++) {
+        words[i] = in.readLong();
+      }
+      return new PackedLongColumn(base, bitWidth, words);
+    }
+
+    private static int wordCount(int size, int bitWidth) {
+      return (int) (((long) size * bitWidth + 63) >>> 6);
+    }
+
+    private void set(int index, long delta) {
+      if (this.bitWidth == 0) {
+        return;
+      }
+      long bitOffset = (long) index * this.bitWidth;
+      int word = (int) (bitOffset >>> 6);
+      int shift = (int) (bitOffset & 63);
+      this.words[word] |= delta << shift;
+      if (shift + this.bitWidth > 64) {
+        this.words[word + 1] |= delta >>> (64 - shift);
+      }
+    }
+
+    long get(int index) {
+      if (this.bitWidth == 0) {
+        return this.base;
+      }
+      long bitOffset = (long) index * this.bitWidth;
+      int word = (int) (bitOffset >>> 6);
+      int shift = (int) (bitOffset & 63);
+      long delta = this.words[word] >>> shift;
+      if (shift + this.bitWidth > 64) {
+        delta |= this.words[word + 1] << (64 - shift);
+      }
+      return this.base + (delta & this.mask);
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      out.writeLong(this.base);
+      out.writeByte(this.bitWidth);
+      for (long word : this.words) {
+        out.writeLong(word);
+      }
+    }
+  }
+
+  /**
+   * Dictionary encoded raw field bytes.
+   */
+  static class DictionaryColumn implements Column {
+    private final byte[][] dictionary;
+    private final PackedLongColumn codes;
+
+    DictionaryColumn(byte[][] dictionary, PackedLongColumn codes) {
+      this.dictionary = dictionary;
+      this.codes = codes;
+    }
+
+    static DictionaryColumn fromData(DataInput in, int size) throws IOException {
+      byte[][] dictionary = new byte[in.readInt()][];
+      for (int i = 0; i < dictionary.length; i++) {
+        dictionary[i] = DataSerializer.readByteArray(in);
+      }
+      return new DictionaryColumn(dictionary, PackedLongColumn.fromData(in, size));
+    }
+
+    byte[] get(int index) {
+      return this.dictionary[(int) this.codes.get(index)];
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      out.writeInt(this.dictionary.length);
+      for (byte[] b : this.dictionary) {
+        DataSerializer.writeByteArray(b, out);
+      }
+      this.codes.toData(out);
+    }
+  }
+}
@@ -0,0 +1,329 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.InvalidDeltaException;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.cache.CachedDeserializable;
+import org.apache.geode.internal.cache.EntryEventImpl;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.serialization.ByteArrayDataInput;
+import org.apache.geode.internal.serialization.DSCODE;
+import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.PdxFieldDoesNotExistException;
+import org.apache.geode.pdx.PdxFieldTypeMismatchException;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.PdxSerializationException;
+import org.apache.geode.pdx.WritablePdxInstance;
+
+/**
+ * The field level changes of a {@link org.apache.geode.pdx.PdxPatch}. A patch is distributed as
+ * the delta bytes of an update event. Every member hosting the entry applies it to the serialized
+ * form of its copy of the old value, so the domain class is never needed and only the patch itself
+ * is sent to peers.
+ *
+ * <p>
+ * The delta bytes start with {@link #MAGIC} which is how a patch is told apart from the delta of a
+ * value implementing {@link org.apache.geode.Delta}.
+ */
+public class PdxPatchImpl {
+
+  /**
+   * "PDXPATCH" in ASCII.
+   */
+  static final long MAGIC = 0x5044585041544348L;
+
+  private static final byte VERSION = 1;
+
+  private static final byte SET = 1;
+  private static final byte INCREMENT = 2;
+  private static final byte APPEND = 3;
+
+  private final List<Operation> operations = new ArrayList<>();
+
+  public void addSet(String fieldName, Object value) {
+    operations.add(new Operation(SET, fieldName, value));
+  }
+
+  public void addIncrement(String fieldName, Number amount) {
+    if (amount == null) {
+      throw new IllegalArgumentException("amount must not be null");
+    }
+    operations.add(new Operation(INCREMENT, fieldName, amount));
+  }
+
+  public void addAppend(String fieldName, Object element) {
+    operations.add(new Operation(APPEND, fieldName, element));
+  }
+
+  public boolean isEmpty() {
+    return operations.isEmpty();
+  }
+
+  List<Operation> getOperations() {
+    return Collections.unmodifiableList(operations);
+  }
+
+  /**
+   * Returns the patch in the form sent as the delta bytes of an update event.
+   */
+  public byte[] toDeltaBytes() {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    try {
+      out.writeLong(MAGIC);
+      out.writeByte(VERSION);
+      InternalDataSerializer.writeArrayLength(operations.size(), out);
+      for (Operation operation : operations) {
+        out.writeByte(operation.kind);
+        DataSerializer.writeString(operation.fieldName, out);
+        DataSerializer.writeObject(operation.operand, out);
+      }
+    } catch (IOException e) {
+      throw new PdxSerializationException("Could not serialize PDX patch", e);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Returns true if the given delta bytes were produced by {@link #toDeltaBytes()}.
+   */
+  public static boolean isPdxPatch(byte[] deltaBytes) {
+    if (deltaBytes == null || deltaBytes.length < 9) {
+      return false;
+    }
+    long magic = 0;
+    for (int i = 0; i < 8; i++) {
+      magic = (magic << 8) | (deltaBytes[i] & 0xFF);
+    }
+    return magic == MAGIC;
+  }
+
+  public static PdxPatchImpl fromDeltaBytes(byte[] deltaBytes) {
+    if (!isPdxPatch(deltaBytes)) {
+      throw new InvalidDeltaException("Delta bytes do not contain a PDX patch");
+    }
+    boolean oldReadSerialized = PdxInstanceImpl.getPdxReadSerialized();
+    PdxInstanceImpl.setPdxReadSerialized(true);
+    try {
+      DataInput in = new ByteArrayDataInput(deltaBytes);
+      in.readLong();
+      byte version = in.readByte();
+      if (version != VERSION) {
+        throw new InvalidDeltaException("Unsupported PDX patch version " + version);
+      }
+      PdxPatchImpl patch = new PdxPatchImpl();
+      int count = InternalDataSerializer.readArrayLength(in);
+      for (int i = 0; i < count; i++) {
+        byte kind = in.readByte();
+        String fieldName = DataSerializer.readString(in);
+        Object operand = DataSerializer.readObject(in);
+        patch.operations.add(new Operation(kind, fieldName, operand));
+      }
+      return patch;
+    } catch (IOException | ClassNotFoundException e) {
+      throw new InvalidDeltaException("Could not read PDX patch", e);
+    } finally {
+      PdxInstanceImpl.setPdxReadSerialized(oldReadSerialized);
+    }
+  }
+
+  /**
+   * Returns the serialized PDX form of a region value, or null if the value is not PDX.
+   */
+  public static byte[] getSerializedPdx(Object value) {
+    byte[] bytes;
+    if (value instanceof CachedDeserializable) {
+      CachedDeserializable cd = (CachedDeserializable) value;
+      if (!cd.isSerialized()) {
+        return null;
+      }
+      bytes = cd.getSerializedValue();
+    } else if (value instanceof PdxInstanceImpl) {
+      bytes = ((PdxInstanceImpl) value).toBytes();
+    } else if (value instanceof byte[]) {
+      return null;
+    } else {
+      bytes = EntryEventImpl.serialize(value);
+    }
+    if (bytes == null || bytes.length < PdxWriterImpl.HEADER_SIZE
+        || bytes[0] != DSCODE.PDX.toByte()) {
+      return null;
+    }
+    return bytes;
+  }
+
+  /**
+   * Applies this patch to a serialized PDX value.
+   *
+   * @return the serialized form of the patched value
+   * @throws PdxFieldDoesNotExistException if the patch names a field the value does not have
+   * @throws PdxFieldTypeMismatchException if an operand does not fit the type of its field
+   */
+  public byte[] apply(byte[] serializedPdx, InternalCache cache) {
+    boolean oldReadSerialized = PdxInstanceImpl.getPdxReadSerialized();
+    PdxInstanceImpl.setPdxReadSerialized(true);
+    try {
+      PdxInstance original = InternalDataSerializer.readPdxInstance(serializedPdx, cache);
+      if (!(original instanceof PdxInstanceImpl)) {
+        throw new PdxFieldTypeMismatchException("A PDX patch can not be applied to an enum");
+      }
+      WritablePdxInstance writer = original.createWriter();
+      for (Operation operation : operations) {
+        operation.applyTo(writer);
+      }
+      return ((PdxInstanceImpl) writer).toBytes();
+    } finally {
+      PdxInstanceImpl.setPdxReadSerialized(oldReadSerialized);
+    }
+  }
+
+  static class Operation {
+    private final byte kind;
+    private final String fieldName;
+    private final Object operand;
+
+    Operation(byte kind, String fieldName, Object operand) {
+      if (fieldName == null) {
+        throw new IllegalArgumentException("fieldName must not be null");
+      }
+      this.kind = kind;
+      this.fieldName = fieldName;
+      this.operand = operand;
+    }
+
+    void applyTo(WritablePdxInstance instance) {
+      switch (kind) {
+        case SET:
+          instance.setField(fieldName, operand);
+          break;
+        case INCREMENT:
+          instance.setField(fieldName,
+              increment(getFieldType(instance), instance.getField(fieldName)));
+          break;
+        case APPEND:
+          instance.setField(fieldName,
+              append(getFieldType(instance), instance.getField(fieldName)));
+          break;
+        default:
+          throw new InvalidDeltaException("Unknown PDX patch operation " + kind);
+      }
+    }
+
+    private FieldType getFieldType(WritablePdxInstance instance) {
+      PdxField field = ((PdxInstanceImpl) instance).getPdxType().getPdxField(fieldName);
+      if (field == null) {
+        throw new PdxFieldDoesNotExistException(
+            "A field named " + fieldName + " does not exist on "
+                + ((PdxInstanceImpl) instance).getPdxType());
+      }
+      return field.getFieldType();
+    }
+
+    private Object increment(FieldType fieldType, Object current) {
+      Number amount = (Number) operand;
+      switch (fieldType) {
+        case BYTE:
+          return (byte) ((Byte) current + amount.byteValue());
+        case SHORT:
+          return (short) ((Short) current + amount.shortValue());
+        case INT:
+          return (Integer) current + amount.intValue();
+        case LONG:
+          return (Long) current + amount.longValue();
+        case FLOAT:
+          return (Float) current + amount.floatValue();
+        case DOUBLE:
+          return (Double) current + amount.doubleValue();
+        default:
+          throw new PdxFieldTypeMismatchException(
+              "Field " + fieldName + " of type " + fieldType + " can not be incremented");
+      }
+    }
+
+    private Object append(FieldType fieldType, Object current) {
+      if (fieldType == FieldType.OBJECT && (current == null || current instanceof List)) {
+        // JSON documents store their arrays as lists
+        List<Object> result = new ArrayList<>();
+        if (current != null) {
+          result.addAll((List<?>) current);
+        }
+        result.add(operand);
+        return result;
+      }
+      Class<?> componentType;
+      switch (fieldType) {
+        case BOOLEAN_ARRAY:
+          componentType = boolean.class;
+          break;
+        case CHAR_ARRAY:
+          componentType = char.class;
+          break;
+        case BYTE_ARRAY:
+          componentType = byte.class;
+          break;
+        case SHORT_ARRAY:
+          componentType = short.class;
+          break;
+        case INT_ARRAY:
+          componentType = int.class;
+          break;
+        case LONG_ARRAY:
+          componentType = long.class;
+          break;
+        case FLOAT_ARRAY:
+          componentType = float.class;
+          break;
+        case DOUBLE_ARRAY:
+          componentType = double.class;
+          break;
+        case STRING_ARRAY:
+          componentType = String.class;
+          break;
+        case ARRAY_OF_BYTE_ARRAYS:
+          componentType = byte[].class;
+          break;
+        case OBJECT_ARRAY:
+          componentType = current == null ? Object.class : current.getClass().getComponentType();
+          break;
+        default:
+          throw new PdxFieldTypeMismatchException(
+              "Field " + fieldName + " of type " + fieldType + " is not an array");
+      }
+      int length = current == null ? 0 : Array.getLength(current);
+      Object result = Array.newInstance(componentType, length + 1);
+      if (current != null) {
+        System.arraycopy(current, 0, result, 0, length);
+      }
+      try {
+        Array.set(result, length, operand);
+      } catch (IllegalArgumentException e) {
+        throw new PdxFieldTypeMismatchException("Can not append a "
+            + (operand == null ? "null" : operand.getClass().getName()) + " to field "
+            + fieldName + " of type " + fieldType);
+      }
+      return result;
+    }
+  }
+}
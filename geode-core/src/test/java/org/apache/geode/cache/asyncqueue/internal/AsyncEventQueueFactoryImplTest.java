@@ -25,8 +25,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.cache.asyncqueue.AsyncEventListener;
 import org.apache.geode.cache.asyncqueue.AsyncEventQueueFactory;
+import org.apache.geode.cache.wan.GatewaySender.OrderPolicy;
 import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.wan.AsyncEventQueueConfigurationException;
 import org.apache.geode.test.junit.categories.AEQTest;
 
 /**
@@ -62,4 +65,26 @@ public class AsyncEventQueueFactoryImplTest {
     assertThatThrownBy(() -> asyncEventQueueFactory.create("id", null))
         .isInstanceOf(IllegalArgumentException.class);
   }
+
+  @Test
+  public void listenerThreadsRequireKeyOrderPolicy() {
+    AsyncEventQueueFactoryImpl factory = new AsyncEventQueueFactoryImpl(cache);
+    factory.setListenerThreads(2);
+    factory.setDispatcherThreads(2);
+    factory.setOrderPolicy(OrderPolicy.THREAD);
+
+    assertThatThrownBy(() -> factory.create("id", mock(AsyncEventListener.class)))
+        .isInstanceOf(AsyncEventQueueConfigurationException.class)
+        .hasMessageContaining("OrderPolicy THREAD");
+  }
+
+  @Test
+  public void listenerThreadsMustBePositive() {
+    AsyncEventQueueFactoryImpl factory = new AsyncEventQueueFactoryImpl(cache);
+    factory.setListenerThreads(0);
+
+    assertThatThrownBy(() -> factory.create("id", mock(AsyncEventListener.class)))
+        .isInstanceOf(AsyncEventQueueConfigurationException.class)
+        .hasMessageContaining("listener threads less than 1");
+  }
 }
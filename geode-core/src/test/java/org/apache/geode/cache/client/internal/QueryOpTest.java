@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.apache.geode.cache.client.internal.QueryResultIterator.BUFFERED_PAGES;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.cache.client.internal.QueryOp.StreamingQueryOpImpl;
+import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
+import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class QueryOpTest {
+
+  private final QueryResultIterator results = new QueryResultIterator();
+
+  private final StreamingQueryOpImpl op =
+      new StreamingQueryOpImpl("SELECT * FROM /region", new Object[0], results);
+
+  private ChunkedMessage response;
+  private Part collectionTypePart;
+  private Part resultPart;
+
+  @Before
+  public void setUp() {
+    response = mock(ChunkedMessage.class);
+    collectionTypePart = mock(Part.class);
+    resultPart = mock(Part.class);
+    when(response.getMessageType()).thenReturn(MessageType.RESPONSE);
+    when(response.getPart(0)).thenReturn(collectionTypePart);
+    when(response.getPart(1)).thenReturn(resultPart);
+  }
+
+  @Test
+  public void chunksAreHandedToIteratorInOrder() throws Exception {
+    respondWithChunks(new Object[] {1, 2}, new Object[0], new Object[] {3});
+    CompletableFuture<Void> receiver = receiveAsync();
+
+    List<Object> consumed = results.stream().collect(Collectors.toList());
+
+    assertThat(consumed).containsExactly(1, 2, 3);
+    receiver.get();
+  }
+
+  @Test
+  public void receiverStopsReadingChunksWhileConsumerIsBehind() throws Exception {
+    respondWithChunks(BUFFERED_PAGES + 2);
+    CompletableFuture<Void> receiver = receiveAsync();
+
+    await().untilAsserted(() -> verify(response, times(BUFFERED_PAGES + 1)).receiveChunk());
+    Thread.sleep(200);
+    verify(response, times(BUFFERED_PAGES + 1)).receiveChunk();
+    assertThat(receiver).isNotDone();
+
+    assertThat(results.stream().count()).isEqualTo(BUFFERED_PAGES + 2);
+    receiver.get();
+    verify(response, times(BUFFERED_PAGES + 2)).receiveChunk();
+  }
+
+  @Test
+  public void chunksReceivedAfterCloseAreReadButNotDeserialized() throws Exception {
+    respondWithChunks(3);
+    results.close();
+
+    assertThat(op.processResponse(response)).isNull();
+
+    verify(response, times(3)).receiveChunk();
+    verify(resultPart, never()).getObject();
+  }
+
+  @Test
+  public void closeReleasesBlockedReceiverWhichDrainsRemainingChunks() throws Exception {
+    respondWithChunks(BUFFERED_PAGES + 3);
+    CompletableFuture<Void> receiver = receiveAsync();
+    await().untilAsserted(() -> verify(response, times(BUFFERED_PAGES + 1)).receiveChunk());
+
+    results.close();
+
+    receiver.get();
+    assertThat(results.hasNext()).isFalse();
+    verify(response, times(BUFFERED_PAGES + 3)).receiveChunk();
+    verify(resultPart, times(BUFFERED_PAGES + 1)).getObject();
+  }
+
+  @Test
+  public void serverExceptionIsThrownAfterRemainingChunksAreRead() throws Exception {
+    respondWithChunks(3);
+    when(collectionTypePart.getObject()).thenReturn(collectionType(),
+        new IllegalStateException("failed"));
+
+    assertThatThrownBy(() -> op.processResponse(response))
+        .isInstanceOf(ServerOperationException.class).hasRootCauseMessage("failed");
+
+    verify(response, times(3)).receiveChunk();
+    verify(resultPart, times(1)).getObject();
+    assertThat(results.next()).isEqualTo(0);
+  }
+
+  @Test
+  public void interruptingBlockedReceiverCancelsQuery() throws Exception {
+    respondWithChunks(BUFFERED_PAGES + 2);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread receiver = new Thread(() -> {
+      try {
+        op.processResponse(response);
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    });
+    receiver.start();
+    await().untilAsserted(() -> verify(response, times(BUFFERED_PAGES + 1)).receiveChunk());
+
+    receiver.interrupt();
+    receiver.join();
+
+    assertThat(failure.get()).isInstanceOf(InterruptedException.class);
+  }
+
+  @Test
+  public void executeStreamingReturnsResultsWhileThePoolReceivesThem() throws Exception {
+    respondWithChunks(new Object[] {"a", "b"}, new Object[] {"c"});
+    ExecutablePool pool = mock(ExecutablePool.class);
+    when(pool.execute(any(), eq(0)))
+        .thenAnswer(invocation -> ((AbstractOp) invocation.getArgument(0))
+            .processResponse(response));
+
+    try (QueryResultIterator iterator =
+        QueryOp.executeStreaming(pool, "SELECT * FROM /region", null)) {
+      assertThat(iterator.stream().collect(Collectors.toList())).containsExactly("a", "b", "c");
+    }
+    verify(pool).execute(any(StreamingQueryOpImpl.class), eq(0));
+  }
+
+  @Test
+  public void executeStreamingThrowsFailureOfThePoolFromIterator() {
+    ExecutablePool pool = mock(ExecutablePool.class);
+    when(pool.execute(any(), eq(0))).thenThrow(new ServerConnectivityException("no servers"));
+
+    QueryResultIterator iterator = QueryOp.executeStreaming(pool, "SELECT * FROM /region", null);
+
+    assertThatThrownBy(iterator::hasNext).isInstanceOf(ServerConnectivityException.class)
+        .hasMessage("no servers");
+  }
+
+  /**
+   * Responds with the given number of chunks, each holding its index as the only result.
+   */
+  private void respondWithChunks(int numberOfChunks) throws Exception {
+    Object[][] chunks = new Object[numberOfChunks][];
+    for (int i = 0; i < numberOfChunks; i++) {
+      chunks[i] = new Object[] {i};
+    }
+    respondWithChunks(chunks);
+  }
+
+  private void respondWithChunks(Object[]... chunks) throws Exception {
+    Boolean[] lastChunk = new Boolean[chunks.length];
+    Arrays.fill(lastChunk, false);
+    lastChunk[chunks.length - 1] = true;
+    when(response.isLastChunk()).thenReturn(lastChunk[0],
+        Arrays.copyOfRange(lastChunk, 1, chunks.length));
+    when(collectionTypePart.getObject()).thenReturn(collectionType());
+    when(resultPart.getObject()).thenReturn(chunks[0],
+        (Object[]) Arrays.copyOfRange(chunks, 1, chunks.length));
+  }
+
+  private CompletableFuture<Void> receiveAsync() {
+    return CompletableFuture.runAsync(() -> {
+      try {
+        op.processResponse(response);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }).thenRun(() -> results.finish(null));
+  }
+
+  private static CollectionTypeImpl collectionType() {
+    return new CollectionTypeImpl(List.class, TypeUtils.OBJECT_TYPE);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import org.apache.geode.cache.client.ServerOperationException;
+
+public class QueryResultIteratorTest {
+
+  private final QueryResultIterator results = new QueryResultIterator();
+
+  @Test
+  public void iteratesOverPagesInOrder() throws Exception {
+    results.addPage(Arrays.asList(1, 2));
+    results.addPage(Collections.emptyList());
+    CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+      addPage(Collections.singletonList(3));
+      results.finish(null);
+    });
+
+    List<Object> consumed = results.stream().collect(Collectors.toList());
+
+    assertThat(consumed).containsExactly(1, 2, 3);
+    producer.get();
+  }
+
+  @Test
+  public void producerWaitsForConsumerWhenBufferIsFull() throws Exception {
+    for (int i = 0; i < QueryResultIterator.BUFFERED_PAGES; i++) {
+      results.addPage(Collections.singletonList(i));
+    }
+    CompletableFuture<Void> producer =
+        CompletableFuture.runAsync(() -> addPage(Collections.singletonList(-1)));
+
+    Thread.sleep(200);
+    assertThat(producer).isNotDone();
+
+    assertThat(results.next()).isEqualTo(0);
+    assertThat(results.hasNext()).isTrue();
+    await().until(producer::isDone);
+  }
+
+  @Test
+  public void failureIsThrownAfterReceivedResults() throws Exception {
+    results.addPage(Collections.singletonList("a"));
+    results.finish(new Exception("failed"));
+
+    assertThat(results.next()).isEqualTo("a");
+    assertThatThrownBy(results::hasNext).isInstanceOf(ServerOperationException.class)
+        .hasRootCauseMessage("failed");
+  }
+
+  @Test
+  public void closeDiscardsResultsAndReleasesProducer() throws Exception {
+    for (int i = 0; i < QueryResultIterator.BUFFERED_PAGES; i++) {
+      results.addPage(Collections.singletonList(i));
+    }
+    CompletableFuture<Void> producer =
+        CompletableFuture.runAsync(() -> addPage(Collections.singletonList(-1)));
+
+    try (Stream<Object> stream = results.stream()) {
+      assertThat(stream.findFirst()).contains(0);
+    }
+
+    await().until(producer::isDone);
+    assertThat(results.isClosed()).isTrue();
+    assertThat(results.hasNext()).isFalse();
+  }
+
+  private void addPage(List<?> page) {
+    try {
+      results.addPage(page);
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -27,6 +27,7 @@ import org.junit.Test;
 import org.apache.geode.cache.query.Aggregator;
 import org.apache.geode.cache.query.internal.aggregate.Avg;
 import org.apache.geode.cache.query.internal.aggregate.AvgBucketNode;
+import org.apache.geode.cache.query.internal.aggregate.AvgBucketNodeCombiner;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinct;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.AvgPRQueryNode;
@@ -35,6 +36,7 @@ import org.apache.geode.cache.query.internal.aggregate.CountDistinct;
 import org.apache.geode.cache.query.internal.aggregate.CountDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.CountPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.DistinctAggregator;
+import org.apache.geode.cache.query.internal.aggregate.DistinctCombiner;
 import org.apache.geode.cache.query.internal.aggregate.MaxMin;
 import org.apache.geode.cache.query.internal.aggregate.Sum;
 import org.apache.geode.cache.query.internal.aggregate.SumDistinct;
@@ -173,4 +175,20 @@ public class CompiledAggregateFunctionJUnitTest {
     MaxMin maxMin1 = (MaxMin) agg1;
     assertThat(findMax.get(maxMin1)).isEqualTo(Boolean.FALSE);
   }
+
+  @Test
+  public void testBucketResultsCombiner() {
+    assertThat(new CompiledAggregateFunction(null, OQLLexerTokenTypes.SUM)
+        .createBucketResultsCombiner()).isInstanceOf(Sum.class);
+    assertThat(new CompiledAggregateFunction(null, OQLLexerTokenTypes.SUM, true)
+        .createBucketResultsCombiner()).isInstanceOf(DistinctCombiner.class);
+    assertThat(new CompiledAggregateFunction(null, OQLLexerTokenTypes.AVG)
+        .createBucketResultsCombiner()).isInstanceOf(AvgBucketNodeCombiner.class);
+    assertThat(new CompiledAggregateFunction(null, OQLLexerTokenTypes.COUNT)
+        .createBucketResultsCombiner()).isInstanceOf(CountPRQueryNode.class);
+    assertThat(new CompiledAggregateFunction(null, OQLLexerTokenTypes.COUNT, true)
+        .createBucketResultsCombiner()).isInstanceOf(DistinctCombiner.class);
+    assertThat(new CompiledAggregateFunction(null, OQLLexerTokenTypes.MAX)
+        .createBucketResultsCombiner()).isInstanceOf(MaxMin.class);
+  }
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.pdx.internal.PdxString;
+
+public class CompositeIndexKeyTest {
+
+  private final NavigableSet<CompositeIndexKey> keys = new TreeSet<>();
+
+  @Before
+  public void setUp() throws Exception {
+    for (String tenant : new String[] {"a", "b"}) {
+      for (int ts = 0; ts < 5; ts++) {
+        keys.add(key(CompositeIndexKey.EXACT, tenant, ts));
+      }
+    }
+    keys.add(key(CompositeIndexKey.EXACT, "a", null));
+  }
+
+  @Test
+  public void keysAreOrderedByComponents() throws Exception {
+    assertThat(keys.first()).isEqualTo(key(CompositeIndexKey.EXACT, "a", null));
+    assertThat(keys.last()).isEqualTo(key(CompositeIndexKey.EXACT, "b", 4));
+    assertThat(key(CompositeIndexKey.EXACT, "a", 4))
+        .isLessThan(key(CompositeIndexKey.EXACT, "b", 0));
+  }
+
+  @Test
+  public void prefixBoundsSelectAllKeysWithThePrefix() throws Exception {
+    assertThat(keys.subSet(key(CompositeIndexKey.BELOW, "a"), true,
+        key(CompositeIndexKey.ABOVE, "a"), true)).hasSize(6);
+    assertThat(keys.subSet(key(CompositeIndexKey.BELOW), true, key(CompositeIndexKey.ABOVE), true))
+        .hasSize(11);
+  }
+
+  @Test
+  public void rangeBoundsSelectKeysWithinTheRangeOfTheLastComponent() throws Exception {
+    // tenant = 'a' and ts > 2
+    assertThat(keys.subSet(key(CompositeIndexKey.ABOVE, "a", 2), true,
+        key(CompositeIndexKey.ABOVE, "a"), true)).containsExactly(
+            key(CompositeIndexKey.EXACT, "a", 3), key(CompositeIndexKey.EXACT, "a", 4));
+    // tenant = 'a' and ts >= 2 and ts < 4
+    assertThat(keys.subSet(key(CompositeIndexKey.BELOW, "a", 2), true,
+        key(CompositeIndexKey.BELOW, "a", 4), true)).containsExactly(
+            key(CompositeIndexKey.EXACT, "a", 2), key(CompositeIndexKey.EXACT, "a", 3));
+  }
+
+  @Test
+  public void upperBoundOnlyExcludesNullComponents() throws Exception {
+    // tenant = 'a' and ts <= 1
+    assertThat(keys.subSet(key(CompositeIndexKey.ABOVE, "a", null), false,
+        key(CompositeIndexKey.ABOVE, "a", 1), true)).containsExactly(
+            key(CompositeIndexKey.EXACT, "a", 0), key(CompositeIndexKey.EXACT, "a", 1));
+  }
+
+  @Test
+  public void numericComponentsOfDifferentTypesAreEqual() throws Exception {
+    CompositeIndexKey longKey = key(CompositeIndexKey.EXACT, "a", 2L);
+    CompositeIndexKey doubleKey = key(CompositeIndexKey.EXACT, "a", 2.0d);
+
+    assertThat(longKey).isEqualTo(doubleKey);
+    assertThat(longKey.hashCode()).isEqualTo(doubleKey.hashCode());
+    assertThat(keys.contains(key(CompositeIndexKey.EXACT, "b", (short) 3))).isTrue();
+  }
+
+  @Test
+  public void pdxStringComponentsAreEqualToStrings() throws Exception {
+    CompositeIndexKey pdxKey = key(CompositeIndexKey.EXACT, new PdxString("b"), 1);
+
+    assertThat(pdxKey).isEqualTo(key(CompositeIndexKey.EXACT, "b", 1));
+    assertThat(keys.contains(pdxKey)).isTrue();
+  }
+
+  @Test
+  public void boundsAreNotEqualToExactKeys() throws Exception {
+    assertThat(key(CompositeIndexKey.BELOW, "a", 1))
+        .isNotEqualTo(key(CompositeIndexKey.EXACT, "a", 1));
+    assertThat(key(CompositeIndexKey.BELOW, "a", 1))
+        .isLessThan(key(CompositeIndexKey.EXACT, "a", 1));
+    assertThat(key(CompositeIndexKey.ABOVE, "a", 1))
+        .isGreaterThan(key(CompositeIndexKey.EXACT, "a", 1));
+  }
+
+  private static CompositeIndexKey key(int bound, Object... components) throws Exception {
+    return new CompositeIndexKey(components, bound);
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class IndexCostModelTest {
+
+  @Test
+  public void preferenceIsKeptForComparableEstimates() {
+    assertThat(IndexCostModel.overridesPreference(true, 40, 10)).isFalse();
+    assertThat(IndexCostModel.overridesPreference(false, 10, 40)).isFalse();
+  }
+
+  @Test
+  public void preferenceIsOverriddenWhenEstimatesDisagreeStrongly() {
+    assertThat(IndexCostModel.overridesPreference(true, 5000, 10)).isTrue();
+    assertThat(IndexCostModel.overridesPreference(false, 10, 5000)).isTrue();
+  }
+
+  @Test
+  public void unknownEstimatesNeverOverride() {
+    assertThat(IndexCostModel.overridesPreference(true, Integer.MAX_VALUE, 10)).isFalse();
+    assertThat(IndexCostModel.overridesPreference(false, 10, Integer.MAX_VALUE)).isFalse();
+    assertThat(IndexCostModel.overridesPreference(true, 5000, -1)).isFalse();
+  }
+}
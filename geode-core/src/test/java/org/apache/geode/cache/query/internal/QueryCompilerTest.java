@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.LITERAL_and;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.LITERAL_or;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_EQ;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_GE;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_GT;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_LE;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_LT;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_NE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.EntryDestroyedException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.QueryCompiler.Evaluator;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxOutputStream;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.PdxWriterImpl;
+import org.apache.geode.pdx.internal.TypeRegistry;
+
+public class QueryCompilerTest {
+
+  private static final int TYPE_ID = 17;
+
+  private static final String[] FIELDS =
+      {"byteField", "shortField", "intField", "longField", "floatField", "doubleField"};
+  private static final Number[] CONSTANTS = {(byte) 7, (short) -3, (short) 7, 42, 41, 43,
+      1L << 40, (1L << 40) + 1, 2.5f, 2.4f, 2.5d, -0.1d, -0.1f, 0, Long.MAX_VALUE, Double.NaN};
+  private static final int[] OPERATORS = {TOK_EQ, TOK_NE, TOK_LT, TOK_LE, TOK_GT, TOK_GE};
+
+  private ExecutionContext context;
+  private RuntimeIterator iterator;
+  private PdxInstanceImpl pdx;
+
+  @Before
+  public void setUp() throws Exception {
+    TypeRegistry registry = mock(TypeRegistry.class);
+    when(registry.defineLocalType(any(), any())).thenAnswer(invocation -> {
+      PdxType type = invocation.getArgument(1);
+      type.setTypeId(TYPE_ID);
+      when(registry.getType(eq(TYPE_ID))).thenReturn(type);
+      return type;
+    });
+    PdxWriterImpl writer = new PdxWriterImpl(registry, new Trade(), new PdxOutputStream());
+    writer.writeByte("byteField", (byte) 7);
+    writer.writeShort("shortField", (short) -3);
+    writer.writeInt("intField", 42);
+    writer.writeLong("longField", 1L << 40);
+    writer.writeFloat("floatField", 2.5f);
+    writer.writeDouble("doubleField", -0.1d);
+    writer.writeString("name", "trade");
+    writer.completeByteStreamGeneration();
+    byte[] serialized = writer.toByteArray();
+    InternalCache cache = mock(InternalCache.class);
+    when(cache.getPdxRegistry()).thenReturn(registry);
+    pdx = (PdxInstanceImpl) InternalDataSerializer.readPdxInstance(serialized, cache);
+
+    context = mock(ExecutionContext.class);
+    iterator = mock(RuntimeIterator.class);
+    when(iterator.evaluate(context)).thenReturn(pdx);
+  }
+
+  @Test
+  public void numericComparisonMatchesInterpretedComparison() throws Exception {
+    for (String field : FIELDS) {
+      Object fieldValue = pdx.getField(field);
+      for (Number constant : CONSTANTS) {
+        for (int operator : OPERATORS) {
+          CompiledComparison comparison = mock(CompiledComparison.class);
+          Evaluator evaluator = new QueryCompiler.PdxNumericComparison(comparison, iterator,
+              field, operator, constant);
+
+          assertThat(evaluator.evaluate(context))
+              .as("%s %s %s", fieldValue, operator, constant)
+              .isEqualTo(TypeUtils.compare(fieldValue, constant, operator));
+          verify(comparison, never()).evaluate(context);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void nonPdxValuesAreInterpreted() throws Exception {
+    CompiledComparison comparison = mock(CompiledComparison.class);
+    when(comparison.evaluate(context)).thenReturn(Boolean.TRUE);
+    when(iterator.evaluate(context)).thenReturn("not pdx");
+    Evaluator evaluator =
+        new QueryCompiler.PdxNumericComparison(comparison, iterator, "intField", TOK_EQ, 1);
+
+    assertThat(evaluator.evaluate(context)).isEqualTo(Boolean.TRUE);
+    verify(comparison).evaluate(context);
+  }
+
+  @Test
+  public void nonNumericAndMissingFieldsAreInterpreted() throws Exception {
+    CompiledComparison comparison = mock(CompiledComparison.class);
+    when(comparison.evaluate(context)).thenReturn(QueryService.UNDEFINED);
+
+    assertThat(new QueryCompiler.PdxNumericComparison(comparison, iterator, "name", TOK_EQ, 1)
+        .evaluate(context)).isSameAs(QueryService.UNDEFINED);
+    assertThat(new QueryCompiler.PdxNumericComparison(comparison, iterator, "missing", TOK_EQ, 1)
+        .evaluate(context)).isSameAs(QueryService.UNDEFINED);
+  }
+
+  @Test
+  public void junctionShortCircuits() throws Exception {
+    Evaluator failing = c -> {
+      throw new AssertionError("should not be evaluated");
+    };
+
+    assertThat(junction(LITERAL_and, constant(false), failing).evaluate(context))
+        .isEqualTo(Boolean.FALSE);
+    assertThat(junction(LITERAL_or, constant(true), failing).evaluate(context))
+        .isEqualTo(Boolean.TRUE);
+  }
+
+  @Test
+  public void junctionPropagatesUndefined() throws Exception {
+    Object undefined = QueryService.UNDEFINED;
+
+    assertThat(junction(LITERAL_and, constant(true), constant(undefined)).evaluate(context))
+        .isSameAs(undefined);
+    assertThat(junction(LITERAL_and, constant(null), constant(false)).evaluate(context))
+        .isEqualTo(Boolean.FALSE);
+    assertThat(junction(LITERAL_or, constant(undefined), constant(false)).evaluate(context))
+        .isSameAs(undefined);
+    assertThat(junction(LITERAL_or, constant(false), constant(false)).evaluate(context))
+        .isEqualTo(Boolean.FALSE);
+    assertThat(junction(LITERAL_and, constant(true), constant(true)).evaluate(context))
+        .isEqualTo(Boolean.TRUE);
+  }
+
+  @Test
+  public void junctionSkipsDestroyedEntries() throws Exception {
+    Evaluator destroyed = c -> {
+      throw new EntryDestroyedException();
+    };
+
+    assertThat(junction(LITERAL_and, constant(true), destroyed).evaluate(context))
+        .isEqualTo(Boolean.TRUE);
+  }
+
+  @Test
+  public void junctionRejectsNonBooleanOperands() {
+    assertThatThrownBy(() -> junction(LITERAL_and, constant(1)).evaluate(context))
+        .isInstanceOf(TypeMismatchException.class);
+  }
+
+  @Test
+  public void negation() throws Exception {
+    assertThat(new QueryCompiler.Negation(constant(true)).evaluate(context))
+        .isEqualTo(Boolean.FALSE);
+    assertThat(new QueryCompiler.Negation(constant(null)).evaluate(context))
+        .isSameAs(QueryService.UNDEFINED);
+    assertThatThrownBy(() -> new QueryCompiler.Negation(constant("x")).evaluate(context))
+        .isInstanceOf(TypeMismatchException.class);
+  }
+
+  private static Evaluator junction(int operator, Evaluator... operands) {
+    return new QueryCompiler.Junction(operands, operator);
+  }
+
+  private static Evaluator constant(Object value) {
+    return c -> value;
+  }
+
+  /**
+   * The object a PDX writer serializes for, which only provides the class name of the PDX type.
+   */
+  private static class Trade {
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.query.QueryInvalidException;
+import org.apache.geode.cache.query.internal.QueryPlanCache.QueryPlan;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+
+public class QueryPlanCacheTest {
+
+  private CachePerfStats stats;
+  private InternalCache cache;
+  private QueryPlanCache planCache;
+
+  @Before
+  public void setUp() {
+    stats = mock(CachePerfStats.class);
+    cache = mock(InternalCache.class);
+    planCache = new QueryPlanCache(2, stats);
+    when(cache.getQueryPlanCache()).thenReturn(planCache);
+  }
+
+  @Test
+  public void repeatedQueryReusesPlan() {
+    QueryPlan first = planCache.getPlan("select * from /orders where id = $1", cache);
+    QueryPlan second = planCache.getPlan("select  *\n from /orders where id = $1 ", cache);
+
+    assertThat(second).isSameAs(first);
+    verify(stats, times(1)).incQueryPlanCacheMisses();
+    verify(stats, times(1)).incQueryPlanCacheHits();
+  }
+
+  @Test
+  public void traceRequestIsPartOfPlan() {
+    assertThat(planCache.getPlan("<trace> select * from /orders", cache).isTraceRequested())
+        .isTrue();
+    assertThat(planCache.getPlan("select * from /orders", cache).isTraceRequested()).isFalse();
+  }
+
+  @Test
+  public void normalizeKeepsQuotedTextAndComments() {
+    assertThat(QueryPlanCache.normalize("  select *  from /r\twhere name = 'a  b' "))
+        .isEqualTo("select * from /r where name = 'a  b'");
+    assertThat(QueryPlanCache.normalize("select * from /r where \"my  field\" = 1"))
+        .isEqualTo("select * from /r where \"my  field\" = 1");
+    String withComment = "select * from /r -- no filter\n where id = 1";
+    assertThat(QueryPlanCache.normalize(withComment)).isSameAs(withComment);
+  }
+
+  @Test
+  public void countQueriesAreNotCached() {
+    QueryPlan first = planCache.getPlan("select count(*) from /orders", cache);
+    QueryPlan second = planCache.getPlan("select count(*) from /orders", cache);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(planCache.size()).isZero();
+  }
+
+  @Test
+  public void leastRecentlyUsedPlanIsEvicted() {
+    QueryPlan a = planCache.getPlan("select * from /a", cache);
+    planCache.getPlan("select * from /b", cache);
+    planCache.getPlan("select * from /a", cache);
+    planCache.getPlan("select * from /c", cache);
+
+    assertThat(planCache.size()).isEqualTo(2);
+    assertThat(planCache.getPlan("select * from /a", cache)).isSameAs(a);
+    verify(stats, times(2)).incQueryPlanCacheHits();
+  }
+
+  @Test
+  public void invalidateDropsPlansAndAdvancesIndexGeneration() {
+    QueryPlan plan = planCache.getPlan("select * from /orders", cache);
+    long generation = QueryPlanCache.getIndexGeneration(cache);
+
+    QueryPlanCache.invalidate(cache);
+
+    assertThat(QueryPlanCache.getIndexGeneration(cache)).isEqualTo(generation + 1);
+    assertThat(planCache.getPlan("select * from /orders", cache)).isNotSameAs(plan);
+  }
+
+  @Test
+  public void cacheWithoutPlanCacheHasNoIndexGeneration() {
+    InternalCache other = mock(InternalCache.class);
+
+    QueryPlanCache.invalidate(other);
+    QueryPlanCache.invalidate(null);
+
+    assertThat(QueryPlanCache.getIndexGeneration(other)).isEqualTo(-1);
+  }
+
+  @Test
+  public void indexlessPlanIsNotRememberedWhenFromClauseHasBindArgument() {
+    CompiledSelect boundRegion = (CompiledSelect) planCache
+        .getPlan("select * from $1 o where o.id = 1", cache).getCompiledQuery();
+    CompiledSelect boundOperand = (CompiledSelect) planCache
+        .getPlan("select * from /orders o where o.id = $1", cache).getCompiledQuery();
+
+    assertThat(boundRegion.canRememberIndexlessPlan()).isFalse();
+    assertThat(boundOperand.canRememberIndexlessPlan()).isTrue();
+  }
+
+  @Test
+  public void invalidQueryIsNotCached() {
+    assertThatThrownBy(() -> planCache.getPlan("select from where", cache))
+        .isInstanceOf(QueryInvalidException.class);
+    assertThat(planCache.size()).isZero();
+  }
+}
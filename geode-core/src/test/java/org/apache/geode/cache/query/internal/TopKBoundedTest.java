@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.types.ObjectType;
+
+public class TopKBoundedTest {
+
+  private static final int[] VALUES = {42, 7, 19, 7, 3, 88, 19, 1, 64, 3};
+
+  @Test
+  public void bagKeepsFirstElementsIncludingDuplicates() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), true);
+    bag.setTopK(4);
+
+    for (int value : VALUES) {
+      bag.addAndGetOccurence(value);
+    }
+
+    assertThat(bag.size()).isEqualTo(4);
+    assertThat(bag.asList()).containsExactly(1, 3, 3, 7);
+  }
+
+  @Test
+  public void descendingBagDropsNullsFirst() {
+    SortedResultsBag<Integer> bag =
+        new SortedResultsBag<>(Comparator.<Integer>reverseOrder(), false);
+    bag.setTopK(3);
+
+    bag.add(null);
+    bag.add(5);
+    bag.add(null);
+    bag.add(9);
+    bag.add(2);
+
+    assertThat(bag.asList()).containsExactly(9, 5, 2);
+  }
+
+  @Test
+  public void bagForOrderedInputIsNotBounded() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(true);
+    bag.setTopK(2);
+
+    for (int value : VALUES) {
+      bag.add(value);
+    }
+
+    assertThat(bag.size()).isEqualTo(VALUES.length);
+  }
+
+  @Test
+  public void limitOfZeroKeepsNothing() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), true);
+    bag.setTopK(0);
+
+    bag.add(null);
+    bag.add(1);
+
+    assertThat(bag.size()).isZero();
+  }
+
+  @Test
+  public void resultSetKeepsFirstDistinctElements() {
+    SortedResultSet set = new SortedResultSet(Comparator.naturalOrder());
+    set.setTopK(4);
+
+    for (int value : VALUES) {
+      set.add(value);
+    }
+
+    assertThat(set.asList()).containsExactly(1, 3, 7, 19);
+  }
+
+  @Test
+  public void structSetKeepsFirstElements() {
+    StructTypeImpl type = new StructTypeImpl(new String[] {"id", "name"},
+        new ObjectType[] {new ObjectTypeImpl(Integer.class), new ObjectTypeImpl(String.class)});
+    Comparator<Object[]> byId = Comparator.comparing(fields -> (Integer) fields[0]);
+    SortedStructSet set = new SortedStructSet(byId, type);
+    set.setTopK(2);
+
+    for (int value : VALUES) {
+      set.addFieldValues(new Object[] {value, "name" + value});
+    }
+
+    assertThat(set.size()).isEqualTo(2);
+    assertThat(set.containsFieldValues(new Object[] {1, "name1"})).isTrue();
+    assertThat(set.containsFieldValues(new Object[] {3, "name3"})).isTrue();
+  }
+}
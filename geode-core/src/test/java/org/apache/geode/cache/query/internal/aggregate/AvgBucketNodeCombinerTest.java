@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class AvgBucketNodeCombinerTest {
+
+  @Test
+  public void terminateShouldCombineCountsAndSumsOfAllBuckets() {
+    AvgBucketNodeCombiner combiner = new AvgBucketNodeCombiner();
+    AvgPRQueryNode expected = new AvgPRQueryNode();
+    for (int bucket = 0; bucket < 3; bucket++) {
+      AvgBucketNode bucketNode = new AvgBucketNode();
+      for (int i = 0; i <= bucket; i++) {
+        bucketNode.accumulate(bucket * 10 + i);
+      }
+      Object partialResult = bucketNode.terminate();
+      combiner.accumulate(partialResult);
+      expected.accumulate(partialResult);
+    }
+
+    Object result = combiner.terminate();
+    assertThat(result).isInstanceOf(Object[].class);
+    assertThat(((Object[]) result)[0]).isEqualTo(6);
+    assertThat(((Number) ((Object[]) result)[1]).intValue()).isEqualTo(84);
+
+    AvgPRQueryNode prQueryNode = new AvgPRQueryNode();
+    prQueryNode.accumulate(result);
+    assertThat(prQueryNode.terminate()).isEqualTo(expected.terminate());
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import org.apache.geode.cache.query.QueryService;
+
+public class CountDistinctSketchPRQueryNodeTest {
+
+  @Test
+  public void bucketNodeIgnoresNullAndUndefined() {
+    CountDistinctSketchBucketNode bucketNode = new CountDistinctSketchBucketNode();
+    bucketNode.accumulate(null);
+    bucketNode.accumulate(QueryService.UNDEFINED);
+
+    assertThat(bucketNode.getSketch().estimate()).isZero();
+  }
+
+  @Test
+  public void terminateShouldEstimateDistinctValuesOfAllBuckets() {
+    CountDistinctSketchPRQueryNode prQueryNode = new CountDistinctSketchPRQueryNode();
+    for (int bucket = 0; bucket < 3; bucket++) {
+      CountDistinctSketchBucketNode bucketNode = new CountDistinctSketchBucketNode();
+      for (int i = 0; i < 50; i++) {
+        bucketNode.accumulate(bucket * 25 + i);
+      }
+      prQueryNode.accumulate(bucketNode.terminate());
+    }
+
+    Object result = prQueryNode.terminate();
+    assertThat(result).isInstanceOf(Integer.class);
+    assertThat((Integer) result).isBetween(95, 105);
+  }
+
+  @Test
+  public void combinedSketchesEstimateLikeTheirBuckets() {
+    CountDistinctSketchCombiner combiner = new CountDistinctSketchCombiner();
+    CountDistinctSketchBucketNode bucketNode = new CountDistinctSketchBucketNode();
+    bucketNode.accumulate("a");
+    bucketNode.accumulate("b");
+    combiner.accumulate(bucketNode.terminate());
+    combiner.accumulate(new HashSet<>(Arrays.asList("b", "c")));
+
+    CountDistinctSketchPRQueryNode prQueryNode = new CountDistinctSketchPRQueryNode();
+    prQueryNode.accumulate(combiner.terminate());
+
+    assertThat(prQueryNode.terminate()).isEqualTo(3);
+  }
+}
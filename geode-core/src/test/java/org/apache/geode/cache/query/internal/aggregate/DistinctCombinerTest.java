@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.query.QueryService;
+
+public class DistinctCombinerTest {
+  private DistinctCombiner distinctCombiner;
+
+  @Before
+  public void setUp() {
+    distinctCombiner = new DistinctCombiner();
+  }
+
+  @Test
+  public void accumulateShouldIgnoreNullAndUndefined() {
+    distinctCombiner.accumulate(null);
+    distinctCombiner.accumulate(QueryService.UNDEFINED);
+
+    assertThat(distinctCombiner.getDistinct()).isEmpty();
+  }
+
+  @Test
+  public void terminateShouldReturnUnionOfBucketSets() {
+    distinctCombiner.accumulate(new HashSet<>(Arrays.asList(1, 2, 3)));
+    distinctCombiner.accumulate(new HashSet<>(Arrays.asList(3, 4)));
+
+    assertThat(distinctCombiner.terminate()).isEqualTo(new HashSet<>(Arrays.asList(1, 2, 3, 4)));
+  }
+
+  @Test
+  public void combinedSetShouldBeCountedOnceByPRQueryNode() {
+    distinctCombiner.accumulate(new HashSet<>(Arrays.asList(1, 2, 3)));
+    distinctCombiner.accumulate(new HashSet<>(Arrays.asList(3, 4)));
+
+    CountDistinctPRQueryNode countDistinct = new CountDistinctPRQueryNode();
+    countDistinct.accumulate(distinctCombiner.terminate());
+    countDistinct.accumulate(new HashSet<>(Arrays.asList(4, 5)));
+
+    assertThat(countDistinct.terminate()).isEqualTo(5);
+  }
+}
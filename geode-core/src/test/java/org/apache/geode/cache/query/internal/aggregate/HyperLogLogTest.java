@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+public class HyperLogLogTest {
+
+  @Test
+  public void emptySketchEstimatesZero() {
+    assertThat(new HyperLogLog().estimate()).isZero();
+  }
+
+  @Test
+  public void smallCardinalitiesAreNearlyExact() {
+    HyperLogLog sketch = new HyperLogLog();
+    for (int i = 0; i < 100; i++) {
+      sketch.offer(i);
+      sketch.offer(i);
+    }
+
+    assertThat(sketch.estimate()).isBetween(95L, 105L);
+  }
+
+  @Test
+  public void largeCardinalitiesAreWithinFivePercent() {
+    HyperLogLog sketch = new HyperLogLog();
+    for (int i = 0; i < 100000; i++) {
+      sketch.offer("value" + i);
+    }
+
+    assertThat(sketch.estimate()).isBetween(95000L, 105000L);
+  }
+
+  @Test
+  public void mergedSketchesEstimateTheUnion() {
+    HyperLogLog first = new HyperLogLog();
+    HyperLogLog second = new HyperLogLog();
+    for (long i = 0; i < 20000; i++) {
+      first.offer(i);
+      second.offer(i + 10000);
+    }
+
+    first.merge(second.getRegisters());
+
+    assertThat(first.estimate()).isBetween(28500L, 31500L);
+  }
+
+  @Test
+  public void mergeRejectsRegistersOfAnotherSize() {
+    assertThatThrownBy(() -> new HyperLogLog().merge(new byte[16]))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+public class IndexEntrySetTest {
+
+  private static List<Object> newEntries(int count) {
+    List<Object> entries = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      entries.add(new Object());
+    }
+    return entries;
+  }
+
+  @Test
+  public void addsEachEntryOnce() {
+    IndexEntrySet set = new IndexEntrySet(4);
+    List<Object> entries = newEntries(1000);
+
+    for (Object entry : entries) {
+      assertThat(set.add(entry)).isTrue();
+    }
+    for (Object entry : entries) {
+      assertThat(set.add(entry)).isFalse();
+    }
+
+    assertThat(set).hasSize(1000).containsExactlyInAnyOrderElementsOf(entries);
+  }
+
+  @Test
+  public void entriesAreComparedByIdentity() {
+    IndexEntrySet set = new IndexEntrySet(4);
+    set.add("key");
+
+    assertThat(set.contains(new String("key"))).isFalse();
+    assertThat(set.remove(new String("key"))).isFalse();
+  }
+
+  @Test
+  public void removedEntriesCanBeAddedAgain() {
+    IndexEntrySet set = new IndexEntrySet(4);
+    List<Object> entries = newEntries(200);
+    set.addAll(entries);
+
+    for (int i = 0; i < 200; i += 2) {
+      assertThat(set.remove(entries.get(i))).isTrue();
+    }
+    assertThat(set).hasSize(100).doesNotContain(entries.get(0));
+
+    for (Object entry : entries) {
+      set.add(entry);
+    }
+    assertThat(set).hasSize(200).containsExactlyInAnyOrderElementsOf(entries);
+  }
+
+  @Test
+  public void removingAllEntriesEmptiesTheSet() {
+    IndexEntrySet set = new IndexEntrySet(4);
+    List<Object> entries = newEntries(50);
+    set.addAll(entries);
+
+    set.removeAll(entries);
+
+    assertThat(set.isEmpty()).isTrue();
+    assertThat(set.iterator().hasNext()).isFalse();
+  }
+
+  @Test
+  public void iteratorReturnsEntriesAddedBeforeAResize() {
+    IndexEntrySet set = new IndexEntrySet(4);
+    List<Object> entries = newEntries(10);
+    set.addAll(entries);
+
+    Iterator<Object> iterator = set.iterator();
+    // forces a resize while iterating
+    set.addAll(newEntries(1000));
+
+    List<Object> iterated = new ArrayList<>();
+    iterator.forEachRemaining(iterated::add);
+    assertThat(iterated).containsAll(entries).doesNotHaveDuplicates();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+
+public class IndexHistogramTest {
+
+  private final Comparator comparator = TypeUtils.getExtendedNumericComparator();
+
+  @Test
+  public void uniformKeysAreEstimatedByInterpolation() {
+    TreeMap<Object, Object> map = new TreeMap<>(comparator);
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, Arrays.asList("a", "b"));
+    }
+
+    IndexHistogram histogram = IndexHistogram.build(map, comparator, 2000, 10);
+
+    assertThat(histogram.getTotalCount()).isEqualTo(2000);
+    assertThat(histogram.getDistinctKeys()).isEqualTo(1000);
+    assertThat(histogram.getBucketCount()).isEqualTo(10);
+    assertThat(histogram.estimateLessThan(-1)).isZero();
+    assertThat(histogram.estimateLessThan(250)).isBetween(480L, 520L);
+    assertThat(histogram.estimateLessThan(2500.5d)).isEqualTo(2000);
+  }
+
+  @Test
+  public void frequentKeyIsEstimatedSeparately() {
+    TreeMap<Object, Object> map = new TreeMap<>(comparator);
+    for (int i = 0; i < 100; i++) {
+      map.put(i, "single");
+    }
+    map.put(100, Collections.nCopies(900, "frequent"));
+
+    IndexHistogram histogram = IndexHistogram.build(map, comparator, 1000, 10);
+
+    // all keys below the frequent key hold a tenth of the values
+    assertThat(histogram.estimateLessThan(100)).isEqualTo(100);
+    assertThat(histogram.estimateLessThan(101)).isEqualTo(1000);
+  }
+
+  @Test
+  public void nonNumericKeysUseHalfOfTheirBucket() {
+    TreeMap<Object, Object> map = new TreeMap<>(comparator);
+    for (char c = 'a'; c <= 'z'; c++) {
+      map.put(String.valueOf(c), "value");
+    }
+
+    IndexHistogram histogram = IndexHistogram.build(map, comparator, 26, 26);
+
+    assertThat(histogram.estimateLessThan("a")).isZero();
+    assertThat(histogram.estimateLessThan("m")).isEqualTo(12);
+    assertThat(histogram.estimateLessThan("zz")).isEqualTo(26);
+  }
+
+  @Test
+  public void nullAndUndefinedKeysAreNotCounted() {
+    TreeMap<Object, Object> map = new TreeMap<>(comparator);
+    map.put(IndexManager.NULL, "null");
+    map.put(QueryService.UNDEFINED, "undefined");
+    map.put(1, "one");
+
+    IndexHistogram histogram = IndexHistogram.build(map, comparator, 3, 10);
+
+    assertThat(histogram.getTotalCount()).isEqualTo(1);
+    assertThat(histogram.getDistinctKeys()).isEqualTo(1);
+  }
+
+  @Test
+  public void lastBucketTakesKeysBeyondExpectedCount() {
+    TreeMap<Object, Object> map = new TreeMap<>(comparator);
+    for (int i = 0; i < 100; i++) {
+      map.put(i, "value");
+    }
+
+    IndexHistogram histogram = IndexHistogram.build(map, comparator, 10, 5);
+
+    assertThat(histogram.getBucketCount()).isEqualTo(5);
+    assertThat(histogram.getTotalCount()).isEqualTo(100);
+  }
+
+  @Test
+  public void emptyHistogramEstimatesNothing() {
+    IndexHistogram histogram =
+        IndexHistogram.build(new TreeMap<>(comparator), comparator, 0, 10);
+
+    assertThat(histogram.estimateLessThan(5)).isZero();
+  }
+
+  @Test
+  public void incomparableKeyThrowsClassCastException() {
+    TreeMap<Object, Object> map = new TreeMap<>(comparator);
+    map.put(1, "one");
+
+    IndexHistogram histogram = IndexHistogram.build(map, comparator, 1, 10);
+
+    assertThatThrownBy(() -> histogram.estimateLessThan("one"))
+        .isInstanceOf(ClassCastException.class);
+  }
+}
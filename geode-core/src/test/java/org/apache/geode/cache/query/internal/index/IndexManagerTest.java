@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.cache.query.internal.index.IndexManager.ADD_ENTRY;
+import static org.apache.geode.cache.query.internal.index.IndexManager.REMOVE_ENTRY;
+import static org.apache.geode.cache.query.internal.index.IndexManager.UPDATE_ENTRY;
+import static org.apache.geode.cache.query.internal.index.IndexProtocol.AFTER_UPDATE_OP;
+import static org.apache.geode.cache.query.internal.index.IndexProtocol.BEFORE_UPDATE_OP;
+import static org.apache.geode.cache.query.internal.index.IndexProtocol.OTHER_OP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.RegionEntry;
+
+public class IndexManagerTest {
+
+  private final RegionEntry first = mock(RegionEntry.class);
+  private final RegionEntry second = mock(RegionEntry.class);
+
+  private static Object[] task(int action, RegionEntry entry, int opCode) {
+    return new Object[] {action, entry, opCode};
+  }
+
+  @Test
+  public void repeatedUpdatesOfAnEntryAreAppliedOnce() {
+    Object[] update1 = task(UPDATE_ENTRY, first, AFTER_UPDATE_OP);
+    Object[] other = task(UPDATE_ENTRY, second, AFTER_UPDATE_OP);
+    Object[] update2 = task(UPDATE_ENTRY, first, AFTER_UPDATE_OP);
+
+    List<Object[]> coalesced =
+        IndexManager.coalesceIndexUpdates(Arrays.asList(update1, other, update2));
+
+    assertThat(coalesced).containsExactly(other, update2);
+  }
+
+  @Test
+  public void updatesWithBeforeUpdateRemovalAreCoalescedAsPairs() {
+    Object[] remove1 = task(REMOVE_ENTRY, first, BEFORE_UPDATE_OP);
+    Object[] update1 = task(UPDATE_ENTRY, first, AFTER_UPDATE_OP);
+    Object[] remove2 = task(REMOVE_ENTRY, first, BEFORE_UPDATE_OP);
+    Object[] update2 = task(UPDATE_ENTRY, first, AFTER_UPDATE_OP);
+
+    List<Object[]> coalesced =
+        IndexManager.coalesceIndexUpdates(Arrays.asList(remove1, update1, remove2, update2));
+
+    assertThat(coalesced).containsExactly(remove2, update2);
+  }
+
+  @Test
+  public void updatesOfDifferentFormsAreKept() {
+    Object[] remove = task(REMOVE_ENTRY, first, BEFORE_UPDATE_OP);
+    Object[] update1 = task(UPDATE_ENTRY, first, AFTER_UPDATE_OP);
+    Object[] update2 = task(UPDATE_ENTRY, first, AFTER_UPDATE_OP);
+
+    List<Object[]> coalesced =
+        IndexManager.coalesceIndexUpdates(Arrays.asList(remove, update1, update2));
+
+    assertThat(coalesced).containsExactly(remove, update1, update2);
+  }
+
+  @Test
+  public void additionsAndRemovalsAreNeverDropped() {
+    Object[] add = task(ADD_ENTRY, first, OTHER_OP);
+    Object[] update = task(UPDATE_ENTRY, first, AFTER_UPDATE_OP);
+    Object[] remove = task(REMOVE_ENTRY, first, OTHER_OP);
+    Object[] addAgain = task(ADD_ENTRY, first, OTHER_OP);
+
+    List<Object[]> coalesced =
+        IndexManager.coalesceIndexUpdates(Arrays.asList(add, update, remove, addAgain));
+
+    assertThat(coalesced).containsExactly(add, update, remove, addAgain);
+  }
+
+  @Test
+  public void recreateTasksWithoutEntryAreKept() {
+    Object[] recreate = task(IndexManager.RECREATE_INDEX, null, OTHER_OP);
+    Object[] update = task(UPDATE_ENTRY, first, AFTER_UPDATE_OP);
+
+    List<Object[]> coalesced = IndexManager.coalesceIndexUpdates(Arrays.asList(recreate, update));
+
+    assertThat(coalesced).containsExactly(recreate, update);
+  }
+}
@@ -14,8 +14,10 @@
  */
 package org.apache.geode.cache.query.internal.index;
 
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
@@ -345,6 +347,30 @@ public class MemoryIndexStoreJUnitTest {
     assertEquals(0, numObjectsInStore(store));
   }
 
+  @Test
+  public void testHistogramIsBuiltInTheBackground() throws Exception {
+    addMockedEntries(numMockEntries);
+    assertNull(store.getHistogram());
+    await().until(() -> store.getHistogram() != null);
+    assertEquals(numMockEntries, store.getHistogram().getTotalCount());
+  }
+
+  @Test
+  public void testStaleHistogramIsReturnedWhileItIsRebuilt() throws Exception {
+    addMockedEntries(numMockEntries);
+    await().until(() -> store.getHistogram() != null);
+    IndexHistogram first = store.getHistogram();
+    IntStream.range(numMockEntries, numMockEntries + 200).forEach(i -> {
+      try {
+        store.addMapping(i, createRegionEntry(i, new Object()));
+      } catch (Exception e) {
+        throw new AssertionError(e);
+      }
+    });
+    assertEquals(first, store.getHistogram());
+    await().until(() -> store.getHistogram().getTotalCount() == numMockEntries + 200);
+  }
+
   private int numObjectsInStore(MemoryIndexStore store) {
     Iterator iterator = store.iterator(null);
     return numObjectsIterated(iterator);
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeflateCompressorTest {
+
+  private List<byte[]> samples;
+
+  @Before
+  public void setUp() {
+    samples = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      samples.add(("{\"className\":\"com.example.Customer\",\"name\":\"customer" + i
+          + "\",\"address\":\"Main Street " + (i % 50) + "\",\"status\":\"ACTIVE\"}")
+              .getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void roundTripsWithoutDictionary() {
+    DeflateCompressor compressor = new DeflateCompressor();
+
+    for (byte[] sample : samples) {
+      assertThat(compressor.decompress(compressor.compress(sample))).isEqualTo(sample);
+    }
+    assertThat(compressor.decompress(compressor.compress(new byte[0]))).isEmpty();
+  }
+
+  @Test
+  public void trainedDictionaryImprovesRatio() {
+    byte[] dictionary = DeflateCompressor.trainDictionary(samples, 4096);
+    DeflateCompressor plain = new DeflateCompressor();
+    DeflateCompressor trained = new DeflateCompressor(6, dictionary);
+
+    long plainSize = 0;
+    long trainedSize = 0;
+    for (byte[] sample : samples) {
+      plainSize += plain.compress(sample).length;
+      byte[] compressed = trained.compress(sample);
+      trainedSize += compressed.length;
+      assertThat(trained.decompress(compressed)).isEqualTo(sample);
+    }
+
+    assertThat(dictionary.length).isLessThanOrEqualTo(4096);
+    assertThat(trainedSize).isLessThan(plainSize / 2);
+  }
+
+  @Test
+  public void trainDictionaryIgnoresUnsharedContent() {
+    List<byte[]> unique = new ArrayList<>();
+    unique.add("abcdefghijklmnop".getBytes(StandardCharsets.UTF_8));
+    unique.add("qrstuvwxyz012345".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(DeflateCompressor.trainDictionary(unique, 1024)).isEmpty();
+  }
+
+  @Test
+  public void decompressWithoutDictionaryFails() {
+    byte[] dictionary = DeflateCompressor.trainDictionary(samples, 1024);
+    byte[] compressed = new DeflateCompressor(6, dictionary).compress(samples.get(0));
+
+    assertThatThrownBy(() -> new DeflateCompressor().decompress(compressed))
+        .isInstanceOf(CompressionException.class);
+  }
+
+  @Test
+  public void equalityIncludesLevelAndDictionary() {
+    byte[] dictionary = DeflateCompressor.trainDictionary(samples, 1024);
+    DeflateCompressor compressor = new DeflateCompressor(6, dictionary);
+
+    assertThat(compressor).isEqualTo(new DeflateCompressor(6, dictionary));
+    assertThat(compressor).isNotEqualTo(new DeflateCompressor(6, null));
+    assertThat(compressor).isNotEqualTo(new DeflateCompressor(1, dictionary));
+  }
+
+  @Test
+  public void survivesJavaSerialization() {
+    byte[] dictionary = DeflateCompressor.trainDictionary(samples, 1024);
+    DeflateCompressor compressor = new DeflateCompressor(6, dictionary);
+    byte[] compressed = compressor.compress(samples.get(3));
+
+    DeflateCompressor copy = SerializationUtils.clone(compressor);
+
+    assertThat(copy).isEqualTo(compressor);
+    assertThat(copy.decompress(compressed)).isEqualTo(samples.get(3));
+  }
+
+  @Test
+  public void rejectsInvalidArguments() {
+    assertThatThrownBy(() -> new DeflateCompressor(10, null))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new DeflateCompressor(6, new byte[64 * 1024]))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> DeflateCompressor.trainDictionary(samples, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LZ4CompressorTest {
+
+  private final LZ4Compressor compressor = new LZ4Compressor();
+
+  @Test
+  public void roundTripsEmptyAndShortValues() {
+    assertRoundTrip(new byte[0]);
+    assertRoundTrip("Hello, how are you?".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void roundTripsRandomValues() {
+    Random random = new Random(17);
+    for (int i = 0; i < 500; i++) {
+      byte[] value = new byte[random.nextInt(2000)];
+      int alphabet = 1 + random.nextInt(i % 2 == 0 ? 4 : 256);
+      for (int j = 0; j < value.length; j++) {
+        value[j] = (byte) random.nextInt(alphabet);
+      }
+      assertRoundTrip(value);
+    }
+  }
+
+  @Test
+  public void roundTripsLongOverlappingRuns() {
+    byte[] value = new byte[100_000];
+    Arrays.fill(value, (byte) 'x');
+    value[50_000] = 'y';
+
+    byte[] compressed = compressor.compress(value);
+
+    assertThat(compressed.length).isLessThan(value.length / 100);
+    assertThat(compressor.decompress(compressed)).isEqualTo(value);
+  }
+
+  @Test
+  public void compressesRepetitiveValues() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      builder.append("{\"symbol\":\"GEODE\",\"price\":").append(i).append('}');
+    }
+    byte[] value = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+    assertThat(compressor.compress(value).length).isLessThan(value.length / 3);
+  }
+
+  @Test
+  public void decompressRejectsCorruptInput() {
+    byte[] compressed = compressor.compress("Hello, hello, hello, hello!".getBytes());
+    byte[] truncated = Arrays.copyOf(compressed, compressed.length - 3);
+
+    assertThatThrownBy(() -> compressor.decompress(truncated))
+        .isInstanceOf(CompressionException.class);
+  }
+
+  @Test
+  public void instancesAreEqual() {
+    assertThat(new LZ4Compressor()).isEqualTo(compressor);
+    assertThat(new LZ4Compressor().hashCode()).isEqualTo(compressor.hashCode());
+  }
+
+  private void assertRoundTrip(byte[] value) {
+    assertThat(compressor.decompress(compressor.compress(value))).isEqualTo(value);
+  }
+}
@@ -14,12 +14,17 @@
  */
 package org.apache.geode.internal.cache;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -28,6 +33,9 @@ import org.apache.geode.cache.Operation;
 import org.apache.geode.cache.Region;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
+import org.apache.geode.internal.cache.wan.AbstractGatewaySenderEventProcessor;
+import org.apache.geode.internal.cache.wan.GatewaySenderStats;
+import org.apache.geode.internal.cache.wan.parallel.ConcurrentParallelGatewaySenderQueue;
 import org.apache.geode.internal.cache.wan.parallel.ParallelGatewaySenderHelper;
 import org.apache.geode.test.fake.Fakes;
 
@@ -52,6 +60,11 @@ public class BucketRegionQueueJUnitTest {
     createBucketRegionQueue();
   }
 
+  @After
+  public void resetConflateOnEnqueue() {
+    BucketRegionQueue.CONFLATE_ON_ENQUEUE = false;
+  }
+
   private void createCache() {
     // Mock cache
     this.cache = Fakes.cache();
@@ -120,4 +133,74 @@ public class BucketRegionQueueJUnitTest {
     // Invoke basicDestroy
     this.bucketRegionQueue.basicDestroy(event, true, null, false);
   }
+
+  @Test
+  public void testConflateOldEntryRemovesUnpeekedKeyWhenConflatingOnEnqueue() {
+    BucketRegionQueue.CONFLATE_ON_ENQUEUE = true;
+    ConcurrentParallelGatewaySenderQueue queue = mockConflation();
+    Conflatable object = createConflatable();
+
+    // The first event for the key has been queued but not peeked
+    this.bucketRegionQueue.pushKeyIntoQueue(1L);
+    this.bucketRegionQueue.conflateOldEntry(object, 1L);
+
+    // Queue a newer event for the same key
+    this.bucketRegionQueue.conflateOldEntry(object, 2L);
+
+    // Verify the first event is conflated on enqueue
+    verify(queue).conflateQueuedEvent(object, BUCKET_ID, 1L);
+    verify(queue, never()).conflateEvent(any(), anyInt(), anyLong());
+
+    // Make the first event's key the latest again, then supersede it. It was taken off the
+    // dispatch order above, so this time it is left to the conflation thread pool.
+    this.bucketRegionQueue.conflateOldEntry(object, 1L);
+    this.bucketRegionQueue.conflateOldEntry(object, 3L);
+    verify(queue).conflateEvent(object, BUCKET_ID, 1L);
+  }
+
+  @Test
+  public void testConflateOldEntryLeavesPeekedKeyToConflationThreadPool() {
+    BucketRegionQueue.CONFLATE_ON_ENQUEUE = true;
+    ConcurrentParallelGatewaySenderQueue queue = mockConflation();
+    Conflatable object = createConflatable();
+
+    // The first event for the key has already been peeked, so its key is not in the queue
+    this.bucketRegionQueue.conflateOldEntry(object, 1L);
+    this.bucketRegionQueue.conflateOldEntry(object, 2L);
+
+    verify(queue).conflateEvent(object, BUCKET_ID, 1L);
+    verify(queue, never()).conflateQueuedEvent(any(), anyInt(), anyLong());
+  }
+
+  @Test
+  public void testConflateOldEntryUsesConflationThreadPoolWhenNotConflatingOnEnqueue() {
+    ConcurrentParallelGatewaySenderQueue queue = mockConflation();
+    Conflatable object = createConflatable();
+
+    this.bucketRegionQueue.pushKeyIntoQueue(1L);
+    this.bucketRegionQueue.conflateOldEntry(object, 1L);
+    this.bucketRegionQueue.conflateOldEntry(object, 2L);
+
+    verify(queue).conflateEvent(object, BUCKET_ID, 1L);
+    verify(queue, never()).conflateQueuedEvent(any(), anyInt(), anyLong());
+  }
+
+  private ConcurrentParallelGatewaySenderQueue mockConflation() {
+    when(this.queueRegion.isConflationEnabled()).thenReturn(true);
+    when(this.sender.getStatistics()).thenReturn(mock(GatewaySenderStats.class));
+    AbstractGatewaySenderEventProcessor processor =
+        mock(AbstractGatewaySenderEventProcessor.class);
+    when(this.sender.getEventProcessor()).thenReturn(processor);
+    ConcurrentParallelGatewaySenderQueue queue = mock(ConcurrentParallelGatewaySenderQueue.class);
+    when(processor.getQueue()).thenReturn(queue);
+    return queue;
+  }
+
+  private Conflatable createConflatable() {
+    Conflatable object = mock(Conflatable.class);
+    when(object.shouldBeConflated()).thenReturn(true);
+    when(object.getRegionToConflate()).thenReturn("/region");
+    when(object.getKeyToConflate()).thenReturn("key");
+    return object;
+  }
 }
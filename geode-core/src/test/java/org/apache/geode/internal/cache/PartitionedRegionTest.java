@@ -18,6 +18,7 @@ import static org.apache.geode.cache.asyncqueue.internal.AsyncEventQueueImpl.get
 import static org.apache.geode.internal.statistics.StatisticsClockFactory.disabledClock;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -32,13 +33,19 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import junitparams.JUnitParamsRunner;
@@ -48,6 +55,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import org.apache.geode.CancelCriterion;
+import org.apache.geode.InternalGemFireException;
 import org.apache.geode.Statistics;
 import org.apache.geode.cache.AttributesFactory;
 import org.apache.geode.cache.CacheLoader;
@@ -345,4 +353,79 @@ public class PartitionedRegionTest {
 
     assertThatCode(() -> prSpy.generatePRId(mockSystem)).doesNotThrowAnyException();
   }
+
+  @Test
+  public void bucketIndexTasksRunOnCallingThreadWithOneThread() {
+    List<Callable<Thread>> tasks = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      tasks.add(Thread::currentThread);
+    }
+
+    List<Thread> threads =
+        PartitionedRegion.invokeBucketIndexTasks(tasks, 1, mock(CancelCriterion.class));
+
+    assertThat(threads).hasSize(4).containsOnly(Thread.currentThread());
+  }
+
+  @Test
+  public void bucketIndexTasksReturnResultsInTaskOrderWithThreads() {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      int result = i;
+      tasks.add(() -> {
+        threads.add(Thread.currentThread());
+        Thread.sleep(20 - result);
+        return result;
+      });
+    }
+
+    List<Integer> results =
+        PartitionedRegion.invokeBucketIndexTasks(tasks, 4, mock(CancelCriterion.class));
+
+    assertThat(results).isEqualTo(IntStream.range(0, 20).boxed().collect(Collectors.toList()));
+    assertThat(threads).isNotEmpty().doesNotContain(Thread.currentThread());
+  }
+
+  @Test
+  public void bucketIndexTasksRunOnAtMostMaxThreads() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<Callable<Object>> tasks = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      tasks.add(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(10);
+        running.decrementAndGet();
+        return null;
+      });
+    }
+
+    PartitionedRegion.invokeBucketIndexTasks(tasks, 2, mock(CancelCriterion.class));
+
+    assertThat(maxRunning.get()).isBetween(1, 2);
+  }
+
+  @Test
+  public void bucketIndexTaskRuntimeExceptionIsRethrown() {
+    List<Callable<Object>> tasks = Arrays.asList(() -> null, () -> {
+      throw new IllegalStateException("bucket failed");
+    });
+
+    assertThatThrownBy(
+        () -> PartitionedRegion.invokeBucketIndexTasks(tasks, 4, mock(CancelCriterion.class)))
+            .isInstanceOf(IllegalStateException.class).hasMessage("bucket failed");
+  }
+
+  @Test
+  public void bucketIndexTaskCheckedExceptionIsWrapped() {
+    List<Callable<Object>> tasks = Arrays.asList(() -> null, () -> {
+      throw new Exception("bucket failed");
+    });
+
+    assertThatThrownBy(
+        () -> PartitionedRegion.invokeBucketIndexTasks(tasks, 4, mock(CancelCriterion.class)))
+            .isInstanceOf(InternalGemFireException.class)
+            .hasRootCauseMessage("bucket failed");
+  }
 }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.RegionEntryContext;
+
+public class DecompressedValueCacheTest {
+
+  private Compressor compressor;
+  private CachePerfStats stats;
+  private RegionEntryContext context;
+
+  @Before
+  public void setUp() {
+    compressor = mock(Compressor.class);
+    when(compressor.decompress(any())).thenAnswer(invocation -> {
+      byte[] compressed = invocation.getArgument(0);
+      byte[] decompressed = new byte[compressed.length * 2];
+      System.arraycopy(compressed, 0, decompressed, 0, compressed.length);
+      return decompressed;
+    });
+    stats = mock(CachePerfStats.class);
+    context = mock(RegionEntryContext.class);
+    when(context.getCompressor()).thenReturn(compressor);
+    when(context.getCachePerfStats()).thenReturn(stats);
+  }
+
+  @Test
+  public void repeatedReadOfSameValueIsServedFromCache() {
+    DecompressedValueCache cache = new DecompressedValueCache(16, 1024);
+    byte[] compressed = new byte[] {1, 2, 3};
+
+    byte[] first = cache.decompress(context, compressed);
+    byte[] second = cache.decompress(context, compressed);
+
+    assertThat(second).isSameAs(first);
+    verify(compressor, times(1)).decompress(compressed);
+    verify(stats, times(1)).startDecompression();
+    verify(stats, times(1)).incDecompressedValueCacheHits();
+  }
+
+  @Test
+  public void updatedValueIsNotServedFromCache() {
+    DecompressedValueCache cache = new DecompressedValueCache(1, 1024);
+    byte[] oldValue = new byte[] {1, 2, 3};
+    byte[] newValue = new byte[] {1, 2, 3};
+
+    cache.decompress(context, oldValue);
+    cache.decompress(context, newValue);
+
+    verify(compressor, times(1)).decompress(oldValue);
+    verify(compressor, times(1)).decompress(newValue);
+    verify(stats, times(0)).incDecompressedValueCacheHits();
+  }
+
+  @Test
+  public void largeValuesAreNotCached() {
+    DecompressedValueCache cache = new DecompressedValueCache(16, 4);
+    byte[] compressed = new byte[] {1, 2, 3};
+
+    cache.decompress(context, compressed);
+    cache.decompress(context, compressed);
+
+    verify(compressor, times(2)).decompress(compressed);
+  }
+
+  @Test
+  public void clearDropsCachedValues() {
+    DecompressedValueCache cache = new DecompressedValueCache(16, 1024);
+    byte[] compressed = new byte[] {1, 2, 3};
+    cache.decompress(context, compressed);
+
+    cache.clear();
+    cache.decompress(context, compressed);
+
+    verify(compressor, times(2)).decompress(compressed);
+  }
+
+  @Test
+  public void capacityIsRoundedUpToPowerOfTwo() {
+    assertThat(new DecompressedValueCache(100, 1024).getCapacity()).isEqualTo(128);
+    assertThat(new DecompressedValueCache(64, 1024).getCapacity()).isEqualTo(64);
+  }
+
+  @Test
+  public void createReturnsNullWithoutCompressor() {
+    assertThat(DecompressedValueCache.create(null)).isNull();
+  }
+}
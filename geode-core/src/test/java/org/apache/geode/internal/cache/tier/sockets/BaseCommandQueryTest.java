@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.apache.geode.internal.cache.tier.sockets.BaseCommand.MAXIMUM_CHUNK_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.CqEntry;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.StructImpl;
+import org.apache.geode.cache.query.internal.cq.ServerCQ;
+import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
+import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.cache.query.types.ObjectType;
+import org.apache.geode.internal.cache.tier.CachedRegionHelper;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class BaseCommandQueryTest {
+
+  private final BaseCommandQuery command = new BaseCommandQuery() {
+    @Override
+    public void cmdExecute(Message clientMessage, ServerConnection serverConnection,
+        SecurityService securityService, long start) {
+      // only processQuery is tested
+    }
+  };
+
+  private Message message;
+  private DefaultQuery query;
+  private ServerConnection serverConnection;
+  private ChunkedMessage queryResponseMessage;
+
+  @Before
+  public void setUp() {
+    message = mock(Message.class);
+    query = mock(DefaultQuery.class);
+    serverConnection = mock(ServerConnection.class);
+    queryResponseMessage = mock(ChunkedMessage.class);
+    when(serverConnection.getQueryResponseMessage()).thenReturn(queryResponseMessage);
+    when(serverConnection.getCacheServerStats()).thenReturn(mock(CacheServerStats.class));
+    when(serverConnection.getCachedRegionHelper()).thenReturn(mock(CachedRegionHelper.class));
+    when(serverConnection.getClientVersion()).thenReturn(Version.CURRENT);
+  }
+
+  @Test
+  public void resultsAreSentInFullChunksBuiltFromTheirIterator() throws Exception {
+    List<Object> values = IntStream.range(0, 2 * MAXIMUM_CHUNK_SIZE + 1).boxed()
+        .collect(Collectors.toList());
+    SelectResults selectResults = mockSelectResults(values, TypeUtils.OBJECT_TYPE);
+
+    assertThat(processQuery(selectResults, null)).isTrue();
+
+    List<Object[]> chunks = getSentChunks(3);
+    assertThat(chunks).extracting(chunk -> chunk.length)
+        .containsExactly(MAXIMUM_CHUNK_SIZE, MAXIMUM_CHUNK_SIZE, 1);
+    assertThat(flatten(chunks)).isEqualTo(values);
+    verifyLastChunkFlags(false, false, true);
+    verify(selectResults, never()).toArray();
+    verify(selectResults, never()).asList();
+  }
+
+  @Test
+  public void oneEmptyChunkIsSentForEmptyResults() throws Exception {
+    SelectResults selectResults =
+        mockSelectResults(Collections.emptyList(), TypeUtils.OBJECT_TYPE);
+
+    assertThat(processQuery(selectResults, null)).isTrue();
+
+    assertThat(getSentChunks(1).get(0)).isEmpty();
+    verifyLastChunkFlags(true);
+  }
+
+  @Test
+  public void fieldValuesOfStructsAreSent() throws Exception {
+    StructTypeImpl structType = new StructTypeImpl(new String[] {"id", "name"});
+    List<Object> values = new ArrayList<>();
+    values.add(new StructImpl(structType, new Object[] {1, "one"}));
+    values.add(new StructImpl(structType, new Object[] {2, "two"}));
+    SelectResults selectResults = mockSelectResults(values, structType);
+
+    assertThat(processQuery(selectResults, null)).isTrue();
+
+    assertThat(getSentChunks(1).get(0))
+        .containsExactly(new Object[] {1, "one"}, new Object[] {2, "two"});
+  }
+
+  @Test
+  public void cqEntriesWithoutValueAreSkippedWithoutLeavingChunksShort() throws Exception {
+    List<Object> values = new ArrayList<>();
+    values.add(new CqEntry("invalidated", null));
+    for (int i = 0; i < MAXIMUM_CHUNK_SIZE + 1; i++) {
+      values.add(new CqEntry("key" + i, i));
+    }
+    SelectResults selectResults = mockSelectResults(values, TypeUtils.OBJECT_TYPE);
+    ServerCQ cqQuery = mock(ServerCQ.class);
+
+    assertThat(processQuery(selectResults, cqQuery)).isTrue();
+
+    List<Object[]> chunks = getSentChunks(2);
+    assertThat(chunks).extracting(chunk -> chunk.length).containsExactly(MAXIMUM_CHUNK_SIZE, 1);
+    assertThat(chunks.get(0)[0]).isEqualTo(new Object[] {"key0", 0});
+    verifyLastChunkFlags(false, true);
+    verify(cqQuery, never()).addToCqResultKeys("invalidated");
+    verify(cqQuery, times(MAXIMUM_CHUNK_SIZE + 1)).addToCqResultKeys(any());
+    verify(cqQuery).setCqResultsCacheInitialized();
+  }
+
+  private SelectResults mockSelectResults(List<Object> values, ObjectType elementType) {
+    SelectResults selectResults = mock(SelectResults.class);
+    when(selectResults.iterator()).thenAnswer(invocation -> values.iterator());
+    when(selectResults.size()).thenReturn(values.size());
+    when(selectResults.getCollectionType())
+        .thenReturn(new CollectionTypeImpl(List.class, elementType));
+    when(query.execute()).thenReturn(selectResults);
+    return selectResults;
+  }
+
+  private boolean processQuery(SelectResults selectResults, ServerCQ cqQuery) throws Exception {
+    return command.processQuery(message, query, "SELECT * FROM /region",
+        Collections.emptySet(), 0, cqQuery, null, serverConnection, true,
+        mock(SecurityService.class));
+  }
+
+  /**
+   * Returns the results of each chunk sent, the second of the two parts added for each chunk.
+   */
+  private List<Object[]> getSentChunks(int numberOfChunks) throws IOException {
+    ArgumentCaptor<Object> parts = ArgumentCaptor.forClass(Object.class);
+    verify(queryResponseMessage, times(2 * numberOfChunks)).addObjPart(parts.capture(),
+        eq(false));
+    verify(queryResponseMessage, times(numberOfChunks)).sendChunk(serverConnection);
+    List<Object[]> chunks = new ArrayList<>();
+    for (int i = 1; i < parts.getAllValues().size(); i += 2) {
+      chunks.add((Object[]) parts.getAllValues().get(i));
+    }
+    return chunks;
+  }
+
+  private void verifyLastChunkFlags(Boolean... flags) {
+    ArgumentCaptor<Boolean> lastChunk = ArgumentCaptor.forClass(Boolean.class);
+    verify(queryResponseMessage, times(flags.length)).setLastChunk(lastChunk.capture());
+    assertThat(lastChunk.getAllValues()).containsExactly(flags);
+  }
+
+  private static List<Object> flatten(List<Object[]> chunks) {
+    List<Object> values = new ArrayList<>();
+    for (Object[] chunk : chunks) {
+      Collections.addAll(values, chunk);
+    }
+    return values;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.control.MemoryThresholds.MemoryState;
+
+public class GatewayReceiverAdmissionTest {
+
+  @Test
+  public void creditIsWhatIsLeftOfMaximum() {
+    assertThat(GatewayReceiverAdmission.getCredit(1000, 300, MemoryState.NORMAL, 1))
+        .isEqualTo(700);
+  }
+
+  @Test
+  public void creditIsSharedOutAmongConnections() {
+    assertThat(GatewayReceiverAdmission.getCredit(1000, 300, MemoryState.NORMAL, 4))
+        .isEqualTo(175);
+  }
+
+  @Test
+  public void creditOfAllConnectionsDoesNotExceedWhatIsLeft() {
+    int connections = 3;
+    int credit = GatewayReceiverAdmission.getCredit(1000, 0, MemoryState.NORMAL, connections);
+
+    assertThat(credit * connections).isLessThanOrEqualTo(1000);
+  }
+
+  @Test
+  public void creditIsWhatIsLeftWithoutConnectionCount() {
+    assertThat(GatewayReceiverAdmission.getCredit(1000, 300, MemoryState.NORMAL, 0))
+        .isEqualTo(700);
+  }
+
+  @Test
+  public void creditIsNeverNegative() {
+    assertThat(GatewayReceiverAdmission.getCredit(1000, 1500, MemoryState.DISABLED, 1)).isZero();
+  }
+
+  @Test
+  public void creditIsHalvedAboveEvictionThreshold() {
+    assertThat(GatewayReceiverAdmission.getCredit(1000, 0, MemoryState.EVICTION, 2))
+        .isEqualTo(250);
+  }
+
+  @Test
+  public void noCreditAboveCriticalThreshold() {
+    assertThat(GatewayReceiverAdmission.getCredit(1000, 0, MemoryState.CRITICAL, 1)).isZero();
+    assertThat(GatewayReceiverAdmission.getCredit(1000, 0, MemoryState.EVICTION_CRITICAL, 1))
+        .isZero();
+  }
+}
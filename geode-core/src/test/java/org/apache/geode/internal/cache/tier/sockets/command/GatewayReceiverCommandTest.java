@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
+import org.apache.shiro.util.ThreadState;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.EntryEventImpl;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.tier.CachedRegionHelper;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.command.GatewayReceiverCommand.ReceivedBatch;
+import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
+import org.apache.geode.internal.security.AuthorizeRequest;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.PdxRegistryMismatchException;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.PeerTypeRegistration;
+import org.apache.geode.pdx.internal.TypeRegistry;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class GatewayReceiverCommandTest {
+
+  private static final String REGION_NAME = "region1";
+  private static final int LANES = 4;
+
+  @Mock
+  private Message message;
+  @Mock
+  private ServerConnection serverConnection;
+  @Mock
+  private SecurityService securityService;
+  @Mock
+  private CachedRegionHelper crHelper;
+  @Mock
+  private InternalCache cache;
+  @Mock
+  private LocalRegion localRegion;
+  @Mock
+  private GatewayReceiverStats stats;
+  @Mock
+  private TypeRegistry typeRegistry;
+
+  private final List<Part> parts = new ArrayList<>();
+  private final List<Object> destroyedKeys = Collections.synchronizedList(new ArrayList<>());
+  private final List<Long> destroyedSequenceIds =
+      Collections.synchronizedList(new ArrayList<>());
+  private final List<Thread> destroyingThreads = Collections.synchronizedList(new ArrayList<>());
+
+  private GatewayReceiverCommand command;
+
+  @Before
+  public void setUp() throws Exception {
+    MockitoAnnotations.initMocks(this);
+    command = (GatewayReceiverCommand) GatewayReceiverCommand.getCommand();
+
+    when(message.getPart(anyInt())).thenAnswer(invocation -> parts.get(invocation.getArgument(0)));
+    when(serverConnection.getCachedRegionHelper()).thenReturn(crHelper);
+    when(serverConnection.getClientVersion()).thenReturn(Version.CURRENT);
+    when(crHelper.getCacheForGatewayCommand()).thenReturn(cache);
+    when(cache.getRegion(anyString())).thenReturn(localRegion);
+    when(cache.getPdxRegistry()).thenReturn(typeRegistry);
+
+    InternalDistributedSystem system = mock(InternalDistributedSystem.class);
+    DistributionManager distributionManager = mock(DistributionManager.class);
+    when(cache.getDistributedSystem()).thenReturn(system);
+    when(system.getDistributionManager()).thenReturn(distributionManager);
+    when(system.getDistributedMember()).thenReturn(mock(InternalDistributedMember.class));
+
+    doAnswer(invocation -> {
+      EntryEventImpl clientEvent = invocation.getArgument(4);
+      destroyedKeys.add(invocation.getArgument(0));
+      destroyedSequenceIds.add(clientEvent.getEventId().getSequenceID());
+      destroyingThreads.add(Thread.currentThread());
+      return null;
+    }).when(localRegion).basicBridgeDestroy(any(), any(), any(), anyBoolean(), any());
+  }
+
+  @After
+  public void tearDown() {
+    ThreadContext.unbindSubject();
+  }
+
+  @Test
+  public void getLaneIsStableAndInRangeForRegionsThatAreNotPartitioned() throws Exception {
+    addDestroy("key1", 1);
+    addDestroy("key1", 2);
+    addDestroy("key2", 3);
+    ReceivedBatch batch = createBatch(3);
+
+    int lane = GatewayReceiverCommand.getLane(batch, 0);
+
+    assertThat(GatewayReceiverCommand.getLane(batch, 7)).isEqualTo(lane);
+    assertThat(lane).isBetween(0, LANES - 1);
+    assertThat(GatewayReceiverCommand.getLane(batch, 14)).isBetween(0, LANES - 1);
+  }
+
+  @Test
+  public void getLaneIsTheSameForKeysOfTheSameBucket() throws Exception {
+    PartitionedRegion partitionedRegion = mock(PartitionedRegion.class);
+    when(partitionedRegion.getTotalNumberOfBuckets()).thenReturn(113);
+    when(cache.getRegion(REGION_NAME)).thenReturn(partitionedRegion);
+    addDestroy(1, 1);
+    addDestroy(114, 2);
+    ReceivedBatch batch = createBatch(2);
+
+    assertThat(GatewayReceiverCommand.getLane(batch, 7))
+        .isEqualTo(GatewayReceiverCommand.getLane(batch, 0));
+  }
+
+  @Test
+  public void parallelLanesKeepTheOrderOfEachKey() throws Exception {
+    for (int i = 0; i < 16; i++) {
+      addDestroy("key" + (i % LANES), i);
+    }
+    ReceivedBatch batch = createBatch(16);
+
+    command.applyBatch(batch, 0);
+
+    assertThat(destroyedKeys).hasSize(16);
+    Map<Object, List<Long>> sequenceIdsByKey = new HashMap<>();
+    for (int i = 0; i < destroyedKeys.size(); i++) {
+      sequenceIdsByKey.computeIfAbsent(destroyedKeys.get(i), key -> new ArrayList<>())
+          .add(destroyedSequenceIds.get(i));
+    }
+    assertThat(sequenceIdsByKey).hasSize(LANES);
+    for (List<Long> sequenceIds : sequenceIdsByKey.values()) {
+      assertThat(sequenceIds).isSorted();
+    }
+    assertThat(batch.exceptions).isEmpty();
+    verify(serverConnection, atLeastOnce()).setModificationInfo(eq(true), eq(REGION_NAME), any());
+  }
+
+  @Test
+  public void parallelLanesRunWithTheSubjectOfTheConnectionThread() throws Exception {
+    Subject subject = mock(Subject.class);
+    ThreadState threadState = mock(ThreadState.class);
+    when(securityService.bindSubject(subject)).thenReturn(threadState);
+    ThreadContext.bind(subject);
+    // consecutive keys have consecutive hash codes, so each gets its own lane
+    for (int i = 0; i < LANES; i++) {
+      addDestroy("key" + i, i);
+    }
+
+    command.applyBatch(createBatch(LANES), 0);
+
+    assertThat(destroyedKeys).hasSize(LANES);
+    verify(securityService, times(LANES - 1)).bindSubject(subject);
+    verify(threadState, times(LANES - 1)).clear();
+  }
+
+  @Test
+  public void exceptionsAreReportedInBatchOrder() throws Exception {
+    doThrow(new RuntimeException("failed")).when(localRegion).basicBridgeDestroy(eq("key1"),
+        any(), any(), anyBoolean(), any());
+    doThrow(new RuntimeException("failed")).when(localRegion).basicBridgeDestroy(eq("key3"),
+        any(), any(), anyBoolean(), any());
+    doThrow(new RuntimeException("failed")).when(localRegion).basicBridgeDestroy(eq("key6"),
+        any(), any(), anyBoolean(), any());
+    for (int i = 0; i < 8; i++) {
+      addDestroy("key" + i, i);
+    }
+    ReceivedBatch batch = createBatch(8);
+
+    command.applyBatch(batch, 0);
+
+    assertThat(batch.exceptions.stream().map(BatchException70::getIndex)
+        .collect(Collectors.toList())).containsExactly(1, 3, 6);
+  }
+
+  @Test
+  public void pdxRegistryMismatchStopsTheBatch() throws Exception {
+    doThrow(new RuntimeException(new PdxRegistryMismatchException("mismatch")))
+        .when(typeRegistry).addRemoteType(anyInt(), any());
+    addPdxType(1, new PdxType("Order", false));
+    for (int i = 0; i < 8; i++) {
+      addDestroy("key" + i, i);
+    }
+    ReceivedBatch batch = createBatch(9);
+
+    command.applyBatch(batch, 0);
+
+    assertThat(batch.fatalException).isInstanceOf(PdxRegistryMismatchException.class);
+    assertThat(batch.exceptions).isEmpty();
+    verify(localRegion, never()).basicBridgeDestroy(any(), any(), any(), anyBoolean(), any());
+  }
+
+  @Test
+  public void batchIsAppliedByTheConnectionThreadWithAnAuthorizationCallback() throws Exception {
+    AuthorizeRequest authzRequest = mock(AuthorizeRequest.class);
+    when(serverConnection.getAuthzRequest()).thenReturn(authzRequest);
+    List<Object> keys = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      keys.add("key" + i);
+      addDestroy("key" + i, i);
+    }
+
+    command.applyBatch(createBatch(8), 0);
+
+    assertThat(destroyedKeys).isEqualTo(keys);
+    assertThat(destroyingThreads).containsOnly(Thread.currentThread());
+    verify(authzRequest, times(8)).destroyAuthorize(eq(REGION_NAME), any(), any());
+  }
+
+  @Test
+  public void batchIsAppliedByTheConnectionThreadWithOneLane() throws Exception {
+    List<Object> keys = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      keys.add("key" + i);
+      addDestroy("key" + i, i);
+    }
+
+    command.applyBatch(new ReceivedBatch(message, serverConnection, securityService, crHelper,
+        stats, 1, 8, 1, true, 1), 0);
+
+    assertThat(destroyedKeys).isEqualTo(keys);
+    assertThat(destroyingThreads).containsOnly(Thread.currentThread());
+  }
+
+  private ReceivedBatch createBatch(int numberOfEvents) {
+    return new ReceivedBatch(message, serverConnection, securityService, crHelper, stats, 1,
+        numberOfEvents, 1, true, LANES);
+  }
+
+  private void addDestroy(Object key, long sequenceId) throws Exception {
+    parts.add(intPart(2));
+    parts.add(objectPart(new byte[] {0}));
+    parts.add(stringPart(REGION_NAME));
+    parts.add(objectPart(new EventID(new byte[] {1}, 1, sequenceId)));
+    parts.add(keyPart(key));
+    parts.add(objectPart(new byte[] {0}));
+    parts.add(longPart(0));
+  }
+
+  private void addPdxType(int typeId, PdxType pdxType) throws Exception {
+    parts.add(intPart(0));
+    parts.add(objectPart(new byte[] {0}));
+    parts.add(stringPart(PeerTypeRegistration.REGION_FULL_PATH));
+    parts.add(objectPart(new EventID(new byte[] {1}, 2, typeId)));
+    parts.add(keyPart(typeId));
+    Part valuePart = mock(Part.class);
+    when(valuePart.getSerializedForm()).thenReturn(BlobHelper.serializeToBlob(pdxType));
+    when(valuePart.isObject()).thenReturn(true);
+    parts.add(valuePart);
+    parts.add(objectPart(new byte[] {0}));
+    parts.add(longPart(0));
+  }
+
+  private Part intPart(int value) {
+    Part part = mock(Part.class);
+    when(part.getInt()).thenReturn(value);
+    return part;
+  }
+
+  private Part longPart(long value) {
+    Part part = mock(Part.class);
+    when(part.getLong()).thenReturn(value);
+    return part;
+  }
+
+  private Part stringPart(String value) {
+    Part part = mock(Part.class);
+    when(part.getCachedString()).thenReturn(value);
+    return part;
+  }
+
+  private Part keyPart(Object value) throws Exception {
+    Part part = mock(Part.class);
+    when(part.getStringOrObject()).thenReturn(value);
+    return part;
+  }
+
+  private Part objectPart(Object value) throws Exception {
+    Part part = mock(Part.class);
+    when(part.getObject()).thenReturn(value);
+    return part;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class AdaptiveBatchSizerTest {
+
+  private static final long TARGET = 100;
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  public void fixedBatchSizeIsConfiguredSize() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, false, 0, TARGET, clock::get);
+
+    sizer.batchDispatched(0, 100, Collections.emptyList());
+    sizer.batchAcknowledged(0);
+    sizer.batchFailed();
+
+    assertThat(sizer.getBatchSize()).isEqualTo(100);
+  }
+
+  @Test
+  public void fastAcknowledgementsOfFullBatchesGrowBatchSize() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, true, 0, TARGET, clock::get);
+
+    for (int batchId = 0; batchId < 100; batchId++) {
+      sizer.batchDispatched(batchId, sizer.getBatchSize(), Collections.emptyList());
+      clock.addAndGet(TARGET / 2);
+      sizer.batchAcknowledged(batchId);
+    }
+
+    assertThat(sizer.getBatchSize()).isEqualTo(100 * AdaptiveBatchSizer.MAX_GROWTH_FACTOR);
+  }
+
+  @Test
+  public void partialBatchesDoNotGrowBatchSize() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, true, 0, TARGET, clock::get);
+
+    sizer.batchDispatched(0, 10, Collections.emptyList());
+    sizer.batchAcknowledged(0);
+
+    assertThat(sizer.getBatchSize()).isEqualTo(100);
+  }
+
+  @Test
+  public void lateAcknowledgementsOfBatchesInFlightHalveBatchSizeOnce() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, true, 0, TARGET, clock::get);
+
+    sizer.batchDispatched(0, 100, Collections.emptyList());
+    sizer.batchDispatched(1, 100, Collections.emptyList());
+    clock.addAndGet(TARGET * 2);
+    sizer.batchAcknowledged(0);
+    sizer.batchAcknowledged(1);
+
+    assertThat(sizer.getBatchSize()).isEqualTo(50);
+  }
+
+  @Test
+  public void repeatedFailuresWithoutDispatchHalveBatchSizeOnce() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, true, 0, TARGET, clock::get);
+
+    sizer.batchDispatched(0, 100, Collections.emptyList());
+    sizer.batchFailed();
+    sizer.batchFailed();
+    sizer.batchAcknowledged(0);
+
+    assertThat(sizer.getBatchSize()).isEqualTo(50);
+  }
+
+  @Test
+  public void forcedBatchSizeIsNeverExceeded() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, true, 0, TARGET, clock::get);
+
+    sizer.setBatchSize(20);
+    for (int batchId = 0; batchId < 10; batchId++) {
+      sizer.batchDispatched(batchId, sizer.getBatchSize(), Collections.emptyList());
+      sizer.batchAcknowledged(batchId);
+    }
+
+    assertThat(sizer.getBatchSize()).isEqualTo(20);
+  }
+
+  @Test
+  public void batchSizeIsBoundedByBytes() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, false, 10_000, TARGET, clock::get);
+
+    sizer.batchDispatched(0, 100, events(100, 1_000));
+
+    assertThat(sizer.getBatchSize()).isEqualTo(10);
+  }
+
+  @Test
+  public void byteBoundKeepsAtLeastOneEvent() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, false, 10_000, TARGET, clock::get);
+
+    sizer.batchDispatched(0, 2, events(2, 1_000_000));
+
+    assertThat(sizer.getBatchSize()).isEqualTo(1);
+  }
+
+  private static List<GatewaySenderEventImpl> events(int count, int sizeInBytes) {
+    List<GatewaySenderEventImpl> events = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      GatewaySenderEventImpl event = mock(GatewaySenderEventImpl.class);
+      when(event.getSizeInBytes()).thenReturn(sizeInBytes);
+      events.add(event);
+    }
+    return events;
+  }
+}
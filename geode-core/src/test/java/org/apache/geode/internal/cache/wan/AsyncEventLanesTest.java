@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.asyncqueue.AsyncEvent;
+
+public class AsyncEventLanesTest {
+
+  private final Region customers = region("/customers");
+  private final Region orders = region("/orders");
+
+  @Test
+  public void eventsAreGroupedByRegionAndOperation() {
+    AsyncEvent create1 = event(customers, Operation.CREATE, 1);
+    AsyncEvent order1 = event(orders, Operation.CREATE, 1);
+    AsyncEvent create2 = event(customers, Operation.CREATE, 2);
+    AsyncEvent update3 = event(customers, Operation.UPDATE, 3);
+    AsyncEvent create4 = event(customers, Operation.CREATE, 4);
+
+    List<List<AsyncEvent>> groups =
+        AsyncEventLanes.group(Arrays.asList(create1, order1, create2, update3, create4));
+
+    assertThat(groups).containsExactly(Arrays.asList(create1, create2, create4),
+        Arrays.asList(order1), Arrays.asList(update3));
+  }
+
+  @Test
+  public void laterEventOfKeyIsNotMovedBeforeEarlierOne() {
+    AsyncEvent create1 = event(customers, Operation.CREATE, 1);
+    AsyncEvent update1 = event(customers, Operation.UPDATE, 1);
+    AsyncEvent create2 = event(customers, Operation.CREATE, 2);
+    AsyncEvent destroy1 = event(customers, Operation.DESTROY, 1);
+    AsyncEvent create1Again = event(customers, Operation.CREATE, 1);
+
+    List<List<AsyncEvent>> groups = AsyncEventLanes
+        .group(Arrays.asList(create1, update1, create2, destroy1, create1Again));
+
+    assertThat(groups).containsExactly(Arrays.asList(create1, create2), Arrays.asList(update1),
+        Arrays.asList(destroy1), Arrays.asList(create1Again));
+  }
+
+  @Test
+  public void eventsOfKeyShareLane() {
+    AsyncEvent create1 = event(customers, Operation.CREATE, 1);
+    AsyncEvent create2 = event(customers, Operation.CREATE, 2);
+    AsyncEvent update1 = event(customers, Operation.UPDATE, 1);
+    AsyncEvent update2 = event(customers, Operation.UPDATE, 2);
+
+    List<List<List<AsyncEvent>>> lanes =
+        AsyncEventLanes.partition(Arrays.asList(create1, create2, update1, update2), 2);
+
+    assertThat(lanes).containsExactly(
+        Arrays.asList(Arrays.asList(create2), Arrays.asList(update2)),
+        Arrays.asList(Arrays.asList(create1), Arrays.asList(update1)));
+  }
+
+  @Test
+  public void emptyLanesAreOmitted() {
+    AsyncEvent create1 = event(customers, Operation.CREATE, 1);
+    AsyncEvent create5 = event(customers, Operation.CREATE, 5);
+
+    List<List<List<AsyncEvent>>> lanes =
+        AsyncEventLanes.partition(Arrays.asList(create1, create5), 4);
+
+    assertThat(lanes).containsExactly(Arrays.asList(Arrays.asList(create1, create5)));
+  }
+
+  private static Region region(String path) {
+    Region region = mock(Region.class);
+    when(region.getFullPath()).thenReturn(path);
+    return region;
+  }
+
+  private static AsyncEvent event(Region region, Operation operation, Object key) {
+    AsyncEvent event = mock(AsyncEvent.class);
+    when(event.getRegion()).thenReturn(region);
+    when(event.getOperation()).thenReturn(operation);
+    when(event.getKey()).thenReturn(key);
+    return event;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.serialization.Version;
+
+public class GatewayBatchCompressionTest {
+
+  @Test
+  public void compressibleValueRoundTrips() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      builder.append("{\"id\":").append(i).append(",\"status\":\"active\"}");
+    }
+    byte[] value = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+    byte[] compressed = GatewayBatchCompression.compress(value, 1024);
+
+    assertThat(compressed).isNotNull();
+    assertThat(compressed.length).isLessThan(value.length);
+    assertThat(GatewayBatchCompression.decompress(compressed)).isEqualTo(value);
+  }
+
+  @Test
+  public void smallValueIsNotCompressed() {
+    assertThat(GatewayBatchCompression.compress(new byte[100], 1024)).isNull();
+  }
+
+  @Test
+  public void incompressibleValueIsNotCompressed() {
+    byte[] value = new byte[4096];
+    new Random(17).nextBytes(value);
+
+    assertThat(GatewayBatchCompression.compress(value, 1024)).isNull();
+  }
+
+  @Test
+  public void negativeThresholdDisablesCompression() {
+    assertThat(GatewayBatchCompression.compress(new byte[4096], -1)).isNull();
+  }
+
+  @Test
+  public void olderSitesDoNotReceiveCompressedValues() {
+    assertThat(GatewayBatchCompression.isSupportedBy(Version.CURRENT_ORDINAL)).isTrue();
+    assertThat(GatewayBatchCompression.isSupportedBy(Version.GEODE_1_11_0.ordinal())).isTrue();
+    assertThat(GatewayBatchCompression.isSupportedBy(Version.GEODE_1_10_0.ordinal())).isFalse();
+    assertThat(GatewayBatchCompression.isSupportedBy(Version.GFE_81.ordinal())).isFalse();
+  }
+
+  @Test
+  public void compressionIsDisabledByDefault() {
+    assertThat(GatewayBatchCompression.isEnabled()).isFalse();
+  }
+}
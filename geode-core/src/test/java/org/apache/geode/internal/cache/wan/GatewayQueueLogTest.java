@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GatewayQueueLogTest {
+
+  private static final int SEGMENT_BYTES = 100;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = temporaryFolder.newFolder();
+  }
+
+  @Test
+  public void recoversEventsAtOrAfterHead() throws IOException {
+    GatewayQueueLog log = new GatewayQueueLog(directory, "queue", SEGMENT_BYTES, true);
+    for (long key = 0; key < 10; key++) {
+      log.append(key, payload(key));
+    }
+    log.advanceHead(4);
+    log.close();
+
+    assertThat(recoveredKeys(new GatewayQueueLog(directory, "queue", SEGMENT_BYTES, true)))
+        .containsExactly(4L, 5L, 6L, 7L, 8L, 9L);
+  }
+
+  @Test
+  public void releasesSegmentsBehindHead() throws IOException {
+    GatewayQueueLog log = new GatewayQueueLog(directory, "queue", SEGMENT_BYTES, true);
+    for (long key = 0; key < 20; key++) {
+      log.append(key, payload(key));
+    }
+    int segments = log.getSegmentCount();
+    assertThat(segments).isGreaterThan(2);
+
+    log.advanceHead(20);
+
+    assertThat(log.getSegmentCount()).isEqualTo(1);
+    assertThat(log.getHead()).isEqualTo(20);
+  }
+
+  @Test
+  public void tornRecordEndsRecovery() throws IOException {
+    GatewayQueueLog log = new GatewayQueueLog(directory, "queue", Long.MAX_VALUE, true);
+    for (long key = 0; key < 3; key++) {
+      log.append(key, payload(key));
+    }
+    log.close();
+    File segment = directory.listFiles((dir, name) -> name.endsWith(".qlog"))[0];
+    try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+      raf.setLength(raf.length() - 3);
+    }
+
+    GatewayQueueLog reopened = new GatewayQueueLog(directory, "queue", Long.MAX_VALUE, true);
+    assertThat(recoveredKeys(reopened)).containsExactly(0L, 1L);
+
+    reopened.append(2, payload(2));
+    reopened.close();
+    assertThat(recoveredKeys(new GatewayQueueLog(directory, "queue", Long.MAX_VALUE, true)))
+        .containsExactly(0L, 1L, 2L);
+  }
+
+  @Test
+  public void asynchronousAppendsAreFlushedWithinTheFlushInterval() throws IOException {
+    GatewayQueueLog log = new GatewayQueueLog(directory, "queue", Long.MAX_VALUE, false, 10);
+    log.append(1, payload(1));
+    File segment = directory.listFiles((dir, name) -> name.endsWith(".qlog"))[0];
+
+    await().until(() -> segment.length() > 0);
+
+    assertThat(recoveredKeys(new GatewayQueueLog(directory, "queue", Long.MAX_VALUE, true)))
+        .containsExactly(1L);
+    log.close();
+  }
+
+  @Test
+  public void logsWithSharedPrefixAreSeparate() throws IOException {
+    GatewayQueueLog first = new GatewayQueueLog(directory, "queue", SEGMENT_BYTES, true);
+    GatewayQueueLog second = new GatewayQueueLog(directory, "queue_1", SEGMENT_BYTES, true);
+    first.append(1, payload(1));
+    second.append(2, payload(2));
+    first.close();
+    second.close();
+
+    assertThat(recoveredKeys(new GatewayQueueLog(directory, "queue", SEGMENT_BYTES, true)))
+        .containsExactly(1L);
+  }
+
+  @Test
+  public void destroyDeletesAllFiles() throws IOException {
+    GatewayQueueLog log = new GatewayQueueLog(directory, "queue", SEGMENT_BYTES, true);
+    for (long key = 0; key < 10; key++) {
+      log.append(key, payload(key));
+    }
+    log.advanceHead(3);
+    log.close();
+
+    GatewayQueueLog reopened = new GatewayQueueLog(directory, "queue", SEGMENT_BYTES, true);
+    reopened.destroy();
+
+    assertThat(directory.list()).isEmpty();
+  }
+
+  private static byte[] payload(long key) {
+    return ("event-" + key).getBytes();
+  }
+
+  private static List<Long> recoveredKeys(GatewayQueueLog log) throws IOException {
+    List<Long> keys = new ArrayList<>();
+    log.recover((key, payload) -> {
+      assertThat(payload).isEqualTo(payload(key));
+      keys.add(key);
+    });
+    return keys;
+  }
+}
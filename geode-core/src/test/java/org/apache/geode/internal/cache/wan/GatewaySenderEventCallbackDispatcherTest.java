@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.asyncqueue.AsyncEvent;
+import org.apache.geode.cache.asyncqueue.AsyncEventListener;
+
+public class GatewaySenderEventCallbackDispatcherTest {
+
+  private final List<List<AsyncEvent>> processed = Collections.synchronizedList(new ArrayList<>());
+  private final Set<Thread> processingThreads = ConcurrentHashMap.newKeySet();
+
+  private GatewaySenderEventCallbackDispatcher dispatcher;
+
+  @After
+  public void tearDown() {
+    if (dispatcher != null) {
+      dispatcher.stop();
+    }
+  }
+
+  @Test
+  public void singleListenerThreadPassesTheWholeBatch() throws Exception {
+    dispatcher = createDispatcher(1, recordingListener(true));
+    List<AsyncEvent> events = events(8);
+
+    assertThat(dispatcher.dispatchBatch(events)).isTrue();
+
+    assertThat(processed).containsExactly(events);
+    assertThat(processingThreads).containsExactly(Thread.currentThread());
+  }
+
+  @Test
+  public void listenerThreadsKeepTheOrderOfEachKey() throws Exception {
+    dispatcher = createDispatcher(4, recordingListener(true));
+    List<AsyncEvent> events = new ArrayList<>();
+    for (int round = 0; round < 4; round++) {
+      events.addAll(events(8));
+    }
+
+    assertThat(dispatcher.dispatchBatch(events)).isTrue();
+
+    Map<Object, List<AsyncEvent>> eventsByKey = new HashMap<>();
+    synchronized (processed) {
+      for (List<AsyncEvent> group : processed) {
+        for (AsyncEvent event : group) {
+          eventsByKey.computeIfAbsent(event.getKey(), key -> new ArrayList<>()).add(event);
+        }
+      }
+    }
+    assertThat(eventsByKey).hasSize(8);
+    for (List<AsyncEvent> keyEvents : eventsByKey.values()) {
+      List<AsyncEvent> expected = new ArrayList<>(events);
+      expected.removeIf(event -> !event.getKey().equals(keyEvents.get(0).getKey()));
+      assertThat(keyEvents).isEqualTo(expected);
+    }
+    assertThat(processingThreads.size()).isGreaterThan(1);
+  }
+
+  @Test
+  public void failedLaneFailsTheBatch() throws Exception {
+    dispatcher = createDispatcher(4, recordingListener(false));
+
+    assertThat(dispatcher.dispatchBatch(events(8))).isFalse();
+  }
+
+  @Test
+  public void listenerExceptionIsRethrown() {
+    AsyncEventListener listener = mock(AsyncEventListener.class);
+    when(listener.processEvents(anyList()))
+        .thenThrow(new IllegalStateException("listener failed"));
+    dispatcher = createDispatcher(4, listener);
+
+    assertThatThrownBy(() -> dispatcher.dispatchBatch(events(8)))
+        .isInstanceOf(GatewaySenderException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  private AsyncEventListener recordingListener(boolean result) {
+    return new AsyncEventListener() {
+      @Override
+      public boolean processEvents(List<AsyncEvent> events) {
+        processed.add(new ArrayList<>(events));
+        processingThreads.add(Thread.currentThread());
+        return result;
+      }
+
+      @Override
+      public void close() {}
+    };
+  }
+
+  private static GatewaySenderEventCallbackDispatcher createDispatcher(int listenerThreads,
+      AsyncEventListener listener) {
+    AbstractGatewaySender sender = mock(AbstractGatewaySender.class);
+    when(sender.getId()).thenReturn("queue");
+    when(sender.getListenerThreads()).thenReturn(listenerThreads);
+    when(sender.getAsyncEventListeners()).thenReturn(Arrays.asList(listener));
+    AbstractGatewaySenderEventProcessor eventProcessor =
+        mock(AbstractGatewaySenderEventProcessor.class);
+    when(eventProcessor.getSender()).thenReturn(sender);
+    return new GatewaySenderEventCallbackDispatcher(eventProcessor);
+  }
+
+  /** one event for each of the keys 0 to count - 1 */
+  private static List<AsyncEvent> events(int count) {
+    List<AsyncEvent> events = new ArrayList<>(count);
+    for (int key = 0; key < count; key++) {
+      AsyncEvent event = mock(AsyncEvent.class);
+      when(event.getOperation()).thenReturn(Operation.UPDATE);
+      when(event.getKey()).thenReturn(key);
+      events.add(event);
+    }
+    return events;
+  }
+}
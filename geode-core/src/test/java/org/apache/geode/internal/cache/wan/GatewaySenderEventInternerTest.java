@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.size.ObjectGraphSizer;
+
+public class GatewaySenderEventInternerTest {
+
+  @After
+  public void tearDown() {
+    GatewaySenderEventInterner.clear();
+  }
+
+  @Test
+  public void equalRegionPathsShareOneInstance() {
+    String first = new String("/region");
+    String second = new String("/region");
+
+    assertThat(GatewaySenderEventInterner.internRegionPath(first)).isSameAs(first);
+    assertThat(GatewaySenderEventInterner.internRegionPath(second)).isSameAs(first);
+    assertThat(GatewaySenderEventInterner.internRegionPath(null)).isNull();
+  }
+
+  @Test
+  public void equalMembershipIdsShareOneArray() {
+    byte[] first = {1, 2, 3};
+    byte[] second = {1, 2, 3};
+    byte[] other = {3, 2, 1};
+
+    assertThat(GatewaySenderEventInterner.internMembershipID(first)).isSameAs(first);
+    assertThat(GatewaySenderEventInterner.internMembershipID(second)).isSameAs(first);
+    assertThat(GatewaySenderEventInterner.internMembershipID(other)).isSameAs(other);
+  }
+
+  @Test
+  public void eventIdOnlyTakesEqualMembershipId() {
+    byte[] canonical = {1, 2, 3};
+    EventID id = new EventID(new byte[] {1, 2, 3}, 1, 1);
+
+    id.canonicalizeMembershipID(new byte[] {4, 5, 6});
+    assertThat(id.getMembershipID()).isNotSameAs(canonical).containsExactly(1, 2, 3);
+
+    id.canonicalizeMembershipID(canonical);
+    assertThat(id.getMembershipID()).isSameAs(canonical);
+  }
+
+  @Test
+  public void fullDictionaryIsClearedAndKeepsInterning() {
+    String first = new String("/first");
+    GatewaySenderEventInterner.internRegionPath(first);
+    for (int i = 0; i < GatewaySenderEventInterner.MAX_ENTRIES; i++) {
+      GatewaySenderEventInterner.internRegionPath("/region" + i);
+    }
+
+    String again = new String("/first");
+    assertThat(GatewaySenderEventInterner.internRegionPath(again)).isSameAs(again);
+    assertThat(GatewaySenderEventInterner.internRegionPath(new String("/first"))).isSameAs(again);
+  }
+
+  @Test
+  public void concurrentCallersShareOneInstance() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<String>> tasks = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        tasks.add(() -> GatewaySenderEventInterner.internRegionPath(new String("/region")));
+      }
+      List<Future<String>> results = executor.invokeAll(tasks);
+
+      String canonical = results.get(0).get();
+      for (Future<String> result : results) {
+        assertThat(result.get()).isSameAs(canonical);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void internedIdsAndPathsTakeLessHeap() throws Exception {
+    byte[] member = new byte[64];
+    List<Object> copies = new ArrayList<>();
+    List<Object> interned = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      copies.add(new EventID(member.clone(), 1, i));
+      copies.add(new String("/customers/orders"));
+      EventID id = new EventID(member.clone(), 1, i);
+      id.canonicalizeMembershipID(GatewaySenderEventInterner.internMembershipID(
+          id.getMembershipID()));
+      interned.add(id);
+      interned.add(GatewaySenderEventInterner.internRegionPath(new String("/customers/orders")));
+    }
+
+    long copiesSize = ObjectGraphSizer.size(copies);
+    long internedSize = ObjectGraphSizer.size(interned);
+
+    // each copy holds its own 64 byte member id and path characters
+    assertThat(copiesSize - internedSize).isGreaterThan(999L * 64);
+  }
+}
@@ -16,7 +16,9 @@ package org.apache.geode.internal.cache.wan.parallel;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -140,6 +142,20 @@ public class ParallelGatewaySenderQueueJUnitTest {
     verify(stats, times(1)).incEventsNotQueuedConflated();
   }
 
+  @Test
+  public void conflateQueuedEventDestroysOnConflationThreadPoolAndIncrementsStat() {
+    GatewaySenderStats stats = mockGatewaySenderStats();
+    ParallelGatewaySenderQueue queue = spy(
+        new ParallelGatewaySenderQueue(sender, Collections.emptySet(), 0, 1, metaRegionFactory));
+    GatewaySenderEventImpl event = mock(GatewaySenderEventImpl.class);
+    doNothing().when(queue).conflateEvent(event, 5, 1L);
+
+    queue.conflateQueuedEvent(event, 5, 1L);
+
+    verify(queue).conflateEvent(event, 5, 1L);
+    verify(stats, times(1)).incEventsConflatedOnEnqueue();
+  }
+
   @Test
   public void testLocalSize() throws Exception {
     ParallelGatewaySenderQueueMetaRegion mockMetaRegion =
@@ -14,7 +14,9 @@
  */
 package org.apache.geode.internal.cache.wan.serial;
 
+import static org.apache.geode.test.awaitility.GeodeAwaitility.getTimeout;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
@@ -28,12 +30,16 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.logging.log4j.Logger;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import org.apache.geode.CancelCriterion;
 import org.apache.geode.cache.Operation;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.EntryEventImpl;
@@ -42,6 +48,7 @@ import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.KeyInfo;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionQueue;
 import org.apache.geode.internal.cache.ha.ThreadIdentifier;
 import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
@@ -347,6 +354,115 @@ public class SerialGatewaySenderEventProcessorJUnitTest {
     System.out.println(builder);
   }
 
+  @Test
+  public void batchWindowIsFullWithMaximumOutstandingBatches() {
+    this.processor.setMaxBatchesInFlight(4);
+    Map<Integer, List<GatewaySenderEventImpl>[]> outstandingBatches =
+        this.processor.getBatchIdToEventsMap();
+    for (int batchId = 0; batchId < 3; batchId++) {
+      outstandingBatches.put(batchId, createBatch());
+    }
+    assertThat(this.processor.isBatchWindowFull()).isFalse();
+
+    outstandingBatches.put(3, createBatch());
+    assertThat(this.processor.isBatchWindowFull()).isTrue();
+
+    outstandingBatches.remove(0);
+    assertThat(this.processor.isBatchWindowFull()).isFalse();
+  }
+
+  @Test
+  public void batchWindowIsUnlimitedWithoutMaximum() {
+    this.processor.setMaxBatchesInFlight(0);
+    fillBatchWindow(100);
+
+    assertThat(this.processor.isBatchWindowFull()).isFalse();
+  }
+
+  @Test
+  public void acknowledgementOpensBatchWindow() throws Exception {
+    stubSenderForBatchWindow();
+    this.processor.setMaxBatchesInFlight(2);
+    fillBatchWindow(2);
+    CompletableFuture<Void> waiter = waitForBatchWindowInBackground();
+
+    this.processor.handleSuccessBatchAck(0);
+
+    awaitBatchWindow(waiter);
+  }
+
+  @Test
+  public void batchFailureOpensBatchWindow() throws Exception {
+    stubSenderForBatchWindow();
+    this.processor.setMaxBatchesInFlight(2);
+    fillBatchWindow(2);
+    CompletableFuture<Void> waiter = waitForBatchWindowInBackground();
+
+    this.processor.handleException();
+
+    awaitBatchWindow(waiter);
+    assertThat(this.processor.isBatchWindowFull()).isTrue();
+  }
+
+  @Test
+  public void pauseOpensBatchWindow() throws Exception {
+    stubSenderForBatchWindow();
+    this.processor.setMaxBatchesInFlight(2);
+    fillBatchWindow(2);
+    CompletableFuture<Void> waiter = waitForBatchWindowInBackground();
+
+    this.processor.pauseDispatching();
+
+    awaitBatchWindow(waiter);
+  }
+
+  @Test
+  public void stopOpensBatchWindow() throws Exception {
+    stubSenderForBatchWindow();
+    this.processor.setMaxBatchesInFlight(2);
+    fillBatchWindow(2);
+    CompletableFuture<Void> waiter = waitForBatchWindowInBackground();
+
+    this.processor.setIsStopped(true);
+
+    awaitBatchWindow(waiter);
+  }
+
+  private void stubSenderForBatchWindow() {
+    CancelCriterion stopper = mock(CancelCriterion.class);
+    when(this.sender.getStopper()).thenReturn(stopper);
+    when(this.sender.getStatistics()).thenReturn(mock(GatewaySenderStats.class));
+    ReflectionTestUtils.setField(this.processor, "queue", mock(RegionQueue.class));
+  }
+
+  private void fillBatchWindow(int batches) {
+    for (int batchId = 0; batchId < batches; batchId++) {
+      this.processor.getBatchIdToEventsMap().put(batchId, createBatch());
+    }
+  }
+
+  private CompletableFuture<Void> waitForBatchWindowInBackground() throws Exception {
+    CompletableFuture<Void> waiter = CompletableFuture.runAsync(() -> {
+      try {
+        this.processor.waitForBatchWindow();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    assertThatThrownBy(() -> waiter.get(200, TimeUnit.MILLISECONDS))
+        .isInstanceOf(TimeoutException.class);
+    return waiter;
+  }
+
+  private void awaitBatchWindow(CompletableFuture<Void> waiter) throws Exception {
+    waiter.get(getTimeout().getValueInMS(), TimeUnit.MILLISECONDS);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<GatewaySenderEventImpl>[] createBatch() {
+    return (List<GatewaySenderEventImpl>[]) new List<?>[] {new ArrayList<>(), new ArrayList<>()};
+  }
+
   private GatewaySenderEventImpl createGatewaySenderEvent(LocalRegion lr, Operation operation,
       Object key, Object value, long threadId, long sequenceId)
       throws Exception {
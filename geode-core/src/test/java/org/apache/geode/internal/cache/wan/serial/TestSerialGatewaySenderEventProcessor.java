@@ -19,6 +19,8 @@ import org.apache.geode.internal.monitoring.ThreadsMonitoring;
 
 public class TestSerialGatewaySenderEventProcessor extends SerialGatewaySenderEventProcessor {
 
+  private int maxBatchesInFlight;
+
   public TestSerialGatewaySenderEventProcessor(AbstractGatewaySender sender, String id,
       ThreadsMonitoring tMonitoring) {
     super(sender, id, tMonitoring);
@@ -32,4 +34,28 @@ public class TestSerialGatewaySenderEventProcessor extends SerialGatewaySenderEv
   protected int getUnprocessedTokensSize() {
     return this.unprocessedTokens.size();
   }
+
+  protected void setMaxBatchesInFlight(int maxBatchesInFlight) {
+    this.maxBatchesInFlight = maxBatchesInFlight;
+  }
+
+  @Override
+  protected int getMaxBatchesInFlight() {
+    return this.maxBatchesInFlight;
+  }
+
+  @Override
+  protected boolean isBatchWindowFull() {
+    return super.isBatchWindowFull();
+  }
+
+  @Override
+  protected void waitForBatchWindow() throws InterruptedException {
+    super.waitForBatchWindow();
+  }
+
+  @Override
+  protected void setIsStopped(boolean isStopped) {
+    super.setIsStopped(isStopped);
+  }
 }
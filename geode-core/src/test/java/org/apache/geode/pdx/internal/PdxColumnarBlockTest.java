@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class PdxColumnarBlockTest {
+
+  private TypeRegistry registry;
+  private PdxType pdxType;
+  private List<byte[]> values;
+
+  @Before
+  public void setUp() {
+    registry = mock(TypeRegistry.class);
+    when(registry.defineLocalType(any(), any())).thenAnswer(invocation -> {
+      if (pdxType == null) {
+        pdxType = invocation.getArgument(1);
+        pdxType.setTypeId(1);
+      }
+      return pdxType;
+    });
+
+    values = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      PdxWriterImpl writer = new PdxWriterImpl(new PdxType("PdxColumnarBlockTest.Event", false),
+          registry, new PdxOutputStream());
+      writer.writeLong("timestamp", 1_500_000_000_000L + i);
+      writer.writeInt("quantity", i % 7 - 3);
+      writer.writeDouble("price", i * 0.5);
+      writer.writeBoolean("active", i % 2 == 0);
+      writer.writeChar("grade", (char) ('A' + i % 4));
+      writer.writeString("symbol", i % 3 == 0 ? "GEODE" : "APACHE");
+      writer.writeDate("created", i == 5 ? null : new Date(1000L * i));
+      writer.writeIntArray("tags", new int[] {i});
+      writer.completeByteStreamGeneration();
+      values.add(writer.toByteArray());
+    }
+  }
+
+  @Test
+  public void decodedValuesMatchOriginalSerializedValues() {
+    PdxColumnarBlock block = buildBlock();
+
+    assertThat(block.size()).isEqualTo(values.size());
+    for (int i = 0; i < values.size(); i++) {
+      assertThat(block.getSerializedValue(i)).isEqualTo(values.get(i));
+    }
+  }
+
+  @Test
+  public void readsWrittenBlock() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    buildBlock().toData(new DataOutputStream(bytes));
+
+    PdxColumnarBlock block = PdxColumnarBlock.fromData(
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), pdxType);
+
+    assertThat(block.size()).isEqualTo(values.size());
+    for (int i = 0; i < values.size(); i++) {
+      assertThat(block.getSerializedValue(i)).isEqualTo(values.get(i));
+    }
+  }
+
+  @Test
+  public void writtenBlockIsSmallerThanRows() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    buildBlock().toData(new DataOutputStream(bytes));
+
+    long rowSize = values.stream().mapToLong(v -> v.length).sum();
+    assertThat((long) bytes.size()).isLessThan(rowSize);
+  }
+
+  @Test
+  public void addRejectsValuesOfOtherTypes() {
+    PdxColumnarBlock.Builder builder = new PdxColumnarBlock.Builder(pdxType);
+
+    byte[] otherType = values.get(0).clone();
+    otherType[PdxWriterImpl.HEADER_SIZE - 1]++;
+
+    assertThat(builder.add(new byte[] {1, 2, 3})).isFalse();
+    assertThat(builder.add(otherType)).isFalse();
+    assertThat(builder.size()).isZero();
+  }
+
+  @Test
+  public void getSerializedValueChecksIndex() {
+    PdxColumnarBlock block = buildBlock();
+
+    assertThatThrownBy(() -> block.getSerializedValue(values.size()))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  private PdxColumnarBlock buildBlock() {
+    PdxColumnarBlock.Builder builder = new PdxColumnarBlock.Builder(pdxType);
+    for (byte[] value : values) {
+      assertThat(builder.add(value)).isTrue();
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.pdx.PdxFieldDoesNotExistException;
+import org.apache.geode.pdx.PdxFieldTypeMismatchException;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class PdxPatchImplTest {
+
+  private static final int TYPE_ID = 11;
+
+  private InternalCache cache;
+  private byte[] serialized;
+
+  @Before
+  public void setUp() {
+    TypeRegistry registry = mock(TypeRegistry.class);
+    when(registry.defineLocalType(any(), any())).thenAnswer(invocation -> {
+      PdxType type = invocation.getArgument(1);
+      type.setTypeId(TYPE_ID);
+      return type;
+    });
+
+    PdxType pdxType = new PdxType("PdxPatchImplTest.Order", false);
+    PdxWriterImpl writer = new PdxWriterImpl(pdxType, registry, new PdxOutputStream());
+    writer.writeString("status", "NEW");
+    writer.writeInt("version", 3);
+    writer.writeDouble("total", 10.5);
+    writer.writeStringArray("tags", new String[] {"a"});
+    writer.writeLongArray("amounts", null);
+    writer.writeObject("history", new ArrayList<>(Arrays.asList("created")));
+    writer.completeByteStreamGeneration();
+    serialized = writer.toByteArray();
+
+    when(registry.getType(eq(TYPE_ID))).thenReturn(pdxType);
+    cache = mock(InternalCache.class);
+    when(cache.getPdxRegistry()).thenReturn(registry);
+  }
+
+  @Test
+  public void appliesSetIncrementAndAppend() {
+    PdxPatchImpl patch = new PdxPatchImpl();
+    patch.addSet("status", "SHIPPED");
+    patch.addIncrement("version", 1);
+    patch.addIncrement("version", 1L);
+    patch.addIncrement("total", 0.25);
+    patch.addAppend("tags", "b");
+    patch.addAppend("amounts", 7);
+    patch.addAppend("history", "shipped");
+
+    PdxInstance patched = readPdxInstance(patch.apply(serialized, cache));
+
+    assertThat(patched.getField("status")).isEqualTo("SHIPPED");
+    assertThat(patched.getField("version")).isEqualTo(5);
+    assertThat(patched.getField("total")).isEqualTo(10.75);
+    assertThat(patched.getField("tags")).isEqualTo(new String[] {"a", "b"});
+    assertThat(patched.getField("amounts")).isEqualTo(new long[] {7L});
+    assertThat((List<?>) patched.getField("history")).containsExactly("created", "shipped");
+  }
+
+  @Test
+  public void roundTripsThroughDeltaBytes() {
+    PdxPatchImpl patch = new PdxPatchImpl();
+    patch.addSet("status", "SHIPPED");
+    patch.addIncrement("version", 2);
+    patch.addAppend("tags", "b");
+
+    byte[] deltaBytes = patch.toDeltaBytes();
+
+    assertThat(PdxPatchImpl.isPdxPatch(deltaBytes)).isTrue();
+    PdxPatchImpl copy = PdxPatchImpl.fromDeltaBytes(deltaBytes);
+    assertThat(copy.getOperations()).hasSize(3);
+    assertThat(copy.apply(serialized, cache)).isEqualTo(patch.apply(serialized, cache));
+  }
+
+  @Test
+  public void otherDeltaBytesAreNotPatches() {
+    assertThat(PdxPatchImpl.isPdxPatch(null)).isFalse();
+    assertThat(PdxPatchImpl.isPdxPatch(new byte[] {1, 2, 3})).isFalse();
+    assertThat(PdxPatchImpl.isPdxPatch(new byte[16])).isFalse();
+  }
+
+  @Test
+  public void getSerializedPdxReturnsNullForNonPdxValues() {
+    assertThat(PdxPatchImpl.getSerializedPdx("value")).isNull();
+    assertThat(PdxPatchImpl.getSerializedPdx(new byte[] {1, 2})).isNull();
+  }
+
+  @Test
+  public void missingFieldThrows() {
+    PdxPatchImpl patch = new PdxPatchImpl();
+    patch.addIncrement("missing", 1);
+
+    assertThatThrownBy(() -> patch.apply(serialized, cache))
+        .isInstanceOf(PdxFieldDoesNotExistException.class);
+  }
+
+  @Test
+  public void incompatibleOperationsThrow() {
+    PdxPatchImpl increment = new PdxPatchImpl();
+    increment.addIncrement("status", 1);
+    PdxPatchImpl append = new PdxPatchImpl();
+    append.addAppend("amounts", "text");
+    PdxPatchImpl set = new PdxPatchImpl();
+    set.addSet("version", "text");
+
+    assertThatThrownBy(() -> increment.apply(serialized, cache))
+        .isInstanceOf(PdxFieldTypeMismatchException.class);
+    assertThatThrownBy(() -> append.apply(serialized, cache))
+        .isInstanceOf(PdxFieldTypeMismatchException.class);
+    assertThatThrownBy(() -> set.apply(serialized, cache))
+        .isInstanceOf(PdxFieldTypeMismatchException.class);
+  }
+
+  private PdxInstance readPdxInstance(byte[] bytes) {
+    return InternalDataSerializer.readPdxInstance(bytes, cache);
+  }
+}
@@ -26,8 +26,11 @@ import java.util.Random;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.internal.cache.BucketRegionQueue;
+import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
 import org.apache.geode.internal.cache.wan.WANTestBase;
 import org.apache.geode.test.dunit.IgnoredException;
+import org.apache.geode.test.dunit.VM;
 import org.apache.geode.test.junit.categories.WanTest;
 
 @Category({WanTest.class})
@@ -165,6 +168,68 @@ public class ParallelWANConflationDUnitTest extends WANTestBase {
     doTestParallelPropagationConflation(2);
   }
 
+  @Test
+  public void testParallelPropagationConflationOnEnqueueOfHotKeys() throws Exception {
+    initialSetUp();
+
+    setConflateOnEnqueue(true);
+    try {
+      createSendersWithConflation();
+
+      createSenderPRs(1);
+
+      startPausedSenders();
+
+      createReceiverPrs();
+
+      final Map keyValues = putKeyValues();
+
+      vm4.invoke(() -> checkQueueSize("ln", keyValues.size()));
+
+      // Update a few hot keys many times. Creates aren't conflated, and only the latest update
+      // for each hot key should be left in the queue.
+      final Map updateKeyValues = new HashMap();
+      for (int i = 1; i <= 10; i++) {
+        for (int j = 0; j < 5; j++) {
+          updateKeyValues.put(j, j + "_updated_" + i);
+        }
+        vm4.invoke(() -> putGivenKeyValue(getTestMethodName(), updateKeyValues));
+      }
+
+      vm4.invoke(() -> checkQueueSize("ln", keyValues.size() + updateKeyValues.size()));
+
+      // Every update but the first for each hot key superseded an event that was never peeked
+      assertEquals(9 * updateKeyValues.size(), getEventsConflatedOnEnqueue());
+
+      vm2.invoke(() -> validateRegionSize(getTestMethodName(), 0));
+
+      resumeSenders();
+
+      keyValues.putAll(updateKeyValues);
+      validateReceiverRegionSize(keyValues);
+      vm4.invoke(() -> checkQueueSize("ln", 0));
+    } finally {
+      setConflateOnEnqueue(false);
+    }
+  }
+
+  private void setConflateOnEnqueue(boolean conflateOnEnqueue) {
+    for (VM vm : new VM[] {vm4, vm5, vm6, vm7}) {
+      vm.invoke(() -> {
+        BucketRegionQueue.CONFLATE_ON_ENQUEUE = conflateOnEnqueue;
+      });
+    }
+  }
+
+  private int getEventsConflatedOnEnqueue() {
+    int eventsConflatedOnEnqueue = 0;
+    for (VM vm : new VM[] {vm4, vm5, vm6, vm7}) {
+      eventsConflatedOnEnqueue += vm.invoke(() -> ((AbstractGatewaySender) cache
+          .getGatewaySender("ln")).getStatistics().getEventsConflatedOnEnqueue());
+    }
+    return eventsConflatedOnEnqueue;
+  }
+
   public void doTestParallelPropagationConflation(int redundancy) throws Exception {
     initialSetUp();
 
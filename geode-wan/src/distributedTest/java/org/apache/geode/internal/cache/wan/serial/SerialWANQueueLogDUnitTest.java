@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan.serial;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.wan.WANTestBase;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.junit.categories.WanTest;
+
+/**
+ * Restarts persistent serial gateway senders whose queues are kept in a
+ * {@link org.apache.geode.internal.cache.wan.GatewayQueueLog}.
+ */
+@Category({WanTest.class})
+public class SerialWANQueueLogDUnitTest extends WANTestBase {
+
+  private static final int NUM_PUTS = 100;
+
+  @After
+  public void resetQueueLog() {
+    for (VM vm : new VM[] {vm4, vm5}) {
+      vm.invoke(() -> {
+        SerialGatewaySenderQueue.USE_QUEUE_LOG = false;
+      });
+    }
+  }
+
+  /**
+   * The first sender to restart fills its queue from its own log. The second one gets the queue
+   * from the first and rewrites its log from that copy, so it can later recover alone.
+   */
+  @Test
+  public void queueIsRecoveredFromTheQueueLogAfterRestart() {
+    Integer lnPort = vm0.invoke(() -> WANTestBase.createFirstLocatorWithDSId(1));
+    Integer nyPort = vm1.invoke(() -> WANTestBase.createFirstRemoteLocator(2, lnPort));
+    String regionName = getTestMethodName() + "_RR";
+
+    for (VM vm : new VM[] {vm4, vm5}) {
+      vm.invoke(() -> {
+        SerialGatewaySenderQueue.USE_QUEUE_LOG = true;
+      });
+    }
+    createCacheInVMs(lnPort, vm4, vm5);
+    String firstDiskStore = vm4.invoke(() -> WANTestBase.createSenderWithDiskStore("ln", 2,
+        false, 100, 10, false, true, null, null, true));
+    String secondDiskStore = vm5.invoke(() -> WANTestBase.createSenderWithDiskStore("ln", 2,
+        false, 100, 10, false, true, null, null, true));
+    startSenderInVMs("ln", vm4, vm5);
+    vm4.invoke(() -> WANTestBase.createReplicatedRegion(regionName, "ln", isOffHeap()));
+    vm5.invoke(() -> WANTestBase.createReplicatedRegion(regionName, "ln", isOffHeap()));
+
+    // there is no receiver yet, so every event stays queued
+    vm4.invoke(() -> WANTestBase.doPuts(regionName, NUM_PUTS));
+    vm4.invoke(() -> WANTestBase.validateQueueContents("ln", NUM_PUTS));
+    vm5.invoke(() -> WANTestBase.validateQueueContents("ln", NUM_PUTS));
+
+    vm4.invoke(() -> WANTestBase.killSender());
+    vm5.invoke(() -> WANTestBase.killSender());
+
+    restartSender(vm4, lnPort, firstDiskStore);
+    vm4.invoke(() -> WANTestBase.validateQueueContents("ln", NUM_PUTS));
+    restartSender(vm5, lnPort, secondDiskStore);
+    vm5.invoke(() -> WANTestBase.validateQueueContents("ln", NUM_PUTS));
+
+    vm4.invoke(() -> WANTestBase.killSender());
+    vm5.invoke(() -> WANTestBase.killSender());
+
+    restartSender(vm5, lnPort, secondDiskStore);
+    vm5.invoke(() -> WANTestBase.validateQueueContents("ln", NUM_PUTS));
+
+    vm2.invoke(() -> WANTestBase.createCache(nyPort));
+    vm2.invoke(() -> WANTestBase.createReplicatedRegion(regionName, null, isOffHeap()));
+    createReceiverInVMs(vm2);
+
+    vm2.invoke(() -> WANTestBase.validateRegionSize(regionName, NUM_PUTS));
+    vm5.invoke(() -> WANTestBase.validateQueueContents("ln", 0));
+  }
+
+  private void restartSender(VM vm, Integer lnPort, String diskStore) {
+    vm.invoke(() -> WANTestBase.createCache(lnPort));
+    vm.invoke(() -> WANTestBase.createSenderWithDiskStore("ln", 2, false, 100, 10, false, true,
+        null, diskStore, true));
+    vm.invoke(() -> WANTestBase.startSender("ln"));
+  }
+}
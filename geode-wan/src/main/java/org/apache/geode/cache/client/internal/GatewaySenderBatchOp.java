@@ -28,8 +28,10 @@ import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
 import org.apache.geode.internal.cache.tier.sockets.Message;
 import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompression;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventRemoteDispatcher.GatewayAck;
+import org.apache.geode.internal.cache.wan.GatewaySenderStats;
 import org.apache.geode.internal.logging.LogService;
 
 @SuppressWarnings("unchecked")
@@ -47,12 +49,19 @@ public class GatewaySenderBatchOp {
    * @param batchId the ID of this batch
    * @param removeFromQueueOnException true if the events should be processed even after some
    *        exception
+   * @param statistics the statistics of the sender, updated with the size of the batch values once
+   *        the batch is sent. A resent batch is not counted again.
    */
   public static void executeOn(Connection con, ExecutablePool pool, List events, int batchId,
-      boolean removeFromQueueOnException, boolean isRetry) {
-    AbstractOp op = new GatewaySenderGFEBatchOpImpl(events, batchId, removeFromQueueOnException,
-        con.getDistributedSystemId(), isRetry);
+      boolean removeFromQueueOnException, boolean isRetry, GatewaySenderStats statistics) {
+    boolean compressValues = GatewayBatchCompression.isEnabled()
+        && GatewayBatchCompression.isSupportedBy(con.getWanSiteVersion());
+    GatewaySenderGFEBatchOpImpl op = new GatewaySenderGFEBatchOpImpl(events, batchId,
+        removeFromQueueOnException, con.getDistributedSystemId(), isRetry, compressValues);
     pool.executeOn(con, op, true/* timeoutFatal */);
+    if (statistics != null && !isRetry) {
+      statistics.incBatchBytes(op.uncompressedBytes, op.compressedBytes);
+    }
   }
 
 
@@ -67,11 +76,17 @@ public class GatewaySenderBatchOp {
 
   static class GatewaySenderGFEBatchOpImpl extends AbstractOp {
 
+    /** size of the event values of the batch before compression */
+    private long uncompressedBytes;
+
+    /** size of the event values of the batch as written to the receiver */
+    private long compressedBytes;
+
     /**
      * @throws org.apache.geode.SerializationException if serialization fails
      */
     public GatewaySenderGFEBatchOpImpl(List events, int batchId, boolean removeFromQueueOnException,
-        int dsId, boolean isRetry) {
+        int dsId, boolean isRetry, boolean compressValues) {
       super(MessageType.GATEWAY_RECEIVER_COMMAND, calcPartCount(events));
       if (isRetry) {
         getMessage().setIsRetry();
@@ -86,9 +101,25 @@ public class GatewaySenderBatchOp {
         // Add action
         int action = event.getAction();
         getMessage().addIntPart(action);
-        { // Add posDup flag
-          byte posDupByte = (byte) (event.getPossibleDuplicate() ? 0x01 : 0x00);
-          getMessage().addBytesPart(new byte[] {posDupByte});
+        byte[] value = null;
+        byte[] compressedValue = null;
+        if (action == 0 || action == 1) {
+          value = event.getSerializedValue();
+          if (compressValues) {
+            compressedValue = GatewayBatchCompression.compress(value);
+          }
+          if (value != null) {
+            uncompressedBytes += value.length;
+            compressedBytes += compressedValue != null ? compressedValue.length : value.length;
+          }
+        }
+        { // Add posDup flag and whether the value is compressed
+          byte flags =
+              event.getPossibleDuplicate() ? GatewayBatchCompression.POSSIBLE_DUPLICATE : 0;
+          if (compressedValue != null) {
+            flags |= GatewayBatchCompression.VALUE_COMPRESSED;
+          }
+          getMessage().addBytesPart(new byte[] {flags});
         }
         if (action >= 0 && action <= 3) {
           // 0 = create
@@ -106,10 +137,10 @@ public class GatewaySenderBatchOp {
           // Add key
           getMessage().addStringOrObjPart(key);
           if (action < 2 /* it is 0 or 1 */) {
-            byte[] value = event.getSerializedValue();
-            byte valueIsObject = event.getValueIsObject();;
+            byte valueIsObject = event.getValueIsObject();
             // Add value (which is already a serialized byte[])
-            getMessage().addRawPart(value, (valueIsObject == 0x01));
+            getMessage().addRawPart(compressedValue != null ? compressedValue : value,
+                (valueIsObject == 0x01));
           }
           // Add callback arg if necessary
           if (callbackArg == null) {
@@ -235,7 +266,12 @@ public class GatewaySenderBatchOp {
             }
             int batchId = part0.getInt();
             int numEvents = msg.getPart(1).getInt();
-            ack = new GatewayAck(batchId, numEvents);
+            if (msg.getNumberOfParts() > 2) {
+              // The receiver advertises how many more events it can take
+              ack = new GatewayAck(batchId, numEvents, msg.getPart(2).getInt());
+            } else {
+              ack = new GatewayAck(batchId, numEvents);
+            }
             break;
           case MessageType.EXCEPTION:
             part0 = msg.getPart(0);
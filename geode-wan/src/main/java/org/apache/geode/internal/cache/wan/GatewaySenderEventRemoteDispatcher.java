@@ -77,6 +77,8 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
 
   private static final int RETRY_WAIT_TIME = 100;
 
+  private final ReceiverBackPressure backPressure = new ReceiverBackPressure(RETRY_WAIT_TIME);
+
   void setAckReaderThread(AckReaderThread ackReaderThread) {
     this.ackReaderThread = ackReaderThread;
   }
@@ -151,9 +153,11 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
     GatewaySenderStats statistics = this.sender.getStatistics();
     boolean success = false;
     try {
+      pause(backPressure.getPauseBeforeDispatch(events.size()));
       long start = statistics.startTime();
       success = _dispatchBatch(events, isRetry);
       if (success) {
+        backPressure.batchDispatched(events.size());
         statistics.endBatch(start, events.size());
       }
     } catch (GatewaySenderException ge) {
@@ -162,11 +166,12 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
         // if our pool is shutdown then just be silent
       } else if (RecoverableExceptionPredicates.isRecoverableWhenDispatchingBatch(t)) {
         this.processor.handleException();
-        sleepBeforeRetry();
+        long pauseMs = backPressure.getPauseBeforeRetry();
+        pause(pauseMs);
         if (logger.isDebugEnabled()) {
           logger.debug(
               "Failed to dispatch a batch with id {} due to non-fatal exception {}.  Retrying in {} ms",
-              this.processor.getBatchId(), t, RETRY_WAIT_TIME);
+              this.processor.getBatchId(), t, pauseMs);
         }
       } else {
         logAndStopProcessor(ge);
@@ -202,7 +207,7 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
       try {
         if (connection != null) {
           sp.dispatchBatch_NewWAN(connection, events, currentBatchId,
-              sender.isRemoveFromQueueOnException(), isRetry);
+              sender.isRemoveFromQueueOnException(), isRetry, statistics);
           if (logger.isDebugEnabled()) {
             logger.debug(
                 "{} : Dispatched batch (id={}) of {} events, queue size: {} on connection {}",
@@ -497,10 +502,17 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
   }
 
   public static class GatewayAck {
+    /**
+     * The credit of acknowledgements from receivers that do not advertise credit.
+     */
+    public static final int NO_CREDIT_LIMIT = -1;
+
     private int batchId;
 
     private int numEvents;
 
+    private int credit = NO_CREDIT_LIMIT;
+
     private BatchException70 be;
 
     public GatewayAck(BatchException70 be, int bId) {
@@ -513,6 +525,11 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
       this.numEvents = numEvents;
     }
 
+    public GatewayAck(int batchId, int numEvents, int credit) {
+      this(batchId, numEvents);
+      this.credit = credit;
+    }
+
     /**
      * @return the numEvents
      */
@@ -530,6 +547,13 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
     public BatchException70 getBatchException() {
       return this.be;
     }
+
+    /**
+     * @return the number of events the receiver can take, or {@link #NO_CREDIT_LIMIT}
+     */
+    public int getCredit() {
+      return credit;
+    }
   }
 
   class AckReaderThread extends Thread {
@@ -601,6 +625,7 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
           }
           GatewayAck ack = readAcknowledgement();
           if (ack != null) {
+            backPressure.creditReceived(ack.getCredit());
             boolean gotBatchException = ack.getBatchException() != null;
             int batchId = ack.getBatchId();
             int numEvents = ack.getNumEvents();
@@ -814,8 +839,15 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
   }
 
   private void sleepBeforeRetry() {
+    pause(RETRY_WAIT_TIME);
+  }
+
+  private void pause(long millis) {
+    if (millis <= 0) {
+      return;
+    }
     try {
-      Thread.sleep(RETRY_WAIT_TIME);
+      Thread.sleep(millis);
     } catch (InterruptedException ie) {
       Thread.currentThread().interrupt();
     }
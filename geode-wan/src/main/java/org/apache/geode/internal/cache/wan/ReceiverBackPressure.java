@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventRemoteDispatcher.GatewayAck;
+
+/**
+ * Paces the batches of a sender by the credit its receiver advertises with each acknowledgement,
+ * and spaces out the retries of batches that could not be dispatched. The events of each batch
+ * dispatched are taken off the credit until the next acknowledgement advertises new credit, so
+ * that batches sent before that acknowledgement do not each count on all of it. Each pause doubles
+ * while the receiver stays short of credit or batches keep failing, up to a limit, and is reset as
+ * soon as they do not.
+ */
+class ReceiverBackPressure {
+
+  /**
+   * The longest pause, in milliseconds, before dispatching a batch the receiver has no credit for
+   * or before retrying a batch that could not be dispatched.
+   */
+  static final long MAX_PAUSE_MS = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.MAX_BACK_PRESSURE_PAUSE_MS", 5000);
+
+  private final long initialPauseMs;
+
+  private final long maxPauseMs;
+
+  private final AtomicInteger credit = new AtomicInteger(GatewayAck.NO_CREDIT_LIMIT);
+
+  private long creditPauseMs;
+
+  private long retryPauseMs;
+
+  ReceiverBackPressure(long initialPauseMs) {
+    this(initialPauseMs, MAX_PAUSE_MS);
+  }
+
+  ReceiverBackPressure(long initialPauseMs, long maxPauseMs) {
+    this.initialPauseMs = initialPauseMs;
+    this.maxPauseMs = Math.max(initialPauseMs, maxPauseMs);
+  }
+
+  /**
+   * Records the credit advertised with an acknowledgement.
+   */
+  void creditReceived(int credit) {
+    this.credit.set(credit);
+  }
+
+  /**
+   * Returns how long to pause before dispatching a batch of the given number of events, or 0 if
+   * the receiver has credit for it. The batch is dispatched after the pause even if no new credit
+   * has arrived, since the receiver only advertises credit when acknowledging a batch.
+   */
+  long getPauseBeforeDispatch(int numberOfEvents) {
+    int credit = this.credit.get();
+    if (credit == GatewayAck.NO_CREDIT_LIMIT || numberOfEvents <= credit) {
+      creditPauseMs = 0;
+    } else {
+      creditPauseMs = nextPause(creditPauseMs);
+    }
+    return creditPauseMs;
+  }
+
+  /**
+   * Returns how long to pause before retrying a batch that could not be dispatched.
+   */
+  long getPauseBeforeRetry() {
+    retryPauseMs = nextPause(retryPauseMs);
+    return retryPauseMs;
+  }
+
+  /**
+   * Records that a batch of the given number of events was dispatched, and takes them off the
+   * credit.
+   */
+  void batchDispatched(int numberOfEvents) {
+    retryPauseMs = 0;
+    credit.updateAndGet(current -> current == GatewayAck.NO_CREDIT_LIMIT ? current
+        : Math.max(0, current - numberOfEvents));
+  }
+
+  private long nextPause(long pauseMs) {
+    return pauseMs == 0 ? initialPauseMs : Math.min(pauseMs * 2, maxPauseMs);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.internal.cache.wan.GatewaySenderStats;
+import org.apache.geode.internal.serialization.Version;
+
+public class GatewaySenderBatchOpTest {
+
+  private Connection connection;
+  private ExecutablePool pool;
+  private GatewaySenderStats statistics;
+
+  @Before
+  public void setUp() {
+    connection = mock(Connection.class);
+    when(connection.getWanSiteVersion()).thenReturn(Version.CURRENT_ORDINAL);
+    pool = mock(ExecutablePool.class);
+    statistics = mock(GatewaySenderStats.class);
+  }
+
+  @Test
+  public void batchBytesAreCountedOnceTheBatchIsSent() {
+    GatewaySenderBatchOp.executeOn(connection, pool, Collections.emptyList(), 1, false, false,
+        statistics);
+
+    verify(statistics, times(1)).incBatchBytes(0, 0);
+  }
+
+  @Test
+  public void batchBytesAreNotCountedAgainForAResentBatch() {
+    GatewaySenderBatchOp.executeOn(connection, pool, Collections.emptyList(), 1, false, true,
+        statistics);
+
+    verify(statistics, never()).incBatchBytes(anyLong(), anyLong());
+  }
+
+  @Test
+  public void batchBytesAreNotCountedWhenTheBatchIsNotSent() {
+    when(pool.executeOn(any(Connection.class), any(Op.class), anyBoolean()))
+        .thenThrow(new ServerConnectivityException("not sent"));
+
+    assertThatThrownBy(() -> GatewaySenderBatchOp.executeOn(connection, pool,
+        Collections.emptyList(), 1, false, false, statistics))
+            .isInstanceOf(ServerConnectivityException.class);
+
+    verify(statistics, never()).incBatchBytes(anyLong(), anyLong());
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.wan.GatewaySenderEventRemoteDispatcher.GatewayAck;
+
+public class ReceiverBackPressureTest {
+
+  private final ReceiverBackPressure backPressure = new ReceiverBackPressure(100, 500);
+
+  @Test
+  public void noPauseWithoutAdvertisedCredit() {
+    backPressure.creditReceived(GatewayAck.NO_CREDIT_LIMIT);
+
+    assertThat(backPressure.getPauseBeforeDispatch(1000)).isZero();
+  }
+
+  @Test
+  public void noPauseForBatchWithinCredit() {
+    backPressure.creditReceived(100);
+
+    assertThat(backPressure.getPauseBeforeDispatch(100)).isZero();
+  }
+
+  @Test
+  public void pauseDoublesWhileReceiverIsShortOfCredit() {
+    backPressure.creditReceived(10);
+
+    assertThat(backPressure.getPauseBeforeDispatch(100)).isEqualTo(100);
+    assertThat(backPressure.getPauseBeforeDispatch(100)).isEqualTo(200);
+    assertThat(backPressure.getPauseBeforeDispatch(100)).isEqualTo(400);
+    assertThat(backPressure.getPauseBeforeDispatch(100)).isEqualTo(500);
+  }
+
+  @Test
+  public void pauseIsResetOnceCreditIsAvailable() {
+    backPressure.creditReceived(0);
+    backPressure.getPauseBeforeDispatch(100);
+    backPressure.getPauseBeforeDispatch(100);
+
+    backPressure.creditReceived(100);
+    assertThat(backPressure.getPauseBeforeDispatch(100)).isZero();
+
+    backPressure.creditReceived(0);
+    assertThat(backPressure.getPauseBeforeDispatch(100)).isEqualTo(100);
+  }
+
+  @Test
+  public void dispatchedBatchesAreTakenOffCredit() {
+    backPressure.creditReceived(150);
+
+    assertThat(backPressure.getPauseBeforeDispatch(100)).isZero();
+    backPressure.batchDispatched(100);
+
+    assertThat(backPressure.getPauseBeforeDispatch(100)).isEqualTo(100);
+    backPressure.batchDispatched(100);
+
+    backPressure.creditReceived(100);
+    assertThat(backPressure.getPauseBeforeDispatch(100)).isZero();
+  }
+
+  @Test
+  public void dispatchedBatchesDoNotLimitSenderWithoutAdvertisedCredit() {
+    backPressure.creditReceived(GatewayAck.NO_CREDIT_LIMIT);
+    backPressure.batchDispatched(1000);
+
+    assertThat(backPressure.getPauseBeforeDispatch(1000)).isZero();
+  }
+
+  @Test
+  public void retryPauseIsResetOnceBatchIsDispatched() {
+    assertThat(backPressure.getPauseBeforeRetry()).isEqualTo(100);
+    assertThat(backPressure.getPauseBeforeRetry()).isEqualTo(200);
+
+    backPressure.batchDispatched(100);
+
+    assertThat(backPressure.getPauseBeforeRetry()).isEqualTo(100);
+  }
+}